@@ -0,0 +1,96 @@
+package com.ae2dms.bench;
+
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameGrid;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+
+/**
+ * InvariantChecker compares the current level of a {@link GameEngine} with the level it was loaded from and
+ * reports the first rule that the game mechanics should never break.
+ *
+ * @version 2.0
+ */
+final class InvariantChecker {
+
+    private InvariantChecker() {
+    }
+
+    /**
+     * Checks the current state of the engine.
+     *
+     * @param engine the engine to be checked
+     * @param moved  {@code true} if the last operation moved the keeper
+     * @return a description of the broken invariant, or {@code null} if the state is consistent
+     */
+    static String check(GameEngine engine, boolean moved) {
+        Level level = engine.getCurrentLevel();
+        if (engine.isGameComplete()) {
+            return level == null ? null : "the game is complete but level " + level.getIndex() + " is still loaded";
+        }
+        if (level == null) {
+            return "the game is not complete but there is no current level";
+        }
+
+        Level original = engine.getLevels().get(level.getIndex() - 1);
+        if (level.levelRow != original.levelRow || level.levelColumn != original.levelColumn) {
+            return String.format("the level is %dx%d instead of %dx%d", level.levelRow, level.levelColumn,
+                    original.levelRow, original.levelColumn);
+        }
+
+        GameGrid objects = level.objectsGrid;
+        GameGrid originalObjects = original.objectsGrid;
+        int keepers = 0;
+        int crates = 0;
+        int originalCrates = 0;
+        int diamonds = 0;
+        int cratedDiamonds = 0;
+        for (int row = 0; row < level.levelRow; row++) {
+            for (int col = 0; col < level.levelColumn; col++) {
+                GameObject object = objects.getGameObjectAt(row, col);
+                GameObject originalObject = originalObjects.getGameObjectAt(row, col);
+                if ((object == GameObject.WALL) != (originalObject == GameObject.WALL)) {
+                    return String.format("the wall at [%d:%d] has changed into %s", row, col, object);
+                }
+                GameObject diamond = level.diamondsGrid.getGameObjectAt(row, col);
+                if (diamond != original.diamondsGrid.getGameObjectAt(row, col)) {
+                    return String.format("the diamonds grid has changed at [%d:%d]", row, col);
+                }
+                if (object == GameObject.KEEPER) {
+                    keepers++;
+                } else if (object == GameObject.CRATE) {
+                    crates++;
+                    if (diamond == GameObject.DIAMOND) {
+                        cratedDiamonds++;
+                    }
+                }
+                if (originalObject == GameObject.CRATE) {
+                    originalCrates++;
+                }
+                if (diamond == GameObject.DIAMOND) {
+                    diamonds++;
+                }
+            }
+        }
+
+        if (keepers != 1) {
+            return "found " + keepers + " keepers";
+        }
+        if (objects.getGameObjectAt(level.getKeeperRow(), level.getKeeperColumn()) != GameObject.KEEPER) {
+            return String.format("the keeper position [%d:%d] does not hold the keeper",
+                    level.getKeeperRow(), level.getKeeperColumn());
+        }
+        if (crates != originalCrates) {
+            return "found " + crates + " crates instead of " + originalCrates;
+        }
+        boolean complete = cratedDiamonds >= diamonds;
+        if (level.isComplete() != complete) {
+            return "isComplete() returned " + level.isComplete() + " but " + cratedDiamonds + " of " + diamonds
+                    + " diamonds are covered";
+        }
+        if (moved && complete && diamonds > 0) {
+            return "the level is complete but the engine did not advance to the next one";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.ae2dms.bench;
+
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
+
+/**
+ * Measures the whole-level operations that run on every move or every frame: cloning, the completion
+ * scan and the cell by cell traversal.
+ *
+ * @version 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LevelBenchmark {
+    /** The number of rows and columns of the level */
+    @Param({"16", "64", "256"})
+    public int size;
+
+    private Level level;
+
+    /**
+     * Loads an open room of the requested size.
+     */
+    @Setup
+    public void setUp() {
+        level = new GameEngine(new ByteArrayInputStream(PackFixtures.openRoom(size)), false).getCurrentLevel();
+    }
+
+    /**
+     * Clones the level, as {@link GameEngine} does when a level is started or reset.
+     *
+     * @return the clone
+     */
+    @Benchmark
+    public Level cloneLevel() {
+        return level.clone();
+    }
+
+    /**
+     * Shares the rows of the level, as {@link GameEngine#move} does before every move.
+     *
+     * @return the copy
+     */
+    @Benchmark
+    public Level shareLevel() {
+        return level.share();
+    }
+
+    /**
+     * Copies the object grid alone.
+     *
+     * @return the copied cells
+     */
+    @Benchmark
+    public GameObject[][] cloneGameObjects() {
+        return level.objectsGrid.cloneGameObjects();
+    }
+
+    /**
+     * Scans the level for crates standing on diamonds.
+     *
+     * @return {@code true} if the level is complete
+     */
+    @Benchmark
+    public boolean isComplete() {
+        return level.isComplete();
+    }
+
+    /**
+     * Visits every cell through the level iterator, as the renderers do.
+     *
+     * @param blackhole consumes every visited object
+     */
+    @Benchmark
+    public void iterate(Blackhole blackhole) {
+        for (GameObject object : level) {
+            blackhole.consume(object);
+        }
+    }
+
+    /**
+     * Visits every cell through the allocation free visitor.
+     *
+     * @param blackhole consumes every visited object
+     */
+    @Benchmark
+    public void forEachCell(Blackhole blackhole) {
+        level.forEachCell((row, column, object) -> blackhole.consume(object));
+    }
+
+    /**
+     * Counts the crates standing on diamonds with a parallel stream split by rows.
+     *
+     * @return the number of crates on diamonds
+     */
+    @Benchmark
+    public long parallelScan() {
+        return StreamSupport.stream(level.spliterator(), true)
+                .filter(object -> object == GameObject.CRATE_ON_DIAMOND)
+                .count();
+    }
+}
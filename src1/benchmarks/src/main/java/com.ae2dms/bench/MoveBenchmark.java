@@ -0,0 +1,80 @@
+package com.ae2dms.bench;
+
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link GameEngine#move(Direction)} on levels of growing size, once for plain walking and once
+ * for moves that push a crate.
+ *
+ * @version 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MoveBenchmark {
+    /** The number of rows and columns of the room, and the length of the corridor */
+    @Param({"16", "64", "256"})
+    public int size;
+
+    private GameEngine walkEngine;
+    private GameEngine pushEngine;
+    private boolean walkRight;
+    private int pushesSinceReset;
+
+    /**
+     * Loads the room used for walking and the corridor used for pushing.
+     */
+    @Setup
+    public void setUp() {
+        walkEngine = new GameEngine(new ByteArrayInputStream(PackFixtures.openRoom(size)), false);
+        pushEngine = new GameEngine(new ByteArrayInputStream(PackFixtures.corridor(size)), false);
+        walkRight = true;
+        pushesSinceReset = 0;
+    }
+
+    /**
+     * Walks the keeper right and left over the same two floor cells.
+     *
+     * @return the number of moves, so the call is not optimised away
+     */
+    @Benchmark
+    public int walk() {
+        walkEngine.move(walkRight ? Direction.RIGHT : Direction.LEFT);
+        walkRight = !walkRight;
+        return walkEngine.movesCount;
+    }
+
+    /**
+     * Pushes the crate one cell to the right, resetting the level when it reaches the end of the corridor.
+     *
+     * @return the number of pushes, so the call is not optimised away
+     */
+    @Benchmark
+    public int push() {
+        if (pushesSinceReset == size - 4) {
+            pushEngine.resetCurrentLevel();
+            pushesSinceReset = 0;
+        }
+        pushEngine.move(Direction.RIGHT);
+        pushesSinceReset++;
+        return pushEngine.getPushesCount();
+    }
+}
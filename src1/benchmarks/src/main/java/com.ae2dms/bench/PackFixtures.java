@@ -0,0 +1,123 @@
+package com.ae2dms.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * PackFixtures builds the skb level packs used by the benchmarks, so that every run measures the same input.
+ *
+ * @version 2.0
+ */
+final class PackFixtures {
+    /** Classpath location of the pack shipped with the game */
+    static final String SAMPLE_PACK = "/level/SampleGame.skb";
+
+    private PackFixtures() {
+    }
+
+    /**
+     * Returns the bytes of the pack shipped with the game.
+     *
+     * @return the content of {@link #SAMPLE_PACK}
+     */
+    static byte[] samplePack() {
+        try (InputStream in = PackFixtures.class.getResourceAsStream(SAMPLE_PACK)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing resource " + SAMPLE_PACK);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            in.transferTo(out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a pack made of {@code levelCount} open rooms of {@code size} x {@code size} cells.
+     *
+     * @param levelCount the number of levels in the pack
+     * @param size       the number of rows and columns of every level
+     * @return the pack encoded as skb
+     */
+    static byte[] generatedPack(int levelCount, int size) {
+        StringBuilder sb = new StringBuilder(levelCount * size * (size + 1) + 32);
+        sb.append("MapSetName: Generated\n");
+        for (int i = 1; i <= levelCount; i++) {
+            sb.append("LevelName: Room ").append(i).append('\n');
+            appendOpenRoom(sb, size);
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a single level pack where the keeper stands in the top left corner of an open room.
+     * The room holds one crate and one diamond that the keeper never reaches, so walking never completes it.
+     *
+     * @param size the number of rows and columns of the room, at least 6
+     * @return the pack encoded as skb
+     */
+    static byte[] openRoom(int size) {
+        StringBuilder sb = new StringBuilder(size * (size + 1) + 64);
+        sb.append("MapSetName: Open room\nLevelName: Open room\n");
+        appendOpenRoom(sb, size);
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns a single level pack with the keeper at the left end of a corridor, a crate right in front of it
+     * and a diamond walled off below, so that every move to the right pushes the crate.
+     *
+     * @param length the number of columns of the corridor, at least 6
+     * @return the pack encoded as skb
+     */
+    static byte[] corridor(int length) {
+        StringBuilder sb = new StringBuilder(4 * (length + 1) + 64);
+        sb.append("MapSetName: Corridor\nLevelName: Corridor\n");
+        appendRow(sb, length, 'W', 'W');
+        sb.append("WSC");
+        appendRun(sb, ' ', length - 4);
+        sb.append("W\n");
+        sb.append("WD");
+        appendRun(sb, 'W', length - 2);
+        sb.append('\n');
+        appendRow(sb, length, 'W', 'W');
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendOpenRoom(StringBuilder sb, int size) {
+        int middle = size / 2;
+        appendRow(sb, size, 'W', 'W');
+        for (int row = 1; row < size - 1; row++) {
+            sb.append('W');
+            for (int col = 1; col < size - 1; col++) {
+                char c = ' ';
+                if (row == 1 && col == 1) {
+                    c = 'S';
+                } else if (row == middle && col == middle) {
+                    c = 'C';
+                } else if (row == middle + 1 && col == middle + 1) {
+                    c = 'D';
+                }
+                sb.append(c);
+            }
+            sb.append("W\n");
+        }
+        appendRow(sb, size, 'W', 'W');
+    }
+
+    private static void appendRow(StringBuilder sb, int length, char edge, char fill) {
+        sb.append(edge);
+        appendRun(sb, fill, length - 2);
+        sb.append(edge).append('\n');
+    }
+
+    private static void appendRun(StringBuilder sb, char c, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.ae2dms.bench;
+
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures level pack loading, from the symbol lookup of a single cell to the parsing of a whole pack.
+ *
+ * @version 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmark {
+    /** Every symbol found in skb files, in lower and upper case, plus an unknown one */
+    private static final char[] SYMBOLS = "W CDSO=wcdso?".toCharArray();
+
+    /** {@code sample} is the pack shipped with the game, {@code large} is 1000 levels of 50 x 50 cells */
+    @Param({"sample", "large"})
+    public String pack;
+
+    private byte[] packBytes;
+
+    /**
+     * Builds the pack to be parsed.
+     */
+    @Setup
+    public void setUp() {
+        packBytes = "large".equals(pack) ? PackFixtures.generatedPack(1000, 50) : PackFixtures.samplePack();
+    }
+
+    /**
+     * Looks up every known symbol once.
+     *
+     * @param blackhole consumes every parsed object
+     */
+    @Benchmark
+    public void fromChar(Blackhole blackhole) {
+        for (char c : SYMBOLS) {
+            blackhole.consume(GameObject.fromChar(c));
+        }
+    }
+
+    /**
+     * Creates an engine from the pack, which parses every level in it.
+     *
+     * @return the engine
+     */
+    @Benchmark
+    public GameEngine loadGameFile() {
+        return new GameEngine(new ByteArrayInputStream(packBytes), false);
+    }
+}
@@ -0,0 +1,227 @@
+package com.ae2dms.bench;
+
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * SoakTest drives many independent {@link GameEngine}s through random moves, undos and resets on parallel
+ * threads, checks the {@link InvariantChecker invariants} after every step and reports the throughput
+ * and the allocation per move.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.ae2dms.bench.SoakTest [--pack=file.skb] [--threads=N]
+ * [--steps=N] [--seed=N]}. The exit status is 1 if any invariant was broken.
+ *
+ * @version 2.0
+ */
+public final class SoakTest {
+    /** Percentage of the steps that are moves; the rest are split between undos and resets */
+    private static final int MOVE_PERCENT = 90;
+    /** Percentage of the steps that are undos */
+    private static final int UNDO_PERCENT = 9;
+    /** The number of operations kept to describe how a broken state was reached */
+    private static final int HISTORY_LENGTH = 64;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private SoakTest() {
+    }
+
+    /**
+     * Runs the soak test.
+     *
+     * @param args the options described in the class documentation
+     * @throws IOException          if the pack cannot be read
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ExecutionException   if a worker failed outside the engine
+     */
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        String packPath = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long steps = 1_000_000;
+        long seed = System.nanoTime();
+        for (String arg : args) {
+            if (arg.startsWith("--pack=")) {
+                packPath = arg.substring("--pack=".length());
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else if (arg.startsWith("--steps=")) {
+                steps = Long.parseLong(arg.substring("--steps=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        byte[] pack = packPath == null ? PackFixtures.samplePack() : Files.readAllBytes(Paths.get(packPath));
+        if (THREADS.isThreadAllocatedMemorySupported()) {
+            THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+
+        System.out.printf("Soak test: %d threads x %,d steps on %s, seed %d%n", threads, steps,
+                packPath == null ? PackFixtures.SAMPLE_PACK : packPath, seed);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Worker>> futures = new ArrayList<>(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(new Worker(i, pack, steps, seed + i)::call));
+        }
+        Worker total = new Worker(-1, pack, 0, seed);
+        List<String> violations = new ArrayList<>();
+        for (Future<Worker> future : futures) {
+            Worker worker = future.get();
+            total.add(worker);
+            if (worker.violation != null) {
+                violations.add(worker.violation);
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        System.out.printf("Steps: %,d in %.1f s (%,.0f steps/s)%n", total.steps, seconds, total.steps / seconds);
+        System.out.printf("Moves: %,d (%,d pushes, %,.0f moves/s), undos: %,d, resets: %,d, finished games: %,d%n",
+                total.moves, total.pushes, total.moves / seconds, total.undos, total.resets, total.games);
+        if (total.moves > 0) {
+            System.out.printf("Per move: %.0f ns, %s%n", (double) total.moveNanos / total.moves,
+                    total.moveBytes < 0 ? "allocation not measured"
+                            : String.format("%.0f bytes allocated", (double) total.moveBytes / total.moves));
+        }
+        System.out.println("Invariant violations: " + violations.size());
+        for (String violation : violations) {
+            System.out.println(violation);
+        }
+        if (!violations.isEmpty()) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Returns the bytes allocated so far by the calling thread, or -1 if the JVM cannot tell.
+     */
+    private static long allocatedBytes() {
+        return THREADS.isThreadAllocatedMemorySupported() ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * A Worker plays one game after another on a single thread until it has run its steps
+     * or found a broken invariant.
+     */
+    private static final class Worker {
+        private final int id;
+        private final byte[] pack;
+        private final long maxSteps;
+        private final SplittableRandom random;
+        private final char[] history = new char[HISTORY_LENGTH];
+
+        private long steps;
+        private long moves;
+        private long pushes;
+        private long undos;
+        private long resets;
+        private long games;
+        private long moveNanos;
+        private long moveBytes;
+        private String violation;
+
+        Worker(int id, byte[] pack, long maxSteps, long seed) {
+            this.id = id;
+            this.pack = pack;
+            this.maxSteps = maxSteps;
+            this.random = new SplittableRandom(seed);
+        }
+
+        Worker call() {
+            GameEngine engine = newEngine();
+            while (steps < maxSteps && violation == null) {
+                if (engine.isGameComplete()) {
+                    pushes += engine.getPushesCount();
+                    games++;
+                    engine = newEngine();
+                }
+                int operation = random.nextInt(100);
+                boolean moved = false;
+                try {
+                    if (operation < MOVE_PERCENT) {
+                        Direction direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                        remember(direction.symbol);
+                        long bytesBefore = allocatedBytes();
+                        long before = System.nanoTime();
+                        engine.move(direction);
+                        moveNanos += System.nanoTime() - before;
+                        moveBytes += allocatedBytes() - bytesBefore;
+                        moved = engine.isKeeperMoved();
+                        moves++;
+                    } else if (operation < MOVE_PERCENT + UNDO_PERCENT) {
+                        remember('z');
+                        engine.undo();
+                        undos++;
+                    } else {
+                        remember('x');
+                        engine.resetCurrentLevel();
+                        resets++;
+                    }
+                    String broken = InvariantChecker.check(engine, moved);
+                    if (broken != null) {
+                        fail(engine, broken);
+                    }
+                } catch (RuntimeException | AssertionError e) {
+                    fail(engine, e.toString());
+                }
+                steps++;
+            }
+            pushes += engine.getPushesCount();
+            if (allocatedBytes() < 0) {
+                moveBytes = -1;
+            }
+            return this;
+        }
+
+        private GameEngine newEngine() {
+            return new GameEngine(new ByteArrayInputStream(pack), false);
+        }
+
+        private void remember(char operation) {
+            history[(int) (steps % HISTORY_LENGTH)] = operation;
+        }
+
+        private void fail(GameEngine engine, String broken) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Thread ").append(id).append(", step ").append(steps).append(": ").append(broken);
+            sb.append("\n  last operations (u/r/d/l = move, z = undo, x = reset): ");
+            for (long i = Math.max(0, steps - HISTORY_LENGTH + 1); i <= steps; i++) {
+                sb.append(history[(int) (i % HISTORY_LENGTH)]);
+            }
+            if (engine.getCurrentLevel() != null) {
+                sb.append("\n").append(engine.getCurrentLevel());
+            }
+            violation = sb.toString();
+        }
+
+        private void add(Worker other) {
+            steps += other.steps;
+            moves += other.moves;
+            pushes += other.pushes;
+            undos += other.undos;
+            resets += other.resets;
+            games += other.games;
+            moveNanos += other.moveNanos;
+            moveBytes = moveBytes < 0 || other.moveBytes < 0 ? -1 : moveBytes + other.moveBytes;
+        }
+    }
+}
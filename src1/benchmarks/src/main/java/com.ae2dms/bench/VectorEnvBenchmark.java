@@ -0,0 +1,70 @@
+package com.ae2dms.bench;
+
+import com.ae2dms.rl.VectorEnv;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link VectorEnv#step(int[])} on the sample pack for growing numbers of games. Divide the time by
+ * the number of games for the cost of one game step.
+ *
+ * @version 2.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class VectorEnvBenchmark {
+    /** The number of sets of random actions cycled through */
+    private static final int ACTION_SETS = 64;
+
+    /** The number of games stepped together */
+    @Param({"1", "64", "1024"})
+    public int games;
+
+    private VectorEnv env;
+    private int[][] actions;
+    private int next;
+
+    /**
+     * Creates the environment and draws the actions in advance, so that only the step is measured.
+     */
+    @Setup
+    public void setUp() {
+        env = VectorEnv.fromPack(new ByteArrayInputStream(PackFixtures.samplePack()), games, 200, 42);
+        SplittableRandom random = new SplittableRandom(42);
+        actions = new int[ACTION_SETS][games];
+        for (int[] set : actions) {
+            for (int i = 0; i < games; i++) {
+                set[i] = random.nextInt(4);
+            }
+        }
+    }
+
+    /**
+     * Steps every game once.
+     *
+     * @return the observations, so the step is not optimised away
+     */
+    @Benchmark
+    public float[] step() {
+        env.step(actions[next]);
+        next = (next + 1) % ACTION_SETS;
+        return env.getObservations();
+    }
+}
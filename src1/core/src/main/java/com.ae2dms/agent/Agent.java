@@ -0,0 +1,41 @@
+package com.ae2dms.agent;
+
+import com.ae2dms.model.Direction;
+
+/**
+ * An Agent plays Sokoban levels without the user interface, e.g. a hint strategy or a bot in a
+ * {@link TournamentRunner}.
+ * <p>
+ * An agent plays one level at a time: {@link #startLevel} is called when a level begins, then
+ * {@link #nextMove} until the level is solved, the agent gives up or a limit is reached. Tournaments create
+ * one agent per game, so implementations do not need to be thread safe.
+ *
+ * @version 2.0
+ */
+public interface Agent {
+
+    /**
+     * Returns the name of the agent, as shown in the results.
+     *
+     * @return the name
+     */
+    default String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * Called when a level begins, e.g. to plan a solution.
+     *
+     * @param level the level, which follows the moves of the keeper
+     */
+    default void startLevel(LevelView level) {
+    }
+
+    /**
+     * Returns the next move of the keeper.
+     *
+     * @param level the level in its current state
+     * @return the direction of the move, {@code null} to give up the level
+     */
+    Direction nextMove(LevelView level);
+}
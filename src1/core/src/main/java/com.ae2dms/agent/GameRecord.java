@@ -0,0 +1,63 @@
+package com.ae2dms.agent;
+
+/**
+ * The result of one agent playing one level in a {@link TournamentRunner}.
+ *
+ * @version 2.0
+ */
+public final class GameRecord {
+
+    /**
+     * How a game ended.
+     */
+    public enum Outcome {
+        /** The level was solved */
+        SOLVED,
+        /** The agent returned no move */
+        GAVE_UP,
+        /** The agent made the maximum number of moves without solving the level */
+        MOVE_LIMIT,
+        /** A move or the whole level took longer than allowed */
+        TIMEOUT,
+        /** The agent threw an exception */
+        ERROR
+    }
+
+    public final String agent;
+
+    /** The index of the level in its pack, starting from 1 */
+    public final int levelIndex;
+
+    public final Outcome outcome;
+
+    /** The number of moves the keeper made */
+    public final int moves;
+
+    public final int pushes;
+
+    /** The number of times the agent was asked for a move, including the moves blocked by a wall */
+    public final int decisions;
+
+    /** The time spent in the agent, in nanoseconds */
+    public final long agentNanos;
+
+    /** The longest time the agent took to return a move, in nanoseconds */
+    public final long maxMoveNanos;
+
+    GameRecord(String agent, int levelIndex, Outcome outcome, int moves, int pushes, int decisions, long agentNanos,
+               long maxMoveNanos) {
+        this.agent = agent;
+        this.levelIndex = levelIndex;
+        this.outcome = outcome;
+        this.moves = moves;
+        this.pushes = pushes;
+        this.decisions = decisions;
+        this.agentNanos = agentNanos;
+        this.maxMoveNanos = maxMoveNanos;
+    }
+
+    @Override
+    public String toString() {
+        return agent + " level " + levelIndex + ": " + outcome + " in " + moves + " moves";
+    }
+}
@@ -0,0 +1,98 @@
+package com.ae2dms.agent;
+
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+
+/**
+ * LevelView gives an {@link Agent} read access to the level being played, without the grids and methods that
+ * would let it move objects. It follows the level: after each move it shows the new positions.
+ *
+ * @version 2.0
+ */
+public final class LevelView {
+
+    private final Level level;
+
+    /**
+     * Creates a view of a level.
+     *
+     * @param level the level, still modified by its engine
+     */
+    public LevelView(Level level) {
+        this.level = level;
+    }
+
+    public String getName() {
+        return level.getName();
+    }
+
+    /**
+     * Returns the index of the level in its pack.
+     *
+     * @return the index, starting from 1
+     */
+    public int getIndex() {
+        return level.getIndex();
+    }
+
+    public int getRows() {
+        return level.levelRow;
+    }
+
+    public int getColumns() {
+        return level.levelColumn;
+    }
+
+    public int getKeeperRow() {
+        return level.getKeeperRow();
+    }
+
+    public int getKeeperColumn() {
+        return level.getKeeperColumn();
+    }
+
+    /**
+     * Returns the object displayed at a cell, e.g. {@link GameObject#CRATE_ON_DIAMOND} for a crate standing on
+     * a diamond.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the object, {@link GameObject#WALL} outside the level
+     */
+    public GameObject getObjectAt(int row, int column) {
+        if (row < 0 || row >= level.levelRow || column < 0 || column >= level.levelColumn) {
+            return GameObject.WALL;
+        }
+        GameObject object = level.getDisplayedObjectAt(row, column);
+        return object == null ? GameObject.WALL : object;
+    }
+
+    /**
+     * Returns {@code true} if there is a diamond at a cell, even under the keeper or a crate.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return {@code true} if the cell holds a diamond
+     */
+    public boolean isDiamond(int row, int column) {
+        return row >= 0 && row < level.levelRow && column >= 0 && column < level.levelColumn
+                && level.diamondsGrid.getGameObjectAt(row, column) == GameObject.DIAMOND;
+    }
+
+    /**
+     * Returns the level as text, one line per row, with the symbols of the displayed objects.
+     *
+     * @return the level
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(getRows() * (getColumns() + 1));
+        for (int row = 0; row < getRows(); row++) {
+            for (int column = 0; column < getColumns(); column++) {
+                text.append(getObjectAt(row, column).symbol);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ae2dms.agent;
+
+import com.ae2dms.model.Direction;
+
+import java.util.SplittableRandom;
+
+/**
+ * RandomAgent moves in random directions. It is the baseline other agents are compared with.
+ *
+ * @version 2.0
+ */
+public class RandomAgent implements Agent {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final SplittableRandom random;
+
+    public RandomAgent() {
+        this(System.nanoTime());
+    }
+
+    /**
+     * Creates an agent making the same moves on every run.
+     *
+     * @param seed the seed of the moves
+     */
+    public RandomAgent(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public Direction nextMove(LevelView level) {
+        return DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+    }
+}
@@ -0,0 +1,157 @@
+package com.ae2dms.agent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The games played in a {@link TournamentRunner}, with a summary per agent.
+ *
+ * @version 2.0
+ */
+public final class TournamentResult {
+
+    private final List<GameRecord> games;
+
+    private final long wallNanos;
+
+    TournamentResult(List<GameRecord> games, long wallNanos) {
+        this.games = Collections.unmodifiableList(games);
+        this.wallNanos = wallNanos;
+    }
+
+    /**
+     * Returns every game, grouped by agent in the order they were added, then by level.
+     *
+     * @return the games
+     */
+    public List<GameRecord> getGames() {
+        return games;
+    }
+
+    /**
+     * Returns the time the whole tournament took.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Returns the summary of each agent, the highest success rate first, then the fewest moves.
+     *
+     * @return the standings
+     */
+    public List<Standing> getStandings() {
+        Map<String, Standing> standings = new LinkedHashMap<>();
+        for (GameRecord game : games) {
+            standings.computeIfAbsent(game.agent, Standing::new).add(game);
+        }
+        List<Standing> sorted = new ArrayList<>(standings.values());
+        sorted.sort(Comparator.comparingDouble(Standing::getSuccessRate).reversed()
+                .thenComparingDouble(Standing::getMeanMoves));
+        return sorted;
+    }
+
+    /**
+     * Returns the standings as a text table.
+     *
+     * @return the table, one line per agent under a header
+     */
+    public String toTable() {
+        StringBuilder table = new StringBuilder();
+        table.append(String.format("%-24s %6s %6s %8s %10s %12s %12s %8s %6s%n", "Agent", "Games", "Solved",
+                "Success", "Mean moves", "Mean ms", "Max move ms", "Timeouts", "Errors"));
+        for (Standing standing : getStandings()) {
+            table.append(String.format("%-24s %6d %6d %7.1f%% %10.1f %12.2f %12.2f %8d %6d%n", standing.agent,
+                    standing.games, standing.solved, standing.getSuccessRate() * 100, standing.getMeanMoves(),
+                    standing.getMeanMillis(), standing.maxMoveNanos / 1e6, standing.timeouts, standing.errors));
+        }
+        return table.toString();
+    }
+
+    /**
+     * The summary of the games of one agent.
+     */
+    public static final class Standing {
+        public final String agent;
+        private int games;
+        private int solved;
+        private long solvedMoves;
+        private long agentNanos;
+        private long maxMoveNanos;
+        private int timeouts;
+        private int errors;
+
+        private Standing(String agent) {
+            this.agent = agent;
+        }
+
+        private void add(GameRecord game) {
+            games++;
+            agentNanos += game.agentNanos;
+            maxMoveNanos = Math.max(maxMoveNanos, game.maxMoveNanos);
+            switch (game.outcome) {
+                case SOLVED:
+                    solved++;
+                    solvedMoves += game.moves;
+                    break;
+                case TIMEOUT:
+                    timeouts++;
+                    break;
+                case ERROR:
+                    errors++;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        public int getGames() {
+            return games;
+        }
+
+        public int getSolved() {
+            return solved;
+        }
+
+        /**
+         * Returns the share of the levels solved.
+         *
+         * @return the success rate, between 0 and 1
+         */
+        public double getSuccessRate() {
+            return games == 0 ? 0 : (double) solved / games;
+        }
+
+        /**
+         * Returns the mean number of moves of the solved levels.
+         *
+         * @return the mean, infinite if no level was solved
+         */
+        public double getMeanMoves() {
+            return solved == 0 ? Double.POSITIVE_INFINITY : (double) solvedMoves / solved;
+        }
+
+        /**
+         * Returns the mean time spent in the agent per level.
+         *
+         * @return the mean in milliseconds
+         */
+        public double getMeanMillis() {
+            return games == 0 ? 0 : agentNanos / 1e6 / games;
+        }
+
+        public int getTimeouts() {
+            return timeouts;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.ae2dms.agent;
+
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.Level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * TournamentRunner plays agents across all the levels of a pack without the user interface, in parallel,
+ * and collects the results of every game into a {@link TournamentResult}.
+ * <p>
+ * Every game runs on its own {@link GameEngine} sharing the parsed levels, with a new agent from the factory
+ * of its entrant. A game ends when the level is solved, when the agent gives up, after the maximum number of
+ * moves, or when a move or the whole level takes longer than its limit. Agents are called on a thread of
+ * their own game, which the game waits for no longer than the limit. A move that never returns cannot be
+ * stopped, so its thread is abandoned, but the game is recorded as timed out and the tournament goes on with
+ * all its threads.
+ * <p>
+ * Usage: {@code java -cp core.jar com.ae2dms.agent.TournamentRunner --pack=file.skb --agent=class.Name...
+ * [--threads=N] [--max-moves=N] [--move-ms=N] [--level-ms=N]}; each agent class needs a public no argument
+ * constructor.
+ *
+ * @version 2.0
+ */
+public class TournamentRunner {
+
+    private final String mapSetName;
+
+    private final List<Level> levels;
+
+    private final Map<String, Supplier<Agent>> entrants = new LinkedHashMap<>();
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private int maxMoves = 10_000;
+
+    private long moveLimitNanos = TimeUnit.SECONDS.toNanos(1);
+
+    private long levelLimitNanos = TimeUnit.MINUTES.toNanos(1);
+
+    private final AtomicInteger agentThreadNumber = new AtomicInteger();
+
+    private final ThreadFactory agentThreads = runnable -> {
+        Thread thread = new Thread(runnable, "tournament-agent-" + agentThreadNumber.incrementAndGet());
+        // A move that never returns must not keep the JVM alive
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    /**
+     * Creates a tournament on the levels of a pack.
+     *
+     * @param mapSetName the name of the pack
+     * @param levels     the levels, which are not modified
+     */
+    public TournamentRunner(String mapSetName, List<Level> levels) {
+        this.mapSetName = mapSetName;
+        this.levels = levels;
+    }
+
+    /**
+     * Creates a tournament on the levels of a pack file.
+     *
+     * @param input the pack, in skb format
+     * @return the tournament
+     */
+    public static TournamentRunner fromPack(InputStream input) {
+        GameEngine engine = new GameEngine(input, GameLogger.get(false));
+        return new TournamentRunner(engine.mapSetName, engine.getLevels());
+    }
+
+    /**
+     * Runs a tournament and prints the standings.
+     *
+     * @param args the options described in the class documentation
+     * @throws IOException                  if the pack cannot be read
+     * @throws ReflectiveOperationException if an agent class cannot be instantiated
+     * @throws InterruptedException         if interrupted while waiting for the games
+     */
+    public static void main(String[] args) throws IOException, ReflectiveOperationException, InterruptedException {
+        String packPath = null;
+        List<String> agents = new ArrayList<>();
+        List<String> options = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--pack=")) {
+                packPath = arg.substring("--pack=".length());
+            } else if (arg.startsWith("--agent=")) {
+                agents.add(arg.substring("--agent=".length()));
+            } else {
+                options.add(arg);
+            }
+        }
+        if (packPath == null || agents.isEmpty()) {
+            throw new IllegalArgumentException("Usage: TournamentRunner --pack=file.skb --agent=class.Name...");
+        }
+        TournamentRunner runner;
+        try (InputStream input = Files.newInputStream(Paths.get(packPath))) {
+            runner = fromPack(input);
+        }
+        for (String option : options) {
+            if (option.startsWith("--threads=")) {
+                runner.setThreads(Integer.parseInt(option.substring("--threads=".length())));
+            } else if (option.startsWith("--max-moves=")) {
+                runner.setMaxMoves(Integer.parseInt(option.substring("--max-moves=".length())));
+            } else if (option.startsWith("--move-ms=")) {
+                runner.setMoveTimeLimit(Duration.ofMillis(Long.parseLong(option.substring("--move-ms=".length()))));
+            } else if (option.startsWith("--level-ms=")) {
+                runner.setLevelTimeLimit(Duration.ofMillis(Long.parseLong(option.substring("--level-ms=".length()))));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + option);
+            }
+        }
+        for (String agent : agents) {
+            Class<? extends Agent> type = Class.forName(agent).asSubclass(Agent.class);
+            runner.addAgent(type.getSimpleName(), () -> {
+                try {
+                    return type.getConstructor().newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Cannot create " + agent, e);
+                }
+            });
+        }
+
+        TournamentResult result = runner.run();
+        System.out.printf("%s: %d levels, %d games in %.1f s%n", runner.mapSetName, runner.levels.size(),
+                result.getGames().size(), result.getWallNanos() / 1e9);
+        System.out.print(result.toTable());
+    }
+
+    /**
+     * Adds an entrant, which will play every level.
+     *
+     * @param name    the name shown in the results, unique in the tournament
+     * @param factory creates a new agent for each game
+     */
+    public void addAgent(String name, Supplier<? extends Agent> factory) {
+        if (entrants.putIfAbsent(name, factory::get) != null) {
+            throw new IllegalArgumentException("There is already an agent named " + name);
+        }
+    }
+
+    /**
+     * Sets the number of games played at the same time, by default the number of processors.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the number of moves after which an unsolved level is lost, by default 10 000.
+     *
+     * @param maxMoves the maximum number of moves per level
+     */
+    public void setMaxMoves(int maxMoves) {
+        this.maxMoves = maxMoves;
+    }
+
+    /**
+     * Sets the time an agent may take to return a move, by default a second.
+     *
+     * @param limit the limit per move
+     */
+    public void setMoveTimeLimit(Duration limit) {
+        moveLimitNanos = limit.toNanos();
+    }
+
+    /**
+     * Sets the time an agent may take to play a whole level, planning included, by default a minute.
+     *
+     * @param limit the limit per level
+     */
+    public void setLevelTimeLimit(Duration limit) {
+        levelLimitNanos = limit.toNanos();
+    }
+
+    /**
+     * Plays every level with every agent.
+     *
+     * @return the results
+     * @throws InterruptedException if interrupted while waiting for the games
+     */
+    public TournamentResult run() throws InterruptedException {
+        List<String> names = new ArrayList<>(entrants.keySet());
+        int gameCount = names.size() * levels.size();
+        AtomicLongArray startTimes = new AtomicLongArray(gameCount);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "tournament-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        List<Future<GameRecord>> futures = new ArrayList<>(gameCount);
+        for (int game = 0; game < gameCount; game++) {
+            String name = names.get(game / levels.size());
+            int levelIndex = game % levels.size() + 1;
+            int slot = game;
+            futures.add(executor.submit(() -> {
+                startTimes.set(slot, System.nanoTime());
+                return play(name, entrants.get(name).get(), levelIndex);
+            }));
+        }
+        executor.shutdown();
+
+        List<GameRecord> games = new ArrayList<>(gameCount);
+        for (int game = 0; game < gameCount; game++) {
+            String name = names.get(game / levels.size());
+            int levelIndex = game % levels.size() + 1;
+            games.add(await(futures.get(game), startTimes, game, name, levelIndex));
+        }
+        return new TournamentResult(games, System.nanoTime() - start);
+    }
+
+    /**
+     * Waits for a game, giving up on it once it has run for longer than the level limit. Agents never hold the
+     * threads of the games, so a game waiting for a thread always starts.
+     */
+    private GameRecord await(Future<GameRecord> future, AtomicLongArray startTimes, int game, String name,
+                             int levelIndex) throws InterruptedException {
+        while (true) {
+            long started = startTimes.get(game);
+            long wait = started == 0 ? TimeUnit.MILLISECONDS.toNanos(100)
+                    : started + levelLimitNanos + moveLimitNanos - System.nanoTime();
+            try {
+                return future.get(Math.max(0, wait), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (started != 0) {
+                    future.cancel(true);
+                    return new GameRecord(name, levelIndex, GameRecord.Outcome.TIMEOUT, 0, 0, 0,
+                            System.nanoTime() - started, 0);
+                }
+            } catch (ExecutionException | CancellationException e) {
+                return new GameRecord(name, levelIndex, GameRecord.Outcome.ERROR, 0, 0, 0, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Plays one level with one agent.
+     *
+     * @param name       the name of the entrant
+     * @param agent      the agent
+     * @param levelIndex the level, starting from 1
+     * @return the result of the game
+     */
+    GameRecord play(String name, Agent agent, int levelIndex) {
+        GameEngine engine = new GameEngine(mapSetName, levels, GameLogger.get(false));
+        engine.setCurrentLevel(levelIndex);
+        Level level = engine.getCurrentLevel();
+        LevelView view = new LevelView(level);
+        ExecutorService agentThread = Executors.newSingleThreadExecutor(agentThreads);
+        int decisions = 0;
+        long agentNanos = 0;
+        long maxMoveNanos = 0;
+        GameRecord.Outcome outcome = GameRecord.Outcome.MOVE_LIMIT;
+        try {
+            // Starts the thread before the clock, so that its start is not counted against the agent
+            callAgent(agentThread, () -> null, Long.MAX_VALUE);
+            long planStart = System.nanoTime();
+            callAgent(agentThread, () -> {
+                agent.startLevel(view);
+                return null;
+            }, levelLimitNanos);
+            agentNanos = System.nanoTime() - planStart;
+            while (engine.getMovesCount() < maxMoves) {
+                if (agentNanos > levelLimitNanos || Thread.currentThread().isInterrupted()) {
+                    outcome = GameRecord.Outcome.TIMEOUT;
+                    break;
+                }
+                long moveStart = System.nanoTime();
+                Direction direction = callAgent(agentThread, () -> agent.nextMove(view),
+                        Math.min(moveLimitNanos, levelLimitNanos - agentNanos));
+                long moveNanos = System.nanoTime() - moveStart;
+                agentNanos += moveNanos;
+                maxMoveNanos = Math.max(maxMoveNanos, moveNanos);
+                decisions++;
+                if (moveNanos > moveLimitNanos) {
+                    outcome = GameRecord.Outcome.TIMEOUT;
+                    break;
+                }
+                if (direction == null) {
+                    outcome = GameRecord.Outcome.GAVE_UP;
+                    break;
+                }
+                engine.move(direction);
+                if (engine.getCurrentLevel() != level) {
+                    outcome = GameRecord.Outcome.SOLVED;
+                    break;
+                }
+                if (decisions >= maxMoves * 4) {
+                    // The agent keeps walking into walls
+                    break;
+                }
+            }
+        } catch (TimeoutException e) {
+            outcome = GameRecord.Outcome.TIMEOUT;
+        } catch (InterruptedException e) {
+            // Cancelled by the tournament after the level limit
+            Thread.currentThread().interrupt();
+            outcome = GameRecord.Outcome.TIMEOUT;
+        } catch (RuntimeException e) {
+            engine.getLogger().warning(name + " failed on level " + levelIndex + ": " + e);
+            outcome = GameRecord.Outcome.ERROR;
+        } finally {
+            // Interrupts an agent still running, whose thread is left to finish on its own
+            agentThread.shutdownNow();
+        }
+        return new GameRecord(name, levelIndex, outcome, engine.getMovesCount(), engine.getPushesCount(), decisions,
+                agentNanos, maxMoveNanos);
+    }
+
+    /**
+     * Calls the agent on the thread of its game, waiting no longer than a limit.
+     *
+     * @param agentThread the thread of the game
+     * @param call        the call to the agent
+     * @param limitNanos  the time the agent may take
+     * @return the result of the call
+     * @throws TimeoutException     if the agent did not return in time
+     * @throws InterruptedException if the game was cancelled while waiting
+     */
+    private static <T> T callAgent(ExecutorService agentThread, Callable<T> call, long limitNanos)
+            throws TimeoutException, InterruptedException {
+        Future<T> future = agentThread.submit(call);
+        try {
+            return future.get(Math.max(0, limitNanos), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } finally {
+            future.cancel(true);
+        }
+    }
+}
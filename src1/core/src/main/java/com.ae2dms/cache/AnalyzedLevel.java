@@ -0,0 +1,80 @@
+package com.ae2dms.cache;
+
+import com.ae2dms.dedupe.CanonicalLevel;
+import com.ae2dms.model.Level;
+
+/**
+ * AnalyzedLevel is the {@link LevelAnalysis} of a puzzle seen on one of its levels: solutions and cells are
+ * translated from the canonical form to the rows and columns of the level.
+ *
+ * @version 2.0
+ */
+public final class AnalyzedLevel {
+
+    private final Level level;
+
+    private final CanonicalLevel canonical;
+
+    private final LevelAnalysis analysis;
+
+    private final boolean cached;
+
+    AnalyzedLevel(Level level, CanonicalLevel canonical, LevelAnalysis analysis, boolean cached) {
+        this.level = level;
+        this.canonical = canonical;
+        this.analysis = analysis;
+        this.cached = cached;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public CanonicalLevel getCanonicalLevel() {
+        return canonical;
+    }
+
+    /**
+     * Returns the analysis on the canonical form, as stored in the cache.
+     *
+     * @return the analysis
+     */
+    public LevelAnalysis getAnalysis() {
+        return analysis;
+    }
+
+    /**
+     * Returns whether the analysis came from the cache rather than from the solver.
+     *
+     * @return {@code true} on a cache hit
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    public boolean isSolved() {
+        return analysis.isSolved();
+    }
+
+    /**
+     * Returns the best known solution of the level from its first position.
+     *
+     * @return the moves in LURD notation, upper case for pushes; {@code null} if unsolved
+     */
+    public String getSolution() {
+        return analysis.isSolved() ? canonical.toLevelMoves(analysis.getSolution()) : null;
+    }
+
+    /**
+     * Returns the cells of the level, not walls, from which a crate can never reach a diamond.
+     *
+     * @return the dead cells, numbered {@code row * level.levelColumn + column}
+     */
+    public int[] getDeadCells() {
+        int[] deadCells = analysis.getDeadCells();
+        for (int i = 0; i < deadCells.length; i++) {
+            deadCells[i] = canonical.toLevelCell(deadCells[i]);
+        }
+        return deadCells;
+    }
+}
@@ -0,0 +1,228 @@
+package com.ae2dms.cache;
+
+import com.ae2dms.dedupe.LevelFingerprint;
+import com.ae2dms.generator.PushSolver;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * LevelAnalysis is what is known about a level from solving it: its best known solution and the metadata found on
+ * the way. Everything is expressed on the {@link com.ae2dms.dedupe.CanonicalLevel canonical form} of the level, so
+ * one analysis serves all the rotations and reflections of a puzzle; {@link AnalyzedLevel} maps it back onto a
+ * given level.
+ *
+ * @version 2.0
+ */
+public final class LevelAnalysis {
+
+    private final LevelFingerprint fingerprint;
+
+    /** The number of positions the solver was allowed */
+    private final int maxStates;
+
+    /** The solution in LURD notation, {@code null} if none was found */
+    private final String solution;
+
+    private final int pushes;
+
+    private final int states;
+
+    private final double branching;
+
+    private final int[] deadCells;
+
+    /**
+     * Creates an analysis.
+     *
+     * @param fingerprint the fingerprint of the level
+     * @param maxStates   the number of positions the solver was allowed
+     * @param solution    the solution on the canonical form, {@code null} if none was found
+     * @param pushes      the number of pushes of the solution, -1 if none was found
+     * @param states      the number of positions the solver went through
+     * @param branching   the mean number of pushes possible from a position
+     * @param deadCells   the cells of the canonical form a crate must never be pushed to, not copied
+     */
+    public LevelAnalysis(LevelFingerprint fingerprint, int maxStates, String solution, int pushes, int states,
+                         double branching, int[] deadCells) {
+        this.fingerprint = fingerprint;
+        this.maxStates = maxStates;
+        this.solution = solution;
+        this.pushes = pushes;
+        this.states = states;
+        this.branching = branching;
+        this.deadCells = deadCells;
+    }
+
+    /**
+     * Creates an analysis from the result of a solver.
+     *
+     * @param fingerprint the fingerprint of the level
+     * @param maxStates   the number of positions the solver was allowed
+     * @param result      the result of the solver on the canonical form
+     * @return the analysis
+     */
+    public static LevelAnalysis of(LevelFingerprint fingerprint, int maxStates, PushSolver.Result result) {
+        return new LevelAnalysis(fingerprint, maxStates, result.getMoves(), result.getPushes(), result.getStates(),
+                result.getBranching(), result.getDeadCells());
+    }
+
+    public LevelFingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    public int getMaxStates() {
+        return maxStates;
+    }
+
+    public boolean isSolved() {
+        return solution != null;
+    }
+
+    /**
+     * Returns the best known solution on the canonical form.
+     *
+     * @return the moves in LURD notation, upper case for pushes; {@code null} if unsolved
+     */
+    public String getSolution() {
+        return solution;
+    }
+
+    /**
+     * Returns the number of pushes of the solution, the smallest possible for solutions found by the solver.
+     *
+     * @return the number of pushes, -1 if unsolved
+     */
+    public int getPushes() {
+        return pushes;
+    }
+
+    /**
+     * Returns the number of moves of the solution from the canonical cell of the keeper.
+     *
+     * @return the number of moves, -1 if unsolved
+     */
+    public int getMoves() {
+        return solution == null ? -1 : solution.length();
+    }
+
+    /**
+     * Returns the number of positions the solver went through, which grows with the difficulty of the level.
+     *
+     * @return the number of positions
+     */
+    public int getStates() {
+        return states;
+    }
+
+    /**
+     * Returns the mean number of pushes possible from a position, a measure of how many choices the player has.
+     *
+     * @return the mean branching factor
+     */
+    public double getBranching() {
+        return branching;
+    }
+
+    /**
+     * Returns the cells of the canonical form, not walls, from which a crate can never reach a diamond.
+     *
+     * @return the dead cells, in increasing order
+     */
+    public int[] getDeadCells() {
+        return deadCells.clone();
+    }
+
+    /**
+     * Returns whether this analysis is worth keeping over another one of the same level: it has a solution with
+     * fewer pushes, or the same solution status from a larger search.
+     *
+     * @param other the other analysis, may be {@code null}
+     * @return {@code true} if this analysis should replace the other one
+     */
+    boolean isBetterThan(LevelAnalysis other) {
+        if (other == null) {
+            return true;
+        }
+        if (isSolved() != other.isSolved()) {
+            return isSolved();
+        }
+        if (isSolved() && pushes != other.pushes) {
+            return pushes < other.pushes;
+        }
+        if (isSolved() && solution.length() != other.solution.length()) {
+            return solution.length() < other.solution.length();
+        }
+        return maxStates > other.maxStates;
+    }
+
+    /**
+     * Returns the size of this analysis once encoded.
+     *
+     * @return the number of bytes
+     */
+    int encodedSize() {
+        return 16 + 4 + 4 + 4 + 8 + 4 + 4 * deadCells.length + 4 + (solution == null ? 0 : solution.length());
+    }
+
+    /**
+     * Writes this analysis.
+     *
+     * @param buffer the buffer, with {@link #encodedSize()} bytes remaining
+     */
+    void encode(ByteBuffer buffer) {
+        buffer.putLong(fingerprint.getHigh());
+        buffer.putLong(fingerprint.getLow());
+        buffer.putInt(maxStates);
+        buffer.putInt(pushes);
+        buffer.putInt(states);
+        buffer.putDouble(branching);
+        buffer.putInt(deadCells.length);
+        for (int cell : deadCells) {
+            buffer.putInt(cell);
+        }
+        if (solution == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(solution.length());
+            buffer.put(solution.getBytes(StandardCharsets.US_ASCII));
+        }
+    }
+
+    /**
+     * Reads the fingerprint of an encoded analysis without decoding the rest.
+     *
+     * @param buffer the encoded analysis, from its first byte
+     * @return the fingerprint
+     */
+    static LevelFingerprint decodeFingerprint(ByteBuffer buffer) {
+        return new LevelFingerprint(buffer.getLong(buffer.position()), buffer.getLong(buffer.position() + 8));
+    }
+
+    /**
+     * Reads an analysis written by {@link #encode(ByteBuffer)}.
+     *
+     * @param buffer the encoded analysis
+     * @return the analysis
+     * @throws java.nio.BufferUnderflowException if the analysis is truncated
+     */
+    static LevelAnalysis decode(ByteBuffer buffer) {
+        LevelFingerprint fingerprint = new LevelFingerprint(buffer.getLong(), buffer.getLong());
+        int maxStates = buffer.getInt();
+        int pushes = buffer.getInt();
+        int states = buffer.getInt();
+        double branching = buffer.getDouble();
+        int[] deadCells = new int[buffer.getInt()];
+        for (int i = 0; i < deadCells.length; i++) {
+            deadCells[i] = buffer.getInt();
+        }
+        int length = buffer.getInt();
+        String solution = null;
+        if (length >= 0) {
+            byte[] moves = new byte[length];
+            buffer.get(moves);
+            solution = new String(moves, StandardCharsets.US_ASCII);
+        }
+        return new LevelAnalysis(fingerprint, maxStates, solution, pushes, states, branching, deadCells);
+    }
+}
@@ -0,0 +1,218 @@
+package com.ae2dms.cache;
+
+import com.ae2dms.dedupe.CanonicalLevel;
+import com.ae2dms.dedupe.LevelFingerprint;
+import com.ae2dms.generator.Board;
+import com.ae2dms.generator.PushSolver;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.Level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LevelAnalyzer solves levels with a {@link PushSolver} and records what it finds, looking in a {@link LevelCache}
+ * first so that a puzzle is only ever solved once.
+ * <p>
+ * A cached analysis that found no solution is only reused if its search was at least as large as the one this
+ * analyzer would make, so raising the limit retries the levels that were too hard.
+ * <p>
+ * Usage: {@code java -cp core.jar com.ae2dms.cache.LevelAnalyzer --cache=file [--max-states=N] [--compact]
+ * pack.skb...} fills the cache ahead of time, e.g. when deploying new packs.
+ *
+ * @version 2.0
+ */
+public class LevelAnalyzer {
+
+    /** The number of positions the solver may go through for a level by default */
+    public static final int DEFAULT_MAX_STATES = 200_000;
+
+    private final LevelCache cache;
+
+    private final int maxStates;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates an analyzer.
+     *
+     * @param cache     the cache, {@code null} to always solve
+     * @param maxStates the number of positions after which the solver gives up on a level
+     */
+    public LevelAnalyzer(LevelCache cache, int maxStates) {
+        this.cache = cache;
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * Analyses packs into a cache.
+     *
+     * @param args the options described in the class documentation
+     * @throws IOException if a pack or the cache cannot be read, or the cache cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String cachePath = null;
+        int maxStates = DEFAULT_MAX_STATES;
+        boolean compact = false;
+        List<Path> packs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--cache=")) {
+                cachePath = arg.substring("--cache=".length());
+            } else if (arg.startsWith("--max-states=")) {
+                maxStates = Integer.parseInt(arg.substring("--max-states=".length()));
+            } else if (arg.equals("--compact")) {
+                compact = true;
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            } else {
+                packs.add(Paths.get(arg));
+            }
+        }
+        if (cachePath == null) {
+            throw new IllegalArgumentException("No cache given");
+        }
+
+        try (LevelCache cache = LevelCache.open(Paths.get(cachePath))) {
+            if (cache.getTruncatedBytes() > 0) {
+                System.err.printf("Dropped %d bytes of an incomplete record%n", cache.getTruncatedBytes());
+            }
+            LevelAnalyzer analyzer = new LevelAnalyzer(cache, maxStates);
+            for (Path pack : packs) {
+                long start = System.nanoTime();
+                List<Level> levels;
+                try (InputStream input = Files.newInputStream(pack)) {
+                    levels = new GameEngine(input, GameLogger.get(false)).getLevels();
+                }
+                List<AnalyzedLevel> analyzed = analyzer.analyzeAll(levels);
+                long solved = analyzed.stream().filter(AnalyzedLevel::isSolved).count();
+                System.err.printf("%s: %d levels, %d solved, in %.1f s%n", pack, levels.size(), solved,
+                        (System.nanoTime() - start) / 1e9);
+            }
+            System.err.printf("%d cache hits, %d levels solved, %d levels cached%n", analyzer.getHits(),
+                    analyzer.getMisses(), cache.size());
+            if (compact) {
+                cache.compact();
+            }
+        }
+    }
+
+    /**
+     * Analyses a level, from the cache if possible.
+     *
+     * @param level the level
+     * @return the analysis of the level
+     * @throws IOException if the cache cannot be read or written
+     */
+    public AnalyzedLevel analyze(Level level) throws IOException {
+        CanonicalLevel canonical = CanonicalLevel.of(level);
+        LevelAnalysis analysis = lookup(canonical.getFingerprint());
+        if (analysis != null) {
+            return new AnalyzedLevel(level, canonical, analysis, true);
+        }
+        return new AnalyzedLevel(level, canonical, solve(canonical), false);
+    }
+
+    /**
+     * Analyses levels in parallel. Levels that are the same puzzle are solved once.
+     *
+     * @param levels the levels
+     * @return the analysis of each level, in order
+     * @throws IOException if the cache cannot be read or written
+     */
+    public List<AnalyzedLevel> analyzeAll(List<Level> levels) throws IOException {
+        List<CanonicalLevel> canonicals = new ArrayList<>(levels.size());
+        Map<LevelFingerprint, CanonicalLevel> puzzles = new LinkedHashMap<>();
+        for (Level level : levels) {
+            CanonicalLevel canonical = CanonicalLevel.of(level);
+            canonicals.add(canonical);
+            puzzles.putIfAbsent(canonical.getFingerprint(), canonical);
+        }
+
+        Map<LevelFingerprint, LevelAnalysis> analyses = new ConcurrentHashMap<>();
+        Map<LevelFingerprint, Boolean> cached = new ConcurrentHashMap<>();
+        try {
+            puzzles.values().parallelStream().forEach(canonical -> {
+                try {
+                    LevelAnalysis analysis = lookup(canonical.getFingerprint());
+                    cached.put(canonical.getFingerprint(), analysis != null);
+                    analyses.put(canonical.getFingerprint(), analysis != null ? analysis : solve(canonical));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        List<AnalyzedLevel> analyzed = new ArrayList<>(levels.size());
+        for (int i = 0; i < levels.size(); i++) {
+            LevelFingerprint fingerprint = canonicals.get(i).getFingerprint();
+            analyzed.add(new AnalyzedLevel(levels.get(i), canonicals.get(i), analyses.get(fingerprint),
+                    cached.get(fingerprint)));
+        }
+        return analyzed;
+    }
+
+    /**
+     * Returns the cached analysis of a level if it is good enough for this analyzer.
+     */
+    private LevelAnalysis lookup(LevelFingerprint fingerprint) throws IOException {
+        if (cache == null) {
+            return null;
+        }
+        LevelAnalysis analysis = cache.get(fingerprint);
+        if (analysis == null || (!analysis.isSolved() && analysis.getMaxStates() < maxStates)) {
+            return null;
+        }
+        hits.increment();
+        return analysis;
+    }
+
+    private LevelAnalysis solve(CanonicalLevel canonical) throws IOException {
+        misses.increment();
+        Board board = canonical.toBoard();
+        LevelAnalysis analysis;
+        if (board.getKeeper() < 0) {
+            // Nothing to solve without a keeper
+            analysis = new LevelAnalysis(canonical.getFingerprint(), maxStates, null, -1, 0, 0, new int[0]);
+        } else {
+            PushSolver.Result result = new PushSolver(maxStates).solve(board);
+            analysis = LevelAnalysis.of(canonical.getFingerprint(), maxStates, result);
+        }
+        if (cache != null) {
+            cache.put(analysis);
+        }
+        return analysis;
+    }
+
+    /**
+     * Returns the number of analyses taken from the cache.
+     *
+     * @return the number of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of levels the solver was run on.
+     *
+     * @return the number of levels solved or attempted
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,323 @@
+package com.ae2dms.cache;
+
+import com.ae2dms.dedupe.LevelFingerprint;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * LevelCache keeps the {@link LevelAnalysis} of levels on disk, keyed by the fingerprint of their canonical form,
+ * so that levels already analysed, in any pack and in any orientation, are never solved again.
+ * <p>
+ * The file is a log: a header, then one record per analysis stored, each made of the length of the analysis, its
+ * CRC-32 and the analysis itself. Records are only ever appended, and each append is forced to the disk before
+ * {@link #put} returns. When the file is opened it is mapped in memory and scanned; a record cut short or damaged
+ * by a crash ends the log, which is truncated back to the last good record. Reads come from the mapping, so only
+ * the index of the records is held on the heap.
+ * <p>
+ * A better analysis of a level is appended after the old one, which becomes stale. {@link #compact()} rewrites the
+ * live records to a new file that replaces the old one atomically; it runs on {@link #close()} when at least half
+ * of the records are stale.
+ * <p>
+ * The whole file is mapped in one buffer, so it cannot grow past 2 GB; a record that would not fit is refused.
+ * <p>
+ * A cache is safe for use by many threads, but a file must only be opened by one cache at a time.
+ *
+ * @version 2.0
+ */
+public final class LevelCache implements Closeable {
+
+    /** "SKBC", the first bytes of a cache file */
+    private static final int MAGIC = 0x534b4243;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER = 8;
+
+    /** The length and the CRC-32 before each record */
+    private static final int RECORD_HEADER = 8;
+
+    /** The largest file a single mapping can hold */
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private final Path file;
+
+    private FileChannel channel;
+
+    /** The file as it was when last mapped; records appended since are read after mapping it again */
+    private MappedByteBuffer mapped;
+
+    /** The offset of the live record of each level */
+    private final Map<LevelFingerprint, Long> index = new HashMap<>();
+
+    private long size;
+
+    private int staleRecords;
+
+    private long truncatedBytes;
+
+    private LevelCache(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Opens a cache file, creating it if needed and dropping whatever follows the last good record.
+     *
+     * @param file the file
+     * @return the cache
+     * @throws IOException if the file cannot be read or written, or is not a cache file
+     */
+    public static LevelCache open(Path file) throws IOException {
+        LevelCache cache = new LevelCache(file);
+        cache.load();
+        return cache;
+    }
+
+    private void load() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        size = channel.size();
+        if (size > MAX_SIZE) {
+            channel.close();
+            throw new IOException(file + " is larger than the 2 GB a level cache can map");
+        }
+        if (size < HEADER) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+            size = HEADER;
+        }
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+            channel.close();
+            throw new IOException(file + " is not a level cache");
+        }
+
+        long offset = HEADER;
+        while (offset + RECORD_HEADER <= size) {
+            int length = mapped.getInt((int) offset);
+            if (length <= 0 || offset + RECORD_HEADER + length > size) {
+                break;
+            }
+            ByteBuffer record = mapped.slice((int) offset + RECORD_HEADER, length);
+            if (mapped.getInt((int) offset + 4) != crc(record)) {
+                break;
+            }
+            if (index.put(LevelAnalysis.decodeFingerprint(record), offset) != null) {
+                staleRecords++;
+            }
+            offset += RECORD_HEADER + length;
+        }
+        if (offset < size) {
+            // The tail was being written when the process died
+            truncatedBytes = size - offset;
+            channel.truncate(offset);
+            channel.force(true);
+            size = offset;
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    private static int crc(ByteBuffer record) {
+        CRC32 crc = new CRC32();
+        crc.update(record.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Returns the analysis of a level.
+     *
+     * @param fingerprint the fingerprint of the level
+     * @return the best analysis stored, {@code null} if there is none
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized LevelAnalysis get(LevelFingerprint fingerprint) throws IOException {
+        Long offset = index.get(fingerprint);
+        if (offset == null) {
+            return null;
+        }
+        return read(offset);
+    }
+
+    private LevelAnalysis read(long offset) throws IOException {
+        if (offset >= mapped.capacity()) {
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        int length = mapped.getInt((int) offset);
+        return LevelAnalysis.decode(mapped.slice((int) offset + RECORD_HEADER, length));
+    }
+
+    /**
+     * Stores the analysis of a level, unless a better one is already stored.
+     *
+     * @param analysis the analysis
+     * @return {@code true} if the analysis was stored
+     * @throws IOException if the file cannot be written
+     */
+    public synchronized boolean put(LevelAnalysis analysis) throws IOException {
+        Long previous = index.get(analysis.getFingerprint());
+        if (previous != null && !analysis.isBetterThan(read(previous))) {
+            return false;
+        }
+        if (size + recordSize(analysis) > MAX_SIZE) {
+            throw new IOException(file + " is full: a level cache cannot map more than 2 GB");
+        }
+        long offset = append(channel, size, analysis);
+        channel.force(false);
+        size = offset;
+        if (index.put(analysis.getFingerprint(), offset - recordSize(analysis)) != null) {
+            staleRecords++;
+        }
+        return true;
+    }
+
+    private static int recordSize(LevelAnalysis analysis) {
+        return RECORD_HEADER + analysis.encodedSize();
+    }
+
+    /**
+     * Writes a record at the given offset.
+     *
+     * @return the offset after the record
+     */
+    private static long append(FileChannel channel, long offset, LevelAnalysis analysis) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(recordSize(analysis));
+        record.position(RECORD_HEADER);
+        analysis.encode(record);
+        record.flip();
+        record.putInt(0, analysis.encodedSize());
+        record.putInt(4, crc(record.slice(RECORD_HEADER, analysis.encodedSize())));
+        long position = offset;
+        while (record.hasRemaining()) {
+            position += channel.write(record, position);
+        }
+        return position;
+    }
+
+    /**
+     * Rewrites the file with the live records only.
+     *
+     * @throws IOException if the file cannot be rewritten; the old file and the cache are then left as they were
+     */
+    public synchronized void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        Map<LevelFingerprint, Long> newIndex = new HashMap<>();
+        long offset = HEADER;
+        try {
+            try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                out.write(ByteBuffer.allocate(HEADER).putInt(MAGIC).putInt(VERSION).flip(), 0);
+                for (Map.Entry<LevelFingerprint, Long> entry : index.entrySet()) {
+                    newIndex.put(entry.getKey(), offset);
+                    offset = append(out, offset, read(entry.getValue()));
+                }
+                out.force(true);
+            }
+            // A mapped file cannot be replaced on Windows
+            unmap(mapped);
+            mapped = null;
+            Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(compacted);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            if (mapped == null) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            throw e;
+        }
+        FileChannel old = channel;
+        channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        old.close();
+        size = offset;
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        index.clear();
+        index.putAll(newIndex);
+        staleRecords = 0;
+    }
+
+    /**
+     * Releases a mapping now rather than when it is garbage collected. The caller must not use the buffer, or any
+     * slice of it, afterwards.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Not available on this JVM: the mapping is released by the garbage collector
+        }
+    }
+
+    /**
+     * Returns the number of levels with an analysis.
+     *
+     * @return the number of levels
+     */
+    public synchronized int size() {
+        return index.size();
+    }
+
+    /**
+     * Returns the number of records replaced by a better analysis and not yet compacted away.
+     *
+     * @return the number of stale records
+     */
+    public synchronized int getStaleRecords() {
+        return staleRecords;
+    }
+
+    /**
+     * Returns the number of bytes dropped when the file was opened because the last record was incomplete.
+     *
+     * @return the number of bytes, 0 if the file was closed cleanly
+     */
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+
+    /**
+     * Returns the size of the file.
+     *
+     * @return the number of bytes
+     */
+    public synchronized long getFileSize() {
+        return size;
+    }
+
+    /**
+     * Compacts the file if at least half of its records are stale, and closes it, even if the compaction fails.
+     *
+     * @throws IOException if the file cannot be compacted or closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            if (staleRecords > 0 && staleRecords >= index.size()) {
+                compact();
+            }
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.ae2dms.dedupe;
+
+import com.ae2dms.generator.Board;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+
+import java.util.Arrays;
+
+/**
+ * CanonicalLevel is the form of a {@link Level} shared by all the levels that are the same puzzle.
+ * <p>
+ * The canonical form is built in three steps:
+ * <ul>
+ *     <li>The cells the keeper can reach, pushing crates or not, are the inside of the level. Walls touching the
+ *     inside, diagonally included, are kept; every other cell is outside, so decorative walls and padding are
+ *     dropped and the level is cropped to what is left.</li>
+ *     <li>The keeper is moved to the first cell, in row order, that it can walk to without pushing a crate, which
+ *     does not change the puzzle.</li>
+ *     <li>Among the images of the result under the 8 {@link Symmetry symmetries}, the smallest one is kept,
+ *     comparing the number of rows, then the number of columns, then the cells in row order.</li>
+ * </ul>
+ * Two levels are therefore the same puzzle up to a rotation or a reflection exactly when their canonical forms are
+ * equal, and {@link #getFingerprint()} summarises the form in 128 bits.
+ *
+ * @version 2.0
+ */
+public final class CanonicalLevel {
+
+    /** Cell codes of the canonical form, ordered so that emptier levels come first */
+    static final byte OUTSIDE = 0;
+    static final byte WALL = 1;
+    static final byte FLOOR = 2;
+    static final byte DIAMOND = 3;
+    static final byte CRATE = 4;
+    static final byte CRATE_ON_DIAMOND = 5;
+    static final byte KEEPER = 6;
+    static final byte KEEPER_ON_DIAMOND = 7;
+
+    /** The character of each cell code in {@link #toString()} */
+    private static final char[] SYMBOLS = {'-', 'W', ' ', 'D', 'C', 'O', 'S', '+'};
+
+    /** The size of the header holding the number of rows and columns in {@link #data} */
+    private static final int HEADER = 4;
+
+    private static final Symmetry[] SYMMETRIES = Symmetry.values();
+
+    private final int rows;
+
+    private final int columns;
+
+    /** The number of rows and columns on two bytes each, then the cell codes in row order */
+    private final byte[] data;
+
+    private final Symmetry symmetry;
+
+    /** The number of columns of the level */
+    private final int levelColumns;
+
+    /** The first row and column of the level kept, and the number of columns kept before the symmetry */
+    private final int top;
+    private final int left;
+    private final int croppedColumns;
+
+    /** The cell of the level the keeper walks from with no push to its canonical cell, -1 if there is none */
+    private final int keeperStart;
+
+    /** The canonical cell of the keeper, as a cell of the level */
+    private final int keeperTarget;
+
+    /** The cell each walkable cell of the level is reached from, -1 for the keeper and -2 for the others */
+    private final int[] walkParents;
+
+    private LevelFingerprint fingerprint;
+
+    private CanonicalLevel(int rows, int columns, byte[] data, Symmetry symmetry, int levelColumns, int top, int left,
+                           int croppedColumns, int keeperStart, int keeperTarget, int[] walkParents) {
+        this.rows = rows;
+        this.columns = columns;
+        this.data = data;
+        this.symmetry = symmetry;
+        this.levelColumns = levelColumns;
+        this.top = top;
+        this.left = left;
+        this.croppedColumns = croppedColumns;
+        this.keeperStart = keeperStart;
+        this.keeperTarget = keeperTarget;
+        this.walkParents = walkParents;
+    }
+
+    /**
+     * Computes the canonical form of a level, as loaded or as played so far.
+     *
+     * @param level the level
+     * @return its canonical form
+     */
+    public static CanonicalLevel of(Level level) {
+        int levelRows = level.levelRow;
+        int levelColumns = level.levelColumn;
+        int cells = levelRows * levelColumns;
+        byte[] codes = new byte[cells];
+        level.objectsGrid.forEachCell((row, column, object) -> {
+            if (object == null || object == GameObject.WALL) {
+                codes[row * levelColumns + column] = WALL;
+            } else {
+                codes[row * levelColumns + column] = object == GameObject.CRATE ? CRATE : FLOOR;
+            }
+        });
+        level.diamondsGrid.forEachCell((row, column, object) -> {
+            int cell = row * levelColumns + column;
+            if (object == GameObject.DIAMOND && codes[cell] != WALL) {
+                codes[cell] = codes[cell] == CRATE ? CRATE_ON_DIAMOND : DIAMOND;
+            }
+        });
+
+        int keeper = -1;
+        if (level.getKeeperRow() >= 0 && level.getKeeperRow() < levelRows
+                && level.getKeeperColumn() >= 0 && level.getKeeperColumn() < levelColumns) {
+            keeper = level.getKeeperRow() * levelColumns + level.getKeeperColumn();
+        }
+        int[] walkParents = new int[cells];
+        boolean[] inside = fill(codes, levelRows, levelColumns, keeper, true, null);
+        boolean[] walkable = fill(codes, levelRows, levelColumns, keeper, false, walkParents);
+        for (int cell = 0; cell < cells; cell++) {
+            // Crates and diamonds the keeper cannot reach still belong to the puzzle
+            if (codes[cell] >= DIAMOND) {
+                inside[cell] = true;
+            }
+        }
+
+        int top = levelRows;
+        int bottom = -1;
+        int left = levelColumns;
+        int right = -1;
+        for (int row = 0, cell = 0; row < levelRows; row++) {
+            for (int column = 0; column < levelColumns; column++, cell++) {
+                if (!inside[cell]) {
+                    codes[cell] = touchesInside(inside, levelRows, levelColumns, row, column) ? WALL : OUTSIDE;
+                }
+                if (codes[cell] != OUTSIDE) {
+                    top = Math.min(top, row);
+                    bottom = Math.max(bottom, row);
+                    left = Math.min(left, column);
+                    right = Math.max(right, column);
+                }
+            }
+        }
+        if (bottom < 0) {
+            return new CanonicalLevel(0, 0, new byte[HEADER], Symmetry.IDENTITY, levelColumns, 0, 0, 0, -1, -1,
+                    walkParents);
+        }
+
+        int rows = bottom - top + 1;
+        int columns = right - left + 1;
+        byte[] best = null;
+        Symmetry bestSymmetry = null;
+        int bestKeeper = -1;
+        byte[] candidate = new byte[HEADER + rows * columns];
+        for (Symmetry symmetry : SYMMETRIES) {
+            int imageRows = symmetry.rows(rows, columns);
+            int imageColumns = symmetry.columns(rows, columns);
+            candidate[0] = (byte) (imageRows >>> 8);
+            candidate[1] = (byte) imageRows;
+            candidate[2] = (byte) (imageColumns >>> 8);
+            candidate[3] = (byte) imageColumns;
+            int keeperImage = Integer.MAX_VALUE;
+            int keeperCell = -1;
+            for (int row = 0; row < rows; row++) {
+                for (int column = 0; column < columns; column++) {
+                    int cell = (top + row) * levelColumns + left + column;
+                    int image = symmetry.apply(row, column, rows, columns);
+                    candidate[HEADER + image] = codes[cell];
+                    if (walkable[cell] && image < keeperImage) {
+                        keeperImage = image;
+                        keeperCell = cell;
+                    }
+                }
+            }
+            if (keeperImage != Integer.MAX_VALUE) {
+                candidate[HEADER + keeperImage] = candidate[HEADER + keeperImage] == DIAMOND ? KEEPER_ON_DIAMOND : KEEPER;
+            }
+            if (best == null || Arrays.compareUnsigned(candidate, best) < 0) {
+                byte[] previous = best;
+                best = candidate;
+                bestSymmetry = symmetry;
+                bestKeeper = keeperCell;
+                candidate = previous == null ? new byte[candidate.length] : previous;
+            }
+        }
+        return new CanonicalLevel(bestSymmetry.rows(rows, columns), bestSymmetry.columns(rows, columns), best,
+                bestSymmetry, levelColumns, top, left, columns, bestKeeper < 0 ? -1 : keeper, bestKeeper,
+                walkParents);
+    }
+
+    /**
+     * Fills the level breadth first from the keeper, through the floor and, if asked, through the crates.
+     *
+     * @param parents if not {@code null}, receives the cell each cell was reached from, -1 for the start and -2 for
+     *                the cells not reached
+     * @return the flag of the cells reached
+     */
+    private static boolean[] fill(byte[] codes, int rows, int columns, int start, boolean throughCrates,
+                                  int[] parents) {
+        boolean[] reached = new boolean[codes.length];
+        if (parents != null) {
+            Arrays.fill(parents, -2);
+        }
+        if (start < 0 || codes[start] == WALL) {
+            return reached;
+        }
+        int[] queue = new int[codes.length];
+        int head = 0;
+        int size = 0;
+        queue[size++] = start;
+        reached[start] = true;
+        if (parents != null) {
+            parents[start] = -1;
+        }
+        while (head < size) {
+            int cell = queue[head++];
+            int row = cell / columns;
+            int column = cell % columns;
+            for (int i = 0; i < 4; i++) {
+                int nextRow = row + (i == 0 ? -1 : i == 2 ? 1 : 0);
+                int nextColumn = column + (i == 1 ? 1 : i == 3 ? -1 : 0);
+                if (nextRow < 0 || nextRow >= rows || nextColumn < 0 || nextColumn >= columns) {
+                    continue;
+                }
+                int next = nextRow * columns + nextColumn;
+                byte code = codes[next];
+                if (reached[next] || code == WALL || (!throughCrates && (code == CRATE || code == CRATE_ON_DIAMOND))) {
+                    continue;
+                }
+                reached[next] = true;
+                if (parents != null) {
+                    parents[next] = cell;
+                }
+                queue[size++] = next;
+            }
+        }
+        return reached;
+    }
+
+    private static boolean touchesInside(boolean[] inside, int rows, int columns, int row, int column) {
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                if (inside[r * columns + c]) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of rows of the canonical form.
+     *
+     * @return the number of rows
+     */
+    public int getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the number of columns of the canonical form.
+     *
+     * @return the number of columns
+     */
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the symmetry that takes the level, once cropped, onto its canonical form. Solutions of the canonical
+     * form are turned into solutions of the level by {@link #toLevelMoves(CharSequence)}.
+     *
+     * @return the symmetry used
+     */
+    public Symmetry getSymmetry() {
+        return symmetry;
+    }
+
+    /**
+     * Returns the canonical form as a board for the solver, the cells outside the level being walls.
+     *
+     * @return the board, numbered like the canonical form
+     */
+    public Board toBoard() {
+        int cells = rows * columns;
+        boolean[] walls = new boolean[cells];
+        boolean[] diamonds = new boolean[cells];
+        int crateCount = 0;
+        int keeper = -1;
+        for (int cell = 0; cell < cells; cell++) {
+            byte code = data[HEADER + cell];
+            walls[cell] = code == OUTSIDE || code == WALL;
+            diamonds[cell] = code == DIAMOND || code == CRATE_ON_DIAMOND || code == KEEPER_ON_DIAMOND;
+            if (code == CRATE || code == CRATE_ON_DIAMOND) {
+                crateCount++;
+            } else if (code == KEEPER || code == KEEPER_ON_DIAMOND) {
+                keeper = cell;
+            }
+        }
+        int[] crates = new int[crateCount];
+        for (int cell = 0, next = 0; cell < cells; cell++) {
+            if (data[HEADER + cell] == CRATE || data[HEADER + cell] == CRATE_ON_DIAMOND) {
+                crates[next++] = cell;
+            }
+        }
+        return new Board(rows, columns, walls, diamonds, crates, keeper);
+    }
+
+    /**
+     * Returns the cell of the level that a cell of the canonical form comes from.
+     *
+     * @param cell the cell of the canonical form, numbered {@code row * getColumns() + column}
+     * @return the cell of the level, numbered {@code row * level.levelColumn + column}
+     */
+    public int toLevelCell(int cell) {
+        int cropped = symmetry.inverse().apply(cell / columns, cell % columns, rows, columns);
+        return (top + cropped / croppedColumns) * levelColumns + left + cropped % croppedColumns;
+    }
+
+    /**
+     * Turns moves made on the canonical form into moves on the level: the keeper first walks to the cell it has in
+     * the canonical form, then the moves are rotated or reflected back.
+     *
+     * @param moves the moves on the canonical form, in LURD notation
+     * @return the moves on the level
+     */
+    public String toLevelMoves(CharSequence moves) {
+        StringBuilder walk = new StringBuilder();
+        if (keeperStart >= 0) {
+            for (int cell = keeperTarget; walkParents[cell] >= 0; cell = walkParents[cell]) {
+                int from = walkParents[cell];
+                walk.append(Direction.fromDelta(cell / levelColumns - from / levelColumns,
+                        cell % levelColumns - from % levelColumns).symbol);
+            }
+            walk.reverse();
+        }
+        return walk.append(symmetry.inverse().apply(moves)).toString();
+    }
+
+    /**
+     * Returns the 128 bit fingerprint of the canonical form, computed once.
+     *
+     * @return the fingerprint
+     */
+    public LevelFingerprint getFingerprint() {
+        if (fingerprint == null) {
+            fingerprint = LevelFingerprint.of(data);
+        }
+        return fingerprint;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CanonicalLevel && Arrays.equals(data, ((CanonicalLevel) other).data);
+    }
+
+    @Override
+    public int hashCode() {
+        return getFingerprint().hashCode();
+    }
+
+    /**
+     * Returns the canonical form as text, one line per row, with the characters of the skb format plus
+     * {@code '-'} for the cells outside the level and {@code '+'} for the keeper standing on a diamond.
+     *
+     * @return the canonical form as text
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(rows * (columns + 1));
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                text.append(SYMBOLS[data[HEADER + row * columns + column]]);
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
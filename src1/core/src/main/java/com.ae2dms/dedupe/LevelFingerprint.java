@@ -0,0 +1,168 @@
+package com.ae2dms.dedupe;
+
+/**
+ * A 128 bit fingerprint of a {@link CanonicalLevel}, the MurmurHash3 x64 128 bit hash of its cells.
+ * <p>
+ * Two levels have the same fingerprint when they are the same puzzle up to a symmetry. At 128 bits a collision
+ * between different levels is not expected before about 2<sup>64</sup> levels, so collections can be deduplicated
+ * on fingerprints alone.
+ *
+ * @version 2.0
+ */
+public final class LevelFingerprint implements Comparable<LevelFingerprint> {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private final long high;
+
+    private final long low;
+
+    /**
+     * Creates a fingerprint from its two halves.
+     *
+     * @param high the 64 high bits
+     * @param low  the 64 low bits
+     */
+    public LevelFingerprint(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+
+    /**
+     * Hashes bytes.
+     *
+     * @param data the bytes
+     * @return their fingerprint
+     */
+    static LevelFingerprint of(byte[] data) {
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int tail = blocks * 16;
+        for (int i = data.length - 1; i >= tail; i--) {
+            long b = data[i] & 0xffL;
+            if (i - tail >= 8) {
+                k2 |= b << ((i - tail - 8) * 8);
+            } else {
+                k1 |= b << ((i - tail) * 8);
+            }
+        }
+        h1 ^= mixK1(k1);
+        h2 ^= mixK2(k2);
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new LevelFingerprint(h1, h2);
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xffL);
+        }
+        return value;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    /**
+     * Parses a fingerprint written by {@link #toString()}.
+     *
+     * @param hex 32 hexadecimal digits
+     * @return the fingerprint
+     * @throws IllegalArgumentException if the text is not a fingerprint
+     */
+    public static LevelFingerprint parse(String hex) {
+        if (hex.length() != 32) {
+            throw new IllegalArgumentException("Not a fingerprint: " + hex);
+        }
+        try {
+            return new LevelFingerprint(Long.parseUnsignedLong(hex.substring(0, 16), 16),
+                    Long.parseUnsignedLong(hex.substring(16), 16));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a fingerprint: " + hex, e);
+        }
+    }
+
+    public long getHigh() {
+        return high;
+    }
+
+    public long getLow() {
+        return low;
+    }
+
+    @Override
+    public int compareTo(LevelFingerprint other) {
+        int result = Long.compareUnsigned(high, other.high);
+        return result != 0 ? result : Long.compareUnsigned(low, other.low);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof LevelFingerprint)) {
+            return false;
+        }
+        LevelFingerprint fingerprint = (LevelFingerprint) other;
+        return high == fingerprint.high && low == fingerprint.low;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) low;
+    }
+
+    /**
+     * Returns the fingerprint as 32 hexadecimal digits.
+     *
+     * @return the fingerprint in hexadecimal
+     */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x", high, low);
+    }
+}
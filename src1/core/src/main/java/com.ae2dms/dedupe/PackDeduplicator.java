@@ -0,0 +1,270 @@
+package com.ae2dms.dedupe;
+
+import com.ae2dms.model.Level;
+import com.ae2dms.model.PackReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * PackDeduplicator removes the levels of a collection that are the same puzzle as an earlier level, up to a
+ * rotation or a reflection, keeping the first of each.
+ * <p>
+ * The packs are read twice and never held in memory. The first pass splits the packs into levels on one thread,
+ * then parses and fingerprints their {@link CanonicalLevel canonical forms} in batches on the others, remembering
+ * the first level of each fingerprint; the second pass copies the levels kept to a single pack.
+ * <p>
+ * Usage: {@code java -cp core.jar com.ae2dms.dedupe.PackDeduplicator [--out=file.skb] [--name=MapSetName]
+ * [--threads=N] pack.skb...}; the pack is written to the standard output when no file is given.
+ *
+ * @version 2.0
+ */
+public class PackDeduplicator {
+
+    /** The number of levels fingerprinted by one task */
+    private static final int BATCH_SIZE = 256;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The levels kept by a scan.
+     */
+    public static final class Result {
+
+        private final int levels;
+
+        private final BitSet kept;
+
+        Result(int levels, BitSet kept) {
+            this.levels = levels;
+            this.kept = kept;
+        }
+
+        /**
+         * Returns the number of levels read, across all the packs.
+         *
+         * @return the number of levels
+         */
+        public int getLevels() {
+            return levels;
+        }
+
+        /**
+         * Returns the number of levels kept.
+         *
+         * @return the number of distinct puzzles
+         */
+        public int getUniqueLevels() {
+            return kept.cardinality();
+        }
+
+        /**
+         * Returns whether a level is kept.
+         *
+         * @param index the index of the level across all the packs, starting at 0
+         * @return {@code false} if an earlier level is the same puzzle
+         */
+        public boolean isKept(int index) {
+            return kept.get(index);
+        }
+    }
+
+    /**
+     * Deduplicates packs and writes the result.
+     *
+     * @param args the options described in the class documentation
+     * @throws IOException          if a pack cannot be read or the result cannot be written
+     * @throws InterruptedException if interrupted while scanning
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String outPath = null;
+        String name = "Deduplicated levels";
+        List<Path> packs = new ArrayList<>();
+        PackDeduplicator deduplicator = new PackDeduplicator();
+        for (String arg : args) {
+            if (arg.startsWith("--out=")) {
+                outPath = arg.substring("--out=".length());
+            } else if (arg.startsWith("--name=")) {
+                name = arg.substring("--name=".length());
+            } else if (arg.startsWith("--threads=")) {
+                deduplicator.setThreads(Integer.parseInt(arg.substring("--threads=".length())));
+            } else if (arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            } else {
+                packs.add(Paths.get(arg));
+            }
+        }
+        if (packs.isEmpty()) {
+            throw new IllegalArgumentException("No pack given");
+        }
+
+        long start = System.nanoTime();
+        Result result = deduplicator.scan(packs);
+        System.err.printf("Kept %d of %d levels in %.1f s%n", result.getUniqueLevels(), result.getLevels(),
+                (System.nanoTime() - start) / 1e9);
+
+        if (outPath == null) {
+            Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            write(out, name, packs, result);
+        } else {
+            try (Writer out = Files.newBufferedWriter(Paths.get(outPath), StandardCharsets.UTF_8)) {
+                write(out, name, packs, result);
+            }
+        }
+    }
+
+    /**
+     * Sets the number of threads fingerprinting levels, by default the number of processors.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Finds the first level of each distinct puzzle of the packs.
+     *
+     * @param packs the packs, in skb format, in order
+     * @return the levels kept
+     * @throws IOException          if a pack cannot be read
+     * @throws InterruptedException if interrupted while scanning
+     */
+    public Result scan(List<Path> packs) throws IOException, InterruptedException {
+        ConcurrentHashMap<LevelFingerprint, Integer> firstLevels = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // Bounds the batches waiting for a thread, so that the reader cannot run ahead of the memory
+        Semaphore pending = new Semaphore(threads * 2);
+        List<Future<?>> tasks = new ArrayList<>();
+        int levels = 0;
+        try {
+            List<List<String>> batch = new ArrayList<>(BATCH_SIZE);
+            int[] batchStart = {0};
+            for (Path pack : packs) {
+                try (BufferedReader reader = Files.newBufferedReader(pack, StandardCharsets.UTF_8)) {
+                    int first = levels;
+                    int read = new PackReader(reader).read((levelName, levelIndex, rawLevel) -> {
+                        batch.add(new ArrayList<>(rawLevel));
+                        if (batch.size() == BATCH_SIZE) {
+                            tasks.add(submit(executor, pending, firstLevels, new ArrayList<>(batch), batchStart[0]));
+                            batchStart[0] += batch.size();
+                            batch.clear();
+                        }
+                    });
+                    levels = first + read;
+                }
+            }
+            if (!batch.isEmpty()) {
+                tasks.add(submit(executor, pending, firstLevels, batch, batchStart[0]));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot fingerprint a level", e.getCause());
+        } catch (UncheckedInterruptedException e) {
+            throw e.getCause();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BitSet kept = new BitSet(levels);
+        for (int index : firstLevels.values()) {
+            kept.set(index);
+        }
+        return new Result(levels, kept);
+    }
+
+    private static Future<?> submit(ExecutorService executor, Semaphore pending,
+                                    ConcurrentHashMap<LevelFingerprint, Integer> firstLevels, List<List<String>> batch,
+                                    int start) {
+        try {
+            pending.acquire();
+        } catch (InterruptedException e) {
+            throw new UncheckedInterruptedException(e);
+        }
+        return executor.submit(() -> {
+            try {
+                for (int i = 0; i < batch.size(); i++) {
+                    Level level = new Level("", start + i, batch.get(i));
+                    LevelFingerprint fingerprint = CanonicalLevel.of(level).getFingerprint();
+                    firstLevels.merge(fingerprint, start + i, Math::min);
+                }
+            } finally {
+                pending.release();
+            }
+        });
+    }
+
+    /**
+     * Copies the levels kept by a scan, with their names and rows, to a single pack.
+     *
+     * @param out        the output, not closed
+     * @param mapSetName the name of the pack
+     * @param packs      the packs that were scanned, in the same order
+     * @param result     the result of the scan
+     * @throws IOException if a pack cannot be read or the output fails
+     */
+    public static void write(Writer out, String mapSetName, List<Path> packs, Result result) throws IOException {
+        out.write("MapSetName: " + mapSetName + "\n");
+        int[] index = {0};
+        boolean[] first = {true};
+        for (Path pack : packs) {
+            try (BufferedReader reader = Files.newBufferedReader(pack, StandardCharsets.UTF_8)) {
+                new PackReader(reader).read((levelName, levelIndex, rawLevel) -> {
+                    if (result.isKept(index[0]++)) {
+                        try {
+                            if (!first[0]) {
+                                out.write('\n');
+                            }
+                            first[0] = false;
+                            out.write("LevelName: " + levelName + "\n");
+                            for (String row : rawLevel) {
+                                out.write(row);
+                                out.write('\n');
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Carries an interruption out of a {@link PackReader.LevelHandler}, which cannot throw checked exceptions.
+     */
+    private static final class UncheckedInterruptedException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UncheckedInterruptedException(InterruptedException cause) {
+            super(cause);
+        }
+
+        @Override
+        public synchronized InterruptedException getCause() {
+            return (InterruptedException) super.getCause();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ae2dms.dedupe;
+
+import com.ae2dms.model.Direction;
+
+/**
+ * The 8 symmetries of a rectangular grid: the rotations by a multiple of 90 degrees and the reflections.
+ * <p>
+ * Each symmetry optionally transposes the grid, swapping rows and columns, then optionally flips the rows and the
+ * columns of the result. A level and its image under a symmetry are the same puzzle, and a solution of one is a
+ * solution of the other once its moves are mapped with {@link #apply(Direction)}.
+ *
+ * @version 2.0
+ */
+public enum Symmetry {
+    IDENTITY(false, false, false),
+    FLIP_COLUMNS(false, false, true),
+    FLIP_ROWS(false, true, false),
+    ROTATE_180(false, true, true),
+    TRANSPOSE(true, false, false),
+    ROTATE_90(true, false, true),
+    ROTATE_270(true, true, false),
+    ANTI_TRANSPOSE(true, true, true);
+
+    /** Cached result of {@link #values()}, which copies the array on every call */
+    private static final Symmetry[] VALUES = values();
+
+    private final boolean transpose;
+
+    private final boolean flipRows;
+
+    private final boolean flipColumns;
+
+    Symmetry(boolean transpose, boolean flipRows, boolean flipColumns) {
+        this.transpose = transpose;
+        this.flipRows = flipRows;
+        this.flipColumns = flipColumns;
+    }
+
+    /**
+     * Returns whether this symmetry swaps rows and columns.
+     *
+     * @return {@code true} for the quarter turns and the diagonal reflections
+     */
+    public boolean isTranspose() {
+        return transpose;
+    }
+
+    /**
+     * Returns the number of rows of the image of a grid.
+     *
+     * @param rows    the number of rows of the grid
+     * @param columns the number of columns of the grid
+     * @return the number of rows of the image
+     */
+    public int rows(int rows, int columns) {
+        return transpose ? columns : rows;
+    }
+
+    /**
+     * Returns the number of columns of the image of a grid.
+     *
+     * @param rows    the number of rows of the grid
+     * @param columns the number of columns of the grid
+     * @return the number of columns of the image
+     */
+    public int columns(int rows, int columns) {
+        return transpose ? rows : columns;
+    }
+
+    /**
+     * Returns the cell of the image that a cell of the grid is moved to.
+     *
+     * @param row     the row of the cell
+     * @param column  the column of the cell
+     * @param rows    the number of rows of the grid
+     * @param columns the number of columns of the grid
+     * @return the cell of the image, numbered {@code row * columns + column} in the image
+     */
+    public int apply(int row, int column, int rows, int columns) {
+        int imageRows = rows(rows, columns);
+        int imageColumns = columns(rows, columns);
+        int imageRow = transpose ? column : row;
+        int imageColumn = transpose ? row : column;
+        if (flipRows) {
+            imageRow = imageRows - 1 - imageRow;
+        }
+        if (flipColumns) {
+            imageColumn = imageColumns - 1 - imageColumn;
+        }
+        return imageRow * imageColumns + imageColumn;
+    }
+
+    /**
+     * Returns the direction a move becomes in the image.
+     *
+     * @param direction the direction in the grid
+     * @return the direction in the image
+     */
+    public Direction apply(Direction direction) {
+        int rowDelta = transpose ? direction.columnDelta : direction.rowDelta;
+        int columnDelta = transpose ? direction.rowDelta : direction.columnDelta;
+        return Direction.fromDelta(flipRows ? -rowDelta : rowDelta, flipColumns ? -columnDelta : columnDelta);
+    }
+
+    /**
+     * Maps a sequence of moves in the LURD notation, keeping the case of each move.
+     *
+     * @param moves the moves in the grid
+     * @return the moves in the image
+     * @throws IllegalArgumentException if a character is not a move
+     */
+    public String apply(CharSequence moves) {
+        StringBuilder image = new StringBuilder(moves.length());
+        for (int i = 0; i < moves.length(); i++) {
+            char move = moves.charAt(i);
+            Direction direction = Direction.fromChar(move);
+            if (direction == null) {
+                throw new IllegalArgumentException("Not a move: '" + move + "'");
+            }
+            char symbol = apply(direction).symbol;
+            image.append(Character.isUpperCase(move) ? Character.toUpperCase(symbol) : symbol);
+        }
+        return image.toString();
+    }
+
+    /**
+     * Returns the symmetry that undoes this one.
+     *
+     * @return the inverse of this symmetry
+     */
+    public Symmetry inverse() {
+        for (Symmetry symmetry : VALUES) {
+            if (symmetry.apply(apply(Direction.RIGHT)) == Direction.RIGHT
+                    && symmetry.apply(apply(Direction.DOWN)) == Direction.DOWN) {
+                return symmetry;
+            }
+        }
+        throw new AssertionError(this);
+    }
+}
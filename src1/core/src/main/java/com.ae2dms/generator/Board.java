@@ -0,0 +1,179 @@
+package com.ae2dms.generator;
+
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Board is a compact, immutable Sokoban position used by the generator and the solver: the walls and the
+ * diamonds of a layout, and the cells of the crates and of the keeper. Cells are numbered
+ * {@code row * columns + column}.
+ *
+ * @version 2.0
+ */
+public final class Board {
+
+    public final int rows;
+
+    public final int columns;
+
+    private final boolean[] walls;
+
+    private final boolean[] diamonds;
+
+    /** The cells of the crates, in increasing order */
+    private final int[] crates;
+
+    private final int keeper;
+
+    /**
+     * Creates a board.
+     *
+     * @param rows     the number of rows
+     * @param columns  the number of columns
+     * @param walls    the wall flag of each cell, not copied
+     * @param diamonds the diamond flag of each cell, not copied
+     * @param crates   the cells of the crates, copied and sorted
+     * @param keeper   the cell of the keeper
+     */
+    public Board(int rows, int columns, boolean[] walls, boolean[] diamonds, int[] crates, int keeper) {
+        this.rows = rows;
+        this.columns = columns;
+        this.walls = walls;
+        this.diamonds = diamonds;
+        this.crates = crates.clone();
+        Arrays.sort(this.crates);
+        this.keeper = keeper;
+    }
+
+    /**
+     * Creates a board from a level. Cells outside the level rows are walls.
+     *
+     * @param level the level
+     * @return the board
+     */
+    public static Board fromLevel(Level level) {
+        int rows = level.levelRow;
+        int columns = level.levelColumn;
+        boolean[] walls = new boolean[rows * columns];
+        boolean[] diamonds = new boolean[rows * columns];
+        List<Integer> crates = new ArrayList<>();
+        level.objectsGrid.forEachCell((row, column, object) -> {
+            walls[row * columns + column] = object == null || object == GameObject.WALL;
+            if (object == GameObject.CRATE) {
+                crates.add(row * columns + column);
+            }
+        });
+        level.diamondsGrid.forEachCell((row, column, object) ->
+                diamonds[row * columns + column] = object == GameObject.DIAMOND);
+        int keeper = level.getKeeperRow() * columns + level.getKeeperColumn();
+        return new Board(rows, columns, walls, diamonds, crates.stream().mapToInt(Integer::intValue).toArray(), keeper);
+    }
+
+    /**
+     * Returns this layout with other crate and keeper positions.
+     *
+     * @param crates the cells of the crates
+     * @param keeper the cell of the keeper
+     * @return the new board
+     */
+    public Board withPieces(int[] crates, int keeper) {
+        return new Board(rows, columns, walls, diamonds, crates, keeper);
+    }
+
+    public boolean isWall(int cell) {
+        return walls[cell];
+    }
+
+    public boolean isDiamond(int cell) {
+        return diamonds[cell];
+    }
+
+    /**
+     * Returns the cells of the crates.
+     *
+     * @return a copy of the cells, in increasing order
+     */
+    public int[] getCrates() {
+        return crates.clone();
+    }
+
+    public int getKeeper() {
+        return keeper;
+    }
+
+    /**
+     * Returns the cells with a diamond.
+     *
+     * @return the cells, in increasing order
+     */
+    public int[] getDiamonds() {
+        int count = 0;
+        for (boolean diamond : diamonds) {
+            if (diamond) {
+                count++;
+            }
+        }
+        int[] cells = new int[count];
+        for (int cell = 0, next = 0; cell < diamonds.length; cell++) {
+            if (diamonds[cell]) {
+                cells[next++] = cell;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Returns {@code true} if every diamond has a crate.
+     *
+     * @return {@code true} if the board is solved
+     */
+    public boolean isSolved() {
+        int covered = 0;
+        for (int crate : crates) {
+            if (diamonds[crate]) {
+                covered++;
+            }
+        }
+        return covered == getDiamonds().length;
+    }
+
+    /**
+     * Returns the rows of the board in skb format, with {@link GameObject#CRATE_ON_DIAMOND} for crates already
+     * on a diamond.
+     *
+     * @return one string per row
+     * @throws IllegalStateException if the keeper stands on a diamond, which the format cannot store
+     */
+    public List<String> toRows() {
+        if (diamonds[keeper]) {
+            throw new IllegalStateException("The keeper stands on a diamond");
+        }
+        return lines();
+    }
+
+    @Override
+    public String toString() {
+        return String.join("\n", lines());
+    }
+
+    private List<String> lines() {
+        char[] symbols = new char[rows * columns];
+        for (int cell = 0; cell < symbols.length; cell++) {
+            GameObject object = walls[cell] ? GameObject.WALL : diamonds[cell] ? GameObject.DIAMOND : GameObject.FLOOR;
+            symbols[cell] = object.symbol;
+        }
+        for (int crate : crates) {
+            symbols[crate] = (diamonds[crate] ? GameObject.CRATE_ON_DIAMOND : GameObject.CRATE).symbol;
+        }
+        symbols[keeper] = GameObject.KEEPER.symbol;
+        List<String> lines = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            lines.add(new String(symbols, row * columns, columns));
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,50 @@
+package com.ae2dms.generator;
+
+/**
+ * A level made by the {@link LevelGenerator}, with the measures of its difficulty.
+ *
+ * @version 2.0
+ */
+public final class GeneratedLevel {
+
+    private final Board board;
+
+    private final PushSolver.Result solution;
+
+    GeneratedLevel(Board board, PushSolver.Result solution) {
+        this.board = board;
+        this.solution = solution;
+    }
+
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the fewest pushes needed to solve the level.
+     *
+     * @return the number of pushes
+     */
+    public int getPushes() {
+        return solution.getPushes();
+    }
+
+    /**
+     * Returns the mean number of pushes possible from a position of the level, see
+     * {@link PushSolver.Result#getBranching()}.
+     *
+     * @return the branching factor
+     */
+    public double getBranching() {
+        return solution.getBranching();
+    }
+
+    /**
+     * Returns a solution of the level in LURD notation.
+     *
+     * @return the moves
+     */
+    public String getSolution() {
+        return solution.getMoves();
+    }
+}
@@ -0,0 +1,308 @@
+package com.ae2dms.generator;
+
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.Level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * LevelGenerator makes new levels from the wall layouts of existing ones by playing backwards: it starts
+ * with every crate on a diamond and walks the keeper randomly, pulling the crate behind it now and then.
+ * Reversing the pulls gives a solution, so every generated level can be solved.
+ * <p>
+ * Several positions along each walk are solved with a {@link PushSolver}; those whose fewest pushes fall in
+ * the difficulty band are candidates, and the candidate offering the player the most choices (the highest
+ * branching) is kept. Walks run in parallel on all the processors.
+ * <p>
+ * Usage: {@code java -cp core.jar com.ae2dms.generator.LevelGenerator [--layouts=file.skb] [--out=file.skb]
+ * [--count=N] [--min-pushes=N] [--max-pushes=N] [--seed=N] [--threads=N]}. Without layouts the levels of
+ * {@code MyGame.skb} are used; without output the pack is written to the standard output.
+ *
+ * @version 2.0
+ */
+public class LevelGenerator {
+
+    /** The pack whose layouts are used by default */
+    public static final String DEFAULT_LAYOUTS = "/level/MyLevels/MyGame.skb";
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /** The chance, in percent, that a step pulls the crate behind the keeper */
+    private static final int PULL_PERCENT = 70;
+
+    /** The number of positions of a walk given to the solver */
+    private static final int CANDIDATES_PER_WALK = 8;
+
+    private final List<Board> layouts;
+
+    private final int minPushes;
+
+    private final int maxPushes;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    private int walkLength = 400;
+
+    private int maxSolverStates = 200_000;
+
+    private int maxAttempts = 10_000;
+
+    /**
+     * Creates a generator.
+     *
+     * @param layouts   the boards whose walls and diamonds are reused, with as many crates as diamonds
+     * @param minPushes the fewest pushes a generated level may need
+     * @param maxPushes the most pushes a generated level may need
+     */
+    public LevelGenerator(List<Board> layouts, int minPushes, int maxPushes) {
+        this.layouts = layouts.stream()
+                .filter(board -> !board.isDiamond(board.getKeeper()) && board.getDiamonds().length > 0)
+                .collect(Collectors.toList());
+        if (this.layouts.isEmpty()) {
+            throw new IllegalArgumentException("No usable layout");
+        }
+        this.minPushes = minPushes;
+        this.maxPushes = maxPushes;
+    }
+
+    /**
+     * Generates a pack and writes it.
+     *
+     * @param args the options described in the class documentation
+     * @throws IOException          if the layouts cannot be read or the pack cannot be written
+     * @throws InterruptedException if interrupted while generating
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        String layoutPath = null;
+        String outPath = null;
+        int count = 10;
+        int minPushes = 8;
+        int maxPushes = 40;
+        long seed = System.nanoTime();
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (String arg : args) {
+            if (arg.startsWith("--layouts=")) {
+                layoutPath = arg.substring("--layouts=".length());
+            } else if (arg.startsWith("--out=")) {
+                outPath = arg.substring("--out=".length());
+            } else if (arg.startsWith("--count=")) {
+                count = Integer.parseInt(arg.substring("--count=".length()));
+            } else if (arg.startsWith("--min-pushes=")) {
+                minPushes = Integer.parseInt(arg.substring("--min-pushes=".length()));
+            } else if (arg.startsWith("--max-pushes=")) {
+                maxPushes = Integer.parseInt(arg.substring("--max-pushes=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(arg.substring("--threads=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        List<Level> levels;
+        try (InputStream input = layoutPath == null ? LevelGenerator.class.getResourceAsStream(DEFAULT_LAYOUTS)
+                : Files.newInputStream(Paths.get(layoutPath))) {
+            levels = new GameEngine(input, GameLogger.get(false)).getLevels();
+        }
+        List<Board> layouts = new ArrayList<>(levels.size());
+        for (Level level : levels) {
+            layouts.add(Board.fromLevel(level));
+        }
+        LevelGenerator generator = new LevelGenerator(layouts, minPushes, maxPushes);
+        generator.setThreads(threads);
+
+        long start = System.nanoTime();
+        List<GeneratedLevel> generated = generator.generate(count, seed);
+        System.err.printf("Generated %d levels of %d to %d pushes in %.1f s, seed %d%n", generated.size(), minPushes,
+                maxPushes, (System.nanoTime() - start) / 1e9, seed);
+        for (int i = 0; i < generated.size(); i++) {
+            System.err.printf("Level %d: %d pushes, branching %.2f%n", i + 1, generated.get(i).getPushes(),
+                    generated.get(i).getBranching());
+        }
+
+        List<Board> boards = generated.stream().map(GeneratedLevel::getBoard).collect(Collectors.toList());
+        if (outPath == null) {
+            Writer out = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            SkbWriter.write(out, "Generated levels", boards);
+        } else {
+            try (Writer out = Files.newBufferedWriter(Paths.get(outPath), StandardCharsets.UTF_8)) {
+                SkbWriter.write(out, "Generated levels", boards);
+            }
+        }
+    }
+
+    /**
+     * Sets the number of walks made at the same time, by default the number of processors.
+     *
+     * @param threads the number of threads
+     */
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Sets the number of keeper steps of a walk, by default 400. Longer walks scatter the crates further.
+     *
+     * @param walkLength the number of steps
+     */
+    public void setWalkLength(int walkLength) {
+        this.walkLength = walkLength;
+    }
+
+    /**
+     * Sets the number of positions after which the solver gives up on a candidate, by default 200 000.
+     *
+     * @param maxSolverStates the number of positions
+     */
+    public void setMaxSolverStates(int maxSolverStates) {
+        this.maxSolverStates = maxSolverStates;
+    }
+
+    /**
+     * Sets the number of walks after which the generator stops even if it found fewer levels than asked, by
+     * default 10 000.
+     *
+     * @param maxAttempts the number of walks
+     */
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Generates distinct levels in the difficulty band.
+     *
+     * @param count the number of levels wanted
+     * @param seed  the seed of the walks; with one thread the result only depends on it
+     * @return the levels, fewest pushes first; fewer than asked if the attempts ran out
+     * @throws InterruptedException if interrupted while generating
+     */
+    public List<GeneratedLevel> generate(int count, long seed) throws InterruptedException {
+        List<GeneratedLevel> found = Collections.synchronizedList(new ArrayList<>());
+        Set<String> seen = Collections.synchronizedSet(new HashSet<>());
+        AtomicInteger attempts = new AtomicInteger();
+        SplittableRandom root = new SplittableRandom(seed);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            SplittableRandom random = root.split();
+            workers.add(executor.submit(() -> {
+                PushSolver solver = new PushSolver(maxSolverStates);
+                while (found.size() < count && attempts.incrementAndGet() <= maxAttempts
+                        && !Thread.currentThread().isInterrupted()) {
+                    GeneratedLevel level = attempt(layouts.get(random.nextInt(layouts.size())), solver, random);
+                    if (level != null && seen.add(level.getBoard().toString())) {
+                        found.add(level);
+                    }
+                }
+            }));
+        }
+        executor.shutdown();
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Level generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        List<GeneratedLevel> levels;
+        synchronized (found) {
+            levels = new ArrayList<>(found);
+        }
+        levels.sort(Comparator.comparingInt(GeneratedLevel::getPushes)
+                .thenComparing(level -> level.getBoard().toString()));
+        return levels.size() > count ? new ArrayList<>(levels.subList(0, count)) : levels;
+    }
+
+    /**
+     * Makes one backward walk on a layout.
+     *
+     * @return the best candidate of the walk, {@code null} if none is in the difficulty band
+     */
+    GeneratedLevel attempt(Board layout, PushSolver solver, SplittableRandom random) {
+        int rows = layout.rows;
+        int columns = layout.columns;
+        boolean[] crates = new boolean[rows * columns];
+        for (int diamond : layout.getDiamonds()) {
+            crates[diamond] = true;
+        }
+        int keeper = layout.getKeeper();
+        int crateCount = layout.getDiamonds().length;
+        int interval = Math.max(1, walkLength / CANDIDATES_PER_WALK);
+
+        GeneratedLevel best = null;
+        Set<String> tried = new HashSet<>();
+        for (int step = 1; step <= walkLength; step++) {
+            Direction direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            int target = neighbour(layout, keeper, direction.rowDelta, direction.columnDelta);
+            if (target >= 0 && !crates[target]) {
+                int behind = neighbour(layout, keeper, -direction.rowDelta, -direction.columnDelta);
+                if (behind >= 0 && crates[behind] && random.nextInt(100) < PULL_PERCENT) {
+                    crates[behind] = false;
+                    crates[keeper] = true;
+                }
+                keeper = target;
+            }
+            if (step % interval != 0 || layout.isDiamond(keeper)) {
+                continue;
+            }
+            Board candidate = layout.withPieces(cells(crates, crateCount), keeper);
+            if (candidate.isSolved() || !tried.add(candidate.toString())) {
+                continue;
+            }
+            PushSolver.Result result = solver.solve(candidate);
+            if (result.isSolved() && result.getPushes() >= minPushes && result.getPushes() <= maxPushes
+                    && (best == null || result.getBranching() > best.getBranching())) {
+                best = new GeneratedLevel(candidate, result);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the cell next to another one, -1 for a wall or the border.
+     */
+    private static int neighbour(Board board, int cell, int rowDelta, int columnDelta) {
+        int row = cell / board.columns + rowDelta;
+        int column = cell % board.columns + columnDelta;
+        if (row < 0 || row >= board.rows || column < 0 || column >= board.columns) {
+            return -1;
+        }
+        int next = row * board.columns + column;
+        return board.isWall(next) ? -1 : next;
+    }
+
+    private static int[] cells(boolean[] flags, int count) {
+        int[] cells = new int[count];
+        for (int cell = 0, next = 0; cell < flags.length; cell++) {
+            if (flags[cell]) {
+                cells[next++] = cell;
+            }
+        }
+        return cells;
+    }
+}
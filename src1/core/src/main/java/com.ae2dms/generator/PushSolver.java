@@ -0,0 +1,446 @@
+package com.ae2dms.generator;
+
+import com.ae2dms.model.Direction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+
+/**
+ * PushSolver finds a solution with the fewest pushes by a breadth first search over the positions of the
+ * crates, the keeper being reduced to the area it can walk to.
+ * <p>
+ * Crates are never pushed onto dead cells, from which no diamond can be reached. The search gives up after
+ * a maximum number of positions, so large levels may be reported as unsolved. A search whose thread is interrupted
+ * stops with a {@link CancellationException}, so it can run speculatively and be dropped when no longer needed.
+ *
+ * @version 2.0
+ */
+public class PushSolver {
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int maxStates;
+
+    /**
+     * Creates a solver.
+     *
+     * @param maxStates the number of positions after which the search gives up
+     */
+    public PushSolver(int maxStates) {
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * Solves a board.
+     *
+     * @param board the board
+     * @return the result of the search
+     * @throws CancellationException if the thread is interrupted during the search
+     */
+    public Result solve(Board board) {
+        return new Search(board).run();
+    }
+
+    /**
+     * The result of a search.
+     */
+    public static final class Result {
+        private final boolean solved;
+        private final int pushes;
+        private final String moves;
+        private final int states;
+        private final double branching;
+        private final int[] deadCells;
+
+        Result(boolean solved, int pushes, String moves, int states, double branching, int[] deadCells) {
+            this.solved = solved;
+            this.pushes = pushes;
+            this.moves = moves;
+            this.states = states;
+            this.branching = branching;
+            this.deadCells = deadCells;
+        }
+
+        /**
+         * Returns {@code true} if a solution was found.
+         *
+         * @return {@code true} if solved
+         */
+        public boolean isSolved() {
+            return solved;
+        }
+
+        /**
+         * Returns the number of pushes of the solution, which is the smallest possible.
+         *
+         * @return the number of pushes, -1 if unsolved
+         */
+        public int getPushes() {
+            return pushes;
+        }
+
+        /**
+         * Returns the moves of the solution in LURD notation, lower case for walking and upper case for pushing.
+         *
+         * @return the moves, {@code null} if unsolved
+         */
+        public String getMoves() {
+            return moves;
+        }
+
+        /**
+         * Returns the number of positions the search went through.
+         *
+         * @return the number of positions
+         */
+        public int getStates() {
+            return states;
+        }
+
+        /**
+         * Returns the mean number of pushes possible from a position, a measure of how many choices the
+         * player has.
+         *
+         * @return the mean branching factor
+         */
+        public double getBranching() {
+            return branching;
+        }
+
+        /**
+         * Returns the cells that are not walls but from which a crate can never reach a diamond.
+         *
+         * @return the dead cells, in increasing order
+         */
+        public int[] getDeadCells() {
+            return deadCells.clone();
+        }
+    }
+
+    /**
+     * The state of one search.
+     */
+    private final class Search {
+        private final Board board;
+        private final int cells;
+        /** The cell next to each cell in each direction, -1 for a wall or the border */
+        private final int[] neighbours;
+        private final boolean[] dead;
+        private final int diamondCount;
+        private final boolean[] occupied;
+        /** Cells reached by the keeper from the expanded position are marked with its stamp */
+        private final int[] reached;
+        /** The same for the pushed positions, to find the area of the keeper */
+        private final int[] reachedAfterPush;
+        private int stamp;
+        private final int[] queue;
+
+        private final List<Node> nodes = new ArrayList<>();
+        private final Set<Key> visited = new HashSet<>();
+        private long generatedPushes;
+
+        Search(Board board) {
+            this.board = board;
+            cells = board.rows * board.columns;
+            neighbours = new int[cells * DIRECTIONS.length];
+            for (int cell = 0; cell < cells; cell++) {
+                int row = cell / board.columns;
+                int column = cell % board.columns;
+                for (Direction direction : DIRECTIONS) {
+                    int nextRow = row + direction.rowDelta;
+                    int nextColumn = column + direction.columnDelta;
+                    int next = nextRow * board.columns + nextColumn;
+                    boolean inside = nextRow >= 0 && nextRow < board.rows && nextColumn >= 0 && nextColumn < board.columns;
+                    neighbours[cell * DIRECTIONS.length + direction.ordinal()] = inside && !board.isWall(next) ? next : -1;
+                }
+            }
+            dead = findDeadCells();
+            diamondCount = board.getDiamonds().length;
+            occupied = new boolean[cells];
+            reached = new int[cells];
+            reachedAfterPush = new int[cells];
+            queue = new int[cells];
+        }
+
+        Result run() {
+            int[] crates = board.getCrates();
+            if (countCovered(crates) == diamondCount) {
+                return new Result(true, 0, "", 1, 0, deadCells());
+            }
+            Node start = new Node(crates, normalise(crates, board.getKeeper()), -1, 0, 0);
+            visited.add(start.key);
+            nodes.add(start);
+            for (int head = 0; head < nodes.size(); head++) {
+                if ((head & 1023) == 0 && Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("The search was interrupted");
+                }
+                if (nodes.size() > maxStates) {
+                    return new Result(false, -1, null, nodes.size(), branching(head), deadCells());
+                }
+                Node node = nodes.get(head);
+                int reachStamp = walk(node.crates, node.key.keeper(), reached);
+                for (int i = 0; i < node.crates.length; i++) {
+                    int crate = node.crates[i];
+                    for (Direction direction : DIRECTIONS) {
+                        int stand = neighbours[crate * DIRECTIONS.length + opposite(direction)];
+                        int target = neighbours[crate * DIRECTIONS.length + direction.ordinal()];
+                        if (stand < 0 || reached[stand] != reachStamp || target < 0 || dead[target]
+                                || isCrate(node.crates, target)) {
+                            continue;
+                        }
+                        generatedPushes++;
+                        int[] pushed = replace(node.crates, i, target);
+                        Node child = new Node(pushed, normalise(pushed, crate), head,
+                                crate * DIRECTIONS.length + direction.ordinal(), node.depth + 1);
+                        if (!visited.add(child.key)) {
+                            continue;
+                        }
+                        nodes.add(child);
+                        if (countCovered(pushed) == diamondCount) {
+                            return new Result(true, child.depth, moves(nodes.size() - 1), nodes.size(),
+                                    branching(head + 1), deadCells());
+                        }
+                    }
+                }
+            }
+            return new Result(false, -1, null, nodes.size(), branching(nodes.size()), deadCells());
+        }
+
+        private double branching(int expanded) {
+            return expanded == 0 ? 0 : (double) generatedPushes / expanded;
+        }
+
+        /**
+         * Marks the cells reachable by the keeper with a new stamp.
+         *
+         * @return the stamp
+         */
+        private int walk(int[] crates, int keeper, int[] marks) {
+            for (int crate : crates) {
+                occupied[crate] = true;
+            }
+            stamp++;
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = keeper;
+            marks[keeper] = stamp;
+            while (head < tail) {
+                int cell = queue[head++];
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int next = neighbours[cell * DIRECTIONS.length + d];
+                    if (next >= 0 && !occupied[next] && marks[next] != stamp) {
+                        marks[next] = stamp;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            for (int crate : crates) {
+                occupied[crate] = false;
+            }
+            return stamp;
+        }
+
+        /**
+         * Returns the smallest cell the keeper can walk to, which identifies its area.
+         */
+        private int normalise(int[] crates, int keeper) {
+            int areaStamp = walk(crates, keeper, reachedAfterPush);
+            for (int cell = 0; cell < cells; cell++) {
+                if (reachedAfterPush[cell] == areaStamp) {
+                    return cell;
+                }
+            }
+            return keeper;
+        }
+
+        /**
+         * Finds the cells from which a crate cannot be pushed to any diamond, by pulling crates away from the
+         * diamonds.
+         */
+        private boolean[] findDeadCells() {
+            boolean[] live = new boolean[cells];
+            ArrayDeque<Integer> pending = new ArrayDeque<>();
+            for (int diamond : board.getDiamonds()) {
+                live[diamond] = true;
+                pending.add(diamond);
+            }
+            while (!pending.isEmpty()) {
+                int cell = pending.poll();
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int previous = neighbours[cell * DIRECTIONS.length + d];
+                    int keeper = previous < 0 ? -1 : neighbours[previous * DIRECTIONS.length + d];
+                    if (keeper >= 0 && !live[previous]) {
+                        live[previous] = true;
+                        pending.add(previous);
+                    }
+                }
+            }
+            boolean[] dead = new boolean[cells];
+            for (int cell = 0; cell < cells; cell++) {
+                dead[cell] = !live[cell];
+            }
+            return dead;
+        }
+
+        private int[] deadCells() {
+            int count = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                if (dead[cell] && !board.isWall(cell)) {
+                    count++;
+                }
+            }
+            int[] deadCells = new int[count];
+            for (int cell = 0, next = 0; cell < cells; cell++) {
+                if (dead[cell] && !board.isWall(cell)) {
+                    deadCells[next++] = cell;
+                }
+            }
+            return deadCells;
+        }
+
+        private int countCovered(int[] crates) {
+            int covered = 0;
+            for (int crate : crates) {
+                if (board.isDiamond(crate)) {
+                    covered++;
+                }
+            }
+            return covered;
+        }
+
+        /**
+         * Rebuilds the moves leading to a node, walking the keeper between the pushes.
+         */
+        private String moves(int last) {
+            List<Node> path = new ArrayList<>();
+            for (int index = last; index > 0; index = nodes.get(index).parent) {
+                path.add(nodes.get(index));
+            }
+            StringBuilder moves = new StringBuilder();
+            int[] crates = board.getCrates();
+            int keeper = board.getKeeper();
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                int crate = node.push / DIRECTIONS.length;
+                Direction direction = DIRECTIONS[node.push % DIRECTIONS.length];
+                int stand = neighbours[crate * DIRECTIONS.length + opposite(direction)];
+                moves.append(walkPath(crates, keeper, stand));
+                moves.append(Character.toUpperCase(direction.symbol));
+                crates = node.crates;
+                keeper = crate;
+            }
+            return moves.toString();
+        }
+
+        /**
+         * Returns the shortest walk of the keeper between two cells, in lower case LURD notation.
+         */
+        private String walkPath(int[] crates, int from, int to) {
+            int[] previous = new int[cells];
+            Arrays.fill(previous, -1);
+            for (int crate : crates) {
+                occupied[crate] = true;
+            }
+            int head = 0;
+            int tail = 0;
+            queue[tail++] = from;
+            previous[from] = from;
+            while (head < tail && previous[to] < 0) {
+                int cell = queue[head++];
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int next = neighbours[cell * DIRECTIONS.length + d];
+                    if (next >= 0 && !occupied[next] && previous[next] < 0) {
+                        previous[next] = cell;
+                        queue[tail++] = next;
+                    }
+                }
+            }
+            for (int crate : crates) {
+                occupied[crate] = false;
+            }
+            StringBuilder steps = new StringBuilder();
+            for (int cell = to; cell != from; cell = previous[cell]) {
+                int before = previous[cell];
+                for (Direction direction : DIRECTIONS) {
+                    if (neighbours[before * DIRECTIONS.length + direction.ordinal()] == cell) {
+                        steps.append(direction.symbol);
+                        break;
+                    }
+                }
+            }
+            return steps.reverse().toString();
+        }
+    }
+
+    private static int opposite(Direction direction) {
+        return (direction.ordinal() + 2) % DIRECTIONS.length;
+    }
+
+    private static boolean isCrate(int[] crates, int cell) {
+        return Arrays.binarySearch(crates, cell) >= 0;
+    }
+
+    /**
+     * Returns a sorted copy of the crates with one of them moved.
+     */
+    private static int[] replace(int[] crates, int index, int cell) {
+        int[] moved = crates.clone();
+        moved[index] = cell;
+        Arrays.sort(moved);
+        return moved;
+    }
+
+    /**
+     * A position reached by the search.
+     */
+    private static final class Node {
+        final int[] crates;
+        final Key key;
+        /** The index of the position this one was pushed from */
+        final int parent;
+        /** The push from the parent, {@code crate * 4 + direction} */
+        final int push;
+        final int depth;
+
+        Node(int[] crates, int keeper, int parent, int push, int depth) {
+            this.crates = crates;
+            this.key = new Key(crates, keeper);
+            this.parent = parent;
+            this.push = push;
+            this.depth = depth;
+        }
+    }
+
+    /**
+     * The crates and the area of the keeper, which identify a position.
+     */
+    private static final class Key {
+        private final int[] cells;
+        private final int hash;
+
+        Key(int[] crates, int keeper) {
+            cells = Arrays.copyOf(crates, crates.length + 1);
+            cells[crates.length] = keeper;
+            hash = Arrays.hashCode(cells);
+        }
+
+        int keeper() {
+            return cells[cells.length - 1];
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key && Arrays.equals(cells, ((Key) other).cells);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
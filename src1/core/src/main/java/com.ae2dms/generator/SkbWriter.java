@@ -0,0 +1,52 @@
+package com.ae2dms.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Writes boards as a level pack in the skb format read by {@link com.ae2dms.model.GameEngine}.
+ *
+ * @version 2.0
+ */
+public final class SkbWriter {
+
+    private SkbWriter() {
+    }
+
+    /**
+     * Writes a pack, naming the levels "Level 1", "Level 2" and so on.
+     *
+     * @param out        the output, not closed
+     * @param mapSetName the name of the pack
+     * @param boards     the levels
+     * @throws IOException           if the output fails
+     * @throws IllegalStateException if a keeper stands on a diamond, which the format cannot store
+     */
+    public static void write(Writer out, String mapSetName, List<Board> boards) throws IOException {
+        out.write("MapSetName: " + mapSetName + "\n");
+        for (int i = 0; i < boards.size(); i++) {
+            writeLevel(out, "Level " + (i + 1), boards.get(i));
+            if (i < boards.size() - 1) {
+                out.write('\n');
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes one level.
+     *
+     * @param out   the output
+     * @param name  the name of the level
+     * @param board the level
+     * @throws IOException if the output fails
+     */
+    public static void writeLevel(Writer out, String name, Board board) throws IOException {
+        out.write("LevelName: " + name + "\n");
+        for (String row : board.toRows()) {
+            out.write(row);
+            out.write('\n');
+        }
+    }
+}
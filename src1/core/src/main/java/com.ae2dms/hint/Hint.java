@@ -0,0 +1,154 @@
+package com.ae2dms.hint;
+
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+
+import java.util.Arrays;
+
+/**
+ * Hint is the advice of the {@link HintService} for one position: the next push of a solution with the fewest
+ * pushes, or why there is none.
+ * <p>
+ * The hint names the push, not the walk to it, so it stays valid while the keeper walks around without pushing;
+ * {@link #getMoves(Level)} finds the walk from wherever the keeper stands.
+ *
+ * @version 2.0
+ */
+public final class Hint {
+
+    /**
+     * What the hint says.
+     */
+    public enum Kind {
+        /** A crate should be pushed */
+        PUSH,
+        /** No solution exists from the position; the last pushes must be undone */
+        DEADLOCK,
+        /** The solver gave up before finding a solution */
+        UNKNOWN
+    }
+
+    /** The hint for positions proven unsolvable */
+    static final Hint DEADLOCK = new Hint(Kind.DEADLOCK, -1, -1, null, -1);
+
+    /** The hint for positions too hard for the solver */
+    static final Hint UNKNOWN = new Hint(Kind.UNKNOWN, -1, -1, null, -1);
+
+    private final Kind kind;
+
+    private final int crateRow;
+
+    private final int crateColumn;
+
+    private final Direction direction;
+
+    private final int pushesLeft;
+
+    Hint(Kind kind, int crateRow, int crateColumn, Direction direction, int pushesLeft) {
+        this.kind = kind;
+        this.crateRow = crateRow;
+        this.crateColumn = crateColumn;
+        this.direction = direction;
+        this.pushesLeft = pushesLeft;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int getCrateRow() {
+        return crateRow;
+    }
+
+    public int getCrateColumn() {
+        return crateColumn;
+    }
+
+    /**
+     * Returns the direction to push the crate in.
+     *
+     * @return the direction, {@code null} unless the hint is a push
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Returns the number of pushes of the solution, this one included.
+     *
+     * @return the number of pushes, -1 unless the hint is a push
+     */
+    public int getPushesLeft() {
+        return pushesLeft;
+    }
+
+    /**
+     * Returns the moves that walk the keeper to the crate and push it, in LURD notation.
+     *
+     * @param level the level in the position of the hint, the keeper anywhere in its area
+     * @return the moves, {@code null} unless the hint is a push the keeper can reach
+     */
+    public String getMoves(Level level) {
+        if (kind != Kind.PUSH) {
+            return null;
+        }
+        int columns = level.levelColumn;
+        int cells = level.levelRow * columns;
+        int stand = (crateRow - direction.rowDelta) * columns + crateColumn - direction.columnDelta;
+        int keeper = level.getKeeperRow() * columns + level.getKeeperColumn();
+        int[] parents = new int[cells];
+        Arrays.fill(parents, -2);
+        int[] queue = new int[cells];
+        int head = 0;
+        int size = 0;
+        queue[size++] = keeper;
+        parents[keeper] = -1;
+        while (head < size && parents[stand] == -2) {
+            int cell = queue[head++];
+            for (Direction step : Direction.values()) {
+                int row = cell / columns + step.rowDelta;
+                int column = cell % columns + step.columnDelta;
+                if (row < 0 || row >= level.levelRow || column < 0 || column >= columns) {
+                    continue;
+                }
+                int next = row * columns + column;
+                GameObject object = level.objectsGrid.getGameObjectAt(row, column);
+                if (parents[next] != -2 || object == null || object == GameObject.WALL || object == GameObject.CRATE) {
+                    continue;
+                }
+                parents[next] = cell;
+                queue[size++] = next;
+            }
+        }
+        if (parents[stand] == -2) {
+            return null;
+        }
+        StringBuilder moves = new StringBuilder();
+        moves.append(Character.toUpperCase(direction.symbol));
+        for (int cell = stand; parents[cell] >= 0; cell = parents[cell]) {
+            int from = parents[cell];
+            moves.append(Direction.fromDelta(cell / columns - from / columns, cell % columns - from % columns).symbol);
+        }
+        return moves.reverse().toString();
+    }
+
+    /**
+     * Describes the hint for the player.
+     *
+     * @return the hint in words
+     */
+    @Override
+    public String toString() {
+        switch (kind) {
+            case PUSH:
+                return "Push the crate at row " + (crateRow + 1) + ", column " + (crateColumn + 1) + " "
+                        + direction.name().toLowerCase() + " (" + pushesLeft + (pushesLeft == 1 ? " push" : " pushes")
+                        + " to go)";
+            case DEADLOCK:
+                return "This position cannot be solved any more: undo or reset the level";
+            default:
+                return "No solution was found in time";
+        }
+    }
+}
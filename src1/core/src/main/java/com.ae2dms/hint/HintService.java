@@ -0,0 +1,325 @@
+package com.ae2dms.hint;
+
+import com.ae2dms.cache.LevelAnalysis;
+import com.ae2dms.cache.LevelAnalyzer;
+import com.ae2dms.cache.LevelCache;
+import com.ae2dms.dedupe.CanonicalLevel;
+import com.ae2dms.generator.PushSolver;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * HintService computes {@link Hint}s in the background while the player thinks, so that asking for one answers
+ * at once instead of freezing the user interface during a search.
+ * <p>
+ * {@link #speculate(Level)} starts solving a position on the hint thread, cancelling the search for any other
+ * position; {@link #cancel()} stops it when the player moves again. When a solution is found, the hint of every
+ * position along it is remembered, keyed by the crates and the area of the keeper, so a player who follows the
+ * hints, or walks without pushing, gets the next ones without another search. {@link #requestHint(Level)} answers
+ * from the remembered hints, or waits for the search of the position.
+ * <p>
+ * The levels given to the service must not be modified afterwards, e.g. the levels of
+ * {@link com.ae2dms.model.GameSnapshot}s.
+ *
+ * @version 2.0
+ */
+public class HintService implements AutoCloseable {
+
+    /** The number of positions remembered, along the solutions found */
+    private static final int MAX_HINTS = 4096;
+
+    private final LevelCache cache;
+
+    private final int maxStates;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Hint search");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    /** The hints found, the least recently used first */
+    private final Map<Position, Hint> hints = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Position, Hint> eldest) {
+            return size() > MAX_HINTS;
+        }
+    };
+
+    /** The walls of the level the hints are for */
+    private boolean[] walls;
+
+    /** The position being searched, {@code null} if none */
+    private Position searched;
+
+    private CompletableFuture<Hint> result;
+
+    private Future<?> search;
+
+    /**
+     * Creates a service that solves positions with the default limit and no cache.
+     */
+    public HintService() {
+        this(null, LevelAnalyzer.DEFAULT_MAX_STATES);
+    }
+
+    /**
+     * Creates a service.
+     *
+     * @param cache     the analyses to look the positions up in before solving them, {@code null} for none
+     * @param maxStates the number of positions after which the solver gives up
+     */
+    public HintService(LevelCache cache, int maxStates) {
+        this.cache = cache;
+        this.maxStates = maxStates;
+    }
+
+    /**
+     * Returns the hint for a position if it is already known.
+     *
+     * @param level the position
+     * @return the hint, {@code null} if it is not known yet
+     */
+    public synchronized Hint getHint(Level level) {
+        return hints.get(position(level));
+    }
+
+    /**
+     * Starts computing the hint for a position in the background unless it is known or being computed,
+     * cancelling the search for any other position.
+     *
+     * @param level the position, not modified afterwards
+     */
+    public synchronized void speculate(Level level) {
+        requestHint(level);
+    }
+
+    /**
+     * Returns the hint for a position, computing it in the background if needed.
+     *
+     * @param level the position, not modified afterwards
+     * @return the hint, completed at once if it is known
+     */
+    public synchronized CompletableFuture<Hint> requestHint(Level level) {
+        Position position = position(level);
+        Hint hint = hints.get(position);
+        if (hint != null) {
+            return CompletableFuture.completedFuture(hint);
+        }
+        if (position.equals(searched)) {
+            return result;
+        }
+        cancel();
+        CompletableFuture<Hint> future = new CompletableFuture<>();
+        searched = position;
+        result = future;
+        search = executor.submit(() -> {
+            try {
+                future.complete(solve(level, position));
+            } catch (CancellationException e) {
+                future.cancel(false);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                finished(future);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Stops the search in progress, if any; its result is cancelled.
+     */
+    public synchronized void cancel() {
+        if (search != null) {
+            search.cancel(true);
+            result.cancel(false);
+            search = null;
+            result = null;
+            searched = null;
+        }
+    }
+
+    private synchronized void finished(CompletableFuture<Hint> future) {
+        if (result == future) {
+            search = null;
+            result = null;
+            searched = null;
+        }
+    }
+
+    /**
+     * Stops the hint thread.
+     */
+    @Override
+    public synchronized void close() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Solves a position on the hint thread and remembers the hints along the solution.
+     */
+    private Hint solve(Level level, Position position) {
+        CanonicalLevel canonical = CanonicalLevel.of(level);
+        String solution = null;
+        Hint hint = Hint.UNKNOWN;
+        if (cache != null) {
+            try {
+                LevelAnalysis analysis = cache.get(canonical.getFingerprint());
+                if (analysis != null && analysis.isSolved()) {
+                    solution = canonical.toLevelMoves(analysis.getSolution());
+                }
+            } catch (IOException e) {
+                // Solve the position instead
+            }
+        }
+        if (solution == null) {
+            PushSolver.Result result = new PushSolver(maxStates).solve(canonical.toBoard());
+            if (result.isSolved()) {
+                solution = canonical.toLevelMoves(result.getMoves());
+            } else if (result.getStates() <= maxStates) {
+                // The search ran out of positions before its limit, so none leads to a solution
+                hint = Hint.DEADLOCK;
+            }
+        }
+        if (solution == null) {
+            remember(position, Map.of(position, hint));
+            return hint;
+        }
+        return replay(level, position, solution);
+    }
+
+    /**
+     * Plays a solution on a copy of a position, remembering the hint before each push.
+     *
+     * @return the hint of the position
+     */
+    private Hint replay(Level level, Position position, String solution) {
+        int columns = level.levelColumn;
+        boolean[] crates = position.crates.clone();
+        int keeper = level.getKeeperRow() * columns + level.getKeeperColumn();
+        int pushesLeft = 0;
+        for (int i = 0; i < solution.length(); i++) {
+            if (Character.isUpperCase(solution.charAt(i))) {
+                pushesLeft++;
+            }
+        }
+        Map<Position, Hint> found = new LinkedHashMap<>();
+        for (int i = 0; i < solution.length(); i++) {
+            char move = solution.charAt(i);
+            Direction direction = Direction.fromChar(move);
+            int next = keeper + direction.rowDelta * columns + direction.columnDelta;
+            if (Character.isUpperCase(move)) {
+                found.putIfAbsent(new Position(crates.clone(), area(position.walls, crates, columns, keeper)),
+                        new Hint(Hint.Kind.PUSH, next / columns, next % columns, direction, pushesLeft--));
+                crates[next] = false;
+                crates[next + direction.rowDelta * columns + direction.columnDelta] = true;
+            }
+            keeper = next;
+        }
+        remember(position, found);
+        return found.getOrDefault(position, Hint.UNKNOWN);
+    }
+
+    /**
+     * Keeps the hints found by a search, unless the level has changed since it started.
+     */
+    private synchronized void remember(Position searched, Map<Position, Hint> found) {
+        if (searched.walls == walls) {
+            hints.putAll(found);
+        }
+    }
+
+    /**
+     * Returns the position of a level, forgetting the hints if the level has other walls than the previous one.
+     */
+    private Position position(Level level) {
+        int columns = level.levelColumn;
+        boolean[] levelWalls = new boolean[level.levelRow * columns];
+        boolean[] crates = new boolean[levelWalls.length];
+        for (int row = 0, cell = 0; row < level.levelRow; row++) {
+            for (int column = 0; column < columns; column++, cell++) {
+                GameObject object = level.objectsGrid.getGameObjectAt(row, column);
+                levelWalls[cell] = object == null || object == GameObject.WALL;
+                crates[cell] = object == GameObject.CRATE;
+            }
+        }
+        if (walls == null || !Arrays.equals(walls, levelWalls)) {
+            cancel();
+            hints.clear();
+            walls = levelWalls;
+        }
+        return new Position(crates, area(walls, crates, columns, level.getKeeperRow() * columns + level.getKeeperColumn()));
+    }
+
+    /**
+     * Returns the first cell, in row order, of the area the keeper can walk to without pushing.
+     */
+    private static int area(boolean[] walls, boolean[] crates, int columns, int keeper) {
+        boolean[] reached = new boolean[walls.length];
+        int[] queue = new int[walls.length];
+        int head = 0;
+        int size = 0;
+        int first = keeper;
+        queue[size++] = keeper;
+        reached[keeper] = true;
+        while (head < size) {
+            int cell = queue[head++];
+            first = Math.min(first, cell);
+            for (Direction step : Direction.values()) {
+                int row = cell / columns + step.rowDelta;
+                int column = cell % columns + step.columnDelta;
+                int next = row * columns + column;
+                if (row < 0 || column < 0 || column >= columns || next >= walls.length || reached[next]
+                        || walls[next] || crates[next]) {
+                    continue;
+                }
+                reached[next] = true;
+                queue[size++] = next;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * The crates and the area of the keeper, which are all that matters to the next push.
+     */
+    private final class Position {
+        final boolean[] crates;
+        final int keeperArea;
+        final boolean[] walls;
+
+        Position(boolean[] crates, int keeperArea) {
+            this.crates = crates;
+            this.keeperArea = keeperArea;
+            this.walls = HintService.this.walls;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Position)) {
+                return false;
+            }
+            Position position = (Position) other;
+            return keeperArea == position.keeperArea && Arrays.equals(crates, position.crates);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(crates) + keeperArea;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.ae2dms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one call of {@code GameEngine.applyMoves}, e.g. a pasted solution.
+ *
+ * @version 2.0
+ */
+@Name("com.ae2dms.ApplyMoves")
+@Label("Apply Moves")
+@Category({"MySokobanFX", "Engine"})
+@Description("A string of moves played as a single step, up to the first illegal move")
+@StackTrace(false)
+public class ApplyMovesEvent extends jdk.jfr.Event {
+
+    @Label("Level Index")
+    public int levelIndex;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Columns")
+    public int columns;
+
+    @Label("Moves")
+    @Description("Number of moves played")
+    public int moves;
+
+    @Label("Pushes")
+    @Description("Number of moves played that pushed a crate")
+    public int pushes;
+
+    @Label("Illegal Move")
+    @Description("Whether playing stopped at an illegal move")
+    public boolean illegalMove;
+
+    @Label("Level Complete")
+    public boolean levelComplete;
+}
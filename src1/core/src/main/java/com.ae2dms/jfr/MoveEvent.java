@@ -0,0 +1,43 @@
+package com.ae2dms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one call of {@code GameEngine.move}.
+ *
+ * @version 2.0
+ */
+@Name("com.ae2dms.Move")
+@Label("Move")
+@Category({"MySokobanFX", "Engine"})
+@Description("A move of the warehouse keeper, including the level copy kept for undo and the completion check")
+@StackTrace(false)
+public class MoveEvent extends jdk.jfr.Event {
+
+    @Label("Level Index")
+    public int levelIndex;
+
+    @Label("Direction")
+    @Description("LURD character of the direction")
+    public char direction;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Columns")
+    public int columns;
+
+    @Label("Cells Touched")
+    @Description("0 if the keeper was blocked, 2 for a move, 3 for a push")
+    public int cellsTouched;
+
+    @Label("Pushed")
+    public boolean pushed;
+
+    @Label("Level Complete")
+    public boolean levelComplete;
+}
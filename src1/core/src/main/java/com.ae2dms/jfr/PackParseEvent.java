@@ -0,0 +1,33 @@
+package com.ae2dms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the parsing of a level pack by {@code GameEngine.loadGameFile}.
+ *
+ * @version 2.0
+ */
+@Name("com.ae2dms.PackParse")
+@Label("Pack Parse")
+@Category({"MySokobanFX", "I/O"})
+@Description("Parsing of a whole level pack")
+public class PackParseEvent extends jdk.jfr.Event {
+
+    @Label("Map Set Name")
+    public String mapSetName;
+
+    @Label("Levels")
+    public int levels;
+
+    @Label("Cells")
+    @Description("Total number of cells of the parsed levels")
+    public long cells;
+
+    @Label("Characters Read")
+    @DataAmount
+    public long charactersRead;
+}
@@ -0,0 +1,35 @@
+package com.ae2dms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one call of {@code MainController.reloadGrid}.
+ *
+ * @version 2.0
+ */
+@Name("com.ae2dms.ReloadGrid")
+@Label("Reload Grid")
+@Category({"MySokobanFX", "Rendering"})
+@Description("Drawing of the current level into the main window")
+@StackTrace(false)
+public class ReloadGridEvent extends jdk.jfr.Event {
+
+    @Label("Level Index")
+    public int levelIndex;
+
+    @Label("Rows")
+    public int rows;
+
+    @Label("Columns")
+    public int columns;
+
+    @Label("Cells Drawn")
+    public int cellsDrawn;
+
+    @Label("Renderer")
+    public String renderer;
+}
@@ -0,0 +1,32 @@
+package com.ae2dms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering the writing of a save file.
+ *
+ * @version 2.0
+ */
+@Name("com.ae2dms.SaveGame")
+@Label("Save Game")
+@Category({"MySokobanFX", "I/O"})
+@Description("Writing the current level and the following ones to a save file")
+public class SaveGameEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Level Index")
+    public int levelIndex;
+
+    @Label("Levels")
+    public int levels;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+}
@@ -0,0 +1,40 @@
+package com.ae2dms.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event covering a read or a write of the score file.
+ *
+ * @version 2.0
+ */
+@Name("com.ae2dms.ScoreFile")
+@Label("Score File")
+@Category({"MySokobanFX", "I/O"})
+@Description("Recording a score or loading the score list")
+public class ScoreFileEvent extends jdk.jfr.Event {
+
+    /** Value of {@link #operation} when a score is appended */
+    public static final String RECORD = "record";
+
+    /** Value of {@link #operation} when the scores are read */
+    public static final String LOAD = "load";
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Scores")
+    @Description("Number of scores read or written")
+    public int scores;
+
+    @Label("Bytes")
+    @Description("Number of bytes read or written")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,145 @@
+package com.ae2dms.metrics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EngineMetrics holds the counters and timers of the game, always on and readable over JMX.
+ * <p>
+ * Unlike the {@link PerformanceMonitor} histograms, these only count and sum, which costs a striped
+ * {@link LongAdder} update per event, so they are cheap enough to stay enabled in production.
+ *
+ * @version 2.0
+ */
+public final class EngineMetrics implements EngineMetricsMXBean {
+
+    /** The name under which the metrics are registered in the platform MBean server */
+    public static final String OBJECT_NAME = "com.ae2dms:type=EngineMetrics";
+
+    /** Moves that changed the keeper position */
+    public static final LongAdder MOVES = new LongAdder();
+
+    /** Moves that pushed a crate */
+    public static final LongAdder PUSHES = new LongAdder();
+
+    /** Moves that were undone */
+    public static final LongAdder UNDOS = new LongAdder();
+
+    /** Levels parsed from pack files */
+    public static final LongAdder LEVEL_LOADS = new LongAdder();
+
+    /** Full copies of a level, made when a level is started or reset */
+    public static final LongAdder LEVEL_CLONES = new LongAdder();
+
+    /** Time spent parsing a whole pack file */
+    public static final MetricTimer PACK_PARSE = new MetricTimer();
+
+    /** Time spent in {@code MainController.reloadGrid} */
+    public static final MetricTimer RELOAD_GRID = new MetricTimer();
+
+    /** Time spent reading or writing the score file */
+    public static final MetricTimer SCORE_IO = new MetricTimer();
+
+    private static final EngineMetrics INSTANCE = new EngineMetrics();
+
+    private EngineMetrics() {
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server. Calling it again has no effect.
+     */
+    public static void register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Already registered
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register " + OBJECT_NAME, e);
+        }
+    }
+
+    @Override
+    public long getMoves() {
+        return MOVES.sum();
+    }
+
+    @Override
+    public long getPushes() {
+        return PUSHES.sum();
+    }
+
+    @Override
+    public long getUndos() {
+        return UNDOS.sum();
+    }
+
+    @Override
+    public long getLevelLoads() {
+        return LEVEL_LOADS.sum();
+    }
+
+    @Override
+    public long getLevelClones() {
+        return LEVEL_CLONES.sum();
+    }
+
+    @Override
+    public long getPackParseCount() {
+        return PACK_PARSE.getCount();
+    }
+
+    @Override
+    public double getPackParseMeanMillis() {
+        return PACK_PARSE.getMeanMillis();
+    }
+
+    @Override
+    public double getPackParseMaxMillis() {
+        return PACK_PARSE.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public long getReloadGridCount() {
+        return RELOAD_GRID.getCount();
+    }
+
+    @Override
+    public double getReloadGridMeanMillis() {
+        return RELOAD_GRID.getMeanMillis();
+    }
+
+    @Override
+    public double getReloadGridMaxMillis() {
+        return RELOAD_GRID.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public long getScoreIoCount() {
+        return SCORE_IO.getCount();
+    }
+
+    @Override
+    public double getScoreIoMeanMillis() {
+        return SCORE_IO.getMeanMillis();
+    }
+
+    @Override
+    public double getScoreIoMaxMillis() {
+        return SCORE_IO.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public void reset() {
+        MOVES.reset();
+        PUSHES.reset();
+        UNDOS.reset();
+        LEVEL_LOADS.reset();
+        LEVEL_CLONES.reset();
+        PACK_PARSE.reset();
+        RELOAD_GRID.reset();
+        SCORE_IO.reset();
+    }
+}
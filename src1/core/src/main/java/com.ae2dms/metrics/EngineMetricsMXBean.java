@@ -0,0 +1,43 @@
+package com.ae2dms.metrics;
+
+/**
+ * Management interface of {@link EngineMetrics}, published as {@value EngineMetrics#OBJECT_NAME}.
+ * Durations are given in milliseconds.
+ *
+ * @version 2.0
+ */
+public interface EngineMetricsMXBean {
+
+    long getMoves();
+
+    long getPushes();
+
+    long getUndos();
+
+    long getLevelLoads();
+
+    long getLevelClones();
+
+    long getPackParseCount();
+
+    double getPackParseMeanMillis();
+
+    double getPackParseMaxMillis();
+
+    long getReloadGridCount();
+
+    double getReloadGridMeanMillis();
+
+    double getReloadGridMaxMillis();
+
+    long getScoreIoCount();
+
+    double getScoreIoMeanMillis();
+
+    double getScoreIoMaxMillis();
+
+    /**
+     * Sets every counter and timer back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,147 @@
+package com.ae2dms.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram records durations in nanoseconds into log-linear buckets, in the style of an HDR histogram.
+ * <p>
+ * Values are grouped by power of two, and every power of two is split into {@link #SUB_BUCKETS} linear buckets,
+ * which keeps the relative error of the reported percentiles around 3% over the whole range of a {@code long}.
+ * Recording is lock-free and allocation-free, so it can be called from the move and render paths.
+ *
+ * @version 2.0
+ */
+public class LatencyHistogram {
+
+    /** The number of bits resolved linearly inside a power of two */
+    private static final int SUB_BUCKET_BITS = 6;
+
+    /** The number of linear buckets below the first power of two */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /** The number of linear buckets of each following power of two */
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    /** The mask of the values recorded linearly */
+    private static final long SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+
+    /** The number of buckets needed to cover every positive {@code long} */
+    private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS + 1) * HALF_SUB_BUCKETS + HALF_SUB_BUCKETS;
+
+    /** The name of the recorded operation */
+    private final String name;
+
+    /** The number of values recorded in every bucket */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    /** The number of recorded values */
+    private final AtomicLong totalCount = new AtomicLong();
+
+    /** The largest recorded value */
+    private final AtomicLong maxValue = new AtomicLong();
+
+    /**
+     * Creates an empty histogram.
+     *
+     * @param name the name of the recorded operation
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos the duration in nanoseconds, negative values are recorded as zero
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalCount.incrementAndGet();
+
+        long max = maxValue.get();
+        while (value > max && !maxValue.compareAndSet(max, value)) {
+            max = maxValue.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+
+    /**
+     * Returns the largest recorded value.
+     *
+     * @return the largest recorded value in nanoseconds
+     */
+    public long getMax() {
+        return maxValue.get();
+    }
+
+    /**
+     * Returns the value below which the given percentage of the recorded values fall.
+     *
+     * @param percentile the percentile, between 0 and 100
+     * @return the highest value equivalent to the percentile, in nanoseconds, or 0 if nothing has been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * Math.min(100, percentile) / 100));
+        long seen = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            seen += counts.get(index);
+            if (seen >= target) {
+                return Math.min(highestEquivalentValue(index), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Forgets every recorded value.
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            counts.set(index, 0);
+        }
+        totalCount.set(0);
+        maxValue.set(0);
+    }
+
+    /**
+     * Returns the bucket holding the given value.
+     *
+     * @param value a non negative value
+     * @return the index of the bucket
+     */
+    static int bucketIndex(long value) {
+        int magnitude = 64 - Long.numberOfLeadingZeros(value | SUB_BUCKET_MASK) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> magnitude);
+        return magnitude * HALF_SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Returns the largest value held by the given bucket.
+     *
+     * @param index the index of the bucket
+     * @return the largest value of the bucket
+     */
+    static long highestEquivalentValue(int index) {
+        int magnitude = Math.max(0, (index - HALF_SUB_BUCKETS) / HALF_SUB_BUCKETS);
+        long subBucket = index - (long) magnitude * HALF_SUB_BUCKETS;
+        return ((subBucket + 1) << magnitude) - 1;
+    }
+}
@@ -0,0 +1,75 @@
+package com.ae2dms.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricTimer counts the occurrences of an operation and sums up their durations.
+ * <p>
+ * It is built on striped {@link LongAdder}s, so recording from several threads never takes a lock.
+ *
+ * @version 2.0
+ */
+public final class MetricTimer {
+
+    /** The number of recorded operations */
+    private final LongAdder count = new LongAdder();
+
+    /** The sum of the recorded durations in nanoseconds */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /** The longest recorded duration in nanoseconds */
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Returns the start time of a measurement.
+     *
+     * @return the current time in nanoseconds
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the time elapsed since a measurement started.
+     *
+     * @param start the value returned by {@link #start()}
+     */
+    public void record(long start) {
+        long elapsed = System.nanoTime() - start;
+        count.increment();
+        totalNanos.add(elapsed);
+        maxNanos.accumulate(elapsed);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the mean duration.
+     *
+     * @return the mean duration in milliseconds, 0 if nothing was recorded
+     */
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : totalNanos.sum() / (n * 1e6);
+    }
+
+    /**
+     * Clears the measurements.
+     */
+    public void reset() {
+        count.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+    }
+}
@@ -0,0 +1,110 @@
+package com.ae2dms.metrics;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+
+/**
+ * PerformanceMonitor holds the histograms shown by the metrics overlay.
+ * <p>
+ * Recording is disabled by default. While disabled, {@link #start()} returns 0 and {@link #record(LatencyHistogram, long)}
+ * ignores it, so the instrumented code only pays for a volatile read.
+ *
+ * @version 2.0
+ */
+public final class PerformanceMonitor {
+
+    /** Time between a key press and the first frame showing its effect */
+    public static final LatencyHistogram KEY_TO_PAINT = new LatencyHistogram("key to paint");
+
+    /** Time spent in {@code GameEngine.move}, or in {@code GameEngine.applyMoves} for a whole string of moves */
+    public static final LatencyHistogram ENGINE_MOVE = new LatencyHistogram("GameEngine.move");
+
+    /** Time spent in {@code Level.isComplete} */
+    public static final LatencyHistogram LEVEL_COMPLETE = new LatencyHistogram("Level.isComplete");
+
+    /** Time spent in {@code MainController.reloadGrid} */
+    public static final LatencyHistogram RELOAD_GRID = new LatencyHistogram("reloadGrid");
+
+    /** Garbage collection pauses */
+    public static final LatencyHistogram GC_PAUSE = new LatencyHistogram("GC pause");
+
+    /** Whether the histograms are recording */
+    private static volatile boolean enabled = false;
+
+    /** Whether the garbage collection listeners have been registered */
+    private static boolean gcListenersInstalled = false;
+
+    private PerformanceMonitor() {
+    }
+
+    /**
+     * Returns {@code true} if the histograms are recording.
+     *
+     * @return {@code true} if the monitor is enabled
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts or stops recording. Starting clears the previous measurements.
+     *
+     * @param enable {@code true} to start recording
+     */
+    public static synchronized void setEnabled(boolean enable) {
+        if (enable && !enabled) {
+            KEY_TO_PAINT.reset();
+            ENGINE_MOVE.reset();
+            LEVEL_COMPLETE.reset();
+            RELOAD_GRID.reset();
+            GC_PAUSE.reset();
+            installGcListeners();
+        }
+        enabled = enable;
+    }
+
+    /**
+     * Returns the start time of a measurement.
+     *
+     * @return the current time in nanoseconds, or 0 if the monitor is disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time elapsed since a measurement started.
+     *
+     * @param histogram the histogram receiving the measurement
+     * @param start     the value returned by {@link #start()}
+     */
+    public static void record(LatencyHistogram histogram, long start) {
+        if (start != 0 && enabled) {
+            histogram.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Registers a listener recording the duration of every garbage collection into {@link #GC_PAUSE}.
+     */
+    private static void installGcListeners() {
+        if (gcListenersInstalled) {
+            return;
+        }
+        gcListenersInstalled = true;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter) {
+                ((NotificationEmitter) collector).addNotificationListener((notification, handback) -> {
+                    if (enabled && GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                        GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                        GC_PAUSE.record(info.getGcInfo().getDuration() * 1_000_000L);
+                    }
+                }, null, null);
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.ae2dms.model;
+
+/**
+ * CellConsumer visits the cells of a {@link GameGrid} or a {@link Level}, receiving the coordinates as primitives so
+ * that a scan over a whole level allocates nothing per cell.
+ *
+ * @version 2.0
+ * @see Level#forEachCell(CellConsumer)
+ */
+@FunctionalInterface
+public interface CellConsumer {
+
+    /**
+     * Visits one cell.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @param object the object in the cell, may be {@code null} in a {@link GameGrid}
+     */
+    void accept(int row, int column, GameObject object);
+}
@@ -0,0 +1,74 @@
+package com.ae2dms.model;
+
+import java.awt.*;
+
+/**
+ * The four directions the warehouse keeper can move in.
+ * <p>
+ * Each direction is expressed as a change of row and column on the level grid,
+ * and has the character used for it in the usual LURD move notation.
+ */
+public enum Direction {
+    UP(-1, 0, 'u'),
+    RIGHT(0, 1, 'r'),
+    DOWN(1, 0, 'd'),
+    LEFT(0, -1, 'l');
+
+    /** The change of row */
+    public final int rowDelta;
+
+    /** The change of column */
+    public final int columnDelta;
+
+    /** The lower case LURD character of the direction */
+    public final char symbol;
+
+    /** Cached result of {@link #values()}, which copies the array on every call */
+    private static final Direction[] VALUES = values();
+
+    Direction(final int rowDelta, final int columnDelta, final char symbol) {
+        this.rowDelta = rowDelta;
+        this.columnDelta = columnDelta;
+        this.symbol = symbol;
+    }
+
+    /**
+     * Returns the direction associated with a LURD character, ignoring case.
+     *
+     * @param c the char to look for
+     * @return the {@link Direction} corresponding to the char, {@code null} if there is none
+     */
+    public static Direction fromChar(char c) {
+        for (Direction direction : VALUES) {
+            if (Character.toLowerCase(c) == direction.symbol) {
+                return direction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the direction matching a change of row and column.
+     *
+     * @param rowDelta    the change of row
+     * @param columnDelta the change of column
+     * @return the {@link Direction} with these deltas, {@code null} if there is none
+     */
+    public static Direction fromDelta(int rowDelta, int columnDelta) {
+        for (Direction direction : VALUES) {
+            if (direction.rowDelta == rowDelta && direction.columnDelta == columnDelta) {
+                return direction;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the direction as the delta used by the {@link GameGrid}.
+     *
+     * @return a new {@link Point} holding the change of row and column
+     */
+    public Point toPoint() {
+        return new Point(rowDelta, columnDelta);
+    }
+}
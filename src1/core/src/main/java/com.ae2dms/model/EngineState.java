@@ -0,0 +1,74 @@
+package com.ae2dms.model;
+
+/**
+ * EngineState is a compact copy of the progress of a {@link GameEngine}: the level being played, the cells
+ * of the keeper and of the crates, and the counters.
+ * <p>
+ * Walls, floors and diamonds never change, so they are not stored; {@link GameEngine#restoreState(EngineState)}
+ * takes them from the level set. The undo step is not kept.
+ *
+ * @version 2.0
+ */
+public final class EngineState {
+
+    /** The index of the current level, 0 once the game is complete */
+    private final int levelIndex;
+
+    /** The cells of the keeper and of the crates, see {@link Level#getMovablePositions()} */
+    private final int[] positions;
+
+    private final int movesCount;
+
+    private final int pushesCount;
+
+    private final long startTime;
+
+    private final double gameTime;
+
+    EngineState(int levelIndex, int[] positions, int movesCount, int pushesCount, long startTime, double gameTime) {
+        this.levelIndex = levelIndex;
+        this.positions = positions;
+        this.movesCount = movesCount;
+        this.pushesCount = pushesCount;
+        this.startTime = startTime;
+        this.gameTime = gameTime;
+    }
+
+    /**
+     * Returns the index of the level being played.
+     *
+     * @return the level index, 0 if the game is complete
+     */
+    public int getLevelIndex() {
+        return levelIndex;
+    }
+
+    public int getMovesCount() {
+        return movesCount;
+    }
+
+    public int getPushesCount() {
+        return pushesCount;
+    }
+
+    /**
+     * Returns the approximate heap size of this state.
+     *
+     * @return the size in bytes
+     */
+    public long getEstimatedBytes() {
+        return 56 + 16 + 4L * (positions == null ? 0 : positions.length);
+    }
+
+    int[] getPositions() {
+        return positions;
+    }
+
+    long getStartTime() {
+        return startTime;
+    }
+
+    double getGameTime() {
+        return gameTime;
+    }
+}
@@ -0,0 +1,158 @@
+package com.ae2dms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * EngineWorker runs a {@link GameEngine} on its own thread so that the game mechanics never block the
+ * JavaFX application thread.
+ * <p>
+ * Commands are queued and applied in order by the worker thread. Every time the queue has been drained
+ * the worker publishes a {@link GameSnapshot} through an {@link AtomicReference}, so several commands
+ * queued during the same frame result in a single snapshot. Readers pick up the latest snapshot
+ * without locking, e.g. on the next pulse of an {@code AnimationTimer}.
+ *
+ * @version 2.0
+ */
+public class EngineWorker {
+
+    /** The commands waiting to be applied */
+    private final BlockingQueue<Command> commands = new LinkedBlockingQueue<>();
+
+    /** The latest published state */
+    private final AtomicReference<GameSnapshot> snapshot = new AtomicReference<>();
+
+    /** The thread applying the commands */
+    private final Thread thread;
+
+    /** The sequence number of the last submitted command */
+    private long submitted = 0;
+
+    /** The engine, only accessed by the worker thread */
+    private GameEngine engine;
+
+    /** Cleared to stop the worker thread */
+    private volatile boolean running = true;
+
+    /**
+     * Creates the worker and starts its thread.
+     */
+    public EngineWorker() {
+        thread = new Thread(this::run, GameEngine.GAME_NAME + " engine");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Replaces the engine with the one created by the factory. The factory runs on the worker thread.
+     *
+     * @param factory creates the new engine, e.g. by loading a game file
+     * @return the sequence number of the command
+     */
+    public long load(Supplier<GameEngine> factory) {
+        return enqueue(() -> engine = factory.get());
+    }
+
+    /**
+     * Queues a command to be applied to the engine on the worker thread.
+     * Commands submitted before any engine has been loaded are ignored.
+     *
+     * @param command the command to be applied
+     * @return the sequence number of the command
+     */
+    public long submit(Consumer<GameEngine> command) {
+        return enqueue(() -> {
+            if (engine != null) {
+                command.accept(engine);
+            }
+        });
+    }
+
+    /**
+     * Returns the latest published state.
+     *
+     * @return the latest snapshot, {@code null} if no engine has been loaded yet
+     */
+    public GameSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Returns {@code true} if every submitted command has been applied and published.
+     *
+     * @return {@code true} if the worker has nothing left to do
+     */
+    public synchronized boolean isIdle() {
+        GameSnapshot latest = snapshot.get();
+        return submitted == 0 || (latest != null && latest.getSequence() == submitted);
+    }
+
+    /**
+     * Stops the worker thread, discarding the commands that have not been applied yet.
+     */
+    public void shutdown() {
+        running = false;
+        thread.interrupt();
+    }
+
+    /**
+     * Adds a command to the queue, numbering it.
+     *
+     * @param action the action of the command
+     * @return the sequence number of the command
+     */
+    private synchronized long enqueue(Runnable action) {
+        Command command = new Command(++submitted, action);
+        commands.add(command);
+        return command.sequence;
+    }
+
+    /**
+     * Applies the queued commands in batches, publishing a snapshot after each batch.
+     */
+    private void run() {
+        List<Command> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(commands.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            commands.drainTo(batch);
+
+            long sequence = 0;
+            for (Command command : batch) {
+                try {
+                    command.action.run();
+                } catch (RuntimeException e) {
+                    GameLogger logger = engine != null ? engine.getLogger() : GameLogger.get(true);
+                    logger.severe("Engine command failed: " + e);
+                }
+                sequence = command.sequence;
+            }
+            batch.clear();
+
+            if (engine != null) {
+                snapshot.set(new GameSnapshot(engine, sequence));
+            }
+        }
+    }
+
+    /**
+     * A queued action with its sequence number.
+     */
+    private static final class Command {
+        final long sequence;
+        final Runnable action;
+
+        Command(long sequence, Runnable action) {
+            this.sequence = sequence;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,698 @@
+package com.ae2dms.model;
+
+import com.ae2dms.cache.AnalyzedLevel;
+import com.ae2dms.cache.LevelAnalyzer;
+import com.ae2dms.cache.LevelCache;
+import com.ae2dms.jfr.ApplyMovesEvent;
+import com.ae2dms.jfr.MoveEvent;
+import com.ae2dms.jfr.PackParseEvent;
+import com.ae2dms.jfr.ScoreFileEvent;
+import com.ae2dms.metrics.EngineMetrics;
+import com.ae2dms.metrics.PerformanceMonitor;
+import com.ae2dms.trace.TraceEvent;
+import com.ae2dms.trace.TraceRecorder;
+import java.awt.*;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * The game engine is the core component of the program and handles all the game mechanics.
+ *
+ * @version 2.0
+ */
+public class GameEngine {
+    /** Title of the main game window */
+    public static final String GAME_NAME = "MySokobanFX";
+
+    /** The file holding the scores of the finished games */
+    private static final String SCORE_FILE_PATH = "D:/score.txt";
+
+    /** Game log of this engine */
+    private final GameLogger logger;
+
+    /** The number of moves */
+    public int movesCount = 0;
+
+    /** The number of moves that pushed a crate */
+    private int pushesCount = 0;
+
+    /** The name of the level read from the skb file. */
+    public String mapSetName;
+
+    /** Debug mode flag */
+    private boolean debug = false;
+
+    /** The level currently loaded in the game  */
+    private Level currentLevel;
+
+    /** All levels loaded from skb files */
+    private List<Level> levels;
+
+    /** The problems found in the levels, computed when first needed for levels parsed elsewhere */
+    private ValidationReport validationReport;
+
+    /** The solutions and metadata of the levels, computed when first needed unless loaded through a cache */
+    private List<AnalyzedLevel> analyses;
+
+    /** The flag that records whether the game is complete */
+    private boolean gameComplete = false;
+
+    /** Game start time */
+    private long startTime;
+
+    /** Game end time */
+    private long endTime;
+
+    /** Game time */
+    public double gameTime;
+
+    public List<Double> listTimeScore = new ArrayList<Double>();
+
+    public List<Integer> listMoveScore = new ArrayList<Integer>();
+
+    /** The state of the current level before the last move, {@code null} if there is nothing to undo */
+    private Level savedLevel;
+
+    private boolean keeperMoved = false;
+    /**
+     * {@code GameEngine} constructor
+     * Load the game file and initialize the levels
+     *
+     * @param input the file containing the game levels.
+     * @param production {@code true} if using the engine in live mode, {@code false}
+     *                   only for testing mode, in which nothing is written to the log file.
+     */
+    public GameEngine(InputStream input, boolean production) {
+        this(input, GameLogger.get(production));
+    }
+
+    /**
+     * Creates an engine loading the levels from a game file and logging through the given logger.
+     *
+     * @param input  the file containing the game levels
+     * @param logger the logger of this engine
+     */
+    public GameEngine(InputStream input, GameLogger logger) {
+        this(input, logger, null);
+    }
+
+    /**
+     * Creates an engine loading the levels from a game file and analysing them through a cache, so that only the
+     * levels never seen before are solved.
+     *
+     * @param input  the file containing the game levels
+     * @param logger the logger of this engine
+     * @param cache  the cache of the analyses, {@code null} to analyse the levels only when asked
+     */
+    public GameEngine(InputStream input, GameLogger logger, LevelCache cache) {
+        this.logger = logger;
+        try {
+            levels = loadGameFile(input);
+            validationReport = PackValidator.validate(levels);
+            for (ValidationReport.LevelReport report : validationReport.getLevels()) {
+                if (!report.getIssues().isEmpty()) {
+                    logger.warning(report.toString());
+                }
+            }
+            if (cache != null) {
+                LevelAnalyzer analyzer = new LevelAnalyzer(cache, LevelAnalyzer.DEFAULT_MAX_STATES);
+                try {
+                    analyses = analyzer.analyzeAll(levels);
+                    logger.info("Analysed " + levels.size() + " levels: " + analyzer.getHits() + " cache hits, "
+                            + analyzer.getMisses() + " solved");
+                } catch (IOException e) {
+                    logger.severe("Cannot use the level cache: " + e);
+                }
+            }
+            currentLevel = getNextLevel();
+
+            startTime = System.currentTimeMillis(); //Get game start time
+
+        } catch (NoSuchElementException e) {
+            logger.warning("Cannot load the default save file: " + e.getStackTrace());
+        }
+    }
+
+    /**
+     * Creates an engine playing levels that have already been parsed, e.g. by another engine.
+     * The levels are never modified by the engine, so they can be shared by many engines.
+     *
+     * @param mapSetName the name of the level set
+     * @param levels     the levels, in order
+     * @param logger     the logger of this engine
+     */
+    public GameEngine(String mapSetName, List<Level> levels, GameLogger logger) {
+        this.logger = logger;
+        this.mapSetName = mapSetName;
+        this.levels = levels;
+        currentLevel = getNextLevel();
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Checks if the debug mode is active.
+     *
+     * @return {@code true} if the debug mode is active.
+     */
+    public boolean isDebugActive() {
+        return debug;
+    }
+
+    /**
+     * Returns the logger of this engine.
+     *
+     * @return the logger
+     */
+    public GameLogger getLogger() {
+        return logger;
+    }
+
+    public int getMovesCount() {
+        return movesCount;
+    }
+
+    /**
+     * Returns the number of moves that pushed a crate.
+     *
+     * @return the number of pushes
+     */
+    public int getPushesCount() {
+        return pushesCount;
+    }
+    /**
+     * Moves the warehouse keeper one step in the given direction, pushing the crate in front of it if possible.
+     *
+     * @param direction the moving direction
+     */
+    public void move(Direction direction) {
+        move(direction.toPoint());
+    }
+
+    /**
+     * Realize the operation of character movement
+     *
+     * @param delta moving direction
+     */
+    private void move(Point delta) {
+        // The character does not move if the game is complete
+        if (isGameComplete()) {
+            return;
+        }
+        long moveStart = PerformanceMonitor.start();
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        Level movedLevel = currentLevel;
+        // Only the rows changed by the move are copied
+        savedLevel = currentLevel.share();
+
+        // Instantiate the character and the object in the moving direction including their coordinates
+        Point keeperPosition = currentLevel.getKeeperPosition();
+        Point targetObjectPoint = GameGrid.translatePoint(keeperPosition, delta);
+
+        /* Added new method for class Level and improved encapsulation */
+        GameObject keeper = currentLevel.getObjectAt(keeperPosition);
+        GameObject keeperTarget = currentLevel.getObjectAt(targetObjectPoint);
+
+        keeperMoved = false;
+        boolean levelComplete = false;
+
+        switch (keeperTarget) {
+
+            case WALL:
+                break;
+
+            case CRATE:
+                // Get the object located at delta from this crate
+                GameObject crateTarget = currentLevel.getTargetObject(targetObjectPoint, delta);
+
+                // If the crate target is not FLOOR, the crate cannot be moved
+                /* Simplified the code logic and used new methods to improve encapsulation, making the code clearer and simpler */
+                if (crateTarget == GameObject.FLOOR) {
+                    currentLevel.moveGameObjectBy(keeperTarget, targetObjectPoint, delta);
+                    currentLevel.moveGameObjectBy(keeper, keeperPosition, delta);
+                    keeperMoved = true;
+                    pushesCount++;
+                    EngineMetrics.PUSHES.increment();
+                }
+                break;
+
+            case FLOOR:
+                /* Use new method moveGameObjectBy to improve encapsulation */
+                currentLevel.moveGameObjectBy(keeper, keeperPosition, delta);
+                keeperMoved = true;
+                break;
+
+            default:
+                logger.severe("The object to be moved was not a recognised GameObject.");
+                throw new AssertionError("This should not have happened. Report this problem to the developer.");
+        }
+
+        if (keeperMoved) {
+            keeperPosition.translate((int) delta.getX(), (int) delta.getY());
+            movesCount++;
+            EngineMetrics.MOVES.increment();
+            if (debug && TraceRecorder.isEnabled()) {
+                trace(keeperTarget == GameObject.CRATE ? TraceEvent.PUSH : TraceEvent.MOVE, delta, keeperPosition);
+            }
+            long isCompleteStart = PerformanceMonitor.start();
+            levelComplete = currentLevel.isComplete();
+            PerformanceMonitor.record(PerformanceMonitor.LEVEL_COMPLETE, isCompleteStart);
+            if (levelComplete) {
+                if (debug && TraceRecorder.isEnabled()) {
+                    TraceRecorder.record(TraceEvent.LEVEL_COMPLETE, ' ', currentLevel.getIndex(), movesCount, pushesCount);
+                }
+
+                currentLevel = getNextLevel();
+            }
+        } else if (debug && TraceRecorder.isEnabled()) {
+            trace(TraceEvent.BLOCKED, delta, keeperPosition);
+        }
+        PerformanceMonitor.record(PerformanceMonitor.ENGINE_MOVE, moveStart);
+
+        event.end();
+        if (event.shouldCommit()) {
+            Direction direction = Direction.fromDelta(delta.x, delta.y);
+            boolean pushed = keeperMoved && keeperTarget == GameObject.CRATE;
+            event.levelIndex = movedLevel.getIndex();
+            event.direction = direction == null ? '?' : direction.symbol;
+            event.rows = movedLevel.levelRow;
+            event.columns = movedLevel.levelColumn;
+            event.cellsTouched = keeperMoved ? (pushed ? 3 : 2) : 0;
+            event.pushed = pushed;
+            event.levelComplete = levelComplete;
+            event.commit();
+        }
+    }
+
+    /**
+     * Plays a string of moves in LURD notation, e.g. a pasted solution, as a single step: {@link #undo()} brings
+     * back the position before the first move. White space is skipped.
+     * <p>
+     * The moves are checked as they are played: a move into a wall or into a blocked crate, a lower case move that
+     * pushes a crate, an upper case move that does not, and any move after the level is complete are illegal.
+     * Playing stops at the first illegal move, keeping the moves before it.
+     *
+     * @param moves the moves
+     * @return the number of moves played
+     * @throws IllegalMoveException at the first illegal move
+     */
+    public int applyMoves(CharSequence moves) {
+        long applyStart = PerformanceMonitor.start();
+        ApplyMovesEvent event = new ApplyMovesEvent();
+        event.begin();
+        Level movedLevel = currentLevel;
+        Level startLevel = currentLevel == null ? null : currentLevel.share();
+        Point keeperPosition = currentLevel == null ? null : currentLevel.getKeeperPosition();
+        boolean levelComplete = false;
+        int moved = 0;
+        int pushed = 0;
+        boolean illegal = true;
+        try {
+            for (int i = 0; i < moves.length(); i++) {
+                char move = moves.charAt(i);
+                if (Character.isWhitespace(move)) {
+                    continue;
+                }
+                Direction direction = Direction.fromChar(move);
+                if (direction == null) {
+                    throw new IllegalMoveException(i, move, moved, "not a LURD move");
+                }
+                if (levelComplete || isGameComplete()) {
+                    throw new IllegalMoveException(i, move, moved, "the level is already complete");
+                }
+                Point delta = direction.toPoint();
+                Point target = GameGrid.translatePoint(keeperPosition, delta);
+                GameObject keeperTarget = currentLevel.getObjectAt(target);
+                boolean push = keeperTarget == GameObject.CRATE;
+                if (keeperTarget != GameObject.FLOOR
+                        && !(push && currentLevel.getTargetObject(target, delta) == GameObject.FLOOR)) {
+                    throw new IllegalMoveException(i, move, moved, "the keeper at [" + keeperPosition.x + ":"
+                            + keeperPosition.y + "] is blocked");
+                }
+                if (push != Character.isUpperCase(move)) {
+                    throw new IllegalMoveException(i, move, moved, push ? "pushes a crate but is in lower case"
+                            : "pushes no crate but is in upper case");
+                }
+                if (push) {
+                    currentLevel.moveGameObjectBy(GameObject.CRATE, target, delta);
+                }
+                currentLevel.moveGameObjectBy(GameObject.KEEPER, keeperPosition, delta);
+                keeperPosition.translate(delta.x, delta.y);
+                moved++;
+                if (debug && TraceRecorder.isEnabled()) {
+                    trace(push ? TraceEvent.PUSH : TraceEvent.MOVE, delta, keeperPosition);
+                }
+                if (push) {
+                    pushed++;
+                    // Only a push can complete the level
+                    long isCompleteStart = PerformanceMonitor.start();
+                    levelComplete = currentLevel.isComplete();
+                    PerformanceMonitor.record(PerformanceMonitor.LEVEL_COMPLETE, isCompleteStart);
+                }
+            }
+            illegal = false;
+        } finally {
+            if (moved > 0) {
+                // The counters and the undo state are only updated once for the whole string
+                movesCount += moved;
+                pushesCount += pushed;
+                EngineMetrics.MOVES.add(moved);
+                EngineMetrics.PUSHES.add(pushed);
+                savedLevel = startLevel;
+                keeperMoved = true;
+            }
+            if (levelComplete) {
+                if (debug && TraceRecorder.isEnabled()) {
+                    TraceRecorder.record(TraceEvent.LEVEL_COMPLETE, ' ', currentLevel.getIndex(), movesCount, pushesCount);
+                }
+                currentLevel = getNextLevel();
+            }
+            // One sample for the whole string, which is a single step of the engine
+            PerformanceMonitor.record(PerformanceMonitor.ENGINE_MOVE, applyStart);
+            event.end();
+            if (event.shouldCommit() && movedLevel != null) {
+                event.levelIndex = movedLevel.getIndex();
+                event.rows = movedLevel.levelRow;
+                event.columns = movedLevel.levelColumn;
+                event.moves = moved;
+                event.pushes = pushed;
+                event.illegalMove = illegal;
+                event.levelComplete = levelComplete;
+                event.commit();
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * Records a keeper event in the debug trace.
+     *
+     * @param event          the type of event
+     * @param delta          the moving direction
+     * @param keeperPosition the position of the keeper after the event
+     */
+    private void trace(TraceEvent event, Point delta, Point keeperPosition) {
+        Direction direction = Direction.fromDelta(delta.x, delta.y);
+        TraceRecorder.record(event, direction == null ? '?' : direction.symbol, currentLevel.getIndex(),
+                keeperPosition.x, keeperPosition.y);
+    }
+
+    /**
+     * Loads a game file creating a {@Code List} of {@link Level}s.
+     *
+     * @param input - the file containing the levels
+     * @return the list containing the levels
+     */
+    private List<Level> loadGameFile(InputStream input) {
+        long parseStart = EngineMetrics.PACK_PARSE.start();
+        PackParseEvent event = new PackParseEvent();
+        event.begin();
+        long charactersRead = 0;
+        List<Level> levels = new ArrayList<>(5);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input))) {
+            PackReader packReader = new PackReader(reader);
+            packReader.read((levelName, levelIndex, rawLevel) -> levels.add(new Level(levelName, levelIndex, rawLevel)));
+            mapSetName = packReader.getMapSetName();
+            charactersRead = packReader.getCharactersRead();
+        } catch (IOException e) {
+            logger.severe("Error trying to load the game file: " + e);
+        } catch (NullPointerException e) {
+            logger.severe("Cannot open the requested file: " + e);
+        }
+
+        EngineMetrics.LEVEL_LOADS.add(levels.size());
+        EngineMetrics.PACK_PARSE.record(parseStart);
+        event.end();
+        if (event.shouldCommit()) {
+            long cells = 0;
+            for (Level level : levels) {
+                cells += (long) level.levelRow * level.levelColumn;
+            }
+            event.mapSetName = mapSetName;
+            event.levels = levels.size();
+            event.cells = cells;
+            event.charactersRead = charactersRead;
+            event.commit();
+        }
+        return levels;
+    }
+
+    /**
+     * Returns {@code true} if the game is complete.
+     *
+     * @return {@code true} if the game is complete, {@code false} otherwise
+     */
+    public boolean isGameComplete() {
+        return gameComplete;
+    }
+
+    public boolean isKeeperMoved() {
+        return keeperMoved;
+    }
+    /**
+     * Returns the next level in the list of levels.
+     *
+     * @return the next level loaded from the save file.
+     */
+    public Level getNextLevel() {
+        if (currentLevel == null) {
+            return levels.get(0).clone(); ////Modified: Use the clone method
+        }
+        int currentLevelIndex = currentLevel.getIndex();
+        if (currentLevelIndex < levels.size()) {
+//            return levels.get(currentLevelIndex + 1); ////Modified: A bug fixed here， the stored index is 1,2,3,4,5, but the number of the list  is 0,1,2,3,4, so that only levels with index 1,3,5 are loaded.
+            return levels.get(currentLevelIndex).clone(); ////Modified: Use the clone method
+        }
+        gameComplete = true;
+        /* Added: Calculate game time */
+        endTime = System.currentTimeMillis();
+        gameTime = (endTime - startTime)/1000d;
+        return null;
+    }
+
+    /* Added: New method to reset level */
+    /**
+     * Reset level.
+     */
+    public void  resetCurrentLevel() {
+        int currentLevelIndex = currentLevel.getIndex();
+        currentLevel = levels.get(currentLevelIndex - 1 ).clone();
+        discardUndo();
+        if (debug && TraceRecorder.isEnabled()) {
+            TraceRecorder.record(TraceEvent.LEVEL_RESET, ' ', currentLevelIndex, 0, 0);
+        }
+    }
+
+    /**
+     * Returns the current level.
+     *
+     * @return the current level.
+     */
+    public Level getCurrentLevel() {
+        return currentLevel;
+    }
+
+    /**
+     * Replaces the current level with a fresh copy of the given level.
+     *
+     * @param index the index of the level, starting from 1
+     */
+    public void setCurrentLevel(int index) {
+        currentLevel = levels.get(index - 1).clone();
+        discardUndo();
+    }
+    /**
+     * Toggles the debug mode. While it is active, the events of this engine are written to the
+     * {@link TraceRecorder} if it has been started.
+     */
+    public void toggleDebug() {
+        debug = !debug;
+    }
+
+    /**
+     * Returns a compact copy of the progress of this engine, e.g. to release the engine while its player is idle.
+     *
+     * @return the state of the engine
+     */
+    public EngineState saveState() {
+        if (gameComplete) {
+            return new EngineState(0, null, movesCount, pushesCount, startTime, gameTime);
+        }
+        return new EngineState(currentLevel.getIndex(), currentLevel.getMovablePositions(), movesCount, pushesCount,
+                startTime, gameTime);
+    }
+
+    /**
+     * Puts this engine back in a state saved by {@link #saveState()} from an engine playing the same levels.
+     * There is nothing to undo afterwards.
+     *
+     * @param state the state to be restored
+     */
+    public void restoreState(EngineState state) {
+        movesCount = state.getMovesCount();
+        pushesCount = state.getPushesCount();
+        startTime = state.getStartTime();
+        gameTime = state.getGameTime();
+        discardUndo();
+        if (state.getLevelIndex() == 0) {
+            gameComplete = true;
+            currentLevel = null;
+            return;
+        }
+        gameComplete = false;
+        currentLevel = levels.get(state.getLevelIndex() - 1).clone();
+        currentLevel.setMovablePositions(state.getPositions());
+    }
+
+    /**
+     * Button to undo one step.
+     * Does nothing if no move has been made since the level was loaded or reset, or once the game is complete:
+     * the time and the score of a finished game are final.
+     */
+    public void undo() {
+        if (!canUndo()) {
+            return;
+        }
+        currentLevel = savedLevel;
+        discardUndo();
+        EngineMetrics.UNDOS.increment();
+    }
+
+    /**
+     * Returns {@code true} if {@link #undo()} would restore a previous state.
+     *
+     * @return {@code true} if there is a move to undo
+     */
+    public boolean canUndo() {
+        return savedLevel != null && !gameComplete;
+    }
+
+    /**
+     * Forgets the saved state, so that {@link #undo()} cannot bring back a level that was replaced.
+     */
+    private void discardUndo() {
+        savedLevel = null;
+        keeperMoved = false;
+    }
+
+    /**
+     * Record the score after the round
+     */
+    public void recordScore() {
+        long ioStart = EngineMetrics.SCORE_IO.start();
+        ScoreFileEvent event = new ScoreFileEvent();
+        event.begin();
+        String filePath = SCORE_FILE_PATH;
+        String score = gameTime + "," + movesCount + "\r\n";
+        int scores = 0;
+        try{
+            File file = new File(filePath);
+            FileOutputStream fos = null;
+            if(!file.exists()){
+                file.createNewFile();
+                fos = new FileOutputStream(file);
+            }else{
+                fos = new FileOutputStream(file,true);
+            }
+
+            OutputStreamWriter out = new OutputStreamWriter(fos, "UTF-8");
+
+            out.write(score);
+            out.close();
+            scores = 1;
+        }catch (Exception e) {
+            e.printStackTrace();
+        }
+        EngineMetrics.SCORE_IO.record(ioStart);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = ScoreFileEvent.RECORD;
+            event.path = filePath;
+            event.scores = scores;
+            event.bytes = scores * score.length();
+            event.commit();
+        }
+    }
+
+    /**
+     * Load list of scores from file
+     */
+    public void loadScoreFile() {
+        long ioStart = EngineMetrics.SCORE_IO.start();
+        ScoreFileEvent event = new ScoreFileEvent();
+        event.begin();
+        File file = new File(SCORE_FILE_PATH);
+        BufferedReader reader = null;
+        int scores = 0;
+        long bytes = 0;
+        try {
+            reader = new BufferedReader(new FileReader(file));
+            String tempString = null;
+            String[] tempStringArray = null;
+            while ((tempString = reader.readLine()) != null) {
+                listTimeScore.add(Double.parseDouble(tempString.split(",")[0]));
+                listMoveScore.add(Integer.parseInt(tempString.split(",")[1]));
+                scores++;
+                bytes += tempString.length() + 2;
+            }
+            Collections.sort(listTimeScore);
+            Collections.sort(listMoveScore);
+            reader.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        EngineMetrics.SCORE_IO.record(ioStart);
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = ScoreFileEvent.LOAD;
+            event.path = SCORE_FILE_PATH;
+            event.scores = scores;
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * Returns the problems found in the levels of the pack. Levels with errors can still be played: the
+     * keeper cannot leave the map, but they may be impossible to complete.
+     *
+     * @return the validation report
+     */
+    public ValidationReport getValidationReport() {
+        if (validationReport == null) {
+            validationReport = PackValidator.validate(levels);
+        }
+        return validationReport;
+    }
+
+    /**
+     * Returns the analysis of each level: its best known solution, its dead cells and how hard it is. Unless the
+     * levels were loaded through a cache, the first call solves them all.
+     *
+     * @return the analyses, in the order of the levels
+     */
+    public List<AnalyzedLevel> getAnalyses() {
+        if (analyses == null) {
+            try {
+                analyses = new LevelAnalyzer(null, LevelAnalyzer.DEFAULT_MAX_STATES).analyzeAll(levels);
+            } catch (IOException e) {
+                // Only the cache can fail
+                throw new UncheckedIOException(e);
+            }
+        }
+        return analyses;
+    }
+
+    /**
+     * A function that returns a list of levels
+     *
+     * @return the list of levels
+     */
+    public List<Level> getLevels() {
+        return levels;
+    }
+}
\ No newline at end of file
@@ -1,25 +1,42 @@
 package com.ae2dms.model;
 
+import com.ae2dms.trace.TraceEvent;
+import com.ae2dms.trace.TraceRecorder;
+
 import java.awt.*;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
 
 /**
  * GameGrid class can be used to create a 2D grid and gameObjects to it.
+ * <p>
+ * A {@link Level} creates its grids with its number of rows as {@code columns} and its number of columns as
+ * {@code rows}, so the first coordinate of every method is the row of the level. The cells are traversed in that
+ * order: {@link #forEachCell(CellConsumer)}, the iterator and the spliterator all go through the cells of the first
+ * coordinate 0, then 1, and so on.
+ *
  * @version 2.0
  */
-public class GameGrid implements Iterable, Cloneable {
+public class GameGrid implements Iterable<GameObject>, Cloneable {
     /**
-     * The number of columns
+     * The size of the first coordinate, the number of rows of a {@link Level}
      */
     final int COLUMNS;
     /**
-     * The number of columns
+     * The size of the second coordinate, the number of columns of a {@link Level}
      */
     final int ROWS;
     /**
      * The grid containing every GameObject
      */
     private GameObject[][] gameObjects;
+    /**
+     * The rows whose array is shared with another grid by {@link #share()}, {@code null} if none is.
+     * A shared row is copied before it is written.
+     */
+    private boolean[] sharedRows;
     /**
      * Creates the grid using columns and rows to set the maximum size.
      *
@@ -27,11 +44,14 @@ public class GameGrid implements Iterable, Cloneable {
      * @param rows    the number of rows
      */
     public GameGrid(int columns, int rows) {
+        // Initialize the array
+        this(columns, rows, new GameObject[columns][rows]);
+    }
+
+    private GameGrid(int columns, int rows, GameObject[][] gameObjects) {
         COLUMNS = columns;
         ROWS = rows;
-
-        // Initialize the array
-        gameObjects = new GameObject[COLUMNS][ROWS];
+        this.gameObjects = gameObjects;
     }
     /**
      * Returns the point located at a distance delta from a starting GameObject.
@@ -75,8 +95,8 @@ public class GameGrid implements Iterable, Cloneable {
      */
     public GameObject getGameObjectAt(int col, int row) throws ArrayIndexOutOfBoundsException {
         if (isPointOutOfBounds(col, row)) {
-            if (GameEngine.isDebugActive()) {
-                System.out.printf("Trying to get null GameObject from COL: %d  ROW: %d", col, row);
+            if (TraceRecorder.isEnabled()) {
+                TraceRecorder.record(TraceEvent.OUT_OF_BOUNDS, ' ', 0, col, row);
             }
             throw new ArrayIndexOutOfBoundsException("The point [" + col + ":" + row + "] is outside the map.");
         }
@@ -84,6 +104,18 @@ public class GameGrid implements Iterable, Cloneable {
         return gameObjects[col][row];
     }
 
+    /**
+     * Gets the GameObject of a cell known to be inside the grid, without the checks of
+     * {@link #getGameObjectAt(int, int)}.
+     *
+     * @param row    the first coordinate
+     * @param column the second coordinate
+     * @return the GameObject, may be {@code null}
+     */
+    GameObject get(int row, int column) {
+        return gameObjects[row][column];
+    }
+
     /**
      * Gets an GameObject located at the chosen {@link Point}
      *
@@ -118,6 +150,10 @@ public class GameGrid implements Iterable, Cloneable {
         if (isPointOutOfBounds(x, y)) {
             return false;
         }
+        if (sharedRows != null && sharedRows[x]) {
+            gameObjects[x] = gameObjects[x].clone();
+            sharedRows[x] = false;
+        }
 
         gameObjects[x][y] = gameObject;
         return gameObjects[x][y] == gameObject;
@@ -184,32 +220,91 @@ public class GameGrid implements Iterable, Cloneable {
         return new GridIterator();
     }
 
+    /**
+     * Returns a spliterator over the cells that splits by ranges of rows, e.g. to scan a large grid with
+     * {@link java.util.stream.StreamSupport#stream(Spliterator, boolean) a parallel stream}.
+     *
+     * @return the spliterator
+     */
+    @Override
+    public Spliterator<GameObject> spliterator() {
+        return new RowSpliterator(this::get, 0, COLUMNS, ROWS);
+    }
+
+    /**
+     * Visits every cell of the grid, allocating nothing per cell.
+     *
+     * @param action the visitor, receiving the first and the second coordinate of each cell
+     */
+    public void forEachCell(CellConsumer action) {
+        forEachCell(0, COLUMNS, action);
+    }
+
+    /**
+     * Visits the cells of a range of rows, allocating nothing per cell.
+     *
+     * @param fromRow the first row, i.e. value of the first coordinate
+     * @param toRow   the row after the last one
+     * @param action  the visitor, receiving the first and the second coordinate of each cell
+     */
+    public void forEachCell(int fromRow, int toRow, CellConsumer action) {
+        for (int row = fromRow; row < toRow; row++) {
+            GameObject[] cells = gameObjects[row];
+            for (int column = 0; column < cells.length; column++) {
+                action.accept(row, column, cells[column]);
+            }
+        }
+    }
+
 
     /* Modified:Added clone function */
     /**
      * Provides a method for the {@link GameGrid} class to clone an array of {@link GameObject} objects,
-     * which can store level information in memory
+     * which can store level information in memory.
+     * {@link GameObject}s are immutable constants, so copying the references is enough.
      *
      * @return Cloned array.
      */
     public GameObject[][] cloneGameObjects() {
-        GameObject[][] newGameObjects = new GameObject[COLUMNS][ROWS];
+        GameObject[][] newGameObjects = new GameObject[COLUMNS][];
         for (int i = 0; i < COLUMNS; i++) {
-            newGameObjects[i] = new GameObject[ROWS];
-            for (int j = 0; j < ROWS; j++) {
-                if(gameObjects[i][j]!=null) {
-                    newGameObjects[i][j] = GameObject.fromChar(gameObjects[i][j].getCharSymbol());
-                }
-            }
+            newGameObjects[i] = gameObjects[i].clone();
         }
         return newGameObjects;
     }
 
+    /**
+     * Returns a copy of this grid that shares nothing with it.
+     *
+     * @return the copy
+     */
+    @Override
+    public GameGrid clone() {
+        return new GameGrid(COLUMNS, ROWS, cloneGameObjects());
+    }
+
+    /**
+     * Returns a copy of this grid that shares the arrays of the rows with it. A row is only copied when one of the
+     * two grids writes it, so the copy costs one reference per row, plus the rows written afterwards.
+     *
+     * @return the copy
+     */
+    public GameGrid share() {
+        if (sharedRows == null) {
+            sharedRows = new boolean[COLUMNS];
+        }
+        Arrays.fill(sharedRows, true);
+        GameGrid copy = new GameGrid(COLUMNS, ROWS, gameObjects.clone());
+        copy.sharedRows = sharedRows.clone();
+        return copy;
+    }
+
     /**
      * Used for cloning of {@link GameObject} array
      */
     public void setGameObjects(GameObject[][] gameObjects) {
         this.gameObjects = gameObjects;
+        sharedRows = null;
     }
 
     /**
@@ -219,21 +314,22 @@ public class GameGrid implements Iterable, Cloneable {
      * @see Iterator
      */
     public class GridIterator implements Iterator<GameObject> {
-        int row = 0;
-        int column = 0;
+        /** The index of the next cell, {@code row * ROWS + column} */
+        int cell = 0;
 
         @Override
         public boolean hasNext() {
-            return !(row == ROWS && column == COLUMNS);
+            return cell < COLUMNS * ROWS;
         }
 
         @Override
         public GameObject next() {
-            if (column >= COLUMNS) {
-                column = 0;
-                row++;
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            return getGameObjectAt(column++, row);
+            int row = cell / ROWS;
+            int column = cell++ % ROWS;
+            return gameObjects[row][column];
         }
     }
 }
\ No newline at end of file
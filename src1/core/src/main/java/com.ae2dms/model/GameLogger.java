@@ -0,0 +1,217 @@
+package com.ae2dms.model;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+/**
+ * Handles the game logging.
+ * The logfile is placed in the directory where the game is executed, in logs/"GAME_NAME".log.
+ * <p>
+ * Logging never blocks the caller: messages are stamped with the current time and queued in a lock-free
+ * {@link LogRingBuffer}, then formatted and written in batches by a single background thread that owns the
+ * log file. If the buffer is full the message is dropped and counted, and the count is reported in the log.
+ * @version 2.0
+ */
+public final class GameLogger {
+
+    /** The number of messages that can wait to be written */
+    private static final int BUFFER_CAPACITY = 8192;
+
+    /** How long the writer sleeps when there is nothing to write */
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static final LogRingBuffer buffer = new LogRingBuffer(BUFFER_CAPACITY);
+
+    private static final AtomicLong dropped = new AtomicLong();
+
+    /** The number of messages queued so far, used by {@link #flush()} */
+    private static final AtomicLong queued = new AtomicLong();
+
+    private static final Thread writerThread = startWriter();
+
+    private static final GameLogger FILE_LOGGER = new GameLogger(true, "");
+
+    private static final GameLogger CONSOLE_LOGGER = new GameLogger(false, "");
+
+    /** The number of messages written so far, only updated by the writer thread */
+    private static volatile long written;
+
+    /** {@code true} to write into the log file, {@code false} to write to the console */
+    private final boolean writeToFile;
+
+    /** Text put in front of every message, empty for the shared loggers */
+    private final String prefix;
+
+    private GameLogger(boolean writeToFile, String prefix) {
+        this.writeToFile = writeToFile;
+        this.prefix = prefix;
+    }
+
+    /**
+     * Returns a shared logger.
+     *
+     * @param writeToFile {@code true} for the logger writing into the log file, {@code false} for the one
+     *                    writing to the console, used by tests
+     * @return the logger
+     */
+    public static GameLogger get(boolean writeToFile) {
+        return writeToFile ? FILE_LOGGER : CONSOLE_LOGGER;
+    }
+
+    /**
+     * Returns a logger writing to the same destination, that puts the given name in front of every message,
+     * e.g. to tell apart the engines of several game sessions.
+     *
+     * @param name the name shown in the messages
+     * @return the named logger
+     */
+    public GameLogger named(String name) {
+        return new GameLogger(writeToFile, "[" + name + "] ");
+    }
+
+    /**
+     * Logs an informative message.
+     *
+     * @param message the message
+     */
+    public void info(String message) {
+        log(Level.INFO, message);
+    }
+
+    /**
+     * Logs a warning.
+     *
+     * @param message the message
+     */
+    public void warning(String message) {
+        log(Level.WARNING, message);
+    }
+
+    /**
+     * Logs a serious failure. The writer is woken up so that the message reaches the log promptly.
+     *
+     * @param message the message
+     */
+    public void severe(String message) {
+        log(Level.SEVERE, message);
+        LockSupport.unpark(writerThread);
+    }
+
+    private void log(Level level, String message) {
+        if (buffer.offer(System.currentTimeMillis(), level, prefix.isEmpty() ? message : prefix + message, writeToFile)) {
+            queued.incrementAndGet();
+        } else {
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Waits until every message queued so far has been written. Meant for shutdown and tests,
+     * not for the game loop.
+     */
+    public static void flush() {
+        long target = queued.get();
+        LockSupport.unpark(writerThread);
+        while (written < target && writerThread.isAlive()) {
+            LockSupport.parkNanos(100_000L);
+        }
+    }
+
+    private static Thread startWriter() {
+        Thread thread = new Thread(new Sink(), GameEngine.GAME_NAME + " logger");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * The body of the writer thread. It owns the log file, which is opened when the first message for it
+     * arrives, and writes whatever is left in the buffer when the JVM exits.
+     */
+    private static final class Sink implements Runnable, LogRingBuffer.EntryHandler {
+        private final StringBuilder line = new StringBuilder(256);
+        private Writer file;
+        private boolean fileFailed;
+        private long reportedDrops;
+
+        @Override
+        public void run() {
+            Runtime.getRuntime().addShutdownHook(new Thread(this::drainAndFlush, GameEngine.GAME_NAME + " logger shutdown"));
+            while (true) {
+                if (drainAndFlush() == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+        }
+
+        /**
+         * Writes every queued message. Synchronized only against the shutdown hook, never against the loggers.
+         */
+        private synchronized int drainAndFlush() {
+            int count = buffer.drain(this);
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                handle(System.currentTimeMillis(), Level.WARNING, (drops - reportedDrops) + " log messages dropped", file != null);
+                reportedDrops = drops;
+            }
+            if (count > 0) {
+                try {
+                    if (file != null) {
+                        file.flush();
+                    }
+                } catch (IOException e) {
+                    System.err.println("Cannot write the log file: " + e);
+                }
+                System.err.flush();
+                written += count;
+            }
+            return count;
+        }
+
+        @Override
+        public void handle(long time, Level level, String message, boolean writeToFile) {
+            line.setLength(0);
+            DATE_FORMAT.formatTo(Instant.ofEpochMilli(time), line);
+            line.append(' ').append(level.getName()).append(" -- ").append(message).append(System.lineSeparator());
+            Writer target = writeToFile ? openFile() : null;
+            if (target == null) {
+                System.err.append(line);
+                return;
+            }
+            try {
+                target.append(line);
+            } catch (IOException e) {
+                System.err.println("Cannot write the log file: " + e);
+            }
+        }
+
+        private Writer openFile() {
+            if (file == null && !fileFailed) {
+                try {
+                    File directory = new File(System.getProperty("user.dir") + "/" + "logs");
+                    directory.mkdirs();
+                    file = new BufferedWriter(new OutputStreamWriter(
+                            new FileOutputStream(new File(directory, GameEngine.GAME_NAME + ".log")), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    fileFailed = true;
+                    System.err.println("Cannot create the log file, logging to the console: " + e);
+                }
+            }
+            return file;
+        }
+    }
+}
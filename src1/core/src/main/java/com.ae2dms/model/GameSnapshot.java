@@ -0,0 +1,97 @@
+package com.ae2dms.model;
+
+/**
+ * GameSnapshot is an immutable picture of the game state, published by the {@link EngineWorker}
+ * after it has processed a batch of commands.
+ * <p>
+ * The level held by a snapshot is a copy of the engine's current level that shares the rows of its grids
+ * with it, see {@link Level#share()}: the engine copies a row before changing it, so the level of a snapshot
+ * is never modified after publication, and a batch only costs the rows its moves changed. It must not be
+ * modified by the readers.
+ *
+ * @version 2.0
+ */
+public final class GameSnapshot {
+
+    /** The sequence number of the last command applied to this state */
+    private final long sequence;
+
+    /** Copy of the current level, {@code null} once the game is complete */
+    private final Level level;
+
+    /** The number of moves */
+    private final int movesCount;
+
+    /** The number of moves that pushed a crate */
+    private final int pushesCount;
+
+    /** The name of the level set */
+    private final String mapSetName;
+
+    /** Whether the game is complete */
+    private final boolean gameComplete;
+
+    /** Whether the keeper moved during the last move */
+    private final boolean keeperMoved;
+
+    /** Game time in seconds, only meaningful once the game is complete */
+    private final double gameTime;
+
+    /** Whether the debug mode of the engine is active */
+    private final boolean debugActive;
+
+    /**
+     * Captures the state of the given engine.
+     *
+     * @param engine   the engine to be captured
+     * @param sequence the sequence number of the last command applied to the engine
+     */
+    GameSnapshot(GameEngine engine, long sequence) {
+        Level currentLevel = engine.getCurrentLevel();
+        this.sequence = sequence;
+        this.level = currentLevel == null ? null : currentLevel.share();
+        this.movesCount = engine.getMovesCount();
+        this.pushesCount = engine.getPushesCount();
+        this.mapSetName = engine.mapSetName;
+        this.gameComplete = engine.isGameComplete();
+        this.keeperMoved = engine.isKeeperMoved();
+        this.gameTime = engine.gameTime;
+        this.debugActive = engine.isDebugActive();
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public int getMovesCount() {
+        return movesCount;
+    }
+
+    public int getPushesCount() {
+        return pushesCount;
+    }
+
+    public String getMapSetName() {
+        return mapSetName;
+    }
+
+    public boolean isGameComplete() {
+        return gameComplete;
+    }
+
+    public boolean isKeeperMoved() {
+        return keeperMoved;
+    }
+
+    public double getGameTime() {
+        return gameTime;
+    }
+
+    public boolean isDebugActive() {
+        return debugActive;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ae2dms.model;
+
+/**
+ * Thrown by {@link GameEngine#applyMoves(CharSequence)} at the first move of a LURD string that cannot be played.
+ * The moves before it have been applied.
+ *
+ * @version 2.0
+ */
+public class IllegalMoveException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int index;
+
+    private final int movesApplied;
+
+    /**
+     * Creates the exception.
+     *
+     * @param index        the index of the move in the string
+     * @param move         the move
+     * @param movesApplied the number of moves applied before it
+     * @param reason       why the move cannot be played
+     */
+    public IllegalMoveException(int index, char move, int movesApplied, String reason) {
+        super("Illegal move '" + move + "' at " + index + ": " + reason);
+        this.index = index;
+        this.movesApplied = movesApplied;
+    }
+
+    /**
+     * Returns the index of the illegal move in the string, white space included.
+     *
+     * @return the index of the move
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the number of moves applied before the illegal one.
+     *
+     * @return the number of moves applied
+     */
+    public int getMovesApplied() {
+        return movesApplied;
+    }
+}
@@ -0,0 +1,447 @@
+package com.ae2dms.model;
+
+import com.ae2dms.metrics.EngineMetrics;
+import com.ae2dms.trace.TraceEvent;
+import com.ae2dms.trace.TraceRecorder;
+
+import java.awt.*;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+
+/**
+ * Level handles the creation of the game level parsing a {@link List} of {@link String}s and putting the right
+ * {@link GameObject} in a 2D array. The object is created matching a char with the corresponding {@link GameObject}.
+ *
+ * @version 2.0
+ */
+public final class Level implements Iterable<GameObject>, Cloneable{ /*Add cloneable*/
+    /**
+     * The array containing the objectsGrid
+     */
+    public final GameGrid objectsGrid;
+    /**
+     * The object containing the diamondsGrid.
+     */
+    public final GameGrid diamondsGrid;
+    /**
+     * The level name
+     */
+    private final String name;
+    /**
+     * The level index
+     */
+    private final int index;
+    /**
+     * The total number of diamondsGrid in this level
+     */
+    private int numberOfDiamonds = 0;
+    /**
+     * The current warehouse keeper position
+     */
+    private Point keeperPosition = new Point(0, 0);
+    /**
+     * The number of rows of the level
+     */
+    public int levelRow;
+    /**
+     * The number of columns of the level
+     */
+    public int levelColumn;
+    /**
+     * The number of rows of the skb file that were not as wide as the widest one
+     */
+    int raggedRows = 0;
+    /**
+     * This constructor is used to clone the level object
+     *
+     * @param levelName  the name of the level
+     * @param levelIndex the number used as index for the levels
+     * @param rows  the number of rows
+     * @param columns the number of columns
+     * @param numberOfDiamonds  the total number of diamondsGrid in this level
+     */
+    public Level(String levelName, int levelIndex, int rows , int columns, int numberOfDiamonds) {
+        name = levelName;
+        index = levelIndex;
+        objectsGrid = new GameGrid(rows, columns);
+        diamondsGrid = new GameGrid(rows, columns);
+        levelRow = rows;
+        levelColumn = columns;
+        this.numberOfDiamonds = numberOfDiamonds;
+    }
+
+    /**
+     * Copies a level with the given grids
+     *
+     * @param level        the level to be copied
+     * @param objectsGrid  the objects grid of the copy
+     * @param diamondsGrid the diamonds grid of the copy
+     */
+    private Level(Level level, GameGrid objectsGrid, GameGrid diamondsGrid) {
+        name = level.name;
+        index = level.index;
+        this.objectsGrid = objectsGrid;
+        this.diamondsGrid = diamondsGrid;
+        levelRow = level.levelRow;
+        levelColumn = level.levelColumn;
+        numberOfDiamonds = level.numberOfDiamonds;
+        raggedRows = level.raggedRows;
+        keeperPosition = new Point(level.keeperPosition);
+    }
+
+    /**
+     * Creates a level using the first parameter as the level name and the second parameter as {@link List} of
+     * {@link String}, each one containing the characters corresponding to a specific game object
+     *
+     * @param levelName  the name of the level
+     * @param levelIndex the number used as index for the levels
+     * @param raw_level  the raw data of the level
+     */
+    public Level(String levelName, int levelIndex, List<String> raw_level) {
+        name = levelName;
+        index = levelIndex;
+
+        int rows = raw_level.size();
+        int columns = 0;
+        for (String line : raw_level) {
+            columns = Math.max(columns, line.length());
+        }
+        for (String line : raw_level) {
+            if (line.length() != columns) {
+                raggedRows++;
+            }
+        }
+
+        levelRow = rows;
+        levelColumn = columns;
+
+        if (TraceRecorder.isEnabled()) {
+            TraceRecorder.record(TraceEvent.LEVEL_LOADED, ' ', levelIndex, rows, columns);
+        }
+
+        objectsGrid = new GameGrid(rows, columns);
+        diamondsGrid = new GameGrid(rows, columns);
+
+        for (int row = 0; row < raw_level.size(); row++) {
+
+            for (int col = 0; col < raw_level.get(row).length(); col++) {
+                GameObject curTile = GameObject.fromChar(raw_level.get(row).charAt(col));
+
+                if (curTile == GameObject.DIAMOND) {
+                    numberOfDiamonds++;
+                    diamondsGrid.putGameObjectAt(curTile, row, col);
+                    curTile = GameObject.FLOOR;
+                } else if (curTile == GameObject.CRATE_ON_DIAMOND) {
+                    // A crate already on its diamond, as written by generated levels
+                    numberOfDiamonds++;
+                    diamondsGrid.putGameObjectAt(GameObject.DIAMOND, row, col);
+                    curTile = GameObject.CRATE;
+                } else if (curTile == GameObject.KEEPER) {
+                    keeperPosition = new Point(row, col);
+                }
+                objectsGrid.putGameObjectAt(curTile, row, col);
+                curTile = null;
+            }
+            // Rows shorter than the widest one end with empty floor, outside the walls
+            for (int col = raw_level.get(row).length(); col < columns; col++) {
+                objectsGrid.putGameObjectAt(GameObject.FLOOR, row, col);
+            }
+        }
+    }
+    /**
+     * Determine whether the level is complete
+     *
+     * @return {@code true} if all diamonds are eliminated
+     */
+    public boolean isComplete() {
+        int cratedDiamondsCount = 0;
+        for (int row = 0; row < levelRow; row++) {
+            for (int col = 0; col < levelColumn; col++) {
+                if (objectsGrid.get(row, col) == GameObject.CRATE && diamondsGrid.get(row, col) == GameObject.DIAMOND) {
+                    cratedDiamondsCount++;
+                }
+            }
+        }
+        return cratedDiamondsCount >= numberOfDiamonds;
+    }
+
+    /**
+     * Returns the name of this level
+     *
+     * @return the name of this level
+     */
+    public String getName() {
+        return name;
+    }
+    /**
+     * Returns the level index
+     *
+     * @return the level index
+     */
+    public int getIndex() {
+        return index;
+    }
+    /**
+     * Returns the warehouse keeper position
+     *
+     * @return the warehouse keeper position
+     */
+    Point getKeeperPosition() {
+        return keeperPosition;
+    }
+    /**
+     * Returns the row of the warehouse keeper
+     *
+     * @return the row of the warehouse keeper
+     */
+    public int getKeeperRow() {
+        return keeperPosition.x;
+    }
+    /**
+     * Returns the column of the warehouse keeper
+     *
+     * @return the column of the warehouse keeper
+     */
+    public int getKeeperColumn() {
+        return keeperPosition.y;
+    }
+    /**
+     * Returns the object at distance delta from source
+     *
+     * @param source the source point
+     * @param delta  the distance from the source point
+     * @return the object at distance delta from source
+     */
+    GameObject getTargetObject(Point source, Point delta) {
+        return getObjectAt(GameGrid.translatePoint(source, delta));
+    }
+
+    /**
+     * Returns located at point p of the objects grid.
+     * Points outside the level are walls, so the keeper cannot leave a level that is not enclosed.
+     *
+     * @param point the point where the object is located
+     * @return {@link GameObject} the game object located at point p.
+     */
+    GameObject getObjectAt(Point point) {
+        if (point.x < 0 || point.x >= levelRow || point.y < 0 || point.y >= levelColumn) {
+            return GameObject.WALL;
+        }
+        return objectsGrid.getGameObjectAt(point);
+    }
+
+    /**
+     * Returns the object that should be displayed at the given cell, combining the objects grid
+     * with the diamonds grid (e.g. a crate standing on a diamond becomes {@link GameObject#CRATE_ON_DIAMOND}).
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the {@link GameObject} to be displayed at the given cell
+     */
+    public GameObject getDisplayedObjectAt(int row, int column) {
+        return displayed(objectsGrid.getGameObjectAt(row, column), diamondsGrid.getGameObjectAt(row, column));
+    }
+
+    /**
+     * Returns the object displayed at a cell known to be inside the level.
+     */
+    private GameObject getDisplayedObject(int row, int column) {
+        return displayed(objectsGrid.get(row, column), diamondsGrid.get(row, column));
+    }
+
+    /**
+     * Combines the objects of a cell in the two grids into the object to be displayed.
+     */
+    private static GameObject displayed(GameObject object, GameObject diamond) {
+        if (diamond == GameObject.DIAMOND) {
+            if (object == GameObject.CRATE) {
+                return GameObject.CRATE_ON_DIAMOND;
+            } else if (object == GameObject.FLOOR) {
+                return diamond;
+            }
+        }
+        return object;
+    }
+
+    /**
+     * Moves a {@link GameObject} to the target destination.
+     * It removes the object from its original position and places it into the new one.
+     *
+     * @param object the {@link GameObject} to be moved
+     * @param source the position of the object to be moved
+     * @param destination The destination of the object
+     */
+    private void moveGameObjectTo(GameObject object, Point source, Point destination) {
+        objectsGrid.putGameObjectAt(getObjectAt(destination), source);
+        objectsGrid.putGameObjectAt(object, destination);
+    }
+
+    /**
+     * Intermediate function that calls translatePoint function
+     *
+     * @param object Object to move
+     * @param source initial position
+     * @param delta Moving direction
+     */
+    void moveGameObjectBy(GameObject object, Point source, Point delta) {
+        moveGameObjectTo(object, source, GameGrid.translatePoint(source, delta));
+    }
+    /**
+     * Returns the cells of the keeper and of the crates, each as {@code row * levelColumn + column},
+     * the keeper first. Together with the initial level they are enough to rebuild this level.
+     *
+     * @return the positions of the movable objects
+     */
+    int[] getMovablePositions() {
+        int crates = 0;
+        for (int row = 0; row < levelRow; row++) {
+            for (int col = 0; col < levelColumn; col++) {
+                if (objectsGrid.getGameObjectAt(row, col) == GameObject.CRATE) {
+                    crates++;
+                }
+            }
+        }
+        int[] positions = new int[crates + 1];
+        positions[0] = keeperPosition.x * levelColumn + keeperPosition.y;
+        int next = 1;
+        for (int row = 0; row < levelRow; row++) {
+            for (int col = 0; col < levelColumn; col++) {
+                if (objectsGrid.getGameObjectAt(row, col) == GameObject.CRATE) {
+                    positions[next++] = row * levelColumn + col;
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Moves the keeper and the crates to the given cells, as returned by {@link #getMovablePositions()}.
+     *
+     * @param positions the positions of the movable objects, the keeper first
+     */
+    void setMovablePositions(int[] positions) {
+        for (int row = 0; row < levelRow; row++) {
+            for (int col = 0; col < levelColumn; col++) {
+                GameObject object = objectsGrid.getGameObjectAt(row, col);
+                if (object == GameObject.CRATE || object == GameObject.KEEPER) {
+                    objectsGrid.putGameObjectAt(GameObject.FLOOR, row, col);
+                }
+            }
+        }
+        keeperPosition = new Point(positions[0] / levelColumn, positions[0] % levelColumn);
+        objectsGrid.putGameObjectAt(GameObject.KEEPER, keeperPosition);
+        for (int i = 1; i < positions.length; i++) {
+            objectsGrid.putGameObjectAt(GameObject.CRATE, positions[i] / levelColumn, positions[i] % levelColumn);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return objectsGrid.toString();
+    }
+    /**
+     * Returns an iterator over elements of type {@code T}.
+     *
+     * @return an Iterator.
+     */
+    @Override
+    public Iterator<GameObject> iterator() {
+        return new LevelIterator();
+    }
+
+    /**
+     * Returns a spliterator over the displayed objects that splits by ranges of rows, e.g. to scan a large level with
+     * {@link java.util.stream.StreamSupport#stream(Spliterator, boolean) a parallel stream}.
+     *
+     * @return the spliterator, in the order of {@link #forEachCell(CellConsumer)}
+     */
+    @Override
+    public Spliterator<GameObject> spliterator() {
+        return new RowSpliterator(this::getDisplayedObject, 0, levelRow, levelColumn);
+    }
+
+    /**
+     * Visits every cell of the level row by row, with the object displayed there as returned by
+     * {@link #getDisplayedObjectAt(int, int)}. Nothing is allocated per cell, unlike the iterator.
+     *
+     * @param action the visitor
+     */
+    public void forEachCell(CellConsumer action) {
+        forEachCell(0, levelRow, action);
+    }
+
+    /**
+     * Visits the cells of a range of rows, with the object displayed in each.
+     *
+     * @param fromRow the first row
+     * @param toRow   the row after the last one
+     * @param action  the visitor
+     */
+    public void forEachCell(int fromRow, int toRow, CellConsumer action) {
+        for (int row = fromRow; row < toRow; row++) {
+            for (int column = 0; column < levelColumn; column++) {
+                action.accept(row, column, getDisplayedObject(row, column));
+            }
+        }
+    }
+
+    /* Modified:Added clone function */
+    /**
+     * Provide a clone function for the {@link Level} class
+     * @return Cloned {@link Level} object
+     */
+    @Override
+    public Level clone() {
+        EngineMetrics.LEVEL_CLONES.increment();
+        return new Level(this, objectsGrid.clone(), diamondsGrid.clone());
+    }
+
+    /**
+     * Returns a copy of this level that shares the rows of its grids with it, see {@link GameGrid#share()}. Unlike
+     * {@link #clone()}, a move then copies the few rows it changes instead of the whole level.
+     *
+     * @return the copy
+     */
+    public Level share() {
+        return new Level(this, objectsGrid.share(), diamondsGrid.share());
+    }
+    /**
+     * LevelIterator provides the interface to iterate through the {@link GameGrid}
+     * containing the {@link GameObject}s for the current {@link Level}, row by row.
+     *
+     * @see Iterator
+     */
+    public class LevelIterator implements Iterator<GameObject> {
+
+        /** The index of the next cell, {@code row * levelColumn + column} */
+        int cell = 0;
+
+        @Override
+        public boolean hasNext() {
+            return cell < levelRow * levelColumn;
+        }
+
+        @Override
+        public GameObject next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int row = cell / levelColumn;
+            int column = cell++ % levelColumn;
+            return getDisplayedObject(row, column);
+        }
+
+        /**
+         * Returns the position of the object returned last, as a new {@link Point} of its row and column.
+         * Prefer {@link Level#forEachCell(CellConsumer)} to visit every cell with its position.
+         *
+         * @return the position of the object returned by {@link #next()}
+         */
+        public Point getCurrentPosition() {
+            return new Point((cell - 1) / levelColumn, (cell - 1) % levelColumn);
+        }
+    }
+
+}
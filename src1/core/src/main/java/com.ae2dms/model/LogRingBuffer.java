@@ -0,0 +1,113 @@
+package com.ae2dms.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.logging.Level;
+
+/**
+ * LogRingBuffer is a bounded queue of log entries with many producers and a single consumer.
+ * <p>
+ * Producers claim a slot with a compare-and-set on the tail and publish it through the slot sequence,
+ * so {@link #offer} never takes a lock and never waits: when the buffer is full the entry is refused.
+ * Entries are stored in preallocated parallel arrays, so queuing one allocates nothing.
+ *
+ * @version 2.0
+ */
+final class LogRingBuffer {
+
+    /**
+     * Receives the entries removed by {@link #drain(EntryHandler)}.
+     */
+    interface EntryHandler {
+        /**
+         * Handles one entry.
+         *
+         * @param time        the time of the event in milliseconds since the epoch
+         * @param level       the level of the event
+         * @param message     the message
+         * @param writeToFile {@code true} if the entry goes to the log file, {@code false} for the console
+         */
+        void handle(long time, Level level, String message, boolean writeToFile);
+    }
+
+    private final int mask;
+    /** For each slot, the position it may be written at, or that position + 1 once it holds an entry */
+    private final AtomicLongArray sequences;
+    private final long[] times;
+    private final Level[] levels;
+    private final String[] messages;
+    private final boolean[] toFile;
+    /** The next position to be claimed by a producer */
+    private final AtomicLong tail = new AtomicLong();
+    /** The next position to be read, only used by the consumer */
+    private long head;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity the number of entries, a power of two
+     */
+    LogRingBuffer(int capacity) {
+        if (Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("The capacity must be a power of two: " + capacity);
+        }
+        mask = capacity - 1;
+        sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        times = new long[capacity];
+        levels = new Level[capacity];
+        messages = new String[capacity];
+        toFile = new boolean[capacity];
+    }
+
+    /**
+     * Adds an entry if there is room for it. Safe to call from any thread.
+     *
+     * @return {@code true} if the entry was added, {@code false} if the buffer is full
+     */
+    boolean offer(long time, Level level, String message, boolean writeToFile) {
+        long position;
+        while (true) {
+            position = tail.get();
+            long available = sequences.get((int) position & mask) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (available < 0) {
+                return false;
+            }
+        }
+        int slot = (int) position & mask;
+        times[slot] = time;
+        levels[slot] = level;
+        messages[slot] = message;
+        toFile[slot] = writeToFile;
+        sequences.lazySet(slot, position + 1);
+        return true;
+    }
+
+    /**
+     * Removes every published entry, in order. Must only be called by the consumer thread.
+     *
+     * @param handler receives the entries
+     * @return the number of entries removed
+     */
+    int drain(EntryHandler handler) {
+        int drained = 0;
+        while (true) {
+            int slot = (int) head & mask;
+            if (sequences.get(slot) != head + 1) {
+                return drained;
+            }
+            String message = messages[slot];
+            messages[slot] = null;
+            handler.handle(times[slot], levels[slot], message, toFile[slot]);
+            sequences.lazySet(slot, head + mask + 1);
+            head++;
+            drained++;
+        }
+    }
+}
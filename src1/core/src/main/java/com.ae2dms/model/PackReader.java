@@ -0,0 +1,116 @@
+package com.ae2dms.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * PackReader reads a level pack in the skb format one level at a time, so that packs far larger than the memory
+ * can be scanned. The rows of each level are handed to a {@link LevelHandler} as soon as the level ends.
+ *
+ * @version 2.0
+ */
+public final class PackReader {
+
+    /**
+     * Receives the levels of a pack, in order.
+     */
+    @FunctionalInterface
+    public interface LevelHandler {
+        /**
+         * Called once for each level of the pack.
+         *
+         * @param levelName  the name of the level
+         * @param levelIndex the index of the level, starting at 1
+         * @param rawLevel   the rows of the level, upper case; only valid during the call
+         */
+        void level(String levelName, int levelIndex, List<String> rawLevel);
+    }
+
+    /** The rows of a level hold at least two walls; compiled once rather than on every line */
+    private static final Pattern ROW = Pattern.compile(".*W.*W.*");
+
+    private final BufferedReader reader;
+
+    private String mapSetName;
+
+    private long charactersRead = 0;
+
+    /**
+     * Creates a reader of a pack.
+     *
+     * @param reader the pack, not closed by this reader
+     */
+    public PackReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the whole pack.
+     *
+     * @param handler receives the levels
+     * @return the number of levels read
+     * @throws IOException if the pack cannot be read
+     */
+    public int read(LevelHandler handler) throws IOException {
+        boolean parsedFirstLevel = false;
+        List<String> rawLevel = new ArrayList<>();
+        String levelName = "";
+        int levelIndex = 0;
+
+        while (true) {
+            String line = reader.readLine();
+
+            if (line == null) {
+                if (rawLevel.size() != 0) {
+                    handler.level(levelName, ++levelIndex, rawLevel);
+                }
+                return levelIndex;
+            }
+            charactersRead += line.length() + 1;
+
+            if (line.contains("MapSetName")) {
+                mapSetName = line.replace("MapSetName: ", "");
+                continue;
+            }
+
+            if (line.contains("LevelName")) {
+                if (parsedFirstLevel) {
+                    handler.level(levelName, ++levelIndex, rawLevel);
+                    rawLevel.clear();
+                } else {
+                    parsedFirstLevel = true;
+                }
+
+                levelName = line.replace("LevelName: ", "");
+                continue;
+            }
+
+            line = line.trim();
+            line = line.toUpperCase();
+            if (ROW.matcher(line).matches()) {
+                rawLevel.add(line);
+            }
+        }
+    }
+
+    /**
+     * Returns the name of the pack, once read.
+     *
+     * @return the name of the pack, {@code null} if it has none
+     */
+    public String getMapSetName() {
+        return mapSetName;
+    }
+
+    /**
+     * Returns the number of characters read so far, line ends included.
+     *
+     * @return the number of characters read
+     */
+    public long getCharactersRead() {
+        return charactersRead;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ae2dms.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * PackValidator checks the levels of a pack before they are played, so that a broken level is reported when
+ * the pack is loaded instead of failing in the middle of a game.
+ * <p>
+ * A level is checked for one keeper, as many crates as diamonds, and walls enclosing everything the keeper
+ * could reach or push a crate to. Rows of different widths are reported but played, the missing cells being
+ * empty floor outside the walls. Levels are checked in parallel.
+ *
+ * @version 2.0
+ */
+public final class PackValidator {
+
+    private PackValidator() {
+    }
+
+    /**
+     * Checks every level of a pack.
+     *
+     * @param levels the levels, which are not modified
+     * @return the report, with the levels in the same order
+     */
+    public static ValidationReport validate(List<Level> levels) {
+        return new ValidationReport(levels.parallelStream()
+                .map(PackValidator::validate)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Checks one level.
+     *
+     * @param level the level, which is not modified
+     * @return the report of the level
+     */
+    public static ValidationReport.LevelReport validate(Level level) {
+        List<ValidationReport.Issue> issues = new ArrayList<>();
+        int rows = level.levelRow;
+        int columns = level.levelColumn;
+        int keepers = 0;
+        int crates = 0;
+        int diamonds = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                GameObject object = level.objectsGrid.getGameObjectAt(row, column);
+                if (object == GameObject.KEEPER) {
+                    keepers++;
+                } else if (object == GameObject.CRATE) {
+                    crates++;
+                }
+                if (level.diamondsGrid.getGameObjectAt(row, column) == GameObject.DIAMOND) {
+                    diamonds++;
+                }
+            }
+        }
+
+        if (keepers != 1) {
+            issues.add(new ValidationReport.Issue(ValidationReport.Problem.KEEPER_COUNT,
+                    keepers + " keepers instead of one"));
+        }
+        if (crates != diamonds) {
+            issues.add(new ValidationReport.Issue(ValidationReport.Problem.CRATE_COUNT,
+                    crates + " crates for " + diamonds + " diamonds"));
+        }
+        if (diamonds == 0) {
+            issues.add(new ValidationReport.Issue(ValidationReport.Problem.NO_DIAMOND, "no diamond"));
+        }
+        if (keepers > 0) {
+            int[] exit = findExit(level);
+            if (exit != null) {
+                issues.add(new ValidationReport.Issue(ValidationReport.Problem.NOT_ENCLOSED,
+                        "the keeper can reach the border at [" + exit[0] + ":" + exit[1] + "]"));
+            }
+        }
+        if (level.raggedRows > 0) {
+            issues.add(new ValidationReport.Issue(ValidationReport.Problem.RAGGED_ROWS,
+                    level.raggedRows + " rows narrower than " + columns + " columns"));
+        }
+        return new ValidationReport.LevelReport(level.getIndex(), level.getName(), issues);
+    }
+
+    /**
+     * Walks from the keeper through every cell that is not a wall, as crates may be pushed away.
+     *
+     * @return the row and column of a reachable cell on the border, {@code null} if there is none
+     */
+    private static int[] findExit(Level level) {
+        int rows = level.levelRow;
+        int columns = level.levelColumn;
+        boolean[] reached = new boolean[rows * columns];
+        int[] queue = new int[rows * columns];
+        int head = 0;
+        int tail = 0;
+        int start = level.getKeeperRow() * columns + level.getKeeperColumn();
+        reached[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int row = cell / columns;
+            int column = cell % columns;
+            if (row == 0 || row == rows - 1 || column == 0 || column == columns - 1) {
+                return new int[]{row, column};
+            }
+            for (Direction direction : Direction.values()) {
+                int next = (row + direction.rowDelta) * columns + column + direction.columnDelta;
+                if (!reached[next] && level.objectsGrid.getGameObjectAt(row + direction.rowDelta,
+                        column + direction.columnDelta) != GameObject.WALL) {
+                    reached[next] = true;
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return null;
+    }
+}
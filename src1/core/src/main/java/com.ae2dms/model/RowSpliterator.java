@@ -0,0 +1,104 @@
+package com.ae2dms.model;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * RowSpliterator traverses the cells of a grid row by row, and splits by ranges of whole rows so that a parallel
+ * stream can scan the cells of a large level on several threads.
+ *
+ * @version 2.0
+ */
+final class RowSpliterator implements Spliterator<GameObject> {
+
+    /**
+     * Reads the object of a cell known to be inside the grid.
+     */
+    @FunctionalInterface
+    interface CellReader {
+        GameObject get(int row, int column);
+    }
+
+    private final CellReader cells;
+
+    private final int columns;
+
+    /** The row after the last one of this spliterator */
+    private final int endRow;
+
+    /** The row of the next cell */
+    private int row;
+
+    /** The column of the next cell */
+    private int column;
+
+    /**
+     * Creates a spliterator over whole rows.
+     *
+     * @param cells   the reader of the cells
+     * @param fromRow the first row
+     * @param toRow   the row after the last one
+     * @param columns the number of columns of the grid
+     */
+    RowSpliterator(CellReader cells, int fromRow, int toRow, int columns) {
+        this(cells, columns, fromRow, 0, columns == 0 ? fromRow : toRow);
+    }
+
+    private RowSpliterator(CellReader cells, int columns, int row, int column, int endRow) {
+        this.cells = cells;
+        this.columns = columns;
+        this.row = row;
+        this.column = column;
+        this.endRow = endRow;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super GameObject> action) {
+        if (row >= endRow) {
+            return false;
+        }
+        GameObject object = cells.get(row, column);
+        if (++column == columns) {
+            column = 0;
+            row++;
+        }
+        action.accept(object);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super GameObject> action) {
+        for (; row < endRow; row++, column = 0) {
+            for (; column < columns; column++) {
+                action.accept(cells.get(row, column));
+            }
+        }
+    }
+
+    /**
+     * Hands the first half of the remaining rows to a new spliterator, the row in progress included.
+     *
+     * @return the spliterator of the first rows, {@code null} if fewer than two rows remain
+     */
+    @Override
+    public Spliterator<GameObject> trySplit() {
+        int middle = (row + endRow + 1) >>> 1;
+        if (middle >= endRow) {
+            return null;
+        }
+        RowSpliterator prefix = new RowSpliterator(cells, columns, row, column, middle);
+        row = middle;
+        column = 0;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return (long) (endRow - row) * columns - column;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
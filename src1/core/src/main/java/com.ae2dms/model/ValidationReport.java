@@ -0,0 +1,178 @@
+package com.ae2dms.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of {@link PackValidator}: the problems found in each level of a pack.
+ *
+ * @version 2.0
+ */
+public final class ValidationReport {
+
+    /**
+     * The problems a level may have.
+     */
+    public enum Problem {
+        /** There is no keeper, or more than one */
+        KEEPER_COUNT(true),
+        /** The numbers of crates and of diamonds differ */
+        CRATE_COUNT(true),
+        /** There is nothing to do: the level is complete as soon as it is loaded */
+        NO_DIAMOND(true),
+        /** The keeper can walk to the border of the map */
+        NOT_ENCLOSED(true),
+        /** The rows of the file have different widths; they are padded with floor */
+        RAGGED_ROWS(false);
+
+        /** {@code true} if the level cannot be played as intended */
+        public final boolean error;
+
+        Problem(boolean error) {
+            this.error = error;
+        }
+    }
+
+    /**
+     * One problem of a level.
+     */
+    public static final class Issue {
+        public final Problem problem;
+        public final String detail;
+
+        Issue(Problem problem, String detail) {
+            this.problem = problem;
+            this.detail = detail;
+        }
+
+        @Override
+        public String toString() {
+            return (problem.error ? "error: " : "warning: ") + detail;
+        }
+    }
+
+    /**
+     * The problems of one level.
+     */
+    public static final class LevelReport {
+        private final int levelIndex;
+        private final String levelName;
+        private final List<Issue> issues;
+
+        LevelReport(int levelIndex, String levelName, List<Issue> issues) {
+            this.levelIndex = levelIndex;
+            this.levelName = levelName;
+            this.issues = Collections.unmodifiableList(issues);
+        }
+
+        public int getLevelIndex() {
+            return levelIndex;
+        }
+
+        public String getLevelName() {
+            return levelName;
+        }
+
+        public List<Issue> getIssues() {
+            return issues;
+        }
+
+        /**
+         * Returns {@code true} if the level has no error; it may have warnings.
+         *
+         * @return {@code true} if the level can be played
+         */
+        public boolean isValid() {
+            for (Issue issue : issues) {
+                if (issue.problem.error) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Returns {@code true} if the level has the given problem.
+         *
+         * @param problem the problem
+         * @return {@code true} if found
+         */
+        public boolean has(Problem problem) {
+            for (Issue issue : issues) {
+                if (issue.problem == problem) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder("Level ").append(levelIndex).append(" (").append(levelName)
+                    .append("): ");
+            if (issues.isEmpty()) {
+                return text.append("ok").toString();
+            }
+            for (int i = 0; i < issues.size(); i++) {
+                text.append(i == 0 ? "" : "; ").append(issues.get(i));
+            }
+            return text.toString();
+        }
+    }
+
+    private final List<LevelReport> levels;
+
+    ValidationReport(List<LevelReport> levels) {
+        this.levels = Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Returns the report of each level, in the order of the pack.
+     *
+     * @return the level reports
+     */
+    public List<LevelReport> getLevels() {
+        return levels;
+    }
+
+    /**
+     * Returns {@code true} if no level has an error.
+     *
+     * @return {@code true} if the whole pack can be played
+     */
+    public boolean isValid() {
+        return getInvalidLevels().isEmpty();
+    }
+
+    /**
+     * Returns the reports of the levels with an error.
+     *
+     * @return the reports
+     */
+    public List<LevelReport> getInvalidLevels() {
+        List<LevelReport> invalid = new ArrayList<>();
+        for (LevelReport level : levels) {
+            if (!level.isValid()) {
+                invalid.add(level);
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Returns the report of every level with an issue, one per line.
+     *
+     * @return the report
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (LevelReport level : levels) {
+            if (!level.getIssues().isEmpty()) {
+                text.append(level).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
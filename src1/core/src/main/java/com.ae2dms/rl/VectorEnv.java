@@ -0,0 +1,390 @@
+package com.ae2dms.rl;
+
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * VectorEnv steps many independent Sokoban games in lockstep, for training agents on the levels of a pack.
+ * <p>
+ * Each game is kept as a few primitive arrays instead of a {@link Level} with its {@link com.ae2dms.model.GameGrid}s, so a step
+ * of all the games allocates nothing: {@link #step(int[])} writes into the observation, reward and done arrays
+ * owned by the environment, which callers read after every step and must not keep across steps.
+ * <p>
+ * The observation is a {@code float} tensor of shape {@code [games, CHANNELS, rows, columns]}, flattened in that
+ * order, with one channel per kind of {@link GameObject}: {@link #WALL}, {@link #FLOOR}, {@link #CRATE},
+ * {@link #DIAMOND}, {@link #KEEPER} and {@link #CRATE_ON_DIAMOND}. A cell has 1 in every channel that applies,
+ * e.g. a crate on a diamond is on the floor and is both a crate and a diamond. Levels smaller than the largest
+ * one of the pack are padded with walls on the right and at the bottom.
+ * <p>
+ * Actions are the ordinals of {@link Direction}. A game is done when its level is solved or after the
+ * maximum number of steps; it is then reset at once to a random level of the pack, so the observation
+ * returned with {@code done} is already the first one of the next episode.
+ * <p>
+ * Not thread safe.
+ *
+ * @version 2.0
+ */
+public final class VectorEnv {
+
+    public static final int WALL = 0;
+    public static final int FLOOR = 1;
+    public static final int CRATE = 2;
+    public static final int DIAMOND = 3;
+    public static final int KEEPER = 4;
+    public static final int CRATE_ON_DIAMOND = 5;
+
+    /** The number of channels of the observation */
+    public static final int CHANNELS = 6;
+
+    /** The reward of every step, to favour short solutions */
+    public static final float STEP_REWARD = -0.1f;
+
+    /** The reward for pushing a crate onto a diamond; pushing it off costs as much */
+    public static final float DIAMOND_REWARD = 1f;
+
+    /** The reward for solving the level */
+    public static final float SOLVED_REWARD = 10f;
+
+    /** Cell flags of {@link #cells} */
+    private static final byte WALL_FLAG = 1;
+    private static final byte DIAMOND_FLAG = 2;
+    private static final byte CRATE_FLAG = 4;
+
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final int gameCount;
+
+    private final int rows;
+
+    private final int columns;
+
+    /** The number of cells of a game, {@code rows * columns} */
+    private final int area;
+
+    private final int maxEpisodeSteps;
+
+    private final SplittableRandom random;
+
+    /** The cell flags of each level of the pack, in their initial state */
+    private final byte[][] levelCells;
+
+    /** The initial cell of the keeper in each level */
+    private final int[] levelKeepers;
+
+    /** The number of diamonds of each level */
+    private final int[] levelDiamonds;
+
+    /** The cell flags of every game, one block of {@link #area} per game */
+    private final byte[] cells;
+
+    private final int[] keeperRows;
+
+    private final int[] keeperColumns;
+
+    /** The number of diamonds still to be covered in each game */
+    private final int[] uncovered;
+
+    private final int[] levelOfGame;
+
+    private final int[] episodeSteps;
+
+    private final float[] observations;
+
+    private final float[] rewards;
+
+    private final boolean[] dones;
+
+    private final boolean[] solved;
+
+    /**
+     * Creates the environment and resets every game to a random level.
+     *
+     * @param levels          the levels to be played
+     * @param gameCount       the number of games stepped together
+     * @param maxEpisodeSteps the number of steps after which an unsolved game is reset
+     * @param seed            the seed of the level choice
+     */
+    public VectorEnv(List<Level> levels, int gameCount, int maxEpisodeSteps, long seed) {
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("No level to play");
+        }
+        this.gameCount = gameCount;
+        this.maxEpisodeSteps = maxEpisodeSteps;
+        random = new SplittableRandom(seed);
+
+        int maxRows = 0;
+        int maxColumns = 0;
+        for (Level level : levels) {
+            maxRows = Math.max(maxRows, level.levelRow);
+            maxColumns = Math.max(maxColumns, level.levelColumn);
+        }
+        rows = maxRows;
+        columns = maxColumns;
+        area = rows * columns;
+
+        levelCells = new byte[levels.size()][];
+        levelKeepers = new int[levels.size()];
+        levelDiamonds = new int[levels.size()];
+        for (int i = 0; i < levels.size(); i++) {
+            loadLevel(i, levels.get(i));
+        }
+
+        cells = new byte[gameCount * area];
+        keeperRows = new int[gameCount];
+        keeperColumns = new int[gameCount];
+        uncovered = new int[gameCount];
+        levelOfGame = new int[gameCount];
+        episodeSteps = new int[gameCount];
+        observations = new float[gameCount * CHANNELS * area];
+        rewards = new float[gameCount];
+        dones = new boolean[gameCount];
+        solved = new boolean[gameCount];
+        reset();
+    }
+
+    /**
+     * Creates an environment playing the levels of a pack.
+     *
+     * @param input           the pack, in skb format
+     * @param gameCount       the number of games stepped together
+     * @param maxEpisodeSteps the number of steps after which an unsolved game is reset
+     * @param seed            the seed of the level choice
+     * @return the environment
+     */
+    public static VectorEnv fromPack(InputStream input, int gameCount, int maxEpisodeSteps, long seed) {
+        return new VectorEnv(new GameEngine(input, GameLogger.get(false)).getLevels(), gameCount, maxEpisodeSteps, seed);
+    }
+
+    /**
+     * Resets every game to a random level.
+     */
+    public void reset() {
+        for (int game = 0; game < gameCount; game++) {
+            resetGame(game);
+            rewards[game] = 0;
+            dones[game] = false;
+            solved[game] = false;
+        }
+    }
+
+    /**
+     * Moves the keeper of every game.
+     *
+     * @param actions the ordinal of the {@link Direction} of each game
+     * @throws IllegalArgumentException if there is not one valid action per game
+     */
+    public void step(int[] actions) {
+        if (actions.length != gameCount) {
+            throw new IllegalArgumentException("Expected " + gameCount + " actions, got " + actions.length);
+        }
+        for (int game = 0; game < gameCount; game++) {
+            int action = actions[game];
+            if (action < 0 || action >= DIRECTIONS.length) {
+                throw new IllegalArgumentException("Invalid action " + action + " for game " + game);
+            }
+            Direction direction = DIRECTIONS[action];
+            float reward = STEP_REWARD + move(game, direction.rowDelta, direction.columnDelta);
+            boolean levelSolved = uncovered[game] == 0;
+            if (levelSolved) {
+                reward += SOLVED_REWARD;
+            }
+            rewards[game] = reward;
+            solved[game] = levelSolved;
+            dones[game] = levelSolved || ++episodeSteps[game] >= maxEpisodeSteps;
+            if (dones[game]) {
+                resetGame(game);
+            }
+        }
+    }
+
+    /**
+     * Returns the observation of every game, updated in place by {@link #step(int[])} and {@link #reset()}.
+     *
+     * @return the tensor of shape {@code [games, CHANNELS, rows, columns]}
+     */
+    public float[] getObservations() {
+        return observations;
+    }
+
+    /**
+     * Returns the reward of the last step of every game, updated in place.
+     *
+     * @return the rewards
+     */
+    public float[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * Returns which games ended at the last step and have been reset, updated in place.
+     *
+     * @return the done flags
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    /**
+     * Returns which games ended at the last step because their level was solved, updated in place.
+     *
+     * @return the solved flags
+     */
+    public boolean[] getSolved() {
+        return solved;
+    }
+
+    public int getGameCount() {
+        return gameCount;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    /**
+     * Returns the index in the pack of the level played by a game, starting from 0.
+     *
+     * @param game the game
+     * @return the level index
+     */
+    public int getLevel(int game) {
+        return levelOfGame[game];
+    }
+
+    /**
+     * Returns the number of steps of the current episode of a game.
+     *
+     * @param game the game
+     * @return the number of steps
+     */
+    public int getEpisodeSteps(int game) {
+        return episodeSteps[game];
+    }
+
+    /**
+     * Converts a level to cell flags.
+     */
+    private void loadLevel(int index, Level level) {
+        byte[] flags = new byte[area];
+        Arrays.fill(flags, WALL_FLAG);
+        int diamonds = 0;
+        for (int row = 0; row < level.levelRow; row++) {
+            for (int column = 0; column < level.levelColumn; column++) {
+                int cell = row * columns + column;
+                GameObject object = level.objectsGrid.getGameObjectAt(row, column);
+                if (object == null || object == GameObject.WALL) {
+                    continue;
+                }
+                flags[cell] = object == GameObject.CRATE ? CRATE_FLAG : 0;
+                if (level.diamondsGrid.getGameObjectAt(row, column) == GameObject.DIAMOND) {
+                    flags[cell] |= DIAMOND_FLAG;
+                    if (object != GameObject.CRATE) {
+                        diamonds++;
+                    }
+                }
+                if (object == GameObject.KEEPER) {
+                    levelKeepers[index] = cell;
+                }
+            }
+        }
+        levelCells[index] = flags;
+        levelDiamonds[index] = diamonds;
+    }
+
+    /**
+     * Puts a game back to the initial state of a random level and rewrites its observation.
+     */
+    private void resetGame(int game) {
+        int level = random.nextInt(levelCells.length);
+        levelOfGame[game] = level;
+        episodeSteps[game] = 0;
+        uncovered[game] = levelDiamonds[level];
+        keeperRows[game] = levelKeepers[level] / columns;
+        keeperColumns[game] = levelKeepers[level] % columns;
+        System.arraycopy(levelCells[level], 0, cells, game * area, area);
+        for (int cell = 0; cell < area; cell++) {
+            observe(game, cell);
+        }
+    }
+
+    /**
+     * Moves the keeper of a game if nothing blocks it, like {@link GameEngine#move(Direction)}.
+     *
+     * @return the change of reward due to the crate moving onto or off a diamond
+     */
+    private float move(int game, int rowDelta, int columnDelta) {
+        int row = keeperRows[game] + rowDelta;
+        int column = keeperColumns[game] + columnDelta;
+        if (isBlocked(game, row, column, WALL_FLAG)) {
+            return 0;
+        }
+        int base = game * area;
+        int keeperCell = keeperRows[game] * columns + keeperColumns[game];
+        int target = row * columns + column;
+        float reward = 0;
+        if ((cells[base + target] & CRATE_FLAG) != 0) {
+            int crateRow = row + rowDelta;
+            int crateColumn = column + columnDelta;
+            if (isBlocked(game, crateRow, crateColumn, (byte) (WALL_FLAG | CRATE_FLAG))) {
+                return 0;
+            }
+            int crateTarget = crateRow * columns + crateColumn;
+            cells[base + target] &= ~CRATE_FLAG;
+            cells[base + crateTarget] |= CRATE_FLAG;
+            if ((cells[base + target] & DIAMOND_FLAG) != 0) {
+                uncovered[game]++;
+                reward -= DIAMOND_REWARD;
+            }
+            if ((cells[base + crateTarget] & DIAMOND_FLAG) != 0) {
+                uncovered[game]--;
+                reward += DIAMOND_REWARD;
+            }
+            observe(game, crateTarget);
+        }
+        keeperRows[game] = row;
+        keeperColumns[game] = column;
+        observe(game, keeperCell);
+        observe(game, target);
+        return reward;
+    }
+
+    /**
+     * Returns {@code true} if a cell is outside the grid or has one of the given flags.
+     */
+    private boolean isBlocked(int game, int row, int column, byte blockingFlags) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return true;
+        }
+        return (cells[game * area + row * columns + column] & blockingFlags) != 0;
+    }
+
+    /**
+     * Writes the channels of one cell of a game into the observation.
+     */
+    private void observe(int game, int cell) {
+        byte flags = cells[game * area + cell];
+        boolean wall = (flags & WALL_FLAG) != 0;
+        boolean crate = (flags & CRATE_FLAG) != 0;
+        boolean diamond = (flags & DIAMOND_FLAG) != 0;
+        boolean keeper = cell == keeperRows[game] * columns + keeperColumns[game];
+        int offset = game * CHANNELS * area + cell;
+        observations[offset + WALL * area] = wall ? 1 : 0;
+        observations[offset + FLOOR * area] = wall ? 0 : 1;
+        observations[offset + CRATE * area] = crate ? 1 : 0;
+        observations[offset + DIAMOND * area] = diamond ? 1 : 0;
+        observations[offset + KEEPER * area] = keeper ? 1 : 0;
+        observations[offset + CRATE_ON_DIAMOND * area] = crate && diamond ? 1 : 0;
+    }
+}
@@ -0,0 +1,199 @@
+package com.ae2dms.session;
+
+import com.ae2dms.model.EngineState;
+import com.ae2dms.model.GameEngine;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * A GameSession is one player's game, hosted by a {@link SessionManager}.
+ * <p>
+ * Commands submitted to a session are applied to its own {@link GameEngine} one at a time and in order,
+ * by a task that the manager schedules only while commands are waiting, so an idle session holds no thread.
+ * An idle session may be evicted: its engine is replaced by a small {@link EngineState}, and a new engine is
+ * rebuilt from it when the next command arrives.
+ *
+ * @version 2.0
+ */
+public final class GameSession {
+
+    private final long id;
+
+    private final SessionManager manager;
+
+    private final SessionManager.Pack pack;
+
+    /** The commands waiting to be applied */
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+
+    /** Set while a task applying the commands is scheduled or running */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** Held while the engine is used or evicted */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** The time of the last command, in milliseconds */
+    private volatile long lastAccess = System.currentTimeMillis();
+
+    /** Set once the session has been removed from the manager */
+    private volatile boolean closed = false;
+
+    /** The engine, {@code null} while the session is evicted */
+    private GameEngine engine;
+
+    /** The state of the engine while the session is evicted; written under the lock, read without it */
+    private volatile EngineState evictedState;
+
+    GameSession(long id, SessionManager manager, SessionManager.Pack pack, GameEngine engine) {
+        this.id = id;
+        this.manager = manager;
+        this.pack = pack;
+        this.engine = engine;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Returns the name of the level pack played in this session.
+     *
+     * @return the pack name
+     */
+    public String getPackName() {
+        return pack.name;
+    }
+
+    /**
+     * Returns the time of the last command submitted to this session.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+    /**
+     * Returns {@code true} if the engine of this session is in memory, {@code false} if it has been evicted.
+     *
+     * @return {@code true} if the session is resident
+     */
+    public boolean isResident() {
+        return evictedState == null;
+    }
+
+    /**
+     * Queues a command to be applied to the engine of this session.
+     * The future fails with a {@link SessionLimitException} if the session was evicted and there is no room to
+     * bring it back, and with an {@link IllegalStateException} if the session has been removed.
+     *
+     * @param command the command, which may return a result read from the engine
+     * @param <T>     the type of the result
+     * @return a future completed with the result of the command once it has been applied
+     */
+    public <T> CompletableFuture<T> submit(Function<GameEngine, T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        lastAccess = System.currentTimeMillis();
+        commands.add(() -> {
+            try {
+                if (closed) {
+                    throw new IllegalStateException("Session " + id + " has been removed");
+                }
+                if (engine == null) {
+                    manager.restore(this);
+                }
+                result.complete(command.apply(engine));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        schedule();
+        return result;
+    }
+
+    /**
+     * Schedules the task applying the commands, unless it is already scheduled.
+     */
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            manager.execute(this::applyCommands);
+        }
+    }
+
+    /**
+     * Applies the waiting commands, then schedules itself again if a command arrived in the meantime.
+     */
+    private void applyCommands() {
+        lock.lock();
+        try {
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+        } finally {
+            lock.unlock();
+            scheduled.set(false);
+        }
+        if (!commands.isEmpty()) {
+            schedule();
+        }
+    }
+
+    /**
+     * Replaces the engine by its compact state, unless the session is busy.
+     *
+     * @return {@code true} if the session has been evicted
+     */
+    boolean evict() {
+        if (scheduled.get() || !lock.tryLock()) {
+            return false;
+        }
+        try {
+            if (engine == null || scheduled.get()) {
+                return false;
+            }
+            evictedState = engine.saveState();
+            engine = null;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the engine from the evicted state. Called by the manager on the command thread.
+     *
+     * @param restored a new engine playing the same pack
+     */
+    void resume(GameEngine restored) {
+        restored.restoreState(evictedState);
+        engine = restored;
+        evictedState = null;
+    }
+
+    /**
+     * Returns the estimated memory used by this session.
+     *
+     * @return the size in bytes
+     */
+    long getEstimatedBytes() {
+        EngineState state = evictedState;
+        return state == null ? pack.sessionBytes : state.getEstimatedBytes();
+    }
+
+    /**
+     * Marks the session as removed; commands still queued will fail.
+     */
+    void close() {
+        closed = true;
+    }
+
+    SessionManager.Pack getPack() {
+        return pack;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ae2dms.session;
+
+/**
+ * Thrown when a game session cannot be created or brought back into memory without going over
+ * the memory limits of the {@link SessionManager}.
+ *
+ * @version 2.0
+ */
+public class SessionLimitException extends IllegalStateException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates the exception.
+     *
+     * @param message the description of the limit that was hit
+     */
+    public SessionLimitException(String message) {
+        super(message);
+    }
+}
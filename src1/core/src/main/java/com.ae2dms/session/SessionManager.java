@@ -0,0 +1,331 @@
+package com.ae2dms.session;
+
+import com.ae2dms.cache.LevelCache;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.Level;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SessionManager hosts many independent games in one JVM, e.g. for a shared practice server.
+ * <p>
+ * Level packs are parsed once by {@link #registerPack} and their levels are shared by every session playing
+ * them, so a session only holds the level being played and its undo copy. Sessions apply their commands on
+ * virtual threads when the JVM provides them, otherwise on a work-stealing pool.
+ * <p>
+ * Memory is bounded in two ways: a pack whose levels would make a session bigger than the session limit is
+ * refused, and when the sessions in memory would go over the total limit, the least recently used idle
+ * sessions are evicted to a compact state. Sessions idle for longer than the idle timeout are evicted by a
+ * background sweep. The sizes are estimates of the heap used by the level grids.
+ *
+ * @version 2.0
+ */
+public class SessionManager implements AutoCloseable {
+
+    /** Approximate size of an object header plus a reference, as used by the estimates */
+    private static final int OBJECT_BYTES = 16;
+
+    /** Approximate size of a reference */
+    private static final int REFERENCE_BYTES = 4;
+
+    private final long maxSessionBytes;
+
+    private final long maxTotalBytes;
+
+    private final long idleTimeoutMillis;
+
+    private final boolean production;
+
+    private final Map<String, Pack> packs = new ConcurrentHashMap<>();
+
+    private final Map<Long, GameSession> sessions = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextId = new AtomicLong();
+
+    /** The estimated memory used by all the sessions */
+    private final AtomicLong usedBytes = new AtomicLong();
+
+    private final ExecutorService commandExecutor = VirtualThreads.newPerTaskExecutor();
+
+    private final ScheduledExecutorService sweeper;
+
+    /** The cache the packs are analysed through when registered, {@code null} for none */
+    private volatile LevelCache levelCache;
+
+    /**
+     * Creates a manager.
+     *
+     * @param maxSessionBytes the estimated memory a single session may use
+     * @param maxTotalBytes   the estimated memory all the sessions may use together
+     * @param idleTimeout     how long a session may stay idle before it is evicted, zero to never sweep
+     * @param production      {@code true} to log into the log file, {@code false} to log to the console
+     */
+    public SessionManager(long maxSessionBytes, long maxTotalBytes, Duration idleTimeout, boolean production) {
+        this.maxSessionBytes = maxSessionBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        this.idleTimeoutMillis = idleTimeout.toMillis();
+        this.production = production;
+        if (idleTimeoutMillis > 0) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, GameEngine.GAME_NAME + " session sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1, idleTimeoutMillis / 2);
+            sweeper.scheduleAtFixedRate(this::evictIdleSessions, period, period, TimeUnit.MILLISECONDS);
+        } else {
+            sweeper = null;
+        }
+    }
+
+    /**
+     * Sets the cache the packs registered from now on are analysed through, so that their solutions are computed
+     * once and kept across restarts.
+     *
+     * @param levelCache the cache, {@code null} not to analyse the packs
+     */
+    public void setLevelCache(LevelCache levelCache) {
+        this.levelCache = levelCache;
+    }
+
+    /**
+     * Parses a level pack and makes it available to new sessions under the given name.
+     *
+     * @param name  the name of the pack
+     * @param input the content of the pack, in skb format
+     * @throws SessionLimitException if a session playing the largest level of the pack would go over the
+     *                               session memory limit
+     */
+    public void registerPack(String name, InputStream input) {
+        GameEngine parser = new GameEngine(input, GameLogger.get(production).named("pack " + name), levelCache);
+        List<Level> levels = parser.getLevels();
+        if (levels.isEmpty()) {
+            throw new IllegalArgumentException("The pack " + name + " has no level");
+        }
+        long largest = 0;
+        for (Level level : levels) {
+            largest = Math.max(largest, estimateLevelBytes(level));
+        }
+        // The level being played and its undo copy
+        long sessionBytes = 2 * largest + OBJECT_BYTES * 8;
+        if (sessionBytes > maxSessionBytes) {
+            throw new SessionLimitException("A session of the pack " + name + " needs about " + sessionBytes
+                    + " bytes, the limit is " + maxSessionBytes);
+        }
+        packs.put(name, new Pack(name, parser.mapSetName, List.copyOf(levels), sessionBytes));
+    }
+
+    /**
+     * Starts a new game of a registered pack, evicting idle sessions if needed to make room for it.
+     *
+     * @param packName the name of the pack
+     * @return the new session
+     * @throws IllegalArgumentException if the pack is not registered
+     * @throws SessionLimitException    if there is no room for the session
+     */
+    public GameSession createSession(String packName) {
+        Pack pack = packs.get(packName);
+        if (pack == null) {
+            throw new IllegalArgumentException("Unknown pack " + packName);
+        }
+        reserve(pack.sessionBytes, null);
+        long id = nextId.incrementAndGet();
+        GameSession session = new GameSession(id, this, pack, newEngine(pack, id));
+        sessions.put(id, session);
+        return session;
+    }
+
+    /**
+     * Returns a session.
+     *
+     * @param id the session id
+     * @return the session, {@code null} if there is none with this id
+     */
+    public GameSession getSession(long id) {
+        return sessions.get(id);
+    }
+
+    /**
+     * Removes a session and releases its memory. Commands still queued for it will fail.
+     *
+     * @param id the session id
+     * @return {@code true} if the session existed
+     */
+    public boolean removeSession(long id) {
+        GameSession session = sessions.remove(id);
+        if (session == null) {
+            return false;
+        }
+        session.close();
+        usedBytes.addAndGet(-session.getEstimatedBytes());
+        return true;
+    }
+
+    /**
+     * Returns all the sessions.
+     *
+     * @return a live view of the sessions
+     */
+    public Collection<GameSession> getSessions() {
+        return sessions.values();
+    }
+
+    /**
+     * Returns {@code true} if the sessions log into the log file, {@code false} if they log to the console.
+     *
+     * @return the logging mode given to the constructor
+     */
+    public boolean isProduction() {
+        return production;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * Returns the estimated memory used by all the sessions, resident or evicted.
+     *
+     * @return the size in bytes
+     */
+    public long getUsedBytes() {
+        return usedBytes.get();
+    }
+
+    /**
+     * Evicts the sessions that have been idle for longer than the idle timeout.
+     *
+     * @return the number of evicted sessions
+     */
+    public int evictIdleSessions() {
+        long limit = System.currentTimeMillis() - idleTimeoutMillis;
+        int evicted = 0;
+        for (GameSession session : sessions.values()) {
+            if (session.isResident() && session.getLastAccess() <= limit && evict(session)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * Stops the sweep and the command threads. Commands still queued are not applied.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        commandExecutor.shutdownNow();
+    }
+
+    /**
+     * Brings an evicted session back into memory. Called on the command thread of the session.
+     *
+     * @param session the session to be restored
+     * @throws SessionLimitException if there is no room for the session
+     */
+    void restore(GameSession session) {
+        Pack pack = session.getPack();
+        long evictedBytes = session.getEstimatedBytes();
+        reserve(pack.sessionBytes - evictedBytes, session);
+        session.resume(newEngine(pack, session.getId()));
+    }
+
+    /**
+     * Runs the command task of a session.
+     *
+     * @param task the task
+     */
+    void execute(Runnable task) {
+        commandExecutor.execute(task);
+    }
+
+    /**
+     * Accounts for more memory, evicting the least recently used idle sessions until it fits.
+     *
+     * @param bytes    the memory needed
+     * @param excluded a session that must not be evicted, may be {@code null}
+     * @throws SessionLimitException if the memory cannot be found
+     */
+    private void reserve(long bytes, GameSession excluded) {
+        while (true) {
+            long used = usedBytes.get();
+            if (used + bytes <= maxTotalBytes) {
+                if (usedBytes.compareAndSet(used, used + bytes)) {
+                    return;
+                }
+                continue;
+            }
+            GameSession oldest = null;
+            for (GameSession session : sessions.values()) {
+                if (session != excluded && session.isResident()
+                        && (oldest == null || session.getLastAccess() < oldest.getLastAccess())) {
+                    oldest = session;
+                }
+            }
+            if (oldest == null || !evict(oldest)) {
+                throw new SessionLimitException("The sessions would use more than " + maxTotalBytes + " bytes");
+            }
+        }
+    }
+
+    /**
+     * Evicts a session and releases the memory it no longer uses.
+     *
+     * @param session the session
+     * @return {@code true} if the session was evicted, {@code false} if it was busy
+     */
+    private boolean evict(GameSession session) {
+        long before = session.getEstimatedBytes();
+        if (!session.evict()) {
+            return false;
+        }
+        usedBytes.addAndGet(session.getEstimatedBytes() - before);
+        return true;
+    }
+
+    private GameEngine newEngine(Pack pack, long id) {
+        return new GameEngine(pack.mapSetName, pack.levels, GameLogger.get(production).named("session " + id));
+    }
+
+    /**
+     * Returns the estimated heap size of a level with its two grids.
+     *
+     * @param level the level
+     * @return the size in bytes
+     */
+    static long estimateLevelBytes(Level level) {
+        long grid = OBJECT_BYTES * 2 + (long) level.levelRow * (OBJECT_BYTES + (long) REFERENCE_BYTES * level.levelColumn);
+        return OBJECT_BYTES * 4 + 2 * grid;
+    }
+
+    /**
+     * A parsed level pack, shared by its sessions.
+     */
+    static final class Pack {
+        final String name;
+        final String mapSetName;
+        final List<Level> levels;
+        /** The estimated memory of a resident session */
+        final long sessionBytes;
+
+        Pack(String name, String mapSetName, List<Level> levels, long sessionBytes) {
+            this.name = name;
+            this.mapSetName = mapSetName;
+            this.levels = levels;
+            this.sessionBytes = sessionBytes;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.ae2dms.session;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Gives access to virtual threads when the JVM provides them (Java 21 and later) while the code is still
+ * compiled for older versions.
+ *
+ * @version 2.0
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Returns an executor starting a virtual thread per task, or a work-stealing pool if the JVM has no
+     * virtual threads.
+     *
+     * @return the new executor
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newWorkStealingPool();
+        }
+    }
+}
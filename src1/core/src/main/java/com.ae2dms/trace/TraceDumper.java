@@ -0,0 +1,135 @@
+package com.ae2dms.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * TraceDumper prints a trace file written by the {@link TraceRecorder} as text, one event per line,
+ * followed by the number of events of each type.
+ * <p>
+ * Usage: {@code java -cp core.jar com.ae2dms.trace.TraceDumper file.trace [EVENT...]}, where the optional
+ * event names restrict the listing to those types.
+ *
+ * @version 2.0
+ */
+public final class TraceDumper {
+
+    private TraceDumper() {
+    }
+
+    /**
+     * Dumps the trace file given as first argument.
+     *
+     * @param args the trace file, then optionally the names of the events to be listed
+     * @throws IOException if the file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: TraceDumper file.trace [EVENT...]");
+            System.exit(2);
+        }
+        TraceEvent[] filter = new TraceEvent[args.length - 1];
+        for (int i = 1; i < args.length; i++) {
+            filter[i - 1] = TraceEvent.valueOf(args[i].toUpperCase());
+        }
+        dump(Paths.get(args[0]), System.out, filter);
+    }
+
+    /**
+     * Prints the events of a trace file.
+     *
+     * @param file   the trace file
+     * @param out    where the text is printed
+     * @param filter the events to be listed, all of them if empty; the totals always cover every event
+     * @return the number of records in the file
+     * @throws IOException if the file cannot be read or is not a trace file
+     */
+    public static long dump(Path file, PrintStream out, TraceEvent... filter) throws IOException {
+        Map<TraceEvent, Long> totals = new EnumMap<>(TraceEvent.class);
+        long records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != TraceRecorder.MAGIC) {
+                throw new IOException(file + " is not a trace file");
+            }
+            short version = in.readShort();
+            short recordSize = in.readShort();
+            if (version != TraceRecorder.VERSION || recordSize != TraceRecorder.RECORD_SIZE) {
+                throw new IOException("Unsupported trace version " + version + " with records of " + recordSize + " bytes");
+            }
+            out.println("Trace started at " + Instant.ofEpochMilli(in.readLong()));
+
+            while (true) {
+                long nanos;
+                try {
+                    nanos = in.readLong();
+                } catch (EOFException e) {
+                    break;
+                }
+                TraceEvent event = TraceEvent.fromOrdinal(in.readUnsignedByte());
+                char detail = (char) in.readUnsignedByte();
+                int level = in.readShort();
+                int first = in.readInt();
+                int second = in.readInt();
+                records++;
+                if (event == null) {
+                    continue;
+                }
+                totals.merge(event, 1L, Long::sum);
+                if (isListed(event, filter)) {
+                    out.printf("%14.6f ms  %-14s level %-3d %s%n", nanos / 1e6, event, level,
+                            describe(event, detail, first, second));
+                }
+            }
+        }
+        out.println(records + " events");
+        for (Map.Entry<TraceEvent, Long> total : totals.entrySet()) {
+            out.printf("%-14s %d%n", total.getKey(), total.getValue());
+        }
+        return records;
+    }
+
+    private static boolean isListed(TraceEvent event, TraceEvent[] filter) {
+        if (filter.length == 0) {
+            return true;
+        }
+        for (TraceEvent listed : filter) {
+            if (listed == event) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the fields of an event as text, following the meaning documented on each {@link TraceEvent}.
+     */
+    private static String describe(TraceEvent event, char detail, int first, int second) {
+        switch (event) {
+            case MOVE:
+            case PUSH:
+            case BLOCKED:
+                return String.format("%c keeper [%d:%d]", detail, first, second);
+            case LEVEL_COMPLETE:
+                return String.format("%d moves, %d pushes", first, second);
+            case LEVEL_LOADED:
+                return String.format("%d x %d", first, second);
+            case RENDER:
+                return String.format("%d us, %d cells", first, second);
+            case KEY:
+                return "key code " + first;
+            case OUT_OF_BOUNDS:
+                return String.format("[%d:%d]", first, second);
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.ae2dms.trace;
+
+/**
+ * The types of event written by the {@link TraceRecorder}.
+ * <p>
+ * Every record carries a detail character and two integers whose meaning depends on the type,
+ * as described by each constant. The ordinal is written to the trace file, so new types must be
+ * added at the end.
+ *
+ * @version 2.0
+ */
+public enum TraceEvent {
+    /** The keeper moved: detail is the LURD direction, the integers are the new keeper row and column */
+    MOVE,
+    /** The keeper moved and pushed a crate: same fields as {@link #MOVE} */
+    PUSH,
+    /** The keeper could not move: detail is the direction, the integers are the keeper row and column */
+    BLOCKED,
+    /** The current level was completed: the integers are the moves and pushes made so far */
+    LEVEL_COMPLETE,
+    /** A level was parsed: the integers are its number of rows and columns */
+    LEVEL_LOADED,
+    /** The current level was reset to its initial state */
+    LEVEL_RESET,
+    /** The grid was rendered: the integers are the duration in microseconds and the number of cells drawn */
+    RENDER,
+    /** A key was handled: the first integer is the key code */
+    KEY,
+    /** A cell outside the grid was requested: the integers are the requested coordinates */
+    OUT_OF_BOUNDS;
+
+    private static final TraceEvent[] VALUES = values();
+
+    /**
+     * Returns the event type stored with the given ordinal.
+     *
+     * @param ordinal the ordinal read from a trace file
+     * @return the event type, {@code null} if the ordinal is unknown
+     */
+    public static TraceEvent fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : null;
+    }
+}
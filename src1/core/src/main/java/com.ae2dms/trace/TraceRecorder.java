@@ -0,0 +1,217 @@
+package com.ae2dms.trace;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * TraceRecorder writes typed debug events into a compact binary file, replacing the console dumps
+ * of the debug mode.
+ * <p>
+ * The file starts with a {@value #HEADER_SIZE} byte header: the magic {@code SKBT}, the format version
+ * and record size as shorts, and the start time in milliseconds since the epoch. It is followed by
+ * {@value #RECORD_SIZE} byte records: the time in nanoseconds since the start, the {@link TraceEvent}
+ * ordinal, a detail character, the level index as a short and two ints. Records are gathered in memory
+ * and written in blocks, so recording an event costs a few stores. Use {@link TraceDumper} to read them.
+ * If a block cannot be written, recording stops and the failure callback given to {@link #start} is run, so
+ * that whoever turned the debug mode on for the trace can turn it off again. The pending records are written
+ * when the JVM exits, so a trace open when the game quits keeps its last events.
+ *
+ * @version 2.0
+ */
+public final class TraceRecorder {
+
+    /** The first four bytes of a trace file */
+    public static final int MAGIC = 0x534B4254;
+
+    /** The version of the file format */
+    public static final short VERSION = 1;
+
+    /** The size of the file header in bytes */
+    public static final int HEADER_SIZE = 16;
+
+    /** The size of a record in bytes */
+    public static final int RECORD_SIZE = 20;
+
+    /** The size of the in-memory block of records */
+    private static final int BLOCK_SIZE = 64 * 1024;
+
+    private static final Object lock = new Object();
+
+    private static final ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE);
+
+    /** Whether events are being recorded, read without the lock by {@link #isEnabled()} */
+    private static volatile boolean enabled = false;
+
+    private static FileChannel channel;
+
+    private static long startNanos;
+
+    /** Run if recording stops because the file cannot be written, {@code null} for none */
+    private static Runnable onFailure;
+
+    /** Whether the shutdown hook writing the pending records has been registered */
+    private static boolean shutdownHookRegistered;
+
+    private TraceRecorder() {
+    }
+
+    /**
+     * Returns {@code true} if events are being recorded. Callers check it before building the event fields.
+     *
+     * @return {@code true} if a trace is open
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts recording into a new file in the logs directory, named after the current time.
+     *
+     * @return the trace file
+     * @throws IOException if the file cannot be created
+     */
+    public static Path start() throws IOException {
+        return start((Runnable) null);
+    }
+
+    /**
+     * Starts recording into a new file in the logs directory, named after the current time.
+     *
+     * @param onFailure run once, on the recording thread, if recording stops because the file cannot be
+     *                  written; may be {@code null}
+     * @return the trace file
+     * @throws IOException if the file cannot be created
+     */
+    public static Path start(Runnable onFailure) throws IOException {
+        String name = "MySokobanFX-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".trace";
+        Path directory = Paths.get(System.getProperty("user.dir"), "logs");
+        Files.createDirectories(directory);
+        return start(directory.resolve(name), onFailure);
+    }
+
+    /**
+     * Starts recording into the given file, replacing its content. A trace already open is closed first.
+     *
+     * @param file the trace file
+     * @return the trace file
+     * @throws IOException if the file cannot be created
+     */
+    public static Path start(Path file) throws IOException {
+        return start(file, null);
+    }
+
+    /**
+     * Starts recording into the given file, replacing its content. A trace already open is closed first.
+     *
+     * @param file      the trace file
+     * @param onFailure run once, on the recording thread, if recording stops because the file cannot be
+     *                  written; may be {@code null}
+     * @return the trace file
+     * @throws IOException if the file cannot be created
+     */
+    public static Path start(Path file, Runnable onFailure) throws IOException {
+        synchronized (lock) {
+            stop();
+            if (!shutdownHookRegistered) {
+                // The game quits with System.exit, which would lose up to a block of records
+                Runtime.getRuntime().addShutdownHook(new Thread(TraceRecorder::stop, "Trace recorder shutdown"));
+                shutdownHookRegistered = true;
+            }
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            startNanos = System.nanoTime();
+            block.clear();
+            block.putInt(MAGIC).putShort(VERSION).putShort((short) RECORD_SIZE).putLong(System.currentTimeMillis());
+            TraceRecorder.onFailure = onFailure;
+            enabled = true;
+        }
+        return file;
+    }
+
+    /**
+     * Writes the pending records and closes the trace. Does nothing if no trace is open.
+     */
+    public static void stop() {
+        synchronized (lock) {
+            if (channel == null) {
+                return;
+            }
+            enabled = false;
+            try {
+                writeBlock();
+                channel.close();
+            } catch (IOException e) {
+                System.err.println("Cannot write the trace file: " + e);
+            }
+            channel = null;
+            onFailure = null;
+        }
+    }
+
+    /**
+     * Records an event if a trace is open.
+     *
+     * @param event  the type of event
+     * @param detail a character qualifying the event, such as a LURD direction
+     * @param level  the index of the level, 0 if none
+     * @param first  the first integer field of the event
+     * @param second the second integer field of the event
+     */
+    public static void record(TraceEvent event, char detail, int level, int first, int second) {
+        if (!enabled) {
+            return;
+        }
+        long time = System.nanoTime();
+        Runnable failed;
+        synchronized (lock) {
+            if (channel == null) {
+                return;
+            }
+            if (block.remaining() >= RECORD_SIZE || tryWriteBlock()) {
+                block.putLong(time - startNanos)
+                        .put((byte) event.ordinal())
+                        .put((byte) detail)
+                        .putShort((short) level)
+                        .putInt(first)
+                        .putInt(second);
+                return;
+            }
+            failed = onFailure;
+            stop();
+        }
+        // Outside the lock, the callback may record or restart
+        if (failed != null) {
+            failed.run();
+        }
+    }
+
+    /**
+     * Writes the full block.
+     *
+     * @return {@code false} if the file cannot be written
+     */
+    private static boolean tryWriteBlock() {
+        try {
+            writeBlock();
+            return true;
+        } catch (IOException e) {
+            System.err.println("Cannot write the trace file, tracing stopped: " + e);
+            return false;
+        }
+    }
+
+    private static void writeBlock() throws IOException {
+        block.flip();
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        block.clear();
+    }
+}
@@ -0,0 +1,147 @@
+import com.ae2dms.dedupe.CanonicalLevel;
+import com.ae2dms.dedupe.LevelFingerprint;
+import com.ae2dms.dedupe.PackDeduplicator;
+import com.ae2dms.dedupe.Symmetry;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.Level;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CanonicalLevelTests {
+
+    private static final String[] LEVEL = {
+            "WWWWWW",
+            "WS  WW",
+            "W C  W",
+            "W  D W",
+            "WWWWWW"};
+
+    /** {@link #LEVEL} turned a quarter clockwise */
+    private static final String[] ROTATED = {
+            "WWWWW",
+            "W  SW",
+            "W C W",
+            "WD  W",
+            "W  WW",
+            "WWWWW"};
+
+    /** {@link #LEVEL} mirrored, with the keeper elsewhere in its area and decorative walls around */
+    private static final String[] DECORATED = {
+            "WWWWWWWWW",
+            "WWWWWWWWW",
+            "WWWWWWWWW",
+            "WWWW   WW",
+            "WWW  C WW",
+            "WWW D SWW",
+            "WWWWWWWWW"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static Level level(String... rows) {
+        return new Level("Test", 1, Arrays.asList(rows));
+    }
+
+    @Test
+    public void testSymmetricLevelsHaveTheSameForm() {
+        CanonicalLevel canonical = CanonicalLevel.of(level(LEVEL));
+        assertEquals(canonical, CanonicalLevel.of(level(ROTATED)));
+        assertEquals(canonical, CanonicalLevel.of(level(DECORATED)));
+        assertEquals(canonical.getFingerprint(), CanonicalLevel.of(level(ROTATED)).getFingerprint());
+        assertEquals(canonical.getFingerprint(), CanonicalLevel.of(level(DECORATED)).getFingerprint());
+    }
+
+    @Test
+    public void testDifferentLevelsHaveDifferentForms() {
+        CanonicalLevel canonical = CanonicalLevel.of(level(LEVEL));
+        CanonicalLevel moved = CanonicalLevel.of(level(
+                "WWWWWW",
+                "WS  WW",
+                "W  C W",
+                "W  D W",
+                "WWWWWW"));
+        assertNotEquals(canonical, moved);
+        assertNotEquals(canonical.getFingerprint(), moved.getFingerprint());
+    }
+
+    @Test
+    public void testWallsAreTrimmed() {
+        CanonicalLevel canonical = CanonicalLevel.of(level(DECORATED));
+        assertEquals(30, canonical.getRows() * canonical.getColumns());
+        assertFalse(canonical.toString().contains("WWWWWWW"));
+    }
+
+    @Test
+    public void testSymmetries() {
+        for (Symmetry symmetry : Symmetry.values()) {
+            for (Direction direction : Direction.values()) {
+                assertEquals(direction, symmetry.inverse().apply(symmetry.apply(direction)));
+            }
+        }
+        assertEquals(Direction.RIGHT, Symmetry.ROTATE_90.apply(Direction.UP));
+        assertEquals("rDlU", Symmetry.ROTATE_90.apply("uRdL"));
+        // A quarter turn of a 2 x 3 grid moves its top right corner to the bottom right one
+        assertEquals(5, Symmetry.ROTATE_90.apply(0, 2, 2, 3));
+    }
+
+    @Test
+    public void testFingerprintText() {
+        LevelFingerprint fingerprint = CanonicalLevel.of(level(LEVEL)).getFingerprint();
+        assertEquals(32, fingerprint.toString().length());
+        assertEquals(fingerprint, LevelFingerprint.parse(fingerprint.toString()));
+    }
+
+    @Test
+    public void testDeduplicator() throws Exception {
+        Path first = write("first.skb", "First", LEVEL, ROTATED);
+        Path second = write("second.skb", "Second", DECORATED, new String[]{
+                "WWWWWW",
+                "WS  WW",
+                "W  C W",
+                "W  D W",
+                "WWWWWW"});
+        List<Path> packs = Arrays.asList(first, second);
+        PackDeduplicator deduplicator = new PackDeduplicator();
+        deduplicator.setThreads(2);
+        PackDeduplicator.Result result = deduplicator.scan(packs);
+        assertEquals(4, result.getLevels());
+        assertEquals(2, result.getUniqueLevels());
+        assertTrue(result.isKept(0));
+        assertFalse(result.isKept(1));
+        assertFalse(result.isKept(2));
+        assertTrue(result.isKept(3));
+
+        StringWriter out = new StringWriter();
+        PackDeduplicator.write(out, "Unique", packs, result);
+        String pack = out.toString();
+        assertTrue(pack.startsWith("MapSetName: Unique\nLevelName: Level 1\nWWWWWW\n"));
+        assertTrue(pack.contains("\nLevelName: Level 2\nWWWWWW\nWS  WW\nW  C W\n"));
+    }
+
+    private Path write(String file, String name, String[]... levels) throws Exception {
+        StringBuilder text = new StringBuilder("MapSetName: " + name + "\n");
+        for (int i = 0; i < levels.length; i++) {
+            text.append("LevelName: Level ").append(i + 1).append('\n');
+            for (String row : levels[i]) {
+                text.append(row).append('\n');
+            }
+            text.append('\n');
+        }
+        Path path = folder.getRoot().toPath().resolve(file);
+        Files.write(path, text.toString().getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+}
@@ -0,0 +1,68 @@
+import com.ae2dms.metrics.EngineMetrics;
+import com.ae2dms.metrics.MetricTimer;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class EngineMetricsTests {
+
+    private GameEngine engine;
+
+    @Before
+    public void setUp() {
+        engine = new GameEngine(getClass().getResourceAsStream("debugLevel.skb"), false);
+    }
+
+    @Test
+    public void testMovesAndUndosAreCounted() {
+        long moves = EngineMetrics.MOVES.sum();
+        long undos = EngineMetrics.UNDOS.sum();
+
+        engine.move(Direction.RIGHT);
+        engine.move(Direction.UP);
+        engine.undo();
+
+        assertEquals(moves + 1, EngineMetrics.MOVES.sum());
+        assertEquals(undos + 1, EngineMetrics.UNDOS.sum());
+    }
+
+    @Test
+    public void testPackParseIsTimed() {
+        long parses = EngineMetrics.PACK_PARSE.getCount();
+        long loads = EngineMetrics.LEVEL_LOADS.sum();
+
+        new GameEngine(getClass().getResourceAsStream("debugGame.skb"), false);
+
+        assertEquals(parses + 1, EngineMetrics.PACK_PARSE.getCount());
+        assertTrue(EngineMetrics.LEVEL_LOADS.sum() > loads);
+    }
+
+    @Test
+    public void testTimer() {
+        MetricTimer timer = new MetricTimer();
+        timer.record(timer.start());
+        timer.record(timer.start());
+
+        assertEquals(2, timer.getCount());
+        assertTrue(timer.getMaxNanos() <= timer.getTotalNanos());
+        timer.reset();
+        assertEquals(0, timer.getCount());
+    }
+
+    @Test
+    public void testRegisteredOverJmx() throws Exception {
+        EngineMetrics.register();
+        EngineMetrics.register();
+
+        Object moves = ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(EngineMetrics.OBJECT_NAME), "Moves");
+        assertEquals(EngineMetrics.MOVES.sum(), moves);
+    }
+}
@@ -0,0 +1,147 @@
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.IllegalMoveException;
+import com.ae2dms.model.Level;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertTrue;
+import static junit.framework.TestCase.fail;
+
+public class GameEngineTests {
+
+    private static GameEngine engine;
+    static Level level;
+
+    @Before
+    public void setUp() throws Exception {
+        InputStream in = getClass().getResourceAsStream("debugLevel.skb");
+
+        engine = new GameEngine(in, false);
+        level = engine.getCurrentLevel();
+    }
+
+    @Test
+    public void testConstructor() {
+        assertTrue("Engine has not been initialized", engine != null);
+    }
+
+    @Test
+    public void testGetNextLevel() {
+        assertTrue("The levels are not equal", engine.getCurrentLevel().equals(level));
+    }
+
+    @Test
+    public void testIsGameNOTComplete() {
+        assertFalse("The level should not be complete", engine.isGameComplete());
+    }
+
+    @Test
+    public void testMoveDirection() {
+        engine.move(Direction.RIGHT);
+        assertTrue("The keeper has not moved", engine.getMovesCount() == 1);
+    }
+
+    @Test
+    public void testMove() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        Method move = GameEngine.class.getDeclaredMethod("move", Point.class);
+        move.setAccessible(true);
+
+        move.invoke(engine, new Point(0, 1));
+        assertTrue("The keeper has not moved", engine.getMovesCount() > 0 );
+    }
+
+    @Test
+    public void testLevelComplete() throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        this.testMove();
+        this.testMove();
+        assertTrue("The game is not complete", engine.isGameComplete());
+    }
+
+    @Test
+    public void testUndo() {
+        engine.move(Direction.RIGHT);
+        assertTrue("The undo should be available", engine.canUndo());
+        engine.undo();
+        assertEquals("The keeper has not been moved back", 1, engine.getCurrentLevel().getKeeperColumn());
+        assertFalse("The undo should be consumed", engine.canUndo());
+    }
+
+    @Test
+    public void testUndoBeforeMove() {
+        engine.undo();
+        assertTrue("The level has been lost", engine.getCurrentLevel() != null);
+    }
+
+    @Test
+    public void testUndoAfterReset() {
+        engine.move(Direction.RIGHT);
+        engine.move(Direction.LEFT);
+        engine.resetCurrentLevel();
+        assertFalse("The undo should be discarded by the reset", engine.canUndo());
+
+        engine.undo();
+        assertEquals("The reset level has been replaced", 1, engine.getCurrentLevel().getKeeperColumn());
+    }
+
+    @Test
+    public void testUndoAfterGameComplete() {
+        engine.move(Direction.RIGHT);
+        engine.move(Direction.RIGHT);
+        assertTrue("The game is not complete", engine.isGameComplete());
+        assertFalse("The finished game should not be undone", engine.canUndo());
+
+        engine.undo();
+        assertTrue("The undo reopened the finished game", engine.isGameComplete());
+        assertTrue("The undo brought back a level", engine.getCurrentLevel() == null);
+    }
+
+    @Test
+    public void testApplyMoves() {
+        assertEquals("Not every move was played", 2, engine.applyMoves("r\nR"));
+        assertEquals(2, engine.getMovesCount());
+        assertEquals(1, engine.getPushesCount());
+        assertTrue("The game is not complete", engine.isGameComplete());
+    }
+
+    @Test
+    public void testApplyMovesStopsAtIllegalMove() {
+        try {
+            engine.applyMoves("rl rr");
+            fail("A lower case push was played");
+        } catch (IllegalMoveException e) {
+            assertEquals("Wrong position of the illegal move", 4, e.getIndex());
+            assertEquals(3, e.getMovesApplied());
+        }
+        assertEquals("The moves before the illegal one are lost", 3, engine.getMovesCount());
+        assertEquals(2, engine.getCurrentLevel().getKeeperColumn());
+
+        engine.undo();
+        assertEquals("The moves were not undone at once", 1, engine.getCurrentLevel().getKeeperColumn());
+    }
+
+    @Test
+    public void testApplyMovesRejectsBlockedMoves() {
+        try {
+            engine.applyMoves("l");
+            fail("The keeper walked into a wall");
+        } catch (IllegalMoveException e) {
+            assertEquals(0, e.getIndex());
+        }
+        assertFalse("Nothing was played", engine.canUndo());
+        try {
+            engine.applyMoves("rRr");
+            fail("A move was played after the level was complete");
+        } catch (IllegalMoveException e) {
+            assertEquals(2, e.getIndex());
+        }
+        assertTrue("The game is not complete", engine.isGameComplete());
+    }
+}
@@ -0,0 +1,124 @@
+import com.ae2dms.model.GameGrid;
+import com.ae2dms.model.GameObject;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.StreamSupport;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class GameGridTests {
+
+    private static GameGrid grid;
+    private int rows = 5;
+    private int columns = 5;
+
+    @Before
+    public void testConstructor() {
+        grid = new GameGrid(columns, rows);
+    }
+
+    @Test
+    public void testPutObjectAt1() {
+        int nr = rows + 1;
+        int nc = columns + 1;
+        assertFalse(grid.putGameObjectAt(GameObject.CRATE, nr, nc));
+    }
+
+    @Test
+    public void testPutObjectAt2() {
+        int nr = rows - 1;
+        int nc = columns - 1;
+        assertTrue(grid.putGameObjectAt(GameObject.CRATE, nr, nc));
+    }
+
+    @Test
+    public void testPutObjectAt3() {
+        int nr = rows;
+        int nc = columns;
+        assertFalse(grid.putGameObjectAt(GameObject.CRATE, nr, nc));
+    }
+
+    @Test
+    public void testPutObjectAt4() {
+        grid.putGameObjectAt(GameObject.CRATE, 0,0);
+        assertTrue(grid.getGameObjectAt(0,0) == GameObject.CRATE);
+    }
+
+    @Test
+    public void testDimension() {
+        assertTrue("The grid dimension is wrong", grid.getDimension().equals(new Dimension(columns, rows)));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorVisitsEveryCellOnce() {
+        grid.putGameObjectAt(GameObject.CRATE, columns - 1, rows - 1);
+        Iterator<GameObject> iterator = grid.iterator();
+        int cells = 0;
+        GameObject last = null;
+        while (iterator.hasNext()) {
+            last = iterator.next();
+            cells++;
+        }
+        assertEquals(rows * columns, cells);
+        assertEquals("The last cell was not visited last", GameObject.CRATE, last);
+        iterator.next();
+    }
+
+    @Test
+    public void testForEachCellMatchesTheIterator() {
+        grid.putGameObjectAt(GameObject.WALL, 0, 3);
+        grid.putGameObjectAt(GameObject.CRATE, 2, 1);
+        List<GameObject> visited = new ArrayList<>();
+        grid.forEachCell((first, second, object) -> {
+            assertEquals(grid.getGameObjectAt(first, second), object);
+            visited.add(object);
+        });
+        List<GameObject> iterated = new ArrayList<>();
+        grid.forEach(iterated::add);
+        assertEquals(iterated, visited);
+        assertEquals(GameObject.WALL, visited.get(3));
+    }
+
+    @Test
+    public void testSpliteratorSplitsByRows() {
+        grid.putGameObjectAt(GameObject.CRATE, 4, 4);
+        Spliterator<GameObject> suffix = grid.spliterator();
+        Spliterator<GameObject> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertEquals(3 * rows, prefix.estimateSize());
+        assertEquals(2 * rows, suffix.estimateSize());
+        assertEquals(1, StreamSupport.stream(grid.spliterator(), true).filter(o -> o == GameObject.CRATE).count());
+        assertEquals(rows * columns, StreamSupport.stream(grid.spliterator(), true).count());
+    }
+
+    @Test
+    public void testSharedGridsDoNotSeeEachOtherWrites() {
+        grid.putGameObjectAt(GameObject.CRATE, 1, 1);
+        GameGrid copy = grid.share();
+        grid.putGameObjectAt(GameObject.KEEPER, 1, 2);
+        grid.putGameObjectAt(GameObject.FLOOR, 1, 1);
+        copy.putGameObjectAt(GameObject.WALL, 3, 3);
+
+        assertEquals(GameObject.CRATE, copy.getGameObjectAt(1, 1));
+        assertEquals(null, copy.getGameObjectAt(1, 2));
+        assertEquals(GameObject.WALL, copy.getGameObjectAt(3, 3));
+        assertEquals(GameObject.FLOOR, grid.getGameObjectAt(1, 1));
+        assertEquals(GameObject.KEEPER, grid.getGameObjectAt(1, 2));
+        assertEquals(null, grid.getGameObjectAt(3, 3));
+
+        GameGrid second = grid.share();
+        grid.putGameObjectAt(GameObject.CRATE, 1, 3);
+        assertEquals(null, second.getGameObjectAt(1, 3));
+        assertEquals(null, copy.getGameObjectAt(1, 3));
+    }
+}
@@ -0,0 +1,61 @@
+import com.ae2dms.model.GameLogger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class GameLoggerTests {
+
+    private PrintStream originalErr;
+    private ByteArrayOutputStream console;
+
+    @Before
+    public void setUp() {
+        GameLogger.flush();
+        originalErr = System.err;
+        console = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(console, true));
+    }
+
+    @After
+    public void tearDown() {
+        System.setErr(originalErr);
+    }
+
+    @Test
+    public void testMessageIsWrittenWithCurrentDate() {
+        GameLogger.get(false).warning("crate lost");
+        GameLogger.flush();
+
+        String output = console.toString();
+        assertTrue(output, output.startsWith(LocalDate.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))));
+        assertTrue(output, output.contains("WARNING -- crate lost"));
+    }
+
+    @Test
+    public void testConcurrentMessagesAreAllWritten() throws InterruptedException {
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int id = t;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    GameLogger.get(false).info("thread " + id + " message " + i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        GameLogger.flush();
+
+        assertEquals(2000, console.toString().split(System.lineSeparator()).length);
+    }
+}
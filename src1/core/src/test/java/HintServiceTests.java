@@ -0,0 +1,110 @@
+import com.ae2dms.hint.Hint;
+import com.ae2dms.hint.HintService;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.Level;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class HintServiceTests {
+
+    private static final String LEVEL = "WWWWWWW\nWS    W\nW C C W\nW D D W\nWWWWWWW\n";
+
+    /** The crate is stuck in a corner */
+    private static final String DEADLOCKED = "WWWWW\nWC  W\nW S W\nW  DW\nWWWWW\n";
+
+    private final HintService service = new HintService();
+
+    @After
+    public void closeService() {
+        service.close();
+    }
+
+    private static GameEngine load(String level) {
+        String pack = "MapSetName: Test\nLevelName: Test\n" + level;
+        return new GameEngine(new ByteArrayInputStream(pack.getBytes(StandardCharsets.UTF_8)), GameLogger.get(false));
+    }
+
+    private static Hint await(CompletableFuture<Hint> future) throws Exception {
+        return future.get(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testSpeculatedHintIsKnownAtOnce() throws Exception {
+        GameEngine engine = load(LEVEL);
+        Level level = engine.getCurrentLevel().clone();
+        assertNull(service.getHint(level));
+        service.speculate(level);
+        Hint hint = await(service.requestHint(level));
+        assertEquals(Hint.Kind.PUSH, hint.getKind());
+        assertEquals(2, hint.getPushesLeft());
+        assertSame(hint, service.getHint(level));
+
+        // Walking without pushing keeps the same hint
+        engine.move(Direction.RIGHT);
+        Level walked = engine.getCurrentLevel().clone();
+        assertSame(hint, service.getHint(walked));
+        assertTrue(service.requestHint(walked).isDone());
+    }
+
+    @Test
+    public void testFollowingTheHintsSolvesTheLevel() throws Exception {
+        GameEngine engine = load(LEVEL);
+        Level level = engine.getCurrentLevel().clone();
+        await(service.requestHint(level));
+        while (!engine.isGameComplete()) {
+            level = engine.getCurrentLevel().clone();
+            // Every position along the solution was found by the first search
+            Hint hint = service.getHint(level);
+            assertNotNull(hint);
+            String moves = hint.getMoves(level);
+            assertNotNull(moves);
+            for (char move : moves.toCharArray()) {
+                engine.move(Direction.fromChar(move));
+            }
+        }
+    }
+
+    @Test
+    public void testDeadlockIsReported() throws Exception {
+        Level level = load(DEADLOCKED).getCurrentLevel().clone();
+        Hint hint = await(service.requestHint(level));
+        assertEquals(Hint.Kind.DEADLOCK, hint.getKind());
+        assertNull(hint.getMoves(level));
+    }
+
+    @Test
+    public void testCancelledSearchCanBeRestarted() throws Exception {
+        Level level = load(LEVEL).getCurrentLevel().clone();
+        CompletableFuture<Hint> first = service.requestHint(level);
+        assertSame(first, service.requestHint(level));
+        service.cancel();
+        assertTrue(first.isDone());
+        if (first.isCancelled()) {
+            assertNull(service.getHint(level));
+        }
+        assertEquals(Hint.Kind.PUSH, await(service.requestHint(level)).getKind());
+    }
+
+    @Test
+    public void testOtherLevelForgetsTheHints() throws Exception {
+        Level level = load(LEVEL).getCurrentLevel().clone();
+        await(service.requestHint(level));
+        await(service.requestHint(load(DEADLOCKED).getCurrentLevel().clone()));
+        assertNull(service.getHint(level));
+        assertFalse(service.requestHint(level).isCancelled());
+    }
+}
@@ -0,0 +1,26 @@
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
+
+@RunWith(Suite.class)
+
+@Suite.SuiteClasses({
+        GameEngineTests.class,
+        LevelTests.class,
+        GameGridTests.class,
+        LatencyHistogramTests.class,
+        EngineMetricsTests.class,
+        GameLoggerTests.class,
+        TraceRecorderTests.class,
+        JfrEventsTests.class,
+        SessionManagerTests.class,
+        VectorEnvTests.class,
+        TournamentRunnerTests.class,
+        LevelGeneratorTests.class,
+        PackValidatorTests.class,
+        CanonicalLevelTests.class,
+        LevelCacheTests.class,
+        HintServiceTests.class
+})
+
+public class JUnitTestSuite {
+}
\ No newline at end of file
@@ -0,0 +1,100 @@
+import com.ae2dms.model.Direction;
+import com.ae2dms.metrics.PerformanceMonitor;
+import com.ae2dms.model.GameEngine;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JfrEventsTests {
+
+    @Test
+    public void testEngineEventsAreRecorded() throws Exception {
+        Path file = Files.createTempFile("sokoban", ".jfr");
+        try (Reader profile = new InputStreamReader(getClass().getResourceAsStream("/jfr/mysokobanfx.jfc"));
+             Recording recording = new Recording(Configuration.create(profile))) {
+            recording.start();
+            GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugLevel.skb"), false);
+            engine.move(Direction.UP);
+            engine.move(Direction.RIGHT);
+            engine.move(Direction.RIGHT);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            RecordedEvent parse = null;
+            int moves = 0;
+            RecordedEvent push = null;
+            for (RecordedEvent event : events) {
+                String name = event.getEventType().getName();
+                if (name.equals("com.ae2dms.PackParse")) {
+                    parse = event;
+                } else if (name.equals("com.ae2dms.Move")) {
+                    moves++;
+                    if (event.getBoolean("pushed")) {
+                        push = event;
+                    }
+                }
+            }
+
+            assertTrue("No pack parse event", parse != null);
+            assertEquals(1, parse.getInt("levels"));
+            assertEquals(3, moves);
+            assertTrue("No push event", push != null);
+            assertEquals(3, push.getInt("cellsTouched"));
+            assertEquals(20, push.getInt("columns"));
+            assertTrue(push.getBoolean("levelComplete"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testAppliedMovesAreRecordedOnce() throws Exception {
+        Path file = Files.createTempFile("sokoban", ".jfr");
+        PerformanceMonitor.setEnabled(true);
+        try (Reader profile = new InputStreamReader(getClass().getResourceAsStream("/jfr/mysokobanfx.jfc"));
+             Recording recording = new Recording(Configuration.create(profile))) {
+            recording.start();
+            GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugLevel.skb"), false);
+            engine.applyMoves("r\nR");
+            recording.stop();
+            recording.dump(file);
+
+            assertEquals(1, PerformanceMonitor.ENGINE_MOVE.getCount());
+            assertEquals(1, PerformanceMonitor.LEVEL_COMPLETE.getCount());
+            RecordedEvent applied = null;
+            int moves = 0;
+            for (RecordedEvent event : RecordingFile.readAllEvents(file)) {
+                String name = event.getEventType().getName();
+                if (name.equals("com.ae2dms.ApplyMoves")) {
+                    assertTrue("More than one event for the string", applied == null);
+                    applied = event;
+                } else if (name.equals("com.ae2dms.Move")) {
+                    moves++;
+                }
+            }
+
+            assertTrue("No apply moves event", applied != null);
+            assertEquals(0, moves);
+            assertEquals(2, applied.getInt("moves"));
+            assertEquals(1, applied.getInt("pushes"));
+            assertTrue(applied.getBoolean("levelComplete"));
+            assertFalse(applied.getBoolean("illegalMove"));
+        } finally {
+            PerformanceMonitor.setEnabled(false);
+            Files.deleteIfExists(file);
+        }
+    }
+}
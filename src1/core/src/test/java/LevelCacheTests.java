@@ -0,0 +1,229 @@
+import com.ae2dms.cache.AnalyzedLevel;
+import com.ae2dms.cache.LevelAnalysis;
+import com.ae2dms.cache.LevelCache;
+import com.ae2dms.dedupe.LevelFingerprint;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class LevelCacheTests {
+
+    private static final String LEVEL = "WWWWWW\nWS  WW\nW C  W\nW  D W\nWWWWWW\n";
+
+    /** {@link #LEVEL} turned a quarter clockwise */
+    private static final String ROTATED = "WWWWW\nW  SW\nW C W\nWD  W\nW  WW\nWWWWW\n";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static LevelAnalysis analysis(long id, String solution, int pushes, int maxStates) {
+        return new LevelAnalysis(new LevelFingerprint(id, ~id), maxStates, solution, pushes, 42, 1.5,
+                new int[]{3, 7});
+    }
+
+    private static GameEngine load(LevelCache cache, String... levels) {
+        StringBuilder pack = new StringBuilder("MapSetName: Test\n");
+        for (String level : levels) {
+            pack.append("LevelName: Test\n").append(level);
+        }
+        return new GameEngine(new ByteArrayInputStream(pack.toString().getBytes(StandardCharsets.UTF_8)),
+                GameLogger.get(false), cache);
+    }
+
+    private static boolean solves(String level, String moves) {
+        GameEngine engine = load(null, level);
+        for (char move : moves.toCharArray()) {
+            engine.move(Direction.fromChar(move));
+        }
+        return engine.isGameComplete();
+    }
+
+    @Test
+    public void testRecordsSurviveReopening() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("levels.cache");
+        try (LevelCache cache = LevelCache.open(file)) {
+            assertTrue(cache.put(analysis(1, "rRdD", 2, 100)));
+            assertTrue(cache.put(analysis(2, null, -1, 100)));
+        }
+        try (LevelCache cache = LevelCache.open(file)) {
+            assertEquals(2, cache.size());
+            LevelAnalysis analysis = cache.get(new LevelFingerprint(1, ~1L));
+            assertEquals("rRdD", analysis.getSolution());
+            assertEquals(2, analysis.getPushes());
+            assertEquals(4, analysis.getMoves());
+            assertEquals(42, analysis.getStates());
+            assertArrayEquals(new int[]{3, 7}, analysis.getDeadCells());
+            assertFalse(cache.get(new LevelFingerprint(2, ~2L)).isSolved());
+            assertNull(cache.get(new LevelFingerprint(3, ~3L)));
+        }
+    }
+
+    @Test
+    public void testTornRecordIsDropped() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("levels.cache");
+        long goodSize;
+        try (LevelCache cache = LevelCache.open(file)) {
+            cache.put(analysis(1, "rRdD", 2, 100));
+            goodSize = cache.getFileSize();
+            cache.put(analysis(2, "uU", 1, 100));
+        }
+        // Cut the last record short, as a crash in the middle of an append would
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+        try (LevelCache cache = LevelCache.open(file)) {
+            assertEquals(1, cache.size());
+            assertTrue(cache.getTruncatedBytes() > 0);
+            assertEquals(goodSize, Files.size(file));
+            assertNotNull(cache.get(new LevelFingerprint(1, ~1L)));
+            assertTrue(cache.put(analysis(2, "uU", 1, 100)));
+        }
+        try (LevelCache cache = LevelCache.open(file)) {
+            assertEquals(2, cache.size());
+            assertEquals(0, cache.getTruncatedBytes());
+        }
+    }
+
+    @Test
+    public void testBetterAnalysesReplaceOlderOnes() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("levels.cache");
+        try (LevelCache cache = LevelCache.open(file)) {
+            cache.put(analysis(1, null, -1, 100));
+            cache.put(analysis(2, "rRdD", 2, 100));
+            assertTrue(cache.put(analysis(1, null, -1, 1000)));
+            assertTrue(cache.put(analysis(1, "lLLrrRR", 4, 1000)));
+            assertFalse(cache.put(analysis(1, null, -1, 5000)));
+            assertTrue(cache.put(analysis(1, "lLL", 2, 1000)));
+            assertFalse(cache.put(analysis(2, "rrRRdD", 3, 100)));
+            assertEquals(3, cache.getStaleRecords());
+
+            long size = cache.getFileSize();
+            cache.compact();
+            assertEquals(0, cache.getStaleRecords());
+            assertTrue(cache.getFileSize() < size);
+            assertEquals(cache.getFileSize(), Files.size(file));
+            assertEquals("lLL", cache.get(new LevelFingerprint(1, ~1L)).getSolution());
+            assertEquals("rRdD", cache.get(new LevelFingerprint(2, ~2L)).getSolution());
+            cache.put(analysis(3, "d", 0, 100));
+        }
+        try (LevelCache cache = LevelCache.open(file)) {
+            assertEquals(3, cache.size());
+            assertEquals("lLL", cache.get(new LevelFingerprint(1, ~1L)).getSolution());
+        }
+    }
+
+    @Test
+    public void testFailedCompactionKeepsTheCache() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("levels.cache");
+        // The new file cannot be created where a directory is in the way
+        Path blocker = Files.createDirectories(folder.getRoot().toPath().resolve("levels.cache.compact"));
+        Files.createFile(blocker.resolve("child"));
+        try (LevelCache cache = LevelCache.open(file)) {
+            cache.put(analysis(1, null, -1, 100));
+            cache.put(analysis(1, "rRdD", 2, 100));
+            long size = cache.getFileSize();
+            try {
+                cache.compact();
+                fail();
+            } catch (IOException expected) {
+            }
+            assertEquals(size, cache.getFileSize());
+            assertEquals(1, cache.getStaleRecords());
+            assertEquals("rRdD", cache.get(new LevelFingerprint(1, ~1L)).getSolution());
+            assertTrue(cache.put(analysis(2, "d", 0, 100)));
+            assertEquals("d", cache.get(new LevelFingerprint(2, ~2L)).getSolution());
+
+            Files.delete(blocker.resolve("child"));
+            Files.delete(blocker);
+            cache.compact();
+            assertEquals(0, cache.getStaleRecords());
+            assertEquals("rRdD", cache.get(new LevelFingerprint(1, ~1L)).getSolution());
+        }
+        assertFalse(Files.exists(blocker));
+    }
+
+    @Test
+    public void testFailedCompactionOnCloseClosesTheFile() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("levels.cache");
+        Path blocker = Files.createDirectories(folder.getRoot().toPath().resolve("levels.cache.compact"));
+        Files.createFile(blocker.resolve("child"));
+        LevelCache cache = LevelCache.open(file);
+        cache.put(analysis(1, null, -1, 100));
+        cache.put(analysis(1, "rRdD", 2, 100));
+        try {
+            cache.close();
+            fail();
+        } catch (IOException expected) {
+        }
+        // Closed already, so it does not try to compact again
+        cache.close();
+        try (LevelCache reopened = LevelCache.open(file)) {
+            assertEquals(1, reopened.getStaleRecords());
+            assertEquals("rRdD", reopened.get(new LevelFingerprint(1, ~1L)).getSolution());
+            Files.delete(blocker.resolve("child"));
+            Files.delete(blocker);
+        }
+    }
+
+    @Test
+    public void testEngineLoadsAnalysesFromTheCache() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("levels.cache");
+        try (LevelCache cache = LevelCache.open(file)) {
+            List<AnalyzedLevel> analyses = load(cache, LEVEL).getAnalyses();
+            assertFalse(analyses.get(0).isCached());
+            assertTrue(analyses.get(0).isSolved());
+            assertEquals(1, cache.size());
+        }
+        try (LevelCache cache = LevelCache.open(file)) {
+            // The rotated level is the same puzzle, so it is not solved again
+            List<AnalyzedLevel> analyses = load(cache, LEVEL, ROTATED).getAnalyses();
+            assertTrue(analyses.get(0).isCached());
+            assertTrue(analyses.get(1).isCached());
+            assertEquals(1, cache.size());
+            assertTrue(solves(LEVEL, analyses.get(0).getSolution()));
+            assertTrue(solves(ROTATED, analyses.get(1).getSolution()));
+            assertEquals(2, analyses.get(0).getAnalysis().getPushes());
+        }
+    }
+
+    @Test
+    public void testDeadCellsAreMappedToTheLevel() {
+        AnalyzedLevel analyzed = load(null, LEVEL).getAnalyses().get(0);
+        int[] deadCells = analyzed.getDeadCells();
+        // The corners of the room, in rows of 6 columns
+        assertTrue(contains(deadCells, 6 + 1));
+        assertTrue(contains(deadCells, 2 * 6 + 4));
+        assertTrue(contains(deadCells, 3 * 6 + 1));
+        assertFalse(contains(deadCells, 2 * 6 + 2));
+        assertFalse(contains(deadCells, 3 * 6 + 3));
+    }
+
+    private static boolean contains(int[] cells, int cell) {
+        for (int value : cells) {
+            if (value == cell) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,90 @@
+import com.ae2dms.generator.Board;
+import com.ae2dms.generator.GeneratedLevel;
+import com.ae2dms.generator.LevelGenerator;
+import com.ae2dms.generator.PushSolver;
+import com.ae2dms.generator.SkbWriter;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LevelGeneratorTests {
+
+    @Test
+    public void testSolver() {
+        GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugLevel.skb"), false);
+        PushSolver.Result result = new PushSolver(1000).solve(Board.fromLevel(engine.getCurrentLevel()));
+        assertTrue(result.isSolved());
+        assertEquals(1, result.getPushes());
+        assertEquals("rR", result.getMoves());
+    }
+
+    @Test
+    public void testUnsolvable() {
+        GameEngine engine = new GameEngine(new ByteArrayInputStream(("MapSetName: Stuck\nLevelName: Corner\n"
+                + "WWWWW\nWCS DW\nWWWWW\n").getBytes(StandardCharsets.UTF_8)), false);
+        assertFalse(new PushSolver(1000).solve(Board.fromLevel(engine.getCurrentLevel())).isSolved());
+    }
+
+    @Test
+    public void testCrateOnDiamondIsParsed() {
+        GameEngine engine = new GameEngine(new ByteArrayInputStream(("MapSetName: Covered\nLevelName: One left\n"
+                + "WWWWWWW\nWSCDOWW\nWWWWWWW\n").getBytes(StandardCharsets.UTF_8)), false);
+        Level level = engine.getCurrentLevel();
+        assertEquals(GameObject.CRATE_ON_DIAMOND, level.getDisplayedObjectAt(1, 4));
+        assertFalse(level.isComplete());
+        engine.move(Direction.RIGHT);
+        assertTrue(engine.isGameComplete());
+    }
+
+    @Test
+    public void testGeneratedLevelsAreSolvable() throws IOException, InterruptedException {
+        GameEngine layouts = new GameEngine(getClass().getResourceAsStream(LevelGenerator.DEFAULT_LAYOUTS), false);
+        List<Board> boards = new ArrayList<>();
+        for (Level level : layouts.getLevels()) {
+            boards.add(Board.fromLevel(level));
+        }
+        LevelGenerator generator = new LevelGenerator(boards, 4, 20);
+        generator.setThreads(2);
+        List<GeneratedLevel> generated = generator.generate(3, 42);
+        assertEquals(3, generated.size());
+
+        List<Board> pack = new ArrayList<>();
+        for (GeneratedLevel level : generated) {
+            assertTrue(level.getPushes() >= 4 && level.getPushes() <= 20);
+            pack.add(level.getBoard());
+        }
+        StringWriter skb = new StringWriter();
+        SkbWriter.write(skb, "Generated", pack);
+
+        GameEngine engine = new GameEngine(new ByteArrayInputStream(skb.toString().getBytes(StandardCharsets.UTF_8)),
+                false);
+        assertEquals("Generated", engine.mapSetName);
+        assertEquals(3, engine.getLevels().size());
+        for (int i = 0; i < generated.size(); i++) {
+            assertEquals(Arrays.asList(pack.get(i).toString().split("\n")),
+                    Arrays.asList(Board.fromLevel(engine.getLevels().get(i)).toString().split("\n")));
+            engine.setCurrentLevel(i + 1);
+            Level level = engine.getCurrentLevel();
+            int pushes = engine.getPushesCount();
+            for (char move : generated.get(i).getSolution().toCharArray()) {
+                engine.move(Direction.fromChar(move));
+            }
+            assertTrue("Level " + (i + 1) + " not solved", engine.getCurrentLevel() != level);
+            assertEquals(generated.get(i).getPushes(), engine.getPushesCount() - pushes);
+        }
+    }
+}
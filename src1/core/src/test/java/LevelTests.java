@@ -0,0 +1,79 @@
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.awt.*;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.stream.StreamSupport;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+public class LevelTests {
+
+    private Method getKeeperPosition;
+    private Method getObjectAt;
+    private Level level;
+
+    @Before
+    public void testConstructor() {
+        level = new GameEngine(getClass().getResourceAsStream("debugLevel.skb"), false).getCurrentLevel();
+        assertTrue(level != null);
+    }
+
+    @Test
+    public void testGetKeeperPosition() throws InvocationTargetException, IllegalAccessException, NoSuchMethodException {
+        Point check = new Point(1,1);
+        getKeeperPosition = Level.class.getDeclaredMethod("getKeeperPosition", null);
+        getKeeperPosition.setAccessible(true);
+
+        Point keeper = (Point) getKeeperPosition.invoke(level, null);
+
+        assertTrue("Keeper position" + keeper + ", expected: " + check, keeper.equals(check));
+    }
+
+    @Test
+    public void testGetObjectAt() throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        getObjectAt = Level.class.getDeclaredMethod("getObjectAt", Point.class);
+        getObjectAt.setAccessible(true);
+
+        GameObject go = (GameObject) getObjectAt.invoke(level, new Point(0,0));
+
+        assertTrue("GameObjects are not equal", go == GameObject.WALL);
+    }
+
+    @Test
+    public void testIteratorFollowsTheRows() {
+        Iterator<GameObject> iterator = level.iterator();
+        int cells = 0;
+        while (iterator.hasNext()) {
+            GameObject object = iterator.next();
+            Point position = ((Level.LevelIterator) iterator).getCurrentPosition();
+            assertEquals("Wrong position of cell " + cells, new Point(cells / level.levelColumn, cells % level.levelColumn), position);
+            assertEquals(level.getDisplayedObjectAt(position.x, position.y), object);
+            cells++;
+        }
+        assertEquals(level.levelRow * level.levelColumn, cells);
+    }
+
+    @Test
+    public void testForEachCell() {
+        int[] cells = new int[1];
+        level.forEachCell((row, column, object) -> {
+            assertEquals(cells[0]++, row * level.levelColumn + column);
+            assertEquals(level.getDisplayedObjectAt(row, column), object);
+        });
+        assertEquals(level.levelRow * level.levelColumn, cells[0]);
+    }
+
+    @Test
+    public void testParallelScan() {
+        assertEquals(1, StreamSupport.stream(level.spliterator(), true).filter(o -> o == GameObject.DIAMOND).count());
+        assertEquals(1, StreamSupport.stream(level.spliterator(), true).filter(o -> o == GameObject.CRATE).count());
+        assertEquals(level.levelRow * level.levelColumn, StreamSupport.stream(level.spliterator(), true).count());
+    }
+}
@@ -0,0 +1,72 @@
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+import com.ae2dms.model.ValidationReport;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PackValidatorTests {
+
+    @Test
+    public void testValidLevel() {
+        GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugLevel.skb"), false);
+        ValidationReport report = engine.getValidationReport();
+        assertTrue(report.toString(), report.isValid());
+        assertTrue(report.getLevels().get(0).getIssues().isEmpty());
+    }
+
+    @Test
+    public void testBrokenLevels() {
+        GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugGame.skb"), false);
+        ValidationReport report = engine.getValidationReport();
+        assertFalse(report.isValid());
+        assertEquals(5, report.getLevels().size());
+        assertTrue(report.getLevels().get(0).has(ValidationReport.Problem.NOT_ENCLOSED));
+        assertTrue(report.getLevels().get(2).has(ValidationReport.Problem.CRATE_COUNT));
+        assertTrue(report.getLevels().get(2).has(ValidationReport.Problem.NO_DIAMOND));
+    }
+
+    @Test
+    public void testKeeperCount() {
+        ValidationReport report = load("WWWWWW\nWSCDSW\nWWWWWW\n").getValidationReport();
+        assertTrue(report.getLevels().get(0).has(ValidationReport.Problem.KEEPER_COUNT));
+        report = load("WWWWW\nW CDW\nWWWWW\n").getValidationReport();
+        assertTrue(report.getLevels().get(0).has(ValidationReport.Problem.KEEPER_COUNT));
+    }
+
+    @Test
+    public void testRaggedRows() {
+        GameEngine engine = load("WWWWWW\nWSCDW\nWWWWWW\n");
+        ValidationReport.LevelReport report = engine.getValidationReport().getLevels().get(0);
+        assertTrue(report.has(ValidationReport.Problem.RAGGED_ROWS));
+        assertTrue(report.toString(), report.isValid());
+        Level level = engine.getCurrentLevel();
+        assertEquals(6, level.levelColumn);
+        assertEquals(GameObject.FLOOR, level.getDisplayedObjectAt(1, 5));
+        engine.move(Direction.RIGHT);
+        assertTrue(engine.isGameComplete());
+    }
+
+    @Test
+    public void testKeeperCannotLeaveOpenLevel() {
+        GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugGame.skb"), false);
+        engine.move(Direction.UP);
+        engine.move(Direction.UP);
+        assertEquals(0, engine.getCurrentLevel().getKeeperRow());
+        engine.move(Direction.UP);
+        assertEquals(0, engine.getCurrentLevel().getKeeperRow());
+        assertEquals(2, engine.getMovesCount());
+    }
+
+    private static GameEngine load(String rows) {
+        String pack = "MapSetName: Validation\nLevelName: Test\n" + rows;
+        return new GameEngine(new ByteArrayInputStream(pack.getBytes(StandardCharsets.UTF_8)), false);
+    }
+}
@@ -0,0 +1,125 @@
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.session.GameSession;
+import com.ae2dms.session.SessionLimitException;
+import com.ae2dms.session.SessionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SessionManagerTests {
+
+    private SessionManager manager;
+
+    @Before
+    public void setUp() {
+        manager = new SessionManager(1 << 20, 1 << 24, Duration.ZERO, false);
+        manager.registerPack("debug", getClass().getResourceAsStream("debugGame.skb"));
+    }
+
+    @After
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    public void testSessionsAreIndependent() throws Exception {
+        GameSession first = manager.createSession("debug");
+        GameSession second = manager.createSession("debug");
+
+        first.submit(engine -> move(engine, Direction.LEFT)).get(5, TimeUnit.SECONDS);
+        assertEquals(1, (int) first.submit(GameEngine::getMovesCount).get(5, TimeUnit.SECONDS));
+        assertEquals(0, (int) second.submit(GameEngine::getMovesCount).get(5, TimeUnit.SECONDS));
+
+        GameEngine firstEngine = first.submit(engine -> engine).get(5, TimeUnit.SECONDS);
+        GameEngine secondEngine = second.submit(engine -> engine).get(5, TimeUnit.SECONDS);
+        assertNotSame(firstEngine.getCurrentLevel(), secondEngine.getCurrentLevel());
+        assertNotSame(firstEngine.getLogger(), secondEngine.getLogger());
+    }
+
+    @Test
+    public void testEvictedSessionIsRestored() throws Exception {
+        GameSession session = manager.createSession("debug");
+        session.submit(engine -> {
+            engine.move(Direction.LEFT);
+            engine.move(Direction.LEFT);
+            engine.move(Direction.LEFT);
+            engine.toggleDebug();
+            return null;
+        }).get(5, TimeUnit.SECONDS);
+        long resident = manager.getUsedBytes();
+
+        Thread.sleep(5);
+        assertEquals(1, manager.evictIdleSessions());
+        assertFalse(session.isResident());
+        assertTrue(manager.getUsedBytes() < resident);
+
+        GameEngine engine = session.submit(restored -> restored).get(5, TimeUnit.SECONDS);
+        assertTrue(session.isResident());
+        assertEquals(resident, manager.getUsedBytes());
+        assertEquals(3, engine.getMovesCount());
+        assertEquals(1, engine.getPushesCount());
+        assertEquals(2, engine.getCurrentLevel().getKeeperRow());
+        assertEquals(10, engine.getCurrentLevel().getKeeperColumn());
+        assertFalse(engine.isDebugActive());
+    }
+
+    @Test
+    public void testTotalLimitEvictsLeastRecentlyUsed() throws Exception {
+        long sessionBytes;
+        try (SessionManager probe = new SessionManager(1 << 20, 1 << 24, Duration.ZERO, false)) {
+            probe.registerPack("debug", getClass().getResourceAsStream("debugGame.skb"));
+            probe.createSession("debug");
+            sessionBytes = probe.getUsedBytes();
+        }
+        try (SessionManager small = new SessionManager(sessionBytes, sessionBytes + sessionBytes / 2, Duration.ZERO, false)) {
+            small.registerPack("debug", getClass().getResourceAsStream("debugGame.skb"));
+            GameSession first = small.createSession("debug");
+            GameSession second = small.createSession("debug");
+            assertFalse(first.isResident());
+            assertTrue(second.isResident());
+
+            first.submit(GameEngine::getMovesCount).get(5, TimeUnit.SECONDS);
+            assertTrue(first.isResident());
+            assertFalse(second.isResident());
+        }
+    }
+
+    @Test
+    public void testSessionLimit() {
+        try (SessionManager small = new SessionManager(64, 1 << 20, Duration.ZERO, false)) {
+            small.registerPack("debug", getClass().getResourceAsStream("debugGame.skb"));
+            fail("The pack should not fit in a session");
+        } catch (SessionLimitException e) {
+            assertTrue(e.getMessage().contains("debug"));
+        }
+    }
+
+    @Test
+    public void testRemovedSessionRejectsCommands() throws Exception {
+        GameSession session = manager.createSession("debug");
+        assertTrue(manager.removeSession(session.getId()));
+        assertEquals(0, manager.getUsedBytes());
+        try {
+            session.submit(GameEngine::getMovesCount).get(5, TimeUnit.SECONDS);
+            fail("The command should fail");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    private static Void move(GameEngine engine, Direction direction) {
+        engine.move(direction);
+        return null;
+    }
+}
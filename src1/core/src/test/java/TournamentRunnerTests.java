@@ -0,0 +1,119 @@
+import com.ae2dms.agent.Agent;
+import com.ae2dms.agent.GameRecord;
+import com.ae2dms.agent.LevelView;
+import com.ae2dms.agent.RandomAgent;
+import com.ae2dms.agent.TournamentResult;
+import com.ae2dms.agent.TournamentRunner;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameObject;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TournamentRunnerTests {
+
+    @Test
+    public void testOutcomes() throws InterruptedException {
+        TournamentRunner runner = TournamentRunner.fromPack(getClass().getResourceAsStream("debugLevel.skb"));
+        runner.setMoveTimeLimit(Duration.ofMillis(500));
+        runner.addAgent("right", () -> level -> Direction.RIGHT);
+        runner.addAgent("quitter", () -> level -> null);
+        runner.addAgent("sleeper", () -> level -> {
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Direction.RIGHT;
+        });
+        runner.addAgent("broken", () -> level -> {
+            throw new IllegalStateException("broken agent");
+        });
+
+        List<GameRecord> games = runner.run().getGames();
+        assertEquals(4, games.size());
+        assertEquals(GameRecord.Outcome.SOLVED, games.get(0).outcome);
+        assertEquals(2, games.get(0).moves);
+        assertEquals(1, games.get(0).pushes);
+        assertEquals(GameRecord.Outcome.GAVE_UP, games.get(1).outcome);
+        assertEquals(GameRecord.Outcome.TIMEOUT, games.get(2).outcome);
+        assertEquals(GameRecord.Outcome.ERROR, games.get(3).outcome);
+    }
+
+    @Test(timeout = 10_000)
+    public void testHungAgents() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        TournamentRunner runner = TournamentRunner.fromPack(getClass().getResourceAsStream("debugLevel.skb"));
+        runner.setThreads(2);
+        runner.setMoveTimeLimit(Duration.ofMillis(500));
+        runner.setLevelTimeLimit(Duration.ofSeconds(2));
+        for (int i = 0; i < 3; i++) {
+            // Never returns, even when interrupted, until the test is over
+            runner.addAgent("hung" + i, () -> level -> {
+                while (release.getCount() > 0) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ignored) {
+                    }
+                }
+                return null;
+            });
+        }
+        runner.addAgent("right", () -> level -> Direction.RIGHT);
+        try {
+            List<GameRecord> games = runner.run().getGames();
+            assertEquals(4, games.size());
+            for (int i = 0; i < 3; i++) {
+                assertEquals(GameRecord.Outcome.TIMEOUT, games.get(i).outcome);
+            }
+            assertEquals(GameRecord.Outcome.SOLVED, games.get(3).outcome);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testStandings() throws InterruptedException {
+        TournamentRunner runner = TournamentRunner.fromPack(getClass().getResourceAsStream("debugGame.skb"));
+        runner.setMaxMoves(200);
+        runner.setThreads(4);
+        runner.addAgent("random", () -> new RandomAgent(1));
+        runner.addAgent("left", () -> level -> Direction.LEFT);
+
+        TournamentResult result = runner.run();
+        assertEquals(10, result.getGames().size());
+        for (TournamentResult.Standing standing : result.getStandings()) {
+            assertEquals(5, standing.getGames());
+        }
+        String table = result.toTable();
+        assertTrue(table, table.contains("random"));
+        assertTrue(table, table.contains("left"));
+    }
+
+    @Test
+    public void testLevelView() throws InterruptedException {
+        TournamentRunner runner = TournamentRunner.fromPack(getClass().getResourceAsStream("debugLevel.skb"));
+        runner.addAgent("inspector", () -> new Agent() {
+            @Override
+            public void startLevel(LevelView level) {
+                assertEquals(1, level.getKeeperRow());
+                assertEquals(1, level.getKeeperColumn());
+                assertEquals(GameObject.CRATE, level.getObjectAt(1, 3));
+                assertTrue(level.isDiamond(1, 4));
+                assertEquals(GameObject.WALL, level.getObjectAt(-1, 0));
+            }
+
+            @Override
+            public Direction nextMove(LevelView level) {
+                return null;
+            }
+        });
+        // A failed assertion in the agent ends its game with an error
+        assertEquals(GameRecord.Outcome.GAVE_UP, runner.run().getGames().get(0).outcome);
+    }
+}
@@ -0,0 +1,95 @@
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.trace.TraceDumper;
+import com.ae2dms.trace.TraceEvent;
+import com.ae2dms.trace.TraceRecorder;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TraceRecorderTests {
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("sokoban", ".trace");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        TraceRecorder.stop();
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(TraceRecorder.isEnabled());
+        TraceRecorder.record(TraceEvent.RENDER, ' ', 1, 0, 0);
+    }
+
+    @Test
+    public void testEngineEventsAreRecorded() throws IOException {
+        GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugLevel.skb"), false);
+        engine.toggleDebug();
+        TraceRecorder.start(file);
+        engine.move(Direction.UP);
+        engine.move(Direction.RIGHT);
+        engine.move(Direction.RIGHT);
+        TraceRecorder.stop();
+
+        assertEquals(TraceRecorder.HEADER_SIZE + 4 * TraceRecorder.RECORD_SIZE, Files.size(file));
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        assertEquals(4, TraceDumper.dump(file, new PrintStream(text, true)));
+        String dump = text.toString();
+        assertTrue(dump, dump.contains("BLOCKED        level 1   u keeper [1:1]"));
+        assertTrue(dump, dump.contains("MOVE           level 1   r keeper [1:2]"));
+        assertTrue(dump, dump.contains("PUSH           level 1   r keeper [1:3]"));
+        assertTrue(dump, dump.contains("LEVEL_COMPLETE level 1   2 moves, 1 pushes"));
+    }
+
+    @Test
+    public void testWriteFailureStopsRecording() throws IOException {
+        // Every write to this device fails with "no space left"
+        Path full = Paths.get("/dev/full");
+        Assume.assumeTrue(Files.isWritable(full));
+        AtomicInteger failures = new AtomicInteger();
+        TraceRecorder.start(full, failures::incrementAndGet);
+        for (int i = 0; i < 10_000 && TraceRecorder.isEnabled(); i++) {
+            TraceRecorder.record(TraceEvent.KEY, ' ', 1, i, 0);
+        }
+        assertFalse(TraceRecorder.isEnabled());
+        assertEquals(1, failures.get());
+        TraceRecorder.record(TraceEvent.KEY, ' ', 1, 0, 0);
+        assertEquals(1, failures.get());
+    }
+
+    @Test
+    public void testFilter() throws IOException {
+        TraceRecorder.start(file);
+        TraceRecorder.record(TraceEvent.RENDER, ' ', 1, 250, 0);
+        TraceRecorder.record(TraceEvent.KEY, ' ', 1, 39, 0);
+        TraceRecorder.stop();
+
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        TraceDumper.dump(file, new PrintStream(text, true), TraceEvent.KEY);
+        String dump = text.toString();
+        assertTrue(dump, dump.contains("key code 39"));
+        assertFalse(dump, dump.contains("250 us"));
+        assertTrue(dump, dump.contains("RENDER         1"));
+    }
+}
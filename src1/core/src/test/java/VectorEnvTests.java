@@ -0,0 +1,90 @@
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+import com.ae2dms.rl.VectorEnv;
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class VectorEnvTests {
+
+    @Test
+    public void testSolveAndAutoReset() {
+        VectorEnv env = VectorEnv.fromPack(getClass().getResourceAsStream("debugLevel.skb"), 2, 100, 1);
+        assertEquals(VectorEnv.CHANNELS * env.getRows() * env.getColumns() * 2, env.getObservations().length);
+        assertEquals(1f, channel(env, 0, VectorEnv.KEEPER, 1, 1), 0);
+        assertEquals(1f, channel(env, 0, VectorEnv.CRATE, 1, 3), 0);
+        assertEquals(1f, channel(env, 0, VectorEnv.DIAMOND, 1, 4), 0);
+        assertEquals(1f, channel(env, 0, VectorEnv.WALL, 0, 0), 0);
+
+        int right = Direction.RIGHT.ordinal();
+        int up = Direction.UP.ordinal();
+        env.step(new int[]{right, up});
+        assertEquals(VectorEnv.STEP_REWARD, env.getRewards()[0], 1e-6);
+        assertEquals(VectorEnv.STEP_REWARD, env.getRewards()[1], 1e-6);
+        assertEquals(0f, channel(env, 0, VectorEnv.KEEPER, 1, 1), 0);
+        assertEquals(1f, channel(env, 0, VectorEnv.KEEPER, 1, 2), 0);
+        assertEquals(1f, channel(env, 1, VectorEnv.KEEPER, 1, 1), 0);
+
+        env.step(new int[]{right, up});
+        assertEquals(VectorEnv.STEP_REWARD + VectorEnv.DIAMOND_REWARD + VectorEnv.SOLVED_REWARD,
+                env.getRewards()[0], 1e-6);
+        assertTrue(env.getDones()[0]);
+        assertTrue(env.getSolved()[0]);
+        assertFalse(env.getDones()[1]);
+        // Reset at once to the only level
+        assertEquals(0, env.getEpisodeSteps(0));
+        assertEquals(1f, channel(env, 0, VectorEnv.KEEPER, 1, 1), 0);
+        assertEquals(1f, channel(env, 0, VectorEnv.CRATE, 1, 3), 0);
+        assertEquals(0f, channel(env, 0, VectorEnv.CRATE_ON_DIAMOND, 1, 4), 0);
+    }
+
+    @Test
+    public void testEpisodeStepLimit() {
+        VectorEnv env = VectorEnv.fromPack(getClass().getResourceAsStream("debugLevel.skb"), 1, 3, 1);
+        int up = Direction.UP.ordinal();
+        env.step(new int[]{up});
+        env.step(new int[]{up});
+        assertFalse(env.getDones()[0]);
+        env.step(new int[]{up});
+        assertTrue(env.getDones()[0]);
+        assertFalse(env.getSolved()[0]);
+    }
+
+    @Test
+    public void testMatchesEngine() {
+        VectorEnv env = VectorEnv.fromPack(getClass().getResourceAsStream("debugGame.skb"), 1, 500, 7);
+        GameEngine engine = new GameEngine(getClass().getResourceAsStream("debugGame.skb"), false);
+        engine.setCurrentLevel(env.getLevel(0) + 1);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int step = 0; step < 20_000; step++) {
+            int action = random.nextInt(4);
+            env.step(new int[]{action});
+            if (env.getDones()[0]) {
+                engine.setCurrentLevel(env.getLevel(0) + 1);
+                continue;
+            }
+            engine.move(Direction.values()[action]);
+            Level level = engine.getCurrentLevel();
+            for (int row = 0; row < level.levelRow; row++) {
+                for (int column = 0; column < level.levelColumn; column++) {
+                    GameObject object = level.getDisplayedObjectAt(row, column);
+                    assertEquals(object == GameObject.KEEPER ? 1f : 0f,
+                            channel(env, 0, VectorEnv.KEEPER, row, column), 0);
+                    assertEquals(object == GameObject.CRATE || object == GameObject.CRATE_ON_DIAMOND ? 1f : 0f,
+                            channel(env, 0, VectorEnv.CRATE, row, column), 0);
+                }
+            }
+        }
+    }
+
+    private static float channel(VectorEnv env, int game, int channel, int row, int column) {
+        int area = env.getRows() * env.getColumns();
+        return env.getObservations()[(game * VectorEnv.CHANNELS + channel) * area + row * env.getColumns() + column];
+    }
+}
@@ -5,7 +5,11 @@ import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import com.ae2dms.audio.AudioService;
+import com.ae2dms.controller.ViewRegistry;
+import com.ae2dms.metrics.EngineMetrics;
 import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
 import java.io.IOException;
 
 public class Main extends Application {
@@ -21,6 +25,10 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage stage) throws IOException {
+        EngineMetrics.register();
+        // The log file, as for the engines of the main controller
+        AudioService.getInstance().preloadAsync(GameLogger.get(true));
+        ViewRegistry.getInstance().preloadAsync(ViewRegistry.MAIN, ViewRegistry.SCORE_PAGE, ViewRegistry.SELECTION_PAGE);
         FXMLLoader loader = new FXMLLoader(getClass().getClassLoader().getResource("view/startPage.fxml"));
         Parent root = loader.load();
         stage.setTitle(GameEngine.GAME_NAME);
@@ -29,4 +37,12 @@ public class Main extends Application {
         stage.show();
     }
 
+    /**
+     * Javafx program exit, releases the audio resources
+     */
+    @Override
+    public void stop() {
+        AudioService.getInstance().dispose();
+    }
+
 }
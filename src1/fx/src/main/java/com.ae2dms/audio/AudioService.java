@@ -0,0 +1,214 @@
+package com.ae2dms.audio;
+
+import com.ae2dms.model.GameLogger;
+import javafx.application.Platform;
+import javafx.scene.media.AudioClip;
+import javafx.scene.media.Media;
+import javafx.scene.media.MediaPlayer;
+import javafx.util.Duration;
+
+import java.net.URL;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * AudioService plays the background music and the sound effects of the game.
+ * <p>
+ * There is a single instance for the whole application. The audio files are decoded once, in the background,
+ * by {@link #preloadAsync(GameLogger)}, instead of every time a {@link com.ae2dms.model.GameEngine} is created.
+ * Each sound effect owns a small pool of voices so that quick moves can overlap without creating new clips.
+ * Nothing waits for the loading: music asked for early starts once it is loaded, and effects played early are
+ * skipped.
+ * Missing audio files are logged once and then silently ignored.
+ *
+ * @version 2.0
+ */
+public final class AudioService {
+
+    /** The class path location of the background music */
+    private static final String MUSIC_RESOURCE = "music/puzzle_theme.wav";
+
+    /** The volume of the background music */
+    private static final double MUSIC_VOLUME = 0.1;
+
+    /** The number of voices of every sound effect */
+    private static final int VOICES_PER_EFFECT = 4;
+
+    /** The only instance */
+    private static final AudioService INSTANCE = new AudioService();
+
+    /** Completes once every audio file has been loaded */
+    private volatile CompletableFuture<Void> loading;
+
+    /** Background music player, {@code null} if the music is not available */
+    private volatile MediaPlayer musicPlayer;
+
+    /** The logger told about the audio files that cannot be loaded */
+    private volatile GameLogger logger;
+
+    /** Set while the music should play, including while it is still loading */
+    private volatile boolean musicWanted = false;
+
+    /** The voices of every sound effect */
+    private final Map<SoundEffect, AudioClip[]> voices = new EnumMap<>(SoundEffect.class);
+
+    /** The next voice to be used for every sound effect */
+    private final Map<SoundEffect, Integer> nextVoice = new EnumMap<>(SoundEffect.class);
+
+    private AudioService() {
+    }
+
+    /**
+     * Returns the audio service of the application.
+     *
+     * @return the audio service
+     */
+    public static AudioService getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts loading the audio files on a background thread. Calling it again has no effect.
+     *
+     * @param logger the logger of the game, told about the audio files that cannot be loaded
+     * @return completes once every audio file has been loaded
+     */
+    public synchronized CompletableFuture<Void> preloadAsync(GameLogger logger) {
+        if (loading == null) {
+            this.logger = logger;
+            loading = CompletableFuture.runAsync(this::load);
+        }
+        return loading;
+    }
+
+    /**
+     * Loads the music and the sound effects.
+     */
+    private void load() {
+        URL musicUrl = getClass().getClassLoader().getResource(MUSIC_RESOURCE);
+        if (musicUrl != null) {
+            try {
+                MediaPlayer player = new MediaPlayer(new Media(musicUrl.toExternalForm()));
+                player.setOnEndOfMedia(() -> player.seek(Duration.ZERO));
+                player.setVolume(MUSIC_VOLUME);
+                musicPlayer = player;
+            } catch (RuntimeException e) {
+                warn("Cannot load the music file " + MUSIC_RESOURCE + ": " + e);
+            }
+        } else {
+            warn("Cannot find the music file " + MUSIC_RESOURCE);
+        }
+
+        for (SoundEffect effect : SoundEffect.values()) {
+            URL effectUrl = getClass().getClassLoader().getResource(effect.resource);
+            if (effectUrl == null) {
+                warn("Cannot find the sound effect " + effect.resource);
+                continue;
+            }
+            AudioClip[] clips = new AudioClip[VOICES_PER_EFFECT];
+            try {
+                for (int i = 0; i < clips.length; i++) {
+                    clips[i] = new AudioClip(effectUrl.toExternalForm());
+                }
+            } catch (RuntimeException e) {
+                warn("Cannot load the sound effect " + effect.resource + ": " + e);
+                continue;
+            }
+            synchronized (this) {
+                voices.put(effect, clips);
+                nextVoice.put(effect, 0);
+            }
+        }
+    }
+
+    /**
+     * Starts playing music, once it has been loaded by {@link #preloadAsync(GameLogger)}. Does not block while
+     * the music is loading.
+     */
+    public void playMusic() {
+        CompletableFuture<Void> pending = loading;
+        if (pending == null) {
+            return;
+        }
+        musicWanted = true;
+        pending.thenRunAsync(() -> {
+            MediaPlayer player = musicPlayer;
+            // The music may have been stopped while it was loading
+            if (player != null && musicWanted) {
+                player.play();
+            }
+        }, Platform::runLater);
+    }
+
+    /**
+     * Stops playing music.
+     */
+    public void stopMusic() {
+        musicWanted = false;
+        MediaPlayer player = musicPlayer;
+        if (player != null) {
+            player.stop();
+        }
+    }
+
+    /**
+     * Returns {@code true} if the player is playing music, or will once the music has been loaded.
+     *
+     * @return {@code true} if playing music, {@code false} otherwise.
+     */
+    public boolean isPlayingMusic() {
+        CompletableFuture<Void> pending = loading;
+        if (pending != null && !pending.isDone()) {
+            return musicWanted;
+        }
+        MediaPlayer player = musicPlayer;
+        return player != null && player.getStatus() == MediaPlayer.Status.PLAYING;
+    }
+
+    /**
+     * Plays a sound effect on its next voice. Nothing is played while the effects are still loading.
+     *
+     * @param effect the sound effect to be played
+     */
+    public synchronized void playEffect(SoundEffect effect) {
+        AudioClip[] clips = voices.get(effect);
+        if (clips == null) {
+            return;
+        }
+        int voice = nextVoice.get(effect);
+        nextVoice.put(effect, (voice + 1) % clips.length);
+        clips[voice].stop();
+        clips[voice].play();
+    }
+
+    /**
+     * Stops every sound and releases the native resources of the players.
+     */
+    public synchronized void dispose() {
+        MediaPlayer player = musicPlayer;
+        musicPlayer = null;
+        musicWanted = false;
+        if (player != null) {
+            player.stop();
+            player.dispose();
+        }
+        for (AudioClip[] clips : voices.values()) {
+            for (AudioClip clip : clips) {
+                clip.stop();
+            }
+        }
+        voices.clear();
+        nextVoice.clear();
+        loading = null;
+    }
+
+    /**
+     * Logs a warning through the logger given to {@link #preloadAsync(GameLogger)}.
+     *
+     * @param message the warning
+     */
+    private void warn(String message) {
+        logger.warning(message);
+    }
+}
@@ -0,0 +1,18 @@
+package com.ae2dms.audio;
+
+/**
+ * The short sounds played by the {@link AudioService}.
+ *
+ * @version 2.0
+ */
+public enum SoundEffect {
+    MOVE("music/move.wav"),
+    PUSH("music/push.wav");
+
+    /** The class path location of the sound file */
+    public final String resource;
+
+    SoundEffect(final String resource) {
+        this.resource = resource;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ae2dms.controller;
+
+import javafx.scene.input.KeyCode;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * InputQueue collects the keys pressed between two frames so that they can be applied to the game as a
+ * single batch once per frame.
+ * <p>
+ * The queue holds at most {@link #MAX_PENDING_KEYS} keys. Further keys, typically the repeats sent by the
+ * operating system while an arrow key is held down, are dropped, so the keeper never runs ahead of what
+ * the player sees. The queue is only accessed from the JavaFX application thread.
+ *
+ * @version 2.0
+ */
+public class InputQueue {
+
+    /** The maximum number of keys waiting to be applied */
+    public static final int MAX_PENDING_KEYS = 3;
+
+    /** The keys waiting to be applied, in the order they were pressed */
+    private final List<KeyCode> pendingKeys = new ArrayList<>(MAX_PENDING_KEYS);
+
+    /** The time each pending key was pressed, in nanoseconds */
+    private final long[] pressTimes = new long[MAX_PENDING_KEYS];
+
+    /**
+     * Adds a key to the queue unless the queue is full.
+     *
+     * @param code      the key pressed
+     * @param pressedAt the time the key was pressed, as given by {@link System#nanoTime()}
+     * @return {@code true} if the key has been queued, {@code false} if it has been dropped
+     */
+    public boolean offer(KeyCode code, long pressedAt) {
+        if (pendingKeys.size() >= MAX_PENDING_KEYS) {
+            return false;
+        }
+        pressTimes[pendingKeys.size()] = pressedAt;
+        return pendingKeys.add(code);
+    }
+
+    /**
+     * Returns {@code true} if no key is waiting.
+     *
+     * @return {@code true} if the queue is empty
+     */
+    public boolean isEmpty() {
+        return pendingKeys.isEmpty();
+    }
+
+    /**
+     * Removes all the queued keys, adding them to the given list.
+     *
+     * @param keys       receives the queued keys, in the order they were pressed
+     * @param pressedAt  receives the time each key was pressed, must hold {@link #MAX_PENDING_KEYS} values
+     * @return the number of keys removed
+     */
+    public int drain(List<KeyCode> keys, long[] pressedAt) {
+        int count = pendingKeys.size();
+        keys.addAll(pendingKeys);
+        System.arraycopy(pressTimes, 0, pressedAt, 0, count);
+        pendingKeys.clear();
+        return count;
+    }
+
+    /**
+     * Drops all the queued keys, e.g. when a new game is loaded.
+     */
+    public void clear() {
+        pendingKeys.clear();
+    }
+}
@@ -0,0 +1,57 @@
+package com.ae2dms.controller;
+
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.Level;
+import com.ae2dms.trace.TraceEvent;
+import com.ae2dms.trace.TraceRecorder;
+import javafx.scene.input.KeyCode;
+
+/**
+ * KeyBindings translates keyboard keys into calls to the {@link GameEngine}.
+ *
+ * @version 2.0
+ */
+public final class KeyBindings {
+
+    private KeyBindings() {
+    }
+
+    /**
+     * Handle keyboard key click events
+     *
+     * @param gameEngine the engine receiving the command
+     * @param code       the keyboard key code.
+     */
+    public static void handleKey(GameEngine gameEngine, KeyCode code) {
+        switch (code) {
+            case UP:
+                gameEngine.move(Direction.UP);
+                break;
+
+            case RIGHT:
+                gameEngine.move(Direction.RIGHT);
+                break;
+
+            case DOWN:
+                gameEngine.move(Direction.DOWN);
+                break;
+
+            case LEFT:
+                gameEngine.move(Direction.LEFT);
+                break;
+
+            case SPACE:
+                gameEngine.resetCurrentLevel();
+                break;
+
+            default:
+                // TODO: implement something funny.
+        }
+
+        if (gameEngine.isDebugActive() && TraceRecorder.isEnabled()) {
+            Level level = gameEngine.getCurrentLevel();
+            TraceRecorder.record(TraceEvent.KEY, ' ', level == null ? 0 : level.getIndex(), code.getCode(), 0);
+        }
+    }
+}
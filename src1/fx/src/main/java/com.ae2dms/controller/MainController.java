@@ -0,0 +1,782 @@
+package com.ae2dms.controller;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.event.EventHandler;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.MenuBar;
+import javafx.scene.control.MenuItem;
+import javafx.scene.control.Label;
+import javafx.scene.control.RadioMenuItem;
+import javafx.scene.effect.Effect;
+import javafx.scene.effect.MotionBlur;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Background;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.VBox;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
+import javafx.stage.FileChooser;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import com.ae2dms.audio.AudioService;
+import com.ae2dms.audio.SoundEffect;
+import com.ae2dms.hint.HintService;
+import com.ae2dms.jfr.ReloadGridEvent;
+import com.ae2dms.jfr.SaveGameEvent;
+import com.ae2dms.model.EngineWorker;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.GameSnapshot;
+import com.ae2dms.model.IllegalMoveException;
+import com.ae2dms.model.Level;
+import com.ae2dms.model.ValidationReport;
+import com.ae2dms.metrics.EngineMetrics;
+import com.ae2dms.metrics.LatencyHistogram;
+import com.ae2dms.metrics.PerformanceMonitor;
+import com.ae2dms.trace.TraceEvent;
+import com.ae2dms.trace.TraceRecorder;
+import com.ae2dms.view.CanvasRenderer;
+import com.ae2dms.view.GridPaneRenderer;
+import com.ae2dms.view.GridRenderer;
+import com.ae2dms.view.Viewport;
+import javafx.stage.WindowEvent;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The main interface controller of the game, responsible for handling menu item button operations
+ *
+ * @version 2.0
+ */
+public class MainController {
+
+    private Stage primaryStage;
+    @FXML
+    public MenuBar menu;
+    @FXML
+    private MenuItem undoItem;
+    @FXML
+    private RadioMenuItem canvasRendererItem;
+    @FXML
+    public GridPane gameGrid;
+    @FXML
+    private Label metricsOverlay;
+    /**
+     * Renderer drawing the current level into the game grid
+     */
+    private GridRenderer renderer;
+    /**
+     * Window of the level cells visible on screen
+     */
+    private final Viewport viewport = new Viewport();
+    /**
+     * Runs the game engine off the JavaFX application thread
+     */
+    private final EngineWorker engineWorker = new EngineWorker();
+    /**
+     * The logger of the engines, shared with the renderers and this controller
+     */
+    private final GameLogger logger = GameLogger.get(true);
+    /**
+     * Keys pressed since the last batch was handed to the engine
+     */
+    private final InputQueue inputQueue = new InputQueue();
+    /**
+     * Press times of the keys of the batch submitted last, used to measure the key to paint latency
+     */
+    private final long[] batchPressTimes = new long[InputQueue.MAX_PENDING_KEYS];
+    /**
+     * Time the player must stay idle before a hint is computed for the position on screen, in nanoseconds
+     */
+    private static final long HINT_DELAY = 300_000_000L;
+    /**
+     * Computes hints in the background while the player is idle
+     */
+    private final HintService hintService = new HintService();
+    /**
+     * Time the last batch of keys was submitted, in nanoseconds
+     */
+    private long lastInputTime = 0;
+    /**
+     * The snapshot a hint was last speculatively computed for
+     */
+    private GameSnapshot speculatedSnapshot;
+    /**
+     * Number of keys of the batch submitted last that have not been painted yet
+     */
+    private int batchSize = 0;
+    /**
+     * Sequence number of the batch submitted last
+     */
+    private long batchSequence = 0;
+    /**
+     * Time the metrics overlay was last refreshed, in nanoseconds
+     */
+    private long metricsRefreshTime = 0;
+    /**
+     * Draws the published snapshots on every pulse
+     */
+    private AnimationTimer renderTimer;
+    /**
+     * The latest state rendered on screen
+     */
+    private GameSnapshot renderedSnapshot;
+    /**
+     * Whether the end of game pages have already been shown for the current game
+     */
+    private boolean gameOverShown = false;
+    /**
+     * The width in pixels of the viewport the stage was last sized to, -1 to size it on the next render
+     */
+    private int sizedWidth = -1;
+    /**
+     * The height in pixels of the viewport the stage was last sized to
+     */
+    private int sizedHeight = -1;
+    private File saveFile;
+
+    /**
+     * Called by the {@link FXMLLoader} once the view is loaded, installs the renderer selected in the menu.
+     * The view may be loaded on a background thread by the {@link ViewRegistry}.
+     */
+    @FXML
+    private void initialize() {
+        selectRenderer();
+        gameGrid.addEventHandler(ScrollEvent.SCROLL, this::handleScroll);
+    }
+
+    /**
+     * Starts drawing the snapshots published by the engine on every pulse, on the JavaFX application thread.
+     */
+    private void startRendering() {
+        if (renderTimer != null) {
+            return;
+        }
+        renderTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                GameSnapshot snapshot = engineWorker.getSnapshot();
+                if (snapshot != null && snapshot != renderedSnapshot) {
+                    playMoveSound(renderedSnapshot, snapshot);
+                    renderedSnapshot = snapshot;
+                    reloadGrid();
+                    recordKeyToPaint(snapshot);
+                }
+                submitPendingKeys();
+                speculateHint(now);
+                if (metricsOverlay.isVisible() && now - metricsRefreshTime > 250_000_000L) {
+                    metricsRefreshTime = now;
+                    updateMetricsOverlay();
+                }
+            }
+        };
+        renderTimer.start();
+    }
+
+    /**
+     * Plays the push or move sound if the keeper moved between two snapshots.
+     *
+     * @param previous the snapshot drawn last, may be {@code null}
+     * @param next     the snapshot about to be drawn
+     */
+    private void playMoveSound(GameSnapshot previous, GameSnapshot next) {
+        if (previous == null) {
+            return;
+        }
+        if (next.getPushesCount() > previous.getPushesCount()) {
+            AudioService.getInstance().playEffect(SoundEffect.PUSH);
+        } else if (next.getMovesCount() > previous.getMovesCount()) {
+            AudioService.getInstance().playEffect(SoundEffect.MOVE);
+        }
+    }
+
+    /**
+     * Hands the keys pressed since the previous frame to the engine as a single batch.
+     * A new batch is only submitted once the previous one has been applied and rendered,
+     * so at most one batch of moves is ahead of the screen.
+     */
+    private void submitPendingKeys() {
+        if (inputQueue.isEmpty() || !engineWorker.isIdle() || engineWorker.getSnapshot() != renderedSnapshot) {
+            return;
+        }
+        List<KeyCode> keys = new ArrayList<>(InputQueue.MAX_PENDING_KEYS);
+        batchSize = inputQueue.drain(keys, batchPressTimes);
+        lastInputTime = System.nanoTime();
+        // The position is about to change, the search for the current one is wasted
+        hintService.cancel();
+        batchSequence = engineWorker.submit(gameEngine -> {
+            for (KeyCode key : keys) {
+                KeyBindings.handleKey(gameEngine, key);
+            }
+        });
+    }
+
+    /**
+     * Starts computing the hint for the position on screen once the player has been idle for {@link #HINT_DELAY},
+     * so that {@link #showHint()} usually answers at once.
+     *
+     * @param now the time of the current frame, in nanoseconds
+     */
+    private void speculateHint(long now) {
+        GameSnapshot snapshot = renderedSnapshot;
+        if (snapshot == null || snapshot == speculatedSnapshot || snapshot.isGameComplete() || !inputQueue.isEmpty()
+                || !engineWorker.isIdle() || engineWorker.getSnapshot() != snapshot || now - lastInputTime < HINT_DELAY) {
+            return;
+        }
+        speculatedSnapshot = snapshot;
+        hintService.speculate(snapshot.getLevel());
+    }
+
+    /**
+     * Loads the default game file.
+     *
+     * @param primaryStage the primary stage that will display the game
+     */
+    public void loadDefaultSaveFile(Stage primaryStage) {
+        this.primaryStage = primaryStage;
+        InputStream in = getClass().getResourceAsStream("/level/SampleGame.skb");
+        initializeGame(in, 1);
+        startRendering();
+
+        setEventFilter();
+    }
+
+    /**
+     * Load custom game level files
+     *
+     * @param primaryStage The stage of the main interface
+     * @param in File stream of level files
+     * @param levelIndex Index of the level to be loaded
+     * @throws FileNotFoundException
+     */
+    public void loadLevelsFile(Stage primaryStage,InputStream in, int levelIndex) throws FileNotFoundException {
+        this.primaryStage = primaryStage;
+        initializeGame(in, levelIndex);
+        startRendering();
+    }
+    /**
+     * Initializes the game using the provided game file.
+     *
+     * @param input the game file to be loaded
+     */
+    public void initializeGame(InputStream input, int levelIndex) {
+        gameOverShown = false;
+        sizedWidth = -1;
+        inputQueue.clear();
+        engineWorker.load(() -> {
+            GameEngine gameEngine = new GameEngine(input, logger);
+            gameEngine.setCurrentLevel(levelIndex);
+            return gameEngine;
+        });
+        engineWorker.submit(gameEngine -> {
+            ValidationReport report = gameEngine.getValidationReport();
+            if (!report.isValid()) {
+                String message = "Some levels of " + gameEngine.mapSetName + " may not be playable:\n"
+                        + report.getInvalidLevels().stream().map(Object::toString).collect(Collectors.joining("\n"));
+                Platform.runLater(() -> newDialog("Invalid levels", message, null));
+            }
+        });
+    }
+
+    /**
+     * Adds the event filter to handle {@link KeyEvent}s passing them to {@link GameEngine}.
+     * The keys are queued and applied once per frame, see {@link #submitPendingKeys()}.
+     */
+    private void setEventFilter() {
+        primaryStage.addEventFilter(KeyEvent.KEY_PRESSED, event -> inputQueue.offer(event.getCode(), System.nanoTime()));
+    }
+
+    /**
+     * Opens the load game window
+     */
+    private void loadGameFile() throws FileNotFoundException {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Open Save File");
+        fileChooser.setInitialDirectory(new File(getClass().getResource("/").getPath()));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Sokoban save file", "*.skb"));
+        saveFile = fileChooser.showOpenDialog(primaryStage);
+
+        if (saveFile != null) {
+            if (renderedSnapshot != null && renderedSnapshot.isDebugActive()) {
+                logger.info("Loading save file: " + saveFile.getName());
+            }
+            initializeGame(new FileInputStream(saveFile), 1);
+        }
+    }
+
+    /**
+     *  Save the current game to a file
+     */
+    private void saveGameFile() {
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("Save File");
+        fileChooser.setInitialDirectory(new File(getClass().getResource("/").getPath()));
+        fileChooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Sokoban save file", "*.skb"));
+        File file = fileChooser.showSaveDialog(primaryStage);
+        if (file != null) {
+            engineWorker.submit(gameEngine -> writeGameFile(gameEngine, file));
+        }
+    }
+
+    /**
+     * Writes the current level and the following ones to a file, on the engine thread.
+     *
+     * @param gameEngine the engine holding the levels
+     * @param file the file to write
+     */
+    private void writeGameFile(GameEngine gameEngine, File file) {
+        SaveGameEvent event = new SaveGameEvent();
+        event.begin();
+        int currentLevelIndex = gameEngine.getCurrentLevel().getIndex();
+        int levels = 0;
+        try (OutputStreamWriter out = new OutputStreamWriter(new FileOutputStream(file), "UTF-8")) {
+            out.write("MapSetName: " + gameEngine.mapSetName);
+            out.write("\r\n");
+            for (int i = currentLevelIndex - 1; i < gameEngine.getLevels().size();i++) {
+                Level level = null;
+                if (i + 1 == currentLevelIndex) {
+                    level = gameEngine.getCurrentLevel();
+                } else {
+                    level = gameEngine.getLevels().get(i);
+                }
+                levels++;
+                out.write("LevelName: " + level.getName());
+                out.write("\r\n");
+                for (int col = 0; col < level.levelRow; col++) {
+                    for (int row = 0; row < level.levelColumn; row++) {
+
+                        if (level.diamondsGrid.getGameObjectAt(col,row) != null) {
+                            out.write(level.diamondsGrid.getGameObjectAt(col,row).getCharSymbol());
+                        } else {
+                            out.write(level.objectsGrid.getGameObjectAt(col,row).getCharSymbol());
+                        }
+                    }
+                    out.write("\r\n");
+                }
+                out.write("\r\n");
+            }
+        } catch (IOException e) {
+            logger.severe("Cannot save the game to " + file.getPath() + ": " + e);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = file.getPath();
+            event.levelIndex = currentLevelIndex;
+            event.levels = levels;
+            event.bytesWritten = file.length();
+            event.commit();
+        }
+    }
+    /**
+     * Reloads the grid using the current {@link GridRenderer}.
+     */
+    private void reloadGrid() {
+        long reloadStart = PerformanceMonitor.start();
+        long metricsStart = EngineMetrics.RELOAD_GRID.start();
+        GameSnapshot snapshot = renderedSnapshot;
+        if (snapshot.isGameComplete()) {
+            if (!gameOverShown) {
+                gameOverShown = true;
+                showHighScore();
+                showVictoryMessage(snapshot);
+            }
+            return;
+        }
+        if (snapshot.isKeeperMoved()) {
+            undoItem.setDisable(false);
+        } else {
+            undoItem.setDisable(true);
+        }
+        ReloadGridEvent event = new ReloadGridEvent();
+        event.begin();
+        Level currentLevel = snapshot.getLevel();
+        renderer.setDebug(snapshot.isDebugActive());
+        viewport.follow(currentLevel);
+        int cellsDrawn = renderer.render(currentLevel);
+        gameGrid.autosize();
+        sizeStageToViewport();
+        PerformanceMonitor.record(PerformanceMonitor.RELOAD_GRID, reloadStart);
+        EngineMetrics.RELOAD_GRID.record(metricsStart);
+        if (TraceRecorder.isEnabled()) {
+            TraceRecorder.record(TraceEvent.RENDER, ' ', currentLevel.getIndex(),
+                    (int) ((System.nanoTime() - metricsStart) / 1000), cellsDrawn);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.levelIndex = currentLevel.getIndex();
+            event.rows = currentLevel.levelRow;
+            event.columns = currentLevel.levelColumn;
+            event.cellsDrawn = cellsDrawn;
+            event.renderer = renderer.getClass().getSimpleName();
+            event.commit();
+        }
+    }
+
+    /**
+     * Records the key to paint latency of the keys of the last batch once a snapshot containing them has been drawn.
+     *
+     * @param snapshot the snapshot just drawn
+     */
+    private void recordKeyToPaint(GameSnapshot snapshot) {
+        if (batchSize == 0 || snapshot.getSequence() < batchSequence) {
+            return;
+        }
+        for (int i = 0; i < batchSize; i++) {
+            PerformanceMonitor.record(PerformanceMonitor.KEY_TO_PAINT, batchPressTimes[i]);
+        }
+        batchSize = 0;
+    }
+
+    /**
+     * Refreshes the text of the metrics overlay.
+     */
+    private void updateMetricsOverlay() {
+        StringBuilder text = new StringBuilder();
+        LatencyHistogram[] histograms = {
+                PerformanceMonitor.KEY_TO_PAINT, PerformanceMonitor.ENGINE_MOVE, PerformanceMonitor.LEVEL_COMPLETE,
+                PerformanceMonitor.RELOAD_GRID, PerformanceMonitor.GC_PAUSE
+        };
+        for (LatencyHistogram histogram : histograms) {
+            text.append(String.format("%-18s p50 %7.3f  p99 %7.3f  max %7.3f ms  (%d)%n", histogram.getName(),
+                    histogram.getValueAtPercentile(50) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                    histogram.getMax() / 1e6, histogram.getCount()));
+        }
+        text.append("gameGrid nodes: ").append(gameGrid.getChildren().size());
+        metricsOverlay.setText(text.toString());
+    }
+
+    /**
+     * Pop-up message after the game is won
+     */
+    private void showVictoryMessage(GameSnapshot snapshot)  {
+
+        String dialogTitle = "Game Over!";
+        String dialogMessage = "You completed " + snapshot.getMapSetName() + " in " + snapshot.getMovesCount() + " moves!\nTime used " + snapshot.getGameTime() + "s";
+        MotionBlur mb = new MotionBlur(2, 3);
+
+        newDialog(dialogTitle, dialogMessage, mb);
+
+    }
+
+    /**
+     * Records the score and loads the score list on the engine thread, then shows the score list
+     */
+    private void showHighScore() {
+        engineWorker.submit(gameEngine -> {
+            gameEngine.recordScore();
+            gameEngine.loadScoreFile();
+            List<Double> listTimeScore = new ArrayList<>(gameEngine.listTimeScore);
+            List<Integer> listMoveScore = new ArrayList<>(gameEngine.listMoveScore);
+            Platform.runLater(() -> showHighScore(listTimeScore, listMoveScore));
+        });
+    }
+
+    /**
+     * Show score list
+     *
+     * @param listTimeScore the sorted game times
+     * @param listMoveScore the sorted move counts
+     */
+    private void showHighScore(List<Double> listTimeScore, List<Integer> listMoveScore) {
+        View<ScorePageController> view = ViewRegistry.getInstance().get(ViewRegistry.SCORE_PAGE);
+        Stage scorePage = view.getModalStage(primaryStage, "Score");
+        scorePage.setOnCloseRequest(new EventHandler<WindowEvent>() {
+                @Override
+                public void handle(WindowEvent event) {
+                    showSelectLevelPage();
+                }
+            });
+        scorePage.show();
+        ScorePageController scorePageController = view.getController();
+        scorePageController.initScorePage(listTimeScore, listMoveScore);
+    }
+
+    /**
+     * Show select level page
+     */
+    private void showSelectLevelPage() {
+        View<SelectionController> view = ViewRegistry.getInstance().get(ViewRegistry.SELECTION_PAGE);
+        Stage selectionPage = view.getModalStage(primaryStage, "Victory!");
+        selectionPage.setOnCloseRequest(new EventHandler<WindowEvent>() {
+            @Override
+            public void handle(WindowEvent event) {
+                System.exit(0);
+            }
+        });
+        selectionPage.show();
+        SelectionController selectionController = view.getController();
+        selectionController.init(this,primaryStage);
+    }
+
+    /**
+     * Create dialog window
+     *
+     * @param dialogTitle The title of the dialog
+     * @param dialogMessage The message of the dialog
+     * @param dialogMessageEffect Message effects
+     */
+    private void newDialog(String dialogTitle, String dialogMessage, Effect dialogMessageEffect) {
+        final Stage dialog = new Stage();
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.initOwner(primaryStage);
+        dialog.setResizable(false);
+        dialog.setTitle(dialogTitle);
+
+        Text text1 = new Text(dialogMessage);
+        text1.setTextAlignment(TextAlignment.CENTER);
+        text1.setFont(javafx.scene.text.Font.font(14));
+
+        if (dialogMessageEffect != null) {
+            text1.setEffect(dialogMessageEffect);
+        }
+
+        VBox dialogVbox = new VBox(20);
+        dialogVbox.setAlignment(Pos.CENTER);
+        dialogVbox.setBackground(Background.EMPTY);
+        dialogVbox.getChildren().add(text1);
+        Scene dialogScene = new Scene(dialogVbox, 350, 150);
+        dialog.setScene(dialogScene);
+        dialog.show();
+    }
+
+    /**
+     * Close game when click exit
+     */
+    public void closeGame() {
+        System.exit(0);
+    }
+
+    /**
+     * Menuitem:Save game
+     */
+    public void saveGame() {
+        saveGameFile();
+    }
+
+    /**
+     * Menuitem:load game
+     */
+    public void loadGame() {
+        try {
+            loadGameFile();
+        } catch (FileNotFoundException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Menuitem:undo
+     */
+    public void undo() {
+        engineWorker.submit(GameEngine::undo);
+        undoItem.setDisable(true);
+    }
+
+    /**
+     * Menuitem:hint, shows the next push towards a solution of the position on screen.
+     * The hint is computed on the hint thread if it is not known yet; it is dropped if the player moves meanwhile.
+     */
+    public void showHint() {
+        GameSnapshot snapshot = renderedSnapshot;
+        if (snapshot == null || snapshot.isGameComplete()) {
+            return;
+        }
+        Level level = snapshot.getLevel();
+        hintService.requestHint(level).thenAccept(hint -> {
+            String moves = hint.getMoves(level);
+            String message = moves != null ? hint + "\nMoves: " + moves : hint.toString();
+            Platform.runLater(() -> newDialog("Hint", message, null));
+        });
+    }
+
+    /**
+     * Menuitem:paste moves, plays the LURD moves of the clipboard, e.g. a solution, as a single step.
+     * Playing stops at the first illegal move, which is reported.
+     */
+    public void pasteMoves() {
+        String moves = Clipboard.getSystemClipboard().getString();
+        if (moves == null || moves.isBlank()) {
+            return;
+        }
+        lastInputTime = System.nanoTime();
+        hintService.cancel();
+        engineWorker.submit(gameEngine -> {
+            try {
+                gameEngine.applyMoves(moves);
+            } catch (IllegalMoveException e) {
+                String message = e.getMessage() + "\n" + e.getMovesApplied() + " moves were played";
+                Platform.runLater(() -> newDialog("Illegal move", message, null));
+            }
+        });
+    }
+
+    /**
+     * Reset the level to the initial state of the current level
+     */
+    public void resetLevel() {
+        engineWorker.submit(GameEngine::resetCurrentLevel);
+    }
+
+    /**
+     * Display "About the Game" window
+     */
+    public void showAbout() {
+        String title = "About this game";
+        String message = "Game created by XXX\n";
+
+        newDialog(title, message, null);
+    }
+
+    /**
+     * Enable background music when selected
+     */
+    public void toggleMusic() {
+        AudioService audioService = AudioService.getInstance();
+        if (!audioService.isPlayingMusic()) {
+            audioService.playMusic();
+        } else {
+            audioService.stopMusic();
+        }
+    }
+
+    /**
+     * Enter debugging mode after selection
+     */
+    public void toggleDebug() {
+        engineWorker.submit(gameEngine -> {
+            gameEngine.toggleDebug();
+            if (!gameEngine.isDebugActive()) {
+                TraceRecorder.stop();
+                return;
+            }
+            try {
+                // Leaves the debug mode if the trace stops on a write error
+                Path trace = TraceRecorder.start(() -> engineWorker.submit(engine -> {
+                    if (engine.isDebugActive()) {
+                        engine.toggleDebug();
+                    }
+                }));
+                gameEngine.getLogger().info("Recording the debug trace into " + trace);
+            } catch (IOException e) {
+                gameEngine.getLogger().warning("Cannot create the debug trace: " + e);
+                gameEngine.toggleDebug();
+            }
+        });
+    }
+
+    /**
+     * Show or hide the live performance metrics
+     */
+    public void toggleMetrics() {
+        boolean show = !metricsOverlay.isVisible();
+        PerformanceMonitor.setEnabled(show);
+        metricsOverlay.setVisible(show);
+        if (show) {
+            updateMetricsOverlay();
+        }
+    }
+
+    /**
+     * Switch between the canvas renderer and the {@link GridPane} renderer
+     */
+    public void toggleRenderer() {
+        selectRenderer();
+        if (renderedSnapshot != null) {
+            reloadGrid();
+        }
+    }
+
+    /**
+     * Menuitem:zoom in
+     */
+    public void zoomIn() {
+        viewport.zoomIn();
+        rerender();
+    }
+
+    /**
+     * Menuitem:zoom out
+     */
+    public void zoomOut() {
+        viewport.zoomOut();
+        rerender();
+    }
+
+    /**
+     * Menuitem:reset zoom
+     */
+    public void resetZoom() {
+        viewport.resetZoom();
+        rerender();
+    }
+
+    /**
+     * Zooms with the mouse wheel while the shortcut key is down, scrolls the viewport otherwise.
+     *
+     * @param event the scroll event
+     */
+    private void handleScroll(ScrollEvent event) {
+        if (renderedSnapshot == null || renderedSnapshot.isGameComplete()) {
+            return;
+        }
+        if (event.isShortcutDown()) {
+            if (event.getDeltaY() > 0) {
+                zoomIn();
+            } else if (event.getDeltaY() < 0) {
+                zoomOut();
+            }
+        } else {
+            viewport.scrollBy((int) -Math.signum(event.getDeltaY()) * 3, (int) -Math.signum(event.getDeltaX()) * 3);
+            renderer.render(renderedSnapshot.getLevel());
+        }
+        event.consume();
+    }
+
+    /**
+     * Reloads the grid from the latest rendered state, e.g. after the viewport has changed.
+     */
+    private void rerender() {
+        if (renderedSnapshot != null) {
+            reloadGrid();
+        }
+    }
+
+    /**
+     * Resizes the stage around the viewport, only when the size of the viewport has changed: after a zoom, on another
+     * level or with another renderer. Resizing on every frame would cost a layout pass each time.
+     */
+    private void sizeStageToViewport() {
+        int width = viewport.getVisibleColumns() * viewport.getCellSize();
+        int height = viewport.getVisibleRows() * viewport.getCellSize();
+        if (width != sizedWidth || height != sizedHeight) {
+            sizedWidth = width;
+            sizedHeight = height;
+            primaryStage.sizeToScene();
+        }
+    }
+
+    /**
+     * Installs the renderer matching the state of the renderer menu item.
+     */
+    private void selectRenderer() {
+        if (canvasRendererItem.isSelected()) {
+            renderer = new CanvasRenderer(gameGrid, viewport, logger);
+        } else {
+            renderer = new GridPaneRenderer(gameGrid, viewport, logger);
+        }
+        renderer.attach();
+        // The new renderer may lay out the grid differently
+        sizedWidth = -1;
+    }
+}
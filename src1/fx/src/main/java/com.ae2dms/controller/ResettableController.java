@@ -0,0 +1,14 @@
+package com.ae2dms.controller;
+
+/**
+ * Implemented by the controllers of views reused through the {@link ViewRegistry}.
+ *
+ * @version 2.0
+ */
+public interface ResettableController {
+
+    /**
+     * Restores the view to the state it had right after being loaded.
+     */
+    void reset();
+}
@@ -9,7 +9,7 @@ import java.util.List;
 /**
  * Controller for score page
  */
-public class ScorePageController {
+public class ScorePageController implements ResettableController {
 
     @FXML
     private Label moveScore3;
@@ -29,6 +29,16 @@ public class ScorePageController {
     @FXML
     private Label moveScore2;
 
+    /**
+     * Clears the score list before the page is shown again
+     */
+    @Override
+    public void reset() {
+        for (Label label : new Label[]{timeScore1, timeScore2, timeScore3, moveScore1, moveScore2, moveScore3}) {
+            label.setText("XXX");
+        }
+    }
+
     /**
      * Show score list
      * @param listTimeScore
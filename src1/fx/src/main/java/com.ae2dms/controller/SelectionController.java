@@ -20,7 +20,7 @@ import java.io.InputStream;
 /**
  * Controller of level selection page
  */
-public class SelectionController {
+public class SelectionController implements ResettableController {
 
     private  Stage primaryStage;
     @FXML
@@ -47,6 +47,18 @@ public class SelectionController {
         this.primaryStage = primaryStage;
     }
 
+    /**
+     * Shows the two choice buttons again before the page is reused
+     */
+    @Override
+    public void reset() {
+        oldLevelsGrid.setVisible(false);
+        newLevelsGrid.setVisible(false);
+        titleLabel.setVisible(false);
+        twoButtonHbox.setVisible(true);
+        textArea.setVisible(true);
+    }
+
     /**
      * Show old level list
      */
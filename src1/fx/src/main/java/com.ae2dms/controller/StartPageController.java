@@ -24,14 +24,13 @@ public class StartPageController {
      * @throws IOException
      */
     public void startGame() throws IOException{
-        FXMLLoader loader = new FXMLLoader(getClass().getClassLoader().getResource("view/main.fxml"));
-        Parent root = loader.load();
+        View<MainController> view = ViewRegistry.getInstance().get(ViewRegistry.MAIN);
         Stage primaryStage = new Stage();
         primaryStage.setTitle(GameEngine.GAME_NAME);
-        primaryStage.setScene(new Scene(root));
+        primaryStage.setScene(view.getScene());
         primaryStage.setResizable(false);
         primaryStage.show();
-        MainController mainController = loader.getController();
+        MainController mainController = view.getController();
         mainController.loadDefaultSaveFile(primaryStage);
 
         Stage stage = (Stage) startButton.getScene().getWindow();
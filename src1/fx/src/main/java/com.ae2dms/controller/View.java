@@ -0,0 +1,77 @@
+package com.ae2dms.controller;
+
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Modality;
+import javafx.stage.Stage;
+import javafx.stage.Window;
+
+/**
+ * A view loaded from an FXML file by the {@link ViewRegistry}, together with its controller and its scene,
+ * so that it can be shown again without parsing the FXML file.
+ * <p>
+ * The FXML file may be parsed on a background thread, but JavaFX requires scenes to be built on the JavaFX
+ * application thread, so the scene is only created the first time the view is shown.
+ *
+ * @param <C> the type of the controller
+ * @version 2.0
+ */
+public final class View<C> {
+
+    /** The root node of the view */
+    private final Parent root;
+
+    /** The controller of the view */
+    private final C controller;
+
+    /** The scene holding the root node, created on first use */
+    private Scene scene;
+
+    /** The window showing the view, created on first use */
+    private Stage stage;
+
+    View(Parent root, C controller) {
+        this.root = root;
+        this.controller = controller;
+    }
+
+    public Parent getRoot() {
+        return root;
+    }
+
+    public C getController() {
+        return controller;
+    }
+
+    /**
+     * Returns the scene holding this view, creating it on first use.
+     * Must be called on the JavaFX application thread.
+     *
+     * @return the scene of this view
+     */
+    public Scene getScene() {
+        if (scene == null) {
+            scene = new Scene(root);
+        }
+        return scene;
+    }
+
+    /**
+     * Returns the modal window showing this view, creating it on first use.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param owner the owner of the window, only used when the window is created
+     * @param title the title of the window
+     * @return the window showing this view
+     */
+    public Stage getModalStage(Window owner, String title) {
+        if (stage == null) {
+            stage = new Stage();
+            stage.initOwner(owner);
+            stage.initModality(Modality.APPLICATION_MODAL);
+            stage.setScene(getScene());
+        }
+        stage.setTitle(title);
+        return stage;
+    }
+}
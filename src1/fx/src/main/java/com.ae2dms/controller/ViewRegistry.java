@@ -0,0 +1,96 @@
+package com.ae2dms.controller;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ViewRegistry parses the FXML views once and keeps them for reuse.
+ * <p>
+ * {@link #preloadAsync(String...)} parses the views on a background thread, e.g. while the start page is shown,
+ * so that {@link #get(String)} can return them later without blocking the JavaFX application thread. Only the
+ * FXML is parsed there: the {@link View} builds its scene on the JavaFX application thread when first shown.
+ * Each time a view is handed out again, the {@link ResettableController#reset()} hook of its controller is called.
+ *
+ * @version 2.0
+ */
+public final class ViewRegistry {
+
+    /** The main game view */
+    public static final String MAIN = "view/main.fxml";
+
+    /** The high score view */
+    public static final String SCORE_PAGE = "view/scorePage.fxml";
+
+    /** The level selection view */
+    public static final String SELECTION_PAGE = "view/selectionPage.fxml";
+
+    /** The only instance */
+    private static final ViewRegistry INSTANCE = new ViewRegistry();
+
+    /** The views, loaded or being loaded, by FXML resource */
+    private final Map<String, CompletableFuture<View<?>>> views = new ConcurrentHashMap<>();
+
+    private ViewRegistry() {
+    }
+
+    /**
+     * Returns the view registry of the application.
+     *
+     * @return the view registry
+     */
+    public static ViewRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Starts parsing the given views on a background thread. Views already loaded are not parsed again.
+     *
+     * @param resources the class path locations of the FXML files
+     */
+    public void preloadAsync(String... resources) {
+        for (String resource : resources) {
+            views.computeIfAbsent(resource, key -> CompletableFuture.supplyAsync(() -> load(key)));
+        }
+    }
+
+    /**
+     * Returns the given view, parsing it now if it has not been preloaded.
+     * Views that are handed out again are reset first.
+     *
+     * @param resource the class path location of the FXML file
+     * @param <C>      the type of the controller
+     * @return the view
+     */
+    @SuppressWarnings("unchecked")
+    public <C> View<C> get(String resource) {
+        CompletableFuture<View<?>> future = views.computeIfAbsent(resource, key -> CompletableFuture.completedFuture(load(key)));
+        View<C> view = (View<C>) future.join();
+        if (view.getController() instanceof ResettableController) {
+            ((ResettableController) view.getController()).reset();
+        }
+        return view;
+    }
+
+    /**
+     * Parses an FXML file.
+     *
+     * @param resource the class path location of the FXML file
+     * @return the loaded view
+     */
+    private View<?> load(String resource) {
+        FXMLLoader loader = new FXMLLoader(getClass().getClassLoader().getResource(resource));
+        loader.setClassLoader(getClass().getClassLoader());
+        try {
+            Parent root = loader.load();
+            return new View<>(root, loader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load the view " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.ae2dms.view;
+
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.GridPane;
+
+/**
+ * CanvasRenderer draws a {@link Level} onto a single {@link Canvas} using the pre-rasterized tiles
+ * of a {@link TileCache}, instead of creating one node per cell.
+ * <p>
+ * Only the cells inside the {@link Viewport} are drawn. The renderer remembers what has been drawn
+ * in every visible cell and only redraws the cells whose content changed since the previous frame.
+ *
+ * @version 2.0
+ */
+public class CanvasRenderer implements GridRenderer {
+
+    /** The grid pane hosting the canvas */
+    private final GridPane gameGrid;
+
+    /** The window of cells to be drawn */
+    private final Viewport viewport;
+
+    /** The canvas the level is drawn onto */
+    private final Canvas canvas = new Canvas();
+
+    /** The tiles of the game objects */
+    private final TileCache tiles;
+
+    /** The objects currently drawn on the canvas, in row-major order relative to the viewport */
+    private GameObject[] drawnObjects = new GameObject[0];
+
+    /** The number of rows currently drawn */
+    private int drawnRows;
+
+    /** The number of columns currently drawn */
+    private int drawnColumns;
+
+    /** The first row currently drawn */
+    private int drawnFirstRow;
+
+    /** The first column currently drawn */
+    private int drawnFirstColumn;
+
+    /** The cell size currently drawn */
+    private int drawnCellSize;
+
+    /**
+     * Creates a renderer drawing into the given grid pane.
+     *
+     * @param gameGrid the grid pane of the main window
+     * @param viewport the window of cells to be drawn
+     * @param logger   the logger of the engine
+     */
+    public CanvasRenderer(GridPane gameGrid, Viewport viewport, GameLogger logger) {
+        this.gameGrid = gameGrid;
+        this.viewport = viewport;
+        this.tiles = new TileCache(logger);
+    }
+
+    @Override
+    public void attach() {
+        gameGrid.getChildren().setAll(canvas);
+        invalidate();
+    }
+
+    @Override
+    public int render(Level level) {
+        int rows = viewport.getVisibleRows();
+        int columns = viewport.getVisibleColumns();
+        int firstRow = viewport.getFirstRow();
+        int firstColumn = viewport.getFirstColumn();
+        int cellSize = viewport.getCellSize();
+        if (rows != drawnRows || columns != drawnColumns || firstRow != drawnFirstRow
+                || firstColumn != drawnFirstColumn || cellSize != drawnCellSize) {
+            resize(rows, columns, cellSize);
+            drawnFirstRow = firstRow;
+            drawnFirstColumn = firstColumn;
+        }
+
+        GraphicsContext graphics = canvas.getGraphicsContext2D();
+        int drawn = 0;
+        for (int row = 0; row < rows; row++) {
+            int offset = row * columns;
+            for (int column = 0; column < columns; column++) {
+                GameObject object = level.getDisplayedObjectAt(firstRow + row, firstColumn + column);
+                if (object != drawnObjects[offset + column]) {
+                    drawCell(graphics, row, column, object);
+                    drawnObjects[offset + column] = object;
+                    drawn++;
+                }
+            }
+        }
+        return drawn;
+    }
+
+    @Override
+    public void setDebug(boolean debug) {
+        if (tiles.setDebug(debug)) {
+            invalidate();
+        }
+    }
+
+    @Override
+    public void invalidate() {
+        tiles.clear();
+        drawnRows = 0;
+        drawnColumns = 0;
+    }
+
+    /**
+     * Resizes the canvas for the given number of visible cells and forgets everything that was drawn.
+     *
+     * @param rows     the number of visible rows
+     * @param columns  the number of visible columns
+     * @param cellSize the size of a cell in pixels
+     */
+    private void resize(int rows, int columns, int cellSize) {
+        canvas.setWidth(columns * cellSize);
+        canvas.setHeight(rows * cellSize);
+        canvas.getGraphicsContext2D().clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        drawnObjects = new GameObject[rows * columns];
+        drawnRows = rows;
+        drawnColumns = columns;
+        drawnCellSize = cellSize;
+    }
+
+    /**
+     * Redraws a single cell of the canvas.
+     *
+     * @param graphics the graphics context of the canvas
+     * @param row      the row of the cell relative to the viewport
+     * @param column   the column of the cell relative to the viewport
+     * @param object   the object to be drawn, {@code null} leaves the cell empty
+     */
+    private void drawCell(GraphicsContext graphics, int row, int column, GameObject object) {
+        double x = column * drawnCellSize;
+        double y = row * drawnCellSize;
+        graphics.clearRect(x, y, drawnCellSize, drawnCellSize);
+        if (object != null) {
+            graphics.drawImage(tiles.getTile(object, drawnCellSize), x, y);
+        }
+    }
+}
@@ -1,4 +1,7 @@
-package com.ae2dms.model;
+package com.ae2dms.view;
+
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.GameObject;
 
 import javafx.animation.FadeTransition;
 import javafx.animation.Timeline;
@@ -14,7 +17,24 @@ import javafx.util.Duration;
  * @version 2.0
  */
 public class GraphicObject extends Rectangle {
-    public GraphicObject(GameObject obj) {
+    /**
+     * Creates the rectangle of a game object in the normal style.
+     *
+     * @param obj    the game object
+     * @param logger the logger of the engine, told about objects that cannot be drawn
+     */
+    public GraphicObject(GameObject obj, GameLogger logger) {
+        this(obj, false, logger);
+    }
+
+    /**
+     * Creates the rectangle of a game object.
+     *
+     * @param obj    the game object
+     * @param debug  {@code true} to outline the rectangle and make diamonds blink, as in debug mode
+     * @param logger the logger of the engine, told about objects that cannot be drawn
+     */
+    public GraphicObject(GameObject obj, boolean debug, GameLogger logger) {
         Paint color;
         switch (obj) {
             case WALL:
@@ -28,7 +48,7 @@ public class GraphicObject extends Rectangle {
             case DIAMOND:
                 color = Color.DEEPSKYBLUE;
 
-                if (GameEngine.isDebugActive()) {
+                if (debug) {
                     FadeTransition ft = new FadeTransition(Duration.millis(1000), this);
                     ft.setFromValue(1.0);
                     ft.setToValue(0.2);
@@ -53,7 +73,7 @@ public class GraphicObject extends Rectangle {
 
             default:
                 String message = "Error in Level constructor. Object not recognized.";
-                GameEngine.logger.severe(message);
+                logger.severe(message);
                 throw new AssertionError(message);
         }
 
@@ -66,7 +86,7 @@ public class GraphicObject extends Rectangle {
             this.setArcWidth(50);
         }
 
-        if (GameEngine.isDebugActive()) {
+        if (debug) {
             this.setStroke(Color.RED);
             this.setStrokeWidth(0.25);
         }
@@ -0,0 +1,90 @@
+package com.ae2dms.view;
+
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.GameObject;
+import com.ae2dms.model.Level;
+import javafx.scene.layout.GridPane;
+
+/**
+ * GridPaneRenderer draws a {@link Level} by adding one {@link GraphicObject} node per visible cell to a {@link GridPane}.
+ * It is kept as a fallback for the {@link CanvasRenderer}.
+ *
+ * @version 2.0
+ */
+public class GridPaneRenderer implements GridRenderer {
+
+    /** The grid pane receiving the graphic objects */
+    private final GridPane gameGrid;
+
+    /** The window of cells to be drawn */
+    private final Viewport viewport;
+
+    /** Whether the objects are drawn in the debug style */
+    private boolean debug = false;
+
+    /** The logger of the engine */
+    private final GameLogger logger;
+
+    /**
+     * Creates a renderer drawing into the given grid pane.
+     *
+     * @param gameGrid the grid pane of the main window
+     * @param viewport the window of cells to be drawn
+     * @param logger   the logger of the engine
+     */
+    public GridPaneRenderer(GridPane gameGrid, Viewport viewport, GameLogger logger) {
+        this.gameGrid = gameGrid;
+        this.viewport = viewport;
+        this.logger = logger;
+    }
+
+    @Override
+    public void attach() {
+        gameGrid.getChildren().clear();
+    }
+
+    /**
+     * Rebuilds the grid with one node per visible cell.
+     *
+     * @param level the level to be drawn
+     */
+    @Override
+    public int render(Level level) {
+        gameGrid.getChildren().clear();
+        for (int row = 0; row < viewport.getVisibleRows(); row++) {
+            for (int column = 0; column < viewport.getVisibleColumns(); column++) {
+                GameObject object = level.getDisplayedObjectAt(viewport.getFirstRow() + row, viewport.getFirstColumn() + column);
+                if (object != null) {
+                    addObjectToGrid(object, row, column);
+                }
+            }
+        }
+        return gameGrid.getChildren().size();
+    }
+
+    @Override
+    public void setDebug(boolean debug) {
+        this.debug = debug;
+    }
+
+    @Override
+    public void invalidate() {
+        // Every render rebuilds the whole grid, there is nothing cached.
+    }
+
+    /**
+     * Adds an object to the specified grid position.
+     * It first converts a {@link GameObject} into a {@link javafx.scene.shape.Rectangle},
+     * then adds the new rectangle into the specified location.
+     *
+     * @param gameObject the game object to be added into the grid
+     * @param row        the row of the grid where the game object will be added
+     * @param column     the column of the grid where the game object will be added
+     */
+    private void addObjectToGrid(GameObject gameObject, int row, int column) {
+        GraphicObject graphicObject = new GraphicObject(gameObject, debug, logger);
+        graphicObject.setWidth(viewport.getCellSize());
+        graphicObject.setHeight(viewport.getCellSize());
+        gameGrid.add(graphicObject, column, row);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ae2dms.view;
+
+import com.ae2dms.model.Level;
+
+/**
+ * A GridRenderer draws a {@link Level} into the game grid of the main window.
+ *
+ * @version 2.0
+ */
+public interface GridRenderer {
+
+    /**
+     * Installs the nodes used by this renderer into the game grid, removing any previous content.
+     */
+    void attach();
+
+    /**
+     * Draws the cells of the given level that are visible in the renderer's {@link Viewport}.
+     *
+     * @param level the level to be drawn
+     * @return the number of cells that were drawn
+     */
+    int render(Level level);
+
+    /**
+     * Selects the debug look of the objects. Changing it redraws everything on the next {@link #render(Level)}.
+     *
+     * @param debug {@code true} if the debug mode of the engine is active
+     */
+    void setDebug(boolean debug);
+
+    /**
+     * Discards any cached drawing state so that the next {@link #render(Level)} redraws everything,
+     * e.g. after the debug mode has been toggled.
+     */
+    void invalidate();
+}
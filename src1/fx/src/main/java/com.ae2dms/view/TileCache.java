@@ -0,0 +1,104 @@
+package com.ae2dms.view;
+
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.model.GameObject;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * TileCache holds one pre-rasterized image per {@link GameObject} kind, for the current cell size.
+ * The tiles are produced by taking a snapshot of the corresponding {@link GraphicObject},
+ * so the canvas output looks the same as the {@link GridPaneRenderer} output.
+ * <p>
+ * Snapshots must be taken on the JavaFX application thread.
+ *
+ * @version 2.0
+ */
+public class TileCache {
+
+    /** The default width and height of a tile in pixels, matching the size of a {@link GraphicObject} */
+    public static final int TILE_SIZE = 30;
+
+    /** The rasterized tiles */
+    private final Map<GameObject, Image> tiles = new EnumMap<>(GameObject.class);
+
+    /** The size in pixels of the rasterized tiles */
+    private int tileSize = TILE_SIZE;
+
+    /** Whether the tiles are drawn in the debug style */
+    private boolean debug = false;
+
+    /** The logger of the engine */
+    private final GameLogger logger;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param logger the logger of the engine, told about objects that cannot be drawn
+     */
+    public TileCache(GameLogger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Returns the tile of the given object, rasterizing it on first use.
+     *
+     * @param object the object to be drawn
+     * @param size   the width and height of the tile in pixels
+     * @return the image of the object
+     */
+    public Image getTile(GameObject object, int size) {
+        if (size != tileSize) {
+            tiles.clear();
+            tileSize = size;
+        }
+        Image tile = tiles.get(object);
+        if (tile == null) {
+            tile = rasterize(object, size);
+            tiles.put(object, tile);
+        }
+        return tile;
+    }
+
+    /**
+     * Selects the debug style of the tiles, discarding them if it changes.
+     *
+     * @param debug {@code true} to draw the tiles in the debug style
+     * @return {@code true} if the style changed
+     */
+    public boolean setDebug(boolean debug) {
+        if (this.debug == debug) {
+            return false;
+        }
+        this.debug = debug;
+        tiles.clear();
+        return true;
+    }
+
+    /**
+     * Discards all tiles, e.g. because the debug mode changed the look of the objects.
+     */
+    public void clear() {
+        tiles.clear();
+    }
+
+    /**
+     * Draws the {@link GraphicObject} of the given object into an image.
+     *
+     * @param object the object to be rasterized
+     * @param size   the width and height of the tile in pixels
+     * @return the rasterized object
+     */
+    private Image rasterize(GameObject object, int size) {
+        SnapshotParameters parameters = new SnapshotParameters();
+        parameters.setFill(Color.TRANSPARENT);
+        GraphicObject graphicObject = new GraphicObject(object, debug, logger);
+        graphicObject.setWidth(size);
+        graphicObject.setHeight(size);
+        return graphicObject.snapshot(parameters, null);
+    }
+}
@@ -0,0 +1,147 @@
+package com.ae2dms.view;
+
+import com.ae2dms.model.Level;
+
+/**
+ * Viewport describes the window of cells of a {@link Level} that is visible on screen.
+ * <p>
+ * The viewport has a bounded size in pixels, so levels larger than the screen only render the
+ * visible cells. It follows the warehouse keeper as it moves and supports zooming.
+ *
+ * @version 2.0
+ */
+public class Viewport {
+
+    /** The maximum width of the viewport in pixels */
+    public static final int MAX_WIDTH = 960;
+
+    /** The maximum height of the viewport in pixels */
+    public static final int MAX_HEIGHT = 720;
+
+    /** The smallest size of a cell in pixels */
+    private static final int MIN_CELL_SIZE = 6;
+
+    /** The largest size of a cell in pixels */
+    private static final int MAX_CELL_SIZE = 90;
+
+    /** The number of cells kept between the keeper and the border of the viewport */
+    private static final int FOLLOW_MARGIN = 3;
+
+    /** The current size of a cell in pixels */
+    private int cellSize = TileCache.TILE_SIZE;
+
+    /** The first visible row */
+    private int firstRow;
+
+    /** The first visible column */
+    private int firstColumn;
+
+    /** The number of visible rows */
+    private int visibleRows;
+
+    /** The number of visible columns */
+    private int visibleColumns;
+
+    /** The number of rows of the level shown in the viewport */
+    private int levelRows;
+
+    /** The number of columns of the level shown in the viewport */
+    private int levelColumns;
+
+    /**
+     * Updates the viewport for the given level and scrolls it so that the keeper is visible.
+     *
+     * @param level the level to be shown
+     */
+    public void follow(Level level) {
+        levelRows = level.levelRow;
+        levelColumns = level.levelColumn;
+        visibleRows = Math.min(levelRows, MAX_HEIGHT / cellSize);
+        visibleColumns = Math.min(levelColumns, MAX_WIDTH / cellSize);
+
+        firstRow = scrollToward(firstRow, level.getKeeperRow(), visibleRows);
+        firstColumn = scrollToward(firstColumn, level.getKeeperColumn(), visibleColumns);
+        clamp();
+    }
+
+    /**
+     * Returns the new first visible index so that the target stays at least
+     * {@link #FOLLOW_MARGIN} cells away from the borders of the viewport.
+     *
+     * @param first   the current first visible index
+     * @param target  the index that must stay visible
+     * @param visible the number of visible cells
+     * @return the new first visible index
+     */
+    private int scrollToward(int first, int target, int visible) {
+        int margin = Math.min(FOLLOW_MARGIN, (visible - 1) / 2);
+        if (target < first + margin) {
+            return target - margin;
+        }
+        if (target > first + visible - 1 - margin) {
+            return target - visible + 1 + margin;
+        }
+        return first;
+    }
+
+    /**
+     * Scrolls the viewport by the given number of cells.
+     *
+     * @param rows    the number of rows to scroll by
+     * @param columns the number of columns to scroll by
+     */
+    public void scrollBy(int rows, int columns) {
+        firstRow += rows;
+        firstColumn += columns;
+        clamp();
+    }
+
+    /**
+     * Makes the cells larger.
+     */
+    public void zoomIn() {
+        cellSize = Math.min(MAX_CELL_SIZE, cellSize + Math.max(1, cellSize / 4));
+    }
+
+    /**
+     * Makes the cells smaller, showing more of the level.
+     */
+    public void zoomOut() {
+        cellSize = Math.max(MIN_CELL_SIZE, cellSize - Math.max(1, cellSize / 5));
+    }
+
+    /**
+     * Restores the default cell size.
+     */
+    public void resetZoom() {
+        cellSize = TileCache.TILE_SIZE;
+    }
+
+    /**
+     * Keeps the viewport inside the level.
+     */
+    private void clamp() {
+        firstRow = Math.max(0, Math.min(firstRow, levelRows - visibleRows));
+        firstColumn = Math.max(0, Math.min(firstColumn, levelColumns - visibleColumns));
+    }
+
+    public int getCellSize() {
+        return cellSize;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    public int getVisibleRows() {
+        return visibleRows;
+    }
+
+    public int getVisibleColumns() {
+        return visibleColumns;
+    }
+}
@@ -0,0 +1,457 @@
+package com.ae2dms.server;
+
+import com.ae2dms.cache.LevelCache;
+import com.ae2dms.model.Direction;
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.GameLogger;
+import com.ae2dms.session.GameSession;
+import com.ae2dms.session.SessionLimitException;
+import com.ae2dms.session.SessionManager;
+import com.ae2dms.session.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * GameServer lets browser clients and bots play with the {@link GameEngine} over HTTP, without the JavaFX
+ * user interface. Each game is a session of a {@link SessionManager}; the state of the game is sent as the
+ * binary frames described in {@link WireFormat}, so that a move costs a few bytes instead of a whole grid.
+ * <p>
+ * The API:
+ * <ul>
+ *     <li>{@code POST /sessions?pack=NAME&player=NAME} creates a game and answers 201 with a full frame and
+ *     the session id in the {@code Location} header;</li>
+ *     <li>{@code POST /sessions/ID/moves} plays a batch of moves, sent in the body as LURD characters, and
+ *     answers with a delta frame;</li>
+ *     <li>{@code GET /sessions/ID/state} answers with the changes not sent yet, or with a full frame if
+ *     {@code full=true} is in the query;</li>
+ *     <li>{@code DELETE /sessions/ID} ends a game;</li>
+ *     <li>{@code GET /leaderboard?pack=NAME} answers with the best finished games, one tab separated line
+ *     per game: rank, player, moves and seconds.</li>
+ * </ul>
+ * Requests are handled on virtual threads when the JVM provides them. A session is removed once its game is
+ * complete and the final frame has been sent, or when no request has used it for longer than the abandon
+ * timeout, so that the games of players who left do not pile up in memory.
+ * <p>
+ * Usage: {@code java -jar server.jar [--port=N] [--pack=file.skb]... [--memory=MB] [--idle=SECONDS]
+ * [--abandon=SECONDS] [--cache=file]}. The server listens on the loopback address; without any pack it serves the sample game as
+ * {@code sample}. With a cache file, the packs are analysed when they are registered and only the levels not
+ * analysed by an earlier run are solved.
+ *
+ * @version 2.0
+ */
+public class GameServer implements AutoCloseable {
+
+    /** The largest batch of moves accepted by one request */
+    static final int MAX_BATCH = 64 * 1024;
+
+    /** How long a request waits for its session before answering 503 */
+    private static final long COMMAND_TIMEOUT_SECONDS = 10;
+
+    /** The number of games kept per pack in the leaderboard */
+    private static final int LEADERBOARD_SIZE = 100;
+
+    private static final int MAX_PLAYER_NAME = 32;
+
+    private final HttpServer server;
+
+    private final ExecutorService handlers = VirtualThreads.newPerTaskExecutor();
+
+    private final SessionManager sessions;
+
+    private final Leaderboard leaderboard;
+
+    private final Map<Long, SessionView> views = new ConcurrentHashMap<>();
+
+    private final GameLogger logger;
+
+    private final long abandonTimeoutMillis;
+
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Creates a server; it does not accept requests before {@link #start()}.
+     *
+     * @param address        the address to listen on, port 0 for any free port
+     * @param sessions       the sessions, with their packs registered
+     * @param leaderboard    the leaderboard of the finished games
+     * @param abandonTimeout how long a session may go without requests before it is removed, zero to keep it
+     *                       until it is deleted or its game is complete
+     * @throws IOException if the address cannot be bound
+     */
+    public GameServer(InetSocketAddress address, SessionManager sessions, Leaderboard leaderboard,
+                      Duration abandonTimeout) throws IOException {
+        this.sessions = sessions;
+        this.leaderboard = leaderboard;
+        this.abandonTimeoutMillis = abandonTimeout.toMillis();
+        logger = GameLogger.get(sessions.isProduction()).named("server");
+        if (abandonTimeoutMillis > 0) {
+            sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, GameEngine.GAME_NAME + " abandoned session sweeper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            sweeper = null;
+        }
+        server = HttpServer.create(address, 0);
+        server.setExecutor(handlers);
+        server.createContext("/sessions", this::handleSessions);
+        server.createContext("/leaderboard", this::handleLeaderboard);
+    }
+
+    /**
+     * Starts the server.
+     *
+     * @param args the options described in the class documentation
+     * @throws IOException if a pack cannot be read or the port cannot be bound
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8080;
+        List<Path> packs = new ArrayList<>();
+        long memoryBytes = 256L << 20;
+        long idleSeconds = 300;
+        long abandonSeconds = 3600;
+        Path cache = null;
+        for (String arg : args) {
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(arg.substring("--port=".length()));
+            } else if (arg.startsWith("--pack=")) {
+                packs.add(Paths.get(arg.substring("--pack=".length())));
+            } else if (arg.startsWith("--memory=")) {
+                memoryBytes = Long.parseLong(arg.substring("--memory=".length())) << 20;
+            } else if (arg.startsWith("--idle=")) {
+                idleSeconds = Long.parseLong(arg.substring("--idle=".length()));
+            } else if (arg.startsWith("--abandon=")) {
+                abandonSeconds = Long.parseLong(arg.substring("--abandon=".length()));
+            } else if (arg.startsWith("--cache=")) {
+                cache = Paths.get(arg.substring("--cache=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        SessionManager manager = new SessionManager(memoryBytes / 16, memoryBytes, Duration.ofSeconds(idleSeconds), true);
+        if (cache != null) {
+            // Left open for the life of the server; every record is on disk once written
+            manager.setLevelCache(LevelCache.open(cache));
+        }
+        if (packs.isEmpty()) {
+            manager.registerPack("sample", GameServer.class.getResourceAsStream("/level/SampleGame.skb"));
+        }
+        for (Path pack : packs) {
+            String name = pack.getFileName().toString().replaceFirst("\\.skb$", "");
+            try (InputStream input = Files.newInputStream(pack)) {
+                manager.registerPack(name, input);
+            }
+        }
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), manager,
+                new Leaderboard(LEADERBOARD_SIZE), Duration.ofSeconds(abandonSeconds));
+        server.start();
+        System.out.println(GameEngine.GAME_NAME + " server listening on http://localhost:" + server.getPort());
+    }
+
+    public void start() {
+        if (sweeper != null) {
+            long period = Math.max(1, abandonTimeoutMillis / 2);
+            sweeper.scheduleAtFixedRate(this::removeAbandonedSessions, period, period, TimeUnit.MILLISECONDS);
+        }
+        server.start();
+        logger.info("Listening on " + server.getAddress());
+    }
+
+    /**
+     * Returns the port the server listens on, useful when it was created with port 0.
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server and its sessions.
+     */
+    @Override
+    public void close() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+        server.stop(0);
+        handlers.shutdownNow();
+        sessions.close();
+    }
+
+    private void handleSessions(HttpExchange exchange) throws IOException {
+        try {
+            // Read the body even when it is not used, otherwise the connection cannot be reused
+            byte[] body = readBody(exchange, MAX_BATCH);
+            if (body == null) {
+                send(exchange, 413, null);
+                return;
+            }
+            String[] path = exchange.getRequestURI().getPath().split("/");
+            String method = exchange.getRequestMethod();
+            if (path.length == 2 && method.equals("POST")) {
+                createSession(exchange);
+                return;
+            }
+            if (path.length < 3) {
+                send(exchange, 404, null);
+                return;
+            }
+            long id;
+            try {
+                id = Long.parseLong(path[2]);
+            } catch (NumberFormatException e) {
+                send(exchange, 404, null);
+                return;
+            }
+            GameSession session = sessions.getSession(id);
+            SessionView view = views.get(id);
+            if (session == null || view == null) {
+                send(exchange, 404, null);
+            } else if (path.length == 3 && method.equals("DELETE")) {
+                removeSession(id);
+                send(exchange, 204, null);
+            } else if (path.length == 4 && path[3].equals("moves") && method.equals("POST")) {
+                Direction[] directions = parseMoves(body);
+                if (directions == null) {
+                    send(exchange, 400, null);
+                    return;
+                }
+                byte[] frame = run(session, engine -> {
+                    for (Direction direction : directions) {
+                        engine.move(direction);
+                    }
+                    return frame(view, engine, false);
+                });
+                removeIfFinished(id, view);
+                sendFrame(exchange, 200, frame);
+            } else if (path.length == 4 && path[3].equals("state") && method.equals("GET")) {
+                boolean full = "true".equals(parseQuery(exchange).get("full"));
+                byte[] frame = run(session, engine -> frame(view, engine, full));
+                removeIfFinished(id, view);
+                sendFrame(exchange, 200, frame);
+            } else {
+                send(exchange, 405, null);
+            }
+        } catch (SessionLimitException | TimeoutException e) {
+            send(exchange, 503, e.getMessage());
+        } catch (IllegalStateException e) {
+            // The session was removed while the request was waiting
+            send(exchange, 410, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, e.getMessage());
+        } catch (RuntimeException | ExecutionException e) {
+            logger.severe("Request " + exchange.getRequestURI() + " failed: " + e);
+            send(exchange, 500, null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void createSession(HttpExchange exchange) throws IOException, ExecutionException, TimeoutException {
+        Map<String, String> query = parseQuery(exchange);
+        String pack = query.get("pack");
+        if (pack == null) {
+            send(exchange, 400, "Missing pack");
+            return;
+        }
+        String player = query.getOrDefault("player", "anonymous").replaceAll("[\\t\\r\\n]", " ");
+        if (player.length() > MAX_PLAYER_NAME) {
+            player = player.substring(0, MAX_PLAYER_NAME);
+        }
+        GameSession session = sessions.createSession(pack);
+        SessionView view = new SessionView(player, pack);
+        views.put(session.getId(), view);
+        byte[] frame;
+        try {
+            frame = run(session, engine -> view.encode(engine, true));
+        } catch (RuntimeException | ExecutionException | TimeoutException e) {
+            removeSession(session.getId());
+            throw e;
+        }
+        exchange.getResponseHeaders().set("Location", "/sessions/" + session.getId());
+        sendFrame(exchange, 201, frame);
+    }
+
+    private void handleLeaderboard(HttpExchange exchange) throws IOException {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            String pack = parseQuery(exchange).get("pack");
+            if (pack == null || !exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 400, "Missing pack");
+                return;
+            }
+            StringBuilder text = new StringBuilder();
+            int rank = 1;
+            for (Leaderboard.Entry entry : leaderboard.getEntries(pack)) {
+                text.append(rank++).append('\t').append(entry.player).append('\t').append(entry.moves).append('\t')
+                        .append(entry.millis / 1000d).append('\n');
+            }
+            send(exchange, 200, text.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Removes a session and what its client was sent.
+     */
+    private void removeSession(long id) {
+        sessions.removeSession(id);
+        views.remove(id);
+    }
+
+    /**
+     * Removes a session once its game is complete; the frame of the finished game is the last one it sends.
+     */
+    private void removeIfFinished(long id, SessionView view) {
+        if (view.isFinished()) {
+            removeSession(id);
+        }
+    }
+
+    /**
+     * Removes the sessions that have had no request for longer than the abandon timeout.
+     *
+     * @return the number of removed sessions
+     */
+    private int removeAbandonedSessions() {
+        long limit = System.currentTimeMillis() - abandonTimeoutMillis;
+        int removed = 0;
+        for (GameSession session : sessions.getSessions()) {
+            if (session.getLastAccess() <= limit) {
+                removeSession(session.getId());
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Removed " + removed + " abandoned sessions");
+        }
+        return removed;
+    }
+
+    /**
+     * Encodes the state of a session and records the game in the leaderboard once it is complete.
+     */
+    private byte[] frame(SessionView view, GameEngine engine, boolean full) {
+        if (view.takeFinishedGame(engine)) {
+            leaderboard.record(view.pack, view.player, engine.getMovesCount(), Math.round(engine.gameTime * 1000));
+        }
+        return view.encode(engine, full);
+    }
+
+    /**
+     * Runs a command on a session and waits for its result.
+     */
+    private static <T> T run(GameSession session, Function<GameEngine, T> command)
+            throws ExecutionException, TimeoutException {
+        try {
+            return session.submit(command).get(COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Converts a batch of LURD characters, ignoring white space.
+     *
+     * @return the directions, {@code null} if a character is not a direction
+     */
+    static Direction[] parseMoves(byte[] moves) {
+        Direction[] directions = new Direction[moves.length];
+        int count = 0;
+        for (byte move : moves) {
+            if (Character.isWhitespace(move)) {
+                continue;
+            }
+            Direction direction = Direction.fromChar((char) move);
+            if (direction == null) {
+                return null;
+            }
+            directions[count++] = direction;
+        }
+        return count == directions.length ? directions : Arrays.copyOf(directions, count);
+    }
+
+    /**
+     * Reads the body of a request.
+     *
+     * @return the body, {@code null} if it is longer than the limit
+     */
+    private static byte[] readBody(HttpExchange exchange, int limit) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(limit + 1);
+            return body.length > limit ? null : body;
+        }
+    }
+
+    private static Map<String, String> parseQuery(HttpExchange exchange) {
+        Map<String, String> parameters = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) {
+            return parameters;
+        }
+        for (String parameter : query.split("&")) {
+            int equals = parameter.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(parameter.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(parameter.substring(equals + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return parameters;
+    }
+
+    private static void sendFrame(HttpExchange exchange, int status, byte[] frame) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", WireFormat.CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, frame.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(frame);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String text) throws IOException {
+        if (text == null || status == 204) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] body = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
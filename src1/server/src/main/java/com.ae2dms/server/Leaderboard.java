@@ -0,0 +1,87 @@
+package com.ae2dms.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Leaderboard keeps the best finished games of each pack, fewest moves first, then fastest.
+ *
+ * @version 2.0
+ */
+public class Leaderboard {
+
+    /** Orders the entries from the best to the worst */
+    private static final Comparator<Entry> RANKING =
+            Comparator.comparingInt((Entry entry) -> entry.moves).thenComparingLong(entry -> entry.millis);
+
+    private final int capacity;
+
+    private final Map<String, List<Entry>> packs = new ConcurrentHashMap<>();
+
+    /**
+     * Creates an empty leaderboard.
+     *
+     * @param capacity the number of games kept per pack
+     */
+    public Leaderboard(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Records a finished game. It is dropped if the pack already has as many better games as the capacity.
+     *
+     * @param pack   the name of the pack
+     * @param player the name of the player
+     * @param moves  the number of moves
+     * @param millis the time taken, in milliseconds
+     */
+    public void record(String pack, String player, int moves, long millis) {
+        List<Entry> entries = packs.computeIfAbsent(pack, name -> new ArrayList<>(capacity + 1));
+        Entry entry = new Entry(player, moves, millis);
+        synchronized (entries) {
+            int index = Collections.binarySearch(entries, entry, RANKING);
+            index = index < 0 ? -index - 1 : index + 1;
+            if (index < capacity) {
+                entries.add(index, entry);
+                if (entries.size() > capacity) {
+                    entries.remove(capacity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the best games of a pack.
+     *
+     * @param pack the name of the pack
+     * @return a copy of the entries, best first
+     */
+    public List<Entry> getEntries(String pack) {
+        List<Entry> entries = packs.get(pack);
+        if (entries == null) {
+            return Collections.emptyList();
+        }
+        synchronized (entries) {
+            return new ArrayList<>(entries);
+        }
+    }
+
+    /**
+     * A finished game.
+     */
+    public static final class Entry {
+        public final String player;
+        public final int moves;
+        public final long millis;
+
+        Entry(String player, int moves, long millis) {
+            this.player = player;
+            this.moves = moves;
+            this.millis = millis;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.ae2dms.server;
+
+import com.ae2dms.metrics.LatencyHistogram;
+import com.ae2dms.session.VirtualThreads;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoadTestClient stands in for many clients of a {@link GameServer}: each simulated player creates a game,
+ * sends batches of random moves, applies the answers to a {@link RemoteBoard} and checks it against a full
+ * state from time to time. It reports the throughput, the latency percentiles and the bytes received.
+ * <p>
+ * Usage: {@code java -cp server.jar com.ae2dms.server.LoadTestClient [--url=http://localhost:8080]
+ * [--pack=sample] [--clients=N] [--batches=N] [--batch=N] [--seed=N]}. The exit status is 1 if a board
+ * drifted from the server state or a request failed.
+ *
+ * @version 2.0
+ */
+public final class LoadTestClient {
+
+    /** The LURD characters of the four directions, as sent in a batch */
+    private static final byte[] MOVES = "lurd".getBytes(StandardCharsets.US_ASCII);
+
+    /** A full state is requested to check the board after this many batches */
+    private static final int CHECK_INTERVAL = 16;
+
+    private final HttpClient client;
+
+    private final URI base;
+
+    private final String pack;
+
+    private final LatencyHistogram latency = new LatencyHistogram("batch");
+
+    private final AtomicLong moves = new AtomicLong();
+
+    private final AtomicLong bytes = new AtomicLong();
+
+    private final AtomicLong failures = new AtomicLong();
+
+    private LoadTestClient(HttpClient client, URI base, String pack) {
+        this.client = client;
+        this.base = base;
+        this.pack = pack;
+    }
+
+    /**
+     * Runs the load test.
+     *
+     * @param args the options described in the class documentation
+     * @throws InterruptedException if interrupted while waiting for the players
+     * @throws ExecutionException   if a player failed outside the requests
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException {
+        String url = "http://localhost:8080";
+        String pack = "sample";
+        int clients = 100;
+        int batches = 100;
+        int batchSize = 20;
+        long seed = System.nanoTime();
+        for (String arg : args) {
+            if (arg.startsWith("--url=")) {
+                url = arg.substring("--url=".length());
+            } else if (arg.startsWith("--pack=")) {
+                pack = arg.substring("--pack=".length());
+            } else if (arg.startsWith("--clients=")) {
+                clients = Integer.parseInt(arg.substring("--clients=".length()));
+            } else if (arg.startsWith("--batches=")) {
+                batches = Integer.parseInt(arg.substring("--batches=".length()));
+            } else if (arg.startsWith("--batch=")) {
+                batchSize = Integer.parseInt(arg.substring("--batch=".length()));
+            } else if (arg.startsWith("--seed=")) {
+                seed = Long.parseLong(arg.substring("--seed=".length()));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+
+        System.out.printf("Load test: %d clients x %d batches of %d moves on %s, seed %d%n", clients, batches,
+                batchSize, url, seed);
+
+        ExecutorService executor = VirtualThreads.newPerTaskExecutor();
+        LoadTestClient test = new LoadTestClient(HttpClient.newBuilder().executor(executor).build(), URI.create(url),
+                pack);
+        List<Future<?>> futures = new ArrayList<>(clients);
+        long start = System.nanoTime();
+        for (int i = 0; i < clients; i++) {
+            long playerSeed = seed + i;
+            int batchCount = batches;
+            int size = batchSize;
+            futures.add(executor.submit(() -> test.play(batchCount, size, new SplittableRandom(playerSeed))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+
+        LatencyHistogram latency = test.latency;
+        System.out.printf("Batches: %,d in %.1f s (%,.0f batches/s, %,.0f moves/s)%n", latency.getCount(), seconds,
+                latency.getCount() / seconds, test.moves.get() / seconds);
+        System.out.printf("Latency: p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latency.getValueAtPercentile(50) / 1e6, latency.getValueAtPercentile(99) / 1e6,
+                latency.getMax() / 1e6);
+        System.out.printf("Received: %,d bytes (%.1f per batch)%n", test.bytes.get(),
+                latency.getCount() == 0 ? 0d : (double) test.bytes.get() / latency.getCount());
+        System.out.println("Failures: " + test.failures.get());
+        if (test.failures.get() > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays one game.
+     */
+    private void play(int batches, int batchSize, SplittableRandom random) {
+        try {
+            String player = "bot" + random.nextInt(1_000_000);
+            HttpResponse<byte[]> created = send(HttpRequest.newBuilder(
+                    base.resolve("/sessions?pack=" + pack + "&player=" + player))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build());
+            if (created.statusCode() != 201) {
+                failures.incrementAndGet();
+                return;
+            }
+            URI session = base.resolve(created.headers().firstValue("Location").orElseThrow());
+            RemoteBoard board = new RemoteBoard();
+            board.apply(created.body());
+
+            byte[] batch = new byte[batchSize];
+            for (int i = 1; i <= batches && !board.isGameComplete(); i++) {
+                for (int j = 0; j < batchSize; j++) {
+                    batch[j] = MOVES[random.nextInt(MOVES.length)];
+                }
+                long start = System.nanoTime();
+                HttpResponse<byte[]> answer = send(HttpRequest.newBuilder(URI.create(session + "/moves"))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(batch)).build());
+                latency.record(System.nanoTime() - start);
+                if (answer.statusCode() != 200) {
+                    failures.incrementAndGet();
+                    return;
+                }
+                int before = board.getMovesCount();
+                board.apply(answer.body());
+                moves.addAndGet(board.getMovesCount() - before);
+
+                if (i % CHECK_INTERVAL == 0 && !board.isGameComplete()) {
+                    RemoteBoard expected = new RemoteBoard();
+                    expected.apply(send(HttpRequest.newBuilder(URI.create(session + "/state?full=true")).build())
+                            .body());
+                    if (!expected.toString().equals(board.toString())) {
+                        System.out.println("Board drifted in " + session + "\n" + board + "expected\n" + expected);
+                        failures.incrementAndGet();
+                        return;
+                    }
+                }
+            }
+            send(HttpRequest.newBuilder(session).DELETE().build());
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Player failed: " + e);
+            failures.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        bytes.addAndGet(response.body().length);
+        return response;
+    }
+}
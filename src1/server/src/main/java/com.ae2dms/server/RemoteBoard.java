@@ -0,0 +1,144 @@
+package com.ae2dms.server;
+
+import java.nio.ByteBuffer;
+
+/**
+ * RemoteBoard is the client side of the {@link WireFormat}: it applies the frames received from a
+ * {@link GameServer} to a local copy of the displayed level. Bots written in Java can play from it.
+ * <p>
+ * Not thread safe.
+ *
+ * @version 2.0
+ */
+public final class RemoteBoard {
+
+    private int levelIndex;
+
+    private int movesCount;
+
+    private int pushesCount;
+
+    private int rows;
+
+    private int columns;
+
+    private byte[] cells = new byte[0];
+
+    private boolean gameComplete;
+
+    /** The time taken to finish the game, in milliseconds */
+    private long gameMillis;
+
+    /**
+     * Applies a frame.
+     *
+     * @param frame the frame received from the server
+     * @throws IllegalArgumentException if the frame is malformed, or is a delta while no level is known
+     */
+    public void apply(byte[] frame) {
+        ByteBuffer in = ByteBuffer.wrap(frame);
+        try {
+            byte type = in.get();
+            int level = (int) WireFormat.readVarint(in);
+            movesCount = (int) WireFormat.readVarint(in);
+            pushesCount = (int) WireFormat.readVarint(in);
+            switch (type) {
+                case WireFormat.FULL:
+                    levelIndex = level;
+                    rows = (int) WireFormat.readVarint(in);
+                    columns = (int) WireFormat.readVarint(in);
+                    cells = new byte[rows * columns];
+                    in.get(cells);
+                    gameComplete = false;
+                    break;
+                case WireFormat.DELTA:
+                    if (level != levelIndex || cells.length == 0) {
+                        throw new IllegalArgumentException("Delta for level " + level + " while on level " + levelIndex);
+                    }
+                    int count = (int) WireFormat.readVarint(in);
+                    int cell = -1;
+                    for (int i = 0; i < count; i++) {
+                        cell += (int) WireFormat.readVarint(in) + 1;
+                        cells[cell] = in.get();
+                    }
+                    break;
+                case WireFormat.COMPLETE:
+                    levelIndex = 0;
+                    gameMillis = WireFormat.readVarint(in);
+                    rows = 0;
+                    columns = 0;
+                    cells = new byte[0];
+                    gameComplete = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown frame type " + type);
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Malformed frame", e);
+        }
+    }
+
+    /**
+     * Returns the symbol of the object displayed at a cell, see {@link com.ae2dms.model.GameObject#symbol}.
+     *
+     * @param row    the row of the cell
+     * @param column the column of the cell
+     * @return the symbol
+     */
+    public char getSymbolAt(int row, int column) {
+        return (char) cells[row * columns + column];
+    }
+
+    public int getLevelIndex() {
+        return levelIndex;
+    }
+
+    public int getMovesCount() {
+        return movesCount;
+    }
+
+    public int getPushesCount() {
+        return pushesCount;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public boolean isGameComplete() {
+        return gameComplete;
+    }
+
+    /**
+     * Returns the time taken to finish the game.
+     *
+     * @return the time in milliseconds, 0 while the game is not complete
+     */
+    public long getGameMillis() {
+        return gameMillis;
+    }
+
+    /**
+     * Returns the board as text, one line per row.
+     *
+     * @return the board
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(rows * (columns + 1));
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                text.append(getSymbolAt(row, column));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.ae2dms.server;
+
+import com.ae2dms.model.GameEngine;
+import com.ae2dms.model.Level;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * SessionView remembers what the client of a session has last been sent, so that the next frame only holds
+ * what changed since. Its methods are called on the command thread of the session.
+ *
+ * @version 2.0
+ */
+final class SessionView {
+
+    /** The name of the player, used in the leaderboard */
+    final String player;
+
+    /** The pack played in the session */
+    final String pack;
+
+    /** The level index last sent, -1 before the first frame */
+    private int levelIndex = -1;
+
+    /** The symbols of the cells last sent */
+    private byte[] cells = new byte[0];
+
+    /** Set once the finished game has been reported to the leaderboard */
+    private boolean recorded = false;
+
+    SessionView(String player, String pack) {
+        this.player = player;
+        this.pack = pack;
+    }
+
+    /**
+     * Encodes the state of the engine and remembers it as sent.
+     * A full frame is sent when asked for or when the level changed, a delta otherwise.
+     *
+     * @param engine the engine of the session
+     * @param full   {@code true} to send the whole level even if the client already has it
+     * @return the frame, see {@link WireFormat}
+     */
+    byte[] encode(GameEngine engine, boolean full) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        if (engine.isGameComplete()) {
+            levelIndex = 0;
+            cells = new byte[0];
+            writeHeader(out, WireFormat.COMPLETE, 0, engine);
+            WireFormat.writeVarint(out, Math.round(engine.gameTime * 1000));
+            return out.toByteArray();
+        }
+        Level level = engine.getCurrentLevel();
+        int rows = level.levelRow;
+        int columns = level.levelColumn;
+        if (full || level.getIndex() != levelIndex || cells.length != rows * columns) {
+            levelIndex = level.getIndex();
+            cells = new byte[rows * columns];
+            writeHeader(out, WireFormat.FULL, levelIndex, engine);
+            WireFormat.writeVarint(out, rows);
+            WireFormat.writeVarint(out, columns);
+            level.forEachCell((row, column, object) -> cells[row * columns + column] = (byte) object.symbol);
+            out.write(cells, 0, cells.length);
+            return out.toByteArray();
+        }
+
+        writeHeader(out, WireFormat.DELTA, levelIndex, engine);
+        ByteArrayOutputStream changes = new ByteArrayOutputStream(16);
+        int count = 0;
+        int previous = -1;
+        for (int row = 0, cell = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++, cell++) {
+                byte symbol = (byte) level.getDisplayedObjectAt(row, column).symbol;
+                if (symbol != cells[cell]) {
+                    cells[cell] = symbol;
+                    WireFormat.writeVarint(changes, cell - previous - 1);
+                    changes.write(symbol);
+                    previous = cell;
+                    count++;
+                }
+            }
+        }
+        WireFormat.writeVarint(out, count);
+        out.writeBytes(changes.toByteArray());
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns {@code true} the first time it is called after the game has been completed, so that the
+     * game is added to the leaderboard once.
+     *
+     * @param engine the engine of the session
+     * @return {@code true} if the finished game has to be recorded
+     */
+    boolean takeFinishedGame(GameEngine engine) {
+        if (!engine.isGameComplete() || recorded) {
+            return false;
+        }
+        recorded = true;
+        return true;
+    }
+
+    /**
+     * Returns {@code true} once the finished game has been recorded. Read after the command that encoded the
+     * last frame has completed.
+     *
+     * @return {@code true} if the game is over
+     */
+    boolean isFinished() {
+        return recorded;
+    }
+
+    private static void writeHeader(ByteArrayOutputStream out, byte type, int levelIndex, GameEngine engine) {
+        out.write(type);
+        WireFormat.writeVarint(out, levelIndex);
+        WireFormat.writeVarint(out, engine.getMovesCount());
+        WireFormat.writeVarint(out, engine.getPushesCount());
+    }
+}
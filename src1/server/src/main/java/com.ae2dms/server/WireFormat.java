@@ -0,0 +1,71 @@
+package com.ae2dms.server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * The binary frames sent by the {@link GameServer} to describe the state of a game.
+ * <p>
+ * Every frame starts with a type byte followed by three unsigned varints (7 bits per byte, lowest first):
+ * the level index, the number of moves and the number of pushes. Then, depending on the type:
+ * <ul>
+ *     <li>{@link #FULL}: the number of rows and of columns, then one byte per cell, row by row, holding the
+ *     symbol of the displayed {@link com.ae2dms.model.GameObject};</li>
+ *     <li>{@link #DELTA}: the number of changed cells, then for each of them, in increasing cell order, the
+ *     number of unchanged cells skipped since the previous change and the new symbol;</li>
+ *     <li>{@link #COMPLETE}: the time taken to finish the game, in milliseconds. The level index is 0.</li>
+ * </ul>
+ * A move usually changes two or three cells, so a delta is a handful of bytes whatever the size of the level.
+ *
+ * @version 2.0
+ */
+final class WireFormat {
+
+    /** The whole level, sent for a new level or on request */
+    static final byte FULL = 0;
+
+    /** The cells changed since the last frame sent to the client */
+    static final byte DELTA = 1;
+
+    /** The game is complete */
+    static final byte COMPLETE = 2;
+
+    /** The media type of the frames */
+    static final String CONTENT_TYPE = "application/octet-stream";
+
+    private WireFormat() {
+    }
+
+    /**
+     * Writes an unsigned varint.
+     *
+     * @param out   the output
+     * @param value the value, not negative
+     */
+    static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Reads an unsigned varint.
+     *
+     * @param in the input, positioned on the varint
+     * @return the value
+     * @throws IllegalArgumentException if the varint is longer than 64 bits
+     */
+    static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
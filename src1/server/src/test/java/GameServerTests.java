@@ -0,0 +1,137 @@
+import com.ae2dms.server.GameServer;
+import com.ae2dms.server.Leaderboard;
+import com.ae2dms.server.RemoteBoard;
+import com.ae2dms.session.SessionManager;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class GameServerTests {
+
+    private static final String PACK = "MapSetName: Server test\n"
+            + "LevelName: One push\n"
+            + "WWWWWWW\n"
+            + "WS CD W\n"
+            + "WWWWWWW\n";
+
+    private SessionManager sessions;
+
+    private GameServer server;
+
+    private HttpClient client;
+
+    private URI base;
+
+    @Before
+    public void setUp() throws Exception {
+        start(Duration.ZERO);
+        client = HttpClient.newHttpClient();
+    }
+
+    private void start(Duration abandonTimeout) throws Exception {
+        sessions = new SessionManager(1 << 20, 1 << 24, Duration.ZERO, false);
+        sessions.registerPack("test", new ByteArrayInputStream(PACK.getBytes(StandardCharsets.UTF_8)));
+        server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), sessions,
+                new Leaderboard(10), abandonTimeout);
+        server.start();
+        base = URI.create("http://localhost:" + server.getPort());
+    }
+
+    @After
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testPlayThroughDeltas() throws Exception {
+        HttpResponse<byte[]> created = post("/sessions?pack=test&player=tester", "");
+        assertEquals(201, created.statusCode());
+        String session = created.headers().firstValue("Location").orElseThrow();
+        RemoteBoard board = new RemoteBoard();
+        board.apply(created.body());
+        assertEquals(1, board.getLevelIndex());
+        assertEquals("WWWWWWW\nWS CD W\nWWWWWWW\n", board.toString());
+
+        HttpResponse<byte[]> moved = post(session + "/moves", "r");
+        assertEquals(200, moved.statusCode());
+        assertTrue("A move should only send the changed cells", moved.body().length < 10);
+        board.apply(moved.body());
+        assertEquals(1, board.getMovesCount());
+        assertEquals("WWWWWWW\nW SCD W\nWWWWWWW\n", board.toString());
+
+        board.apply(post(session + "/moves", "r").body());
+        assertTrue(board.isGameComplete());
+        assertEquals(2, board.getMovesCount());
+        assertEquals(1, board.getPushesCount());
+
+        HttpResponse<byte[]> leaderboard = get("/leaderboard?pack=test");
+        String text = new String(leaderboard.body(), StandardCharsets.UTF_8);
+        assertTrue(text, text.startsWith("1\ttester\t2\t"));
+
+        // The finished game is not kept
+        assertEquals(0, sessions.getSessionCount());
+        assertEquals(404, get(session + "/state").statusCode());
+    }
+
+    @Test
+    public void testAbandonedSessionsAreRemoved() throws Exception {
+        server.close();
+        // Several seconds, so that the test does not depend on the speed of the machine
+        start(Duration.ofSeconds(2));
+        String session = post("/sessions?pack=test", "").headers().firstValue("Location").orElseThrow();
+        long deadline = System.currentTimeMillis() + 15_000;
+        while (sessions.getSessionCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, sessions.getSessionCount());
+        assertEquals(404, get(session + "/state").statusCode());
+    }
+
+    @Test
+    public void testStateAfterMoves() throws Exception {
+        String session = post("/sessions?pack=test", "").headers().firstValue("Location").orElseThrow();
+        HttpResponse<byte[]> unchanged = get(session + "/state");
+        RemoteBoard board = new RemoteBoard();
+        board.apply(get(session + "/state?full=true").body());
+        board.apply(unchanged.body());
+        assertEquals(0, board.getMovesCount());
+        assertEquals('S', board.getSymbolAt(1, 1));
+    }
+
+    @Test
+    public void testErrors() throws Exception {
+        assertEquals(400, post("/sessions?pack=missing", "").statusCode());
+        assertEquals(404, post("/sessions/42/moves", "r").statusCode());
+
+        String session = post("/sessions?pack=test", "").headers().firstValue("Location").orElseThrow();
+        assertEquals(400, post(session + "/moves", "rx").statusCode());
+        HttpResponse<byte[]> deleted = client.send(HttpRequest.newBuilder(base.resolve(session)).DELETE().build(),
+                HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(204, deleted.statusCode());
+        assertEquals(404, get(session + "/state").statusCode());
+        assertFalse(new String(get("/leaderboard?pack=test").body(), StandardCharsets.UTF_8).contains("\t"));
+    }
+
+    private HttpResponse<byte[]> post(String path, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(base.resolve(path))
+                .POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private HttpResponse<byte[]> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(base.resolve(path)).build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+}
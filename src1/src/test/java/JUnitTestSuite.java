@@ -1,13 +0,0 @@
-import org.junit.runner.RunWith;
-import org.junit.runners.Suite;
-
-@RunWith(Suite.class)
-
-@Suite.SuiteClasses({
-        GameEngineTests.class,
-        LevelTests.class,
-        GameGridTests.class
-})
-
-public class JUnitTestSuite {
-}
\ No newline at end of file